@@ -0,0 +1,83 @@
+package com.bankingapp.admission;
+
+/**
+ * Concurrency limit that follows observed latency (AIMD on a latency
+ * gradient).
+ *
+ * Samples are evaluated in windows. If the window's average latency is above
+ * {@code tolerance} times the lowest latency seen recently, the database is
+ * queueing and the limit is cut multiplicatively; if latency is healthy and
+ * the limit was actually used, it grows by one. A call that could not get a
+ * connection at all also cuts the limit. The baseline is re-learned
+ * periodically so that a slower steady state (bigger tables, colder cache)
+ * does not keep the limit pinned at its minimum.
+ *
+ * Not thread-safe; {@link AdmissionController} calls it under its lock.
+ *
+ * @author Avarexity - Whard A.
+ */
+public final class AdaptiveLimit {
+    private static final double BACKOFF = 0.9;
+    private static final int BASELINE_RESET_WINDOWS = 100;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+
+    private double limit;
+    private long baselineNanos = Long.MAX_VALUE;
+    private long windowSum;
+    private int windowCount;
+    private int windowPeakInflight;
+    private int windows;
+
+    public AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 1 <= min <= initial <= max.");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+    }
+
+    public int get() { return (int) limit; }
+
+    /**
+     * Records a completed call.
+     *
+     * @param latencyNanos How long the call took
+     * @param inflight Calls in flight when it started, itself included
+     */
+    public void onSample(long latencyNanos, int inflight) {
+        baselineNanos = Math.min(baselineNanos, latencyNanos);
+        windowSum += latencyNanos;
+        windowCount++;
+        windowPeakInflight = Math.max(windowPeakInflight, inflight);
+
+        if (windowCount < Math.max(10, get())) {
+            return;
+        }
+
+        long average = windowSum / windowCount;
+        if (average > baselineNanos * tolerance) {
+            limit = Math.max(minLimit, limit * BACKOFF);
+        } else if (windowPeakInflight * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+
+        if (++windows % BASELINE_RESET_WINDOWS == 0) {
+            baselineNanos = average;
+        }
+        windowSum = 0;
+        windowCount = 0;
+        windowPeakInflight = 0;
+    }
+
+    /**
+     * Records a call that failed for lack of a connection.
+     */
+    public void onDrop() {
+        limit = Math.max(minLimit, limit * BACKOFF);
+    }
+}
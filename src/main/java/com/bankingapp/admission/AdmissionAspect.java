@@ -0,0 +1,57 @@
+package com.bankingapp.admission;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+/**
+ * Applies {@link Admitted}. Ordered ahead of the transaction interceptor, so
+ * a call is admitted before it takes a connection, and behind read
+ * coalescing, so only the caller that actually queries takes a slot. Nested
+ * admitted calls on the same thread run under the outer call's slot.
+ *
+ * The order must stay behind ExposeInvocationInterceptor
+ * ({@code HIGHEST_PRECEDENCE + 1}): an aspect that binds an annotation
+ * argument needs the invocation exposed before it runs.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+public class AdmissionAspect {
+    private static final ThreadLocal<Boolean> ADMITTED = new ThreadLocal<>();
+
+    private final AdmissionController admission;
+
+    @Autowired
+    public AdmissionAspect(AdmissionController admission) {
+        this.admission = admission;
+    }
+
+    @Around("@annotation(admitted)")
+    public Object admit(ProceedingJoinPoint call, Admitted admitted) throws Throwable {
+        if (ADMITTED.get() != null) {
+            return call.proceed();
+        }
+
+        AdmissionController.Permit permit = admission.acquire(admitted.value());
+        ADMITTED.set(Boolean.TRUE);
+        boolean noConnection = false;
+        try {
+            return call.proceed();
+        } catch (CannotCreateTransactionException | DataAccessResourceFailureException e) {
+            noConnection = true;
+            throw e;
+        } finally {
+            ADMITTED.remove();
+            admission.release(permit, noConnection);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.bankingapp.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control in front of the database-bound service layer.
+ *
+ * At most {@link AdaptiveLimit#get()} calls run at once. Calls over the limit
+ * wait in a bounded queue ordered by {@link Priority} then arrival, each for
+ * no longer than its priority's maximum wait; when the queue is full a new
+ * call displaces the newest call of a lower priority, or is shed itself.
+ * Shed calls fail fast with {@link AdmissionRejectedException} instead of
+ * holding a thread until the pool's connection timeout.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Component
+public class AdmissionController {
+    /**
+     * An admitted call; hand it back to {@link #release} when done.
+     */
+    public record Permit(long startNanos, int inflight) {}
+
+    private static final class Waiter {
+        final Priority priority;
+        final long sequence;
+        final Condition signal;
+        boolean admitted;
+        boolean rejected;
+
+        Waiter(Priority priority, long sequence, Condition signal) {
+            this.priority = priority;
+            this.sequence = sequence;
+            this.signal = signal;
+        }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeSet<Waiter> queue = new TreeSet<>(
+            Comparator.<Waiter>comparingInt(w -> w.priority.ordinal()).thenComparingLong(w -> w.sequence));
+    private final AdaptiveLimit limit;
+    private final int maxQueue;
+    private final Map<Priority, Long> maxWaitNanos = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> rejected = new EnumMap<>(Priority.class);
+    private int inflight;
+    private long sequence;
+
+    @Autowired
+    public AdmissionController(MeterRegistry registry,
+                               @Value("${bankingapp.admission.initial-limit:10}") int initialLimit,
+                               @Value("${bankingapp.admission.min-limit:2}") int minLimit,
+                               @Value("${bankingapp.admission.max-limit:50}") int maxLimit,
+                               @Value("${bankingapp.admission.latency-tolerance:2.0}") double tolerance,
+                               @Value("${bankingapp.admission.max-queue:200}") int maxQueue,
+                               @Value("${bankingapp.admission.max-wait-ms.critical:1000}") long criticalWaitMillis,
+                               @Value("${bankingapp.admission.max-wait-ms.normal:300}") long normalWaitMillis,
+                               @Value("${bankingapp.admission.max-wait-ms.low:50}") long lowWaitMillis) {
+        this.limit = new AdaptiveLimit(initialLimit, minLimit, maxLimit, tolerance);
+        this.maxQueue = maxQueue;
+        maxWaitNanos.put(Priority.CRITICAL, TimeUnit.MILLISECONDS.toNanos(criticalWaitMillis));
+        maxWaitNanos.put(Priority.NORMAL, TimeUnit.MILLISECONDS.toNanos(normalWaitMillis));
+        maxWaitNanos.put(Priority.LOW, TimeUnit.MILLISECONDS.toNanos(lowWaitMillis));
+
+        for (Priority priority : Priority.values()) {
+            rejected.put(priority, Counter.builder("admission.rejected")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(registry));
+        }
+        Gauge.builder("admission.limit", this, AdmissionController::getLimit).register(registry);
+        Gauge.builder("admission.inflight", this, AdmissionController::getInflight).register(registry);
+        Gauge.builder("admission.queued", this, AdmissionController::getQueued).register(registry);
+    }
+
+    /**
+     * Waits for a slot.
+     *
+     * @throws AdmissionRejectedException if the call is shed
+     */
+    public Permit acquire(Priority priority) {
+        lock.lock();
+        try {
+            if (inflight < limit.get() && queue.isEmpty()) {
+                return new Permit(System.nanoTime(), ++inflight);
+            }
+
+            if (queue.size() >= maxQueue) {
+                Waiter worst = queue.last();
+                if (worst.priority.ordinal() <= priority.ordinal()) {
+                    throw reject(priority);
+                }
+                queue.pollLast();
+                worst.rejected = true;
+                worst.signal.signal();
+            }
+
+            Waiter waiter = new Waiter(priority, sequence++, lock.newCondition());
+            queue.add(waiter);
+            long remaining = maxWaitNanos.get(priority);
+            while (!waiter.admitted && !waiter.rejected) {
+                if (remaining <= 0) {
+                    queue.remove(waiter);
+                    throw reject(priority);
+                }
+                try {
+                    remaining = waiter.signal.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    if (queue.remove(waiter)) {
+                        throw reject(priority);
+                    }
+                    break; // admitted or rejected concurrently
+                }
+            }
+            if (waiter.rejected) {
+                throw reject(priority);
+            }
+            return new Permit(System.nanoTime(), inflight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a slot and records how the call went.
+     *
+     * @param noConnection true if the call failed because no connection could be had
+     */
+    public void release(Permit permit, boolean noConnection) {
+        long latency = System.nanoTime() - permit.startNanos();
+        lock.lock();
+        try {
+            inflight--;
+            if (noConnection) {
+                limit.onDrop();
+            } else {
+                limit.onSample(latency, permit.inflight());
+            }
+            while (inflight < limit.get() && !queue.isEmpty()) {
+                Waiter next = queue.pollFirst();
+                next.admitted = true;
+                inflight++;
+                next.signal.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return limit.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInflight() {
+        lock.lock();
+        try {
+            return inflight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getQueued() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private AdmissionRejectedException reject(Priority priority) {
+        rejected.get(priority).increment();
+        return new AdmissionRejectedException("Service busy, " + priority.name().toLowerCase() + " request shed.");
+    }
+}
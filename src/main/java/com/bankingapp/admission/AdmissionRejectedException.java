@@ -0,0 +1,15 @@
+package com.bankingapp.admission;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a call is shed instead of being admitted, because the queue was
+ * full or the call waited longer than its priority allows.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class AdmissionRejectedException extends RuntimeException {
+    public AdmissionRejectedException(String message) {
+        super(message);
+    }
+}
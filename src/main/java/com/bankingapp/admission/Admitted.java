@@ -0,0 +1,15 @@
+package com.bankingapp.admission;
+
+import java.lang.annotation.*;
+
+/**
+ * Runs the annotated service method under {@link AdmissionController}: it
+ * waits for a slot (bounded, by priority) before touching the database, and
+ * its duration feeds the adaptive concurrency limit.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Admitted {
+    Priority value() default Priority.NORMAL;
+}
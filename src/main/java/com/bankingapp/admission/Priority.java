@@ -0,0 +1,14 @@
+package com.bankingapp.admission;
+
+/**
+ * Admission priority of a service call, highest first. When requests queue,
+ * a higher priority is always admitted first and may push out a lower one.
+ */
+public enum Priority {
+    /** Card authorizations and payments, a customer is waiting at a till */
+    CRITICAL,
+    /** Other writes */
+    NORMAL,
+    /** History and report reads */
+    LOW
+}
@@ -0,0 +1,22 @@
+package com.bankingapp.analytics;
+
+import com.bankingapp.model.TransactionState;
+import com.bankingapp.model.TransactionType;
+
+import java.time.LocalDate;
+import java.util.Currency;
+
+/**
+ * One group of an analytics scan. Dimensions that were not grouped by are null.
+ *
+ * @param amount Sum of amounts in minor units; only meaningful per currency
+ */
+public record AggregateRow(
+        LocalDate day,
+        TransactionType type,
+        TransactionState state,
+        Currency currency,
+        long count,
+        long amount
+) {
+}
@@ -0,0 +1,37 @@
+package com.bankingapp.analytics;
+
+import com.bankingapp.model.TransactionState;
+import com.bankingapp.model.TransactionType;
+
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Filter and grouping of an analytics scan.
+ *
+ * @param from Inclusive lower bound of the transaction time
+ * @param to Exclusive upper bound of the transaction time
+ * @param types Types to include, empty for all
+ * @param states States to include, empty for all
+ * @param currency Currency to include, null for all
+ * @param accountId Account to include, null for all
+ * @param groupBy Dimensions to group by, empty for one overall total
+ */
+public record AnalyticsQuery(
+        LocalDateTime from,
+        LocalDateTime to,
+        Set<TransactionType> types,
+        Set<TransactionState> states,
+        Currency currency,
+        Long accountId,
+        Set<GroupBy> groupBy
+) {
+    public static AnalyticsQuery between(LocalDateTime from, LocalDateTime to, GroupBy... groupBy) {
+        EnumSet<GroupBy> groups = EnumSet.noneOf(GroupBy.class);
+        groups.addAll(List.of(groupBy));
+        return new AnalyticsQuery(from, to, Set.of(), Set.of(), null, null, groups);
+    }
+}
@@ -0,0 +1,5 @@
+package com.bankingapp.analytics;
+
+public enum GroupBy {
+    DAY, TYPE, STATE, CURRENCY
+}
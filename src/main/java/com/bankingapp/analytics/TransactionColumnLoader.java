@@ -0,0 +1,109 @@
+package com.bankingapp.analytics;
+
+import com.bankingapp.model.TransactionState;
+import com.bankingapp.model.TransactionType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the {@link TransactionColumnStore} in step with the transactions table.
+ *
+ * Rows are pulled incrementally by timestamp and published in batches. The
+ * timestamp is taken when a transaction is created, not when it commits, so a
+ * row can become visible after later ones were loaded. Each refresh therefore
+ * re-reads {@code overlap-seconds} behind the newest loaded timestamp, longer
+ * than any transaction stays open, and skips the ids it already loaded in
+ * that window. Transactions are insert-only apart from their state; a state
+ * change after a row was loaded is not picked up until the store is rebuilt
+ * on restart.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Service
+public class TransactionColumnLoader {
+    private static final String SELECT_SINCE =
+            "SELECT id, timestamp, amount, type, state, currency, sender_id FROM transactions " +
+            "WHERE timestamp >= ? ORDER BY timestamp";
+    private static final int COMMIT_EVERY = 1 << 16;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionColumnStore store;
+    private final int fetchSize;
+    private final Duration overlap;
+
+    private LocalDateTime watermark = LocalDateTime.of(1970, 1, 1, 0, 0);
+    // Ids loaded at or after watermark - overlap, with their timestamps
+    private final Map<String, LocalDateTime> recent = new HashMap<>();
+
+    @Autowired
+    public TransactionColumnLoader(JdbcTemplate jdbc, TransactionColumnStore store,
+                                   @Value("${bankingapp.analytics.fetch-size:5000}") int fetchSize,
+                                   @Value("${bankingapp.analytics.overlap-seconds:120}") long overlapSeconds) {
+        this.jdbc = jdbc;
+        this.store = store;
+        this.fetchSize = fetchSize;
+        this.overlap = Duration.ofSeconds(overlapSeconds);
+    }
+
+    /**
+     * Loads the transactions added since the last refresh.
+     *
+     * @return Number of rows appended
+     */
+    @Scheduled(fixedDelayString = "${bankingapp.analytics.refresh-interval-ms:30000}")
+    public synchronized long refresh() {
+        long[] appended = {0};
+        jdbc.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_SINCE,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setTimestamp(1, Timestamp.valueOf(watermark.minus(overlap)));
+            return statement;
+        }, rs -> {
+            String id = rs.getString(1);
+            LocalDateTime timestamp = rs.getTimestamp(2).toLocalDateTime();
+            if (recent.putIfAbsent(id, timestamp) != null) {
+                return;
+            }
+            if (timestamp.isAfter(watermark)) {
+                watermark = timestamp;
+            }
+
+            Currency currency = Currency.getInstance(rs.getString(6));
+            store.append(timestamp,
+                    toMinorUnits(rs.getBigDecimal(3), currency),
+                    TransactionType.valueOf(rs.getString(4)),
+                    TransactionState.valueOf(rs.getString(5)),
+                    currency,
+                    rs.getLong(7));
+
+            if (++appended[0] % COMMIT_EVERY == 0) {
+                store.commit();
+            }
+        });
+        store.commit();
+
+        LocalDateTime start = watermark.minus(overlap);
+        recent.values().removeIf(timestamp -> timestamp.isBefore(start));
+        return appended[0];
+    }
+
+    static long toMinorUnits(BigDecimal amount, Currency currency) {
+        int digits = Math.max(currency.getDefaultFractionDigits(), 0);
+        return amount.setScale(digits, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,234 @@
+package com.bankingapp.analytics;
+
+import com.bankingapp.model.TransactionState;
+import com.bankingapp.model.TransactionType;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+
+/**
+ * In-process columnar copy of the transactions table for aggregate scans.
+ *
+ * Each column is a primitive array, split into fixed-size segments so growing
+ * never copies existing data: transaction time as epoch seconds (the stored
+ * local date-time read as UTC), amount in minor units, account id, and type,
+ * state and currency as one-byte codes (ordinals, and a dictionary for
+ * currencies). A row costs 27 bytes.
+ *
+ * There is one writer (the loader) and any number of readers. Appended rows
+ * only become visible to scans on {@link #commit()}; scans read a consistent
+ * prefix and never lock. Scans run over the segments in parallel with a tight,
+ * allocation-free loop per segment and dense per-thread accumulators.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Component
+public class TransactionColumnStore {
+    static final int SEGMENT_BITS = 16;
+    static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    private static final int MAX_GROUPS = 1 << 22;
+    private static final long SECONDS_PER_DAY = 86_400L;
+
+    private static final TransactionType[] TYPES = TransactionType.values();
+    private static final TransactionState[] STATES = TransactionState.values();
+
+    private static final class Segment {
+        final long[] time = new long[SEGMENT_SIZE];
+        final long[] amount = new long[SEGMENT_SIZE];
+        final long[] account = new long[SEGMENT_SIZE];
+        final byte[] type = new byte[SEGMENT_SIZE];
+        final byte[] state = new byte[SEGMENT_SIZE];
+        final byte[] currency = new byte[SEGMENT_SIZE];
+    }
+
+    private final List<Currency> currencies = new CopyOnWriteArrayList<>();
+    private final Map<Currency, Byte> currencyCodes = new ConcurrentHashMap<>();
+
+    private volatile Segment[] segments = new Segment[0];
+    private volatile int size = 0;
+    private int written = 0;
+
+    /**
+     * Appends a row. Not visible to scans until {@link #commit()}; must only be
+     * called by the single loader thread.
+     */
+    public void append(LocalDateTime timestamp, long amount, TransactionType type, TransactionState state,
+                       Currency currency, long accountId) {
+        int row = written;
+        int index = row >>> SEGMENT_BITS;
+        Segment[] current = segments;
+        if (index == current.length) {
+            current = Arrays.copyOf(current, index + 1);
+            current[index] = new Segment();
+            segments = current;
+        }
+
+        Segment segment = current[index];
+        int offset = row & (SEGMENT_SIZE - 1);
+        segment.time[offset] = timestamp.toEpochSecond(ZoneOffset.UTC);
+        segment.amount[offset] = amount;
+        segment.account[offset] = accountId;
+        segment.type[offset] = (byte) type.ordinal();
+        segment.state[offset] = (byte) state.ordinal();
+        segment.currency[offset] = currencyCode(currency);
+        written = row + 1;
+    }
+
+    /**
+     * Makes all appended rows visible to scans.
+     */
+    public void commit() {
+        size = written;
+    }
+
+    public int size() { return size; }
+
+    /**
+     * Filters and aggregates the committed rows.
+     *
+     * @param query The filter and grouping
+     * @return Count and amount per group, only groups with at least one row
+     * @throws IllegalArgumentException if grouping would produce too many groups
+     */
+    public List<AggregateRow> scan(AnalyticsQuery query) {
+        Objects.requireNonNull(query.from(), "Scan start cannot be null.");
+        Objects.requireNonNull(query.to(), "Scan end cannot be null.");
+
+        final int rows = size;
+        final Segment[] snapshot = segments;
+        final List<Currency> dictionary = List.copyOf(currencies);
+
+        final long from = query.from().toEpochSecond(ZoneOffset.UTC);
+        final long to = query.to().toEpochSecond(ZoneOffset.UTC);
+        if (from >= to || rows == 0) {
+            return List.of();
+        }
+
+        final int typeMask = mask(query.types(), TYPES.length);
+        final int stateMask = mask(query.states(), STATES.length);
+        final int currency;
+        if (query.currency() == null) {
+            currency = -1;
+        } else if (currencyCodes.containsKey(query.currency())) {
+            currency = currencyCodes.get(query.currency());
+        } else {
+            return List.of();
+        }
+        final boolean anyAccount = query.accountId() == null;
+        final long accountId = anyAccount ? 0 : query.accountId();
+
+        Set<GroupBy> groupBy = query.groupBy();
+        final long firstDay = Math.floorDiv(from, SECONDS_PER_DAY);
+        final int days = groupBy.contains(GroupBy.DAY) ? (int) (Math.floorDiv(to - 1, SECONDS_PER_DAY) - firstDay + 1) : 1;
+        final int types = groupBy.contains(GroupBy.TYPE) ? TYPES.length : 1;
+        final int states = groupBy.contains(GroupBy.STATE) ? STATES.length : 1;
+        final int currencyGroups = groupBy.contains(GroupBy.CURRENCY) ? Math.max(dictionary.size(), 1) : 1;
+        final boolean byDay = groupBy.contains(GroupBy.DAY);
+        final boolean byType = types > 1;
+        final boolean byState = states > 1;
+        final boolean byCurrency = groupBy.contains(GroupBy.CURRENCY);
+
+        long groups = (long) days * types * states * currencyGroups;
+        if (groups > MAX_GROUPS) {
+            throw new IllegalArgumentException("Query would produce " + groups + " groups, narrow the time range.");
+        }
+        final int groupCount = (int) groups;
+        final int segmentCount = (rows + SEGMENT_SIZE - 1) >>> SEGMENT_BITS;
+
+        // Interleaved count/amount per group, one accumulator per fork/join split
+        long[] totals = IntStream.range(0, segmentCount).parallel().collect(
+                () -> new long[groupCount * 2],
+                (acc, s) -> {
+                    Segment segment = snapshot[s];
+                    int n = Math.min(SEGMENT_SIZE, rows - (s << SEGMENT_BITS));
+                    long[] time = segment.time;
+                    long[] amount = segment.amount;
+                    long[] account = segment.account;
+                    byte[] type = segment.type;
+                    byte[] state = segment.state;
+                    byte[] cur = segment.currency;
+
+                    for (int r = 0; r < n; r++) {
+                        long t = time[r];
+                        int ty = type[r];
+                        int st = state[r];
+                        int cu = cur[r];
+                        if (t < from | t >= to
+                                | ((typeMask >>> ty) & 1) == 0
+                                | ((stateMask >>> st) & 1) == 0
+                                | (currency >= 0 & cu != currency)
+                                | (!anyAccount & account[r] != accountId)) {
+                            continue;
+                        }
+
+                        int group = byDay ? (int) (Math.floorDiv(t, SECONDS_PER_DAY) - firstDay) : 0;
+                        group = group * types + (byType ? ty : 0);
+                        group = group * states + (byState ? st : 0);
+                        group = group * currencyGroups + (byCurrency ? cu : 0);
+
+                        acc[group << 1]++;
+                        acc[(group << 1) + 1] += amount[r];
+                    }
+                },
+                (a, b) -> {
+                    for (int i = 0; i < a.length; i++) {
+                        a[i] += b[i];
+                    }
+                });
+
+        List<AggregateRow> result = new ArrayList<>();
+        for (int group = 0; group < groupCount; group++) {
+            long count = totals[group << 1];
+            if (count == 0) {
+                continue;
+            }
+
+            int g = group;
+            int cu = g % currencyGroups;
+            g /= currencyGroups;
+            int st = g % states;
+            g /= states;
+            int ty = g % types;
+            int day = g / types;
+
+            result.add(new AggregateRow(
+                    byDay ? LocalDate.ofEpochDay(firstDay + day) : null,
+                    byType ? TYPES[ty] : null,
+                    byState ? STATES[st] : null,
+                    byCurrency ? dictionary.get(cu) : null,
+                    count,
+                    totals[(group << 1) + 1]));
+        }
+        return result;
+    }
+
+    private byte currencyCode(Currency currency) {
+        Byte code = currencyCodes.get(currency);
+        if (code == null) {
+            if (currencies.size() > Byte.MAX_VALUE) {
+                throw new IllegalStateException("Too many currencies for a one-byte dictionary.");
+            }
+            code = (byte) currencies.size();
+            currencies.add(currency);
+            currencyCodes.put(currency, code);
+        }
+        return code;
+    }
+
+    private static <E extends Enum<E>> int mask(Set<E> values, int all) {
+        if (values == null || values.isEmpty()) {
+            return (1 << all) - 1;
+        }
+        int mask = 0;
+        for (E value : values) {
+            mask |= 1 << value.ordinal();
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,35 @@
+package com.bankingapp.archive;
+
+import com.bankingapp.dto.TransactionRow;
+import com.bankingapp.model.TransactionState;
+import com.bankingapp.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Currency;
+
+/**
+ * A transaction as stored in an archive segment: the row of the transactions
+ * table with its associations reduced to ids (null when absent).
+ */
+public record ArchivedTransaction(
+        String id,
+        LocalDateTime timestamp,
+        BigDecimal amount,
+        TransactionType type,
+        TransactionState state,
+        Currency currency,
+        long senderId,
+        Long receiverId,
+        Long cardId,
+        Long instituteId,
+        String note
+) {
+    public boolean involves(long accountId) {
+        return senderId == accountId || (receiverId != null && receiverId == accountId);
+    }
+
+    public TransactionRow toRow() {
+        return new TransactionRow(id, timestamp, state, type, currency, amount, note);
+    }
+}
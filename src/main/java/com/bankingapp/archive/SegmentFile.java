@@ -0,0 +1,141 @@
+package com.bankingapp.archive;
+
+import com.bankingapp.model.TransactionState;
+import com.bankingapp.model.TransactionType;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Currency;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Binary format of one archived month.
+ *
+ * The file is a gzip stream (whose own CRC covers the content) of: a header
+ * (magic, version, year, month), one record per transaction in timestamp
+ * order, each preceded by a {@code 1} marker, and a trailer of a {@code 0}
+ * marker followed by the record count. A file without a trailer, or whose
+ * count does not match, is rejected as truncated.
+ *
+ * Amounts are stored as unscaled value and scale; associations as ids with
+ * {@code -1} for none; enums by name so that reordering constants does not
+ * corrupt old segments.
+ *
+ * @author Avarexity - Whard A.
+ */
+public final class SegmentFile {
+    private static final int MAGIC = 0x42545853; // "BTXS"
+    private static final byte VERSION = 1;
+    private static final int BUFFER = 64 * 1024;
+
+    private SegmentFile() {}
+
+    /**
+     * Appends records to a new segment. Records must be written in timestamp order.
+     */
+    public static final class Writer implements Closeable {
+        private final DataOutputStream out;
+        private long count;
+
+        Writer(Path path, int year, int month) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(
+                    new GZIPOutputStream(Files.newOutputStream(path), BUFFER), BUFFER));
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeShort(year);
+            out.writeByte(month);
+        }
+
+        public void write(ArchivedTransaction tx) throws IOException {
+            out.writeByte(1);
+            out.writeUTF(tx.id());
+            out.writeLong(tx.timestamp().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(tx.timestamp().getNano());
+            byte[] unscaled = tx.amount().unscaledValue().toByteArray();
+            out.writeByte(unscaled.length);
+            out.write(unscaled);
+            out.writeShort(tx.amount().scale());
+            out.writeUTF(tx.type().name());
+            out.writeUTF(tx.state().name());
+            out.writeUTF(tx.currency().getCurrencyCode());
+            out.writeLong(tx.senderId());
+            out.writeLong(orNone(tx.receiverId()));
+            out.writeLong(orNone(tx.cardId()));
+            out.writeLong(orNone(tx.instituteId()));
+            out.writeBoolean(tx.note() != null);
+            if (tx.note() != null) {
+                out.writeUTF(tx.note());
+            }
+            count++;
+        }
+
+        public long count() { return count; }
+
+        @Override
+        public void close() throws IOException {
+            out.writeByte(0);
+            out.writeLong(count);
+            out.close();
+        }
+    }
+
+    /**
+     * Reads every record of a segment in order.
+     *
+     * @return Number of records read
+     * @throws IOException if the file is unreadable, corrupt or truncated
+     */
+    public static long read(Path path, Consumer<ArchivedTransaction> sink) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(path), BUFFER), BUFFER))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                throw new IOException("Not a transaction segment: " + path);
+            }
+            in.readShort(); // year
+            in.readByte();  // month
+
+            long count = 0;
+            while (in.readByte() == 1) {
+                String id = in.readUTF();
+                LocalDateTime timestamp = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+                byte[] unscaled = new byte[in.readUnsignedByte()];
+                in.readFully(unscaled);
+                BigDecimal amount = new BigDecimal(new BigInteger(unscaled), in.readShort());
+                TransactionType type = TransactionType.valueOf(in.readUTF());
+                TransactionState state = TransactionState.valueOf(in.readUTF());
+                Currency currency = Currency.getInstance(in.readUTF());
+                long sender = in.readLong();
+                Long receiver = idOrNull(in.readLong());
+                Long card = idOrNull(in.readLong());
+                Long institute = idOrNull(in.readLong());
+                String note = in.readBoolean() ? in.readUTF() : null;
+
+                sink.accept(new ArchivedTransaction(id, timestamp, amount, type, state, currency,
+                        sender, receiver, card, institute, note));
+                count++;
+            }
+
+            if (in.readLong() != count) {
+                throw new IOException("Segment record count mismatch: " + path);
+            }
+            return count;
+        } catch (EOFException e) {
+            throw new IOException("Truncated segment: " + path, e);
+        }
+    }
+
+    private static long orNone(Long id) {
+        return id == null ? -1 : id;
+    }
+
+    private static Long idOrNull(long id) {
+        return id < 0 ? null : id;
+    }
+}
@@ -0,0 +1,103 @@
+package com.bankingapp.archive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.YearMonth;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Directory of immutable archive segments, one per month, named
+ * {@code transactions-<yyyy-MM>.seg.gz}.
+ *
+ * A segment is written to a temporary file, synced, moved into place and made
+ * read-only; only then is its month registered, so readers never see a
+ * partial segment and a crash mid-write leaves nothing but a temp file.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Component
+public class SegmentStore {
+    @FunctionalInterface
+    public interface SegmentSource {
+        void writeTo(SegmentFile.Writer writer) throws IOException;
+    }
+
+    private static final String PREFIX = "transactions-";
+    private static final String SUFFIX = ".seg.gz";
+
+    private final Path directory;
+    private final NavigableSet<YearMonth> months = new ConcurrentSkipListSet<>();
+
+    public SegmentStore(@Value("${bankingapp.archive.directory:archive}") Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(this.directory)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.startsWith(PREFIX) && name.endsWith(SUFFIX))
+                    .map(name -> YearMonth.parse(name.substring(PREFIX.length(), name.length() - SUFFIX.length())))
+                    .forEach(months::add);
+        }
+    }
+
+    /**
+     * @return Archived months in ascending order (live view)
+     */
+    public NavigableSet<YearMonth> months() {
+        return months;
+    }
+
+    public Optional<YearMonth> latest() {
+        return months.isEmpty() ? Optional.empty() : Optional.of(months.last());
+    }
+
+    /**
+     * Writes a month's segment.
+     *
+     * @return Number of records written
+     * @throws IllegalStateException if the month is already archived
+     */
+    public long write(YearMonth month, SegmentSource source) throws IOException {
+        if (months.contains(month)) {
+            throw new IllegalStateException("Month " + month + " is already archived.");
+        }
+
+        Path target = pathOf(month);
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        long count;
+        try (SegmentFile.Writer writer = new SegmentFile.Writer(temp, month.getYear(), month.getMonthValue())) {
+            source.writeTo(writer);
+            count = writer.count();
+        }
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        target.toFile().setReadOnly();
+        months.add(month);
+        return count;
+    }
+
+    /**
+     * Reads every record of an archived month in timestamp order.
+     */
+    public void read(YearMonth month, Consumer<ArchivedTransaction> sink) {
+        try {
+            SegmentFile.read(pathOf(month), sink);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path pathOf(YearMonth month) {
+        return directory.resolve(PREFIX + month + SUFFIX);
+    }
+}
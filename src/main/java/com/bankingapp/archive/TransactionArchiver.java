@@ -0,0 +1,140 @@
+package com.bankingapp.archive;
+
+import com.bankingapp.model.TransactionState;
+import com.bankingapp.model.TransactionType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.Currency;
+
+/**
+ * Moves whole months of transactions older than the retention window out of
+ * the transactions table into archive segments.
+ *
+ * Months are archived oldest first, so the archive is always a contiguous
+ * prefix of history and {@link TransactionPartitionRouter} can tell archived
+ * from live months by date alone. A month is streamed into its segment, the
+ * segment is published, and only then are the month's rows deleted in
+ * batches; if the process dies in between, the next run finds the segment and
+ * finishes the delete. Transactions are stamped with their creation time, so a
+ * month past the retention window receives no new rows while it is archived.
+ *
+ * Spend rollups are kept; rollup verification only covers live months.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Service
+public class TransactionArchiver {
+    private static final String SELECT_MONTH =
+            "SELECT id, timestamp, amount, type, state, currency, sender_id, receiver_id, card_id, institute_id, note " +
+            "FROM transactions WHERE timestamp >= ? AND timestamp < ? ORDER BY timestamp, id";
+
+    private final JdbcTemplate jdbc;
+    private final SegmentStore segments;
+    private final int retainMonths;
+    private final int deleteBatch;
+    private final int fetchSize;
+
+    @Autowired
+    public TransactionArchiver(JdbcTemplate jdbc, SegmentStore segments,
+                               @Value("${bankingapp.archive.retain-months:12}") int retainMonths,
+                               @Value("${bankingapp.archive.delete-batch:10000}") int deleteBatch,
+                               @Value("${bankingapp.archive.fetch-size:5000}") int fetchSize) {
+        if (retainMonths < 1) {
+            throw new IllegalArgumentException("At least the current month must be retained.");
+        }
+        this.jdbc = jdbc;
+        this.segments = segments;
+        this.retainMonths = retainMonths;
+        this.deleteBatch = deleteBatch;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Archives every month before the retention window.
+     *
+     * @return Number of transactions moved to the archive
+     */
+    @Scheduled(cron = "${bankingapp.archive.cron:0 30 2 1 * *}")
+    public synchronized long archive() throws IOException {
+        Timestamp oldest = jdbc.queryForObject("SELECT MIN(timestamp) FROM transactions", Timestamp.class);
+        if (oldest == null) {
+            return 0;
+        }
+
+        YearMonth cutoff = YearMonth.now().minusMonths(retainMonths - 1L);
+        long archived = 0;
+        for (YearMonth month = YearMonth.from(oldest.toLocalDateTime()); month.isBefore(cutoff); month = month.plusMonths(1)) {
+            archived += archiveMonth(month);
+        }
+        return archived;
+    }
+
+    private long archiveMonth(YearMonth month) throws IOException {
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+
+        long written = 0;
+        if (!segments.months().contains(month)) {
+            written = segments.write(month, writer -> {
+                try {
+                    jdbc.query(connection -> {
+                        PreparedStatement statement = connection.prepareStatement(SELECT_MONTH,
+                                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        statement.setFetchSize(fetchSize);
+                        statement.setTimestamp(1, from);
+                        statement.setTimestamp(2, to);
+                        return statement;
+                    }, rs -> {
+                        try {
+                            writer.write(read(rs));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+
+        // The segment is durable; drop the month from the table in small transactions
+        int deleted;
+        do {
+            deleted = jdbc.update("DELETE FROM transactions WHERE timestamp >= ? AND timestamp < ? LIMIT ?",
+                    from, to, deleteBatch);
+        } while (deleted == deleteBatch);
+        return written;
+    }
+
+    private static ArchivedTransaction read(ResultSet rs) throws SQLException {
+        return new ArchivedTransaction(
+                rs.getString(1),
+                rs.getTimestamp(2).toLocalDateTime(),
+                rs.getBigDecimal(3),
+                TransactionType.valueOf(rs.getString(4)),
+                TransactionState.valueOf(rs.getString(5)),
+                Currency.getInstance(rs.getString(6)),
+                rs.getLong(7),
+                nullableLong(rs, 8),
+                nullableLong(rs, 9),
+                nullableLong(rs, 10),
+                rs.getString(11));
+    }
+
+    private static Long nullableLong(ResultSet rs, int column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+}
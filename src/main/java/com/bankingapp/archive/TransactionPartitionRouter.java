@@ -0,0 +1,70 @@
+package com.bankingapp.archive;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Splits a time range between the live transactions table and the monthly
+ * archive segments. Archived months always precede the months still in the
+ * table, so a range maps to the archived months it overlaps plus, if it
+ * reaches past the newest archived month, a table range starting no earlier
+ * than the first live month. Months outside the range are never opened.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Component
+public class TransactionPartitionRouter {
+    /**
+     * Where to read a range from.
+     *
+     * @param archived Archived months to scan, ascending
+     * @param liveFrom Inclusive start of the table range, null if the table need not be queried
+     * @param liveTo Exclusive end of the table range
+     */
+    public record Route(List<YearMonth> archived, LocalDateTime liveFrom, LocalDateTime liveTo) {
+        public boolean includesLive() { return liveFrom != null; }
+    }
+
+    private final SegmentStore segments;
+
+    @Autowired
+    public TransactionPartitionRouter(SegmentStore segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * @param from Inclusive start
+     * @param to Exclusive end
+     */
+    public Route route(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return new Route(List.of(), null, null);
+        }
+
+        YearMonth latest = segments.latest().orElse(null);
+        if (latest == null) {
+            return new Route(List.of(), from, to);
+        }
+
+        YearMonth first = YearMonth.from(from);
+        YearMonth last = YearMonth.from(to.minusNanos(1));
+        List<YearMonth> archived = List.copyOf(segments.months().subSet(first, true, last, true));
+
+        LocalDateTime liveStart = latest.plusMonths(1).atDay(1).atStartOfDay();
+        if (!to.isAfter(liveStart)) {
+            return new Route(archived, null, null);
+        }
+        return new Route(archived, from.isAfter(liveStart) ? from : liveStart, to);
+    }
+
+    /**
+     * @return Every archived month, for queries without a time bound
+     */
+    public List<YearMonth> allArchived() {
+        return List.copyOf(segments.months());
+    }
+}
@@ -0,0 +1,138 @@
+package com.bankingapp.audit;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32C;
+
+/**
+ * Bounded ring of pending audit records: many producers, one consumer, no
+ * locks.
+ *
+ * A producer claims the next sequence with a CAS on {@code claimed}, fills
+ * the slot's fields and publishes it by storing {@code sequence + 1} into
+ * the slot's marker. The consumer encodes published slots in sequence order
+ * and only frees them ({@link #advance}) once they are on disk, so a failed
+ * write loses nothing. A producer that finds the ring full waits for the
+ * consumer instead of dropping the record: the audit log must be complete,
+ * so a stalled disk eventually holds up balance changes rather than hiding
+ * them.
+ *
+ * @author Avarexity - Whard A.
+ */
+final class AuditBuffer {
+    private final int capacity;
+    private final int mask;
+    private final long[] timestamps;
+    private final long[] subjects;
+    private final long[] accounts;
+    private final long[] befores;
+    private final long[] afters;
+    private final short[] kinds;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong fullWaits = new AtomicLong();
+    private final CRC32C crc = new CRC32C();
+    private volatile long consumed;
+
+    AuditBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two.");
+        }
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.timestamps = new long[capacity];
+        this.subjects = new long[capacity];
+        this.accounts = new long[capacity];
+        this.befores = new long[capacity];
+        this.afters = new long[capacity];
+        this.kinds = new short[capacity];
+        this.published = new AtomicLongArray(capacity);
+    }
+
+    /**
+     * Adds a record, waiting while the ring is full.
+     *
+     * @return Sequence of the record
+     */
+    long put(long timestampMicros, byte type, long subjectId, long accountId, long before, long after, byte scale) {
+        long sequence = claim();
+        int slot = (int) (sequence & mask);
+        timestamps[slot] = timestampMicros;
+        subjects[slot] = subjectId;
+        accounts[slot] = accountId;
+        befores[slot] = before;
+        afters[slot] = after;
+        kinds[slot] = (short) ((type << 8) | (scale & 0xFF));
+        published.set(slot, sequence + 1);
+        return sequence;
+    }
+
+    private long claim() {
+        boolean counted = false;
+        for (int spins = 0; ; spins++) {
+            long next = claimed.get();
+            if (next - consumed >= capacity) {
+                if (!counted) {
+                    fullWaits.incrementAndGet();
+                    counted = true;
+                }
+                if (spins < 100) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(50_000);
+                }
+            } else if (claimed.compareAndSet(next, next + 1)) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Encodes the published records that follow the last consumed one, in
+     * sequence order, without consuming them. Consumer thread only.
+     *
+     * @return Number of records encoded
+     */
+    int peek(ByteBuffer out) {
+        long sequence = consumed;
+        int count = 0;
+        while (out.remaining() >= AuditSegment.RECORD_SIZE) {
+            int slot = (int) (sequence & mask);
+            if (published.get(slot) != sequence + 1) {
+                break;
+            }
+            short kind = kinds[slot];
+            AuditSegment.writeRecord(out, timestamps[slot], (byte) (kind >> 8), subjects[slot], accounts[slot],
+                    befores[slot], afters[slot], (byte) kind, crc);
+            sequence++;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Frees the first {@code count} unconsumed slots. Consumer thread only.
+     */
+    void advance(int count) {
+        consumed += count;
+    }
+
+    /**
+     * @return Sequence of the next record the consumer will take
+     */
+    long consumed() { return consumed; }
+
+    /**
+     * Starts the sequence at {@code first}; before any producer runs.
+     */
+    void startAt(long first) {
+        claimed.set(first);
+        consumed = first;
+    }
+
+    int pending() { return (int) (claimed.get() - consumed); }
+
+    long fullWaits() { return fullWaits.get(); }
+}
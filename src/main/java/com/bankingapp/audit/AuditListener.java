@@ -0,0 +1,97 @@
+package com.bankingapp.audit;
+
+import com.bankingapp.model.Account;
+import com.bankingapp.model.CreditCard;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.*;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Feeds the {@link AuditLog} from Hibernate: after a transaction commits,
+ * every {@link Account} whose balance and every {@link CreditCard} whose used
+ * credit it changed gets one record. Rolled-back changes are never recorded.
+ *
+ * Old values come from the persistence context's snapshot; an entity merged
+ * without having been loaded in the same session has none, and its record
+ * carries an unknown before value. Posted balances are written behind
+ * Hibernate's back and recorded by {@code BalanceCache} on commit.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Component
+public class AuditListener implements PostCommitUpdateEventListener, PostCommitInsertEventListener {
+    private final AuditLog log;
+    private final Map<String, Integer> propertyIndexes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AuditListener(EntityManagerFactory entityManagerFactory, AuditLog log) {
+        this.log = log;
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().requireService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        listeners.appendListeners(EventType.POST_COMMIT_INSERT, this);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (!requiresPostCommitHandling(event.getPersister())) {
+            return;
+        }
+        int index = auditedProperty(event.getPersister());
+        BigDecimal after = (BigDecimal) event.getState()[index];
+        BigDecimal before = event.getOldState() == null ? null : (BigDecimal) event.getOldState()[index];
+        if (after == null || (before != null && before.compareTo(after) == 0)) {
+            return;
+        }
+        append(event.getEntity(), before, after);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (!requiresPostCommitHandling(event.getPersister())) {
+            return;
+        }
+        BigDecimal after = (BigDecimal) event.getState()[auditedProperty(event.getPersister())];
+        if (after != null && after.signum() != 0) {
+            append(event.getEntity(), BigDecimal.ZERO, after);
+        }
+    }
+
+    private void append(Object entity, BigDecimal before, BigDecimal after) {
+        if (entity instanceof Account account) {
+            log.append(AuditType.ACCOUNT_BALANCE, account.getId(), account.getId(), before, after);
+        } else if (entity instanceof CreditCard card) {
+            long accountId = card.getAccount() == null ? -1 : card.getAccount().getId();
+            log.append(AuditType.CARD_CREDIT_USED, card.getId(), accountId, before, after);
+        }
+    }
+
+    private int auditedProperty(EntityPersister persister) {
+        return propertyIndexes.computeIfAbsent(persister.getEntityName(), name -> {
+            String property = Account.class.getName().equals(name) ? "balance" : "creditUsed";
+            return Arrays.asList(persister.getPropertyNames()).indexOf(property);
+        });
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        String name = persister.getEntityName();
+        return Account.class.getName().equals(name) || CreditCard.class.getName().equals(name);
+    }
+
+    // Nothing is recorded for a change that did not commit
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {}
+}
@@ -0,0 +1,237 @@
+package com.bankingapp.audit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only binary log of every change to an account balance or a credit
+ * card's used credit, kept for compliance outside the database.
+ *
+ * Callers only copy a record into the {@link AuditBuffer}; a single writer
+ * thread moves whatever has been published to the current segment in one
+ * write (and, with {@code sync}, one fsync), so a burst of changes costs one
+ * disk round trip rather than one per change. Segments are rotated at
+ * {@code segment-bytes}, made read-only once closed and named after the
+ * sequence of their first record; see {@link AuditSegment} for the format
+ * and {@link AuditLogReader} for decoding them.
+ *
+ * On start the log continues after the last valid record on disk in a new
+ * segment. A write that fails is retried, records stay in the buffer until
+ * they are on disk; failures show up in {@code audit.write.failures}.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Component
+public class AuditLog {
+    private static final long RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int BATCH_RECORDS = 1024;
+    private static final int MAX_SCALE = 18;
+
+    private final Path directory;
+    private final AuditBuffer buffer;
+    private final long segmentBytes;
+    private final boolean sync;
+    private final long idleNanos;
+    private final ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_RECORDS * AuditSegment.RECORD_SIZE);
+    private final Counter written;
+    private final Counter failures;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // Writer thread only
+    private FileChannel segment;
+    private Path segmentPath;
+    private long segmentSize;
+
+    @Autowired
+    public AuditLog(MeterRegistry registry,
+                    @Value("${bankingapp.audit.directory:audit}") Path directory,
+                    @Value("${bankingapp.audit.buffer-capacity:65536}") int capacity,
+                    @Value("${bankingapp.audit.segment-bytes:67108864}") long segmentBytes,
+                    @Value("${bankingapp.audit.sync:true}") boolean sync,
+                    @Value("${bankingapp.audit.idle-wait-us:200}") long idleMicros) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.buffer = new AuditBuffer(capacity);
+        this.segmentBytes = Math.max(segmentBytes, AuditSegment.HEADER_SIZE + (long) batch.capacity());
+        this.sync = sync;
+        this.idleNanos = TimeUnit.MICROSECONDS.toNanos(idleMicros);
+        this.buffer.startAt(recover());
+
+        this.written = Counter.builder("audit.records.written").register(registry);
+        this.failures = Counter.builder("audit.write.failures").register(registry);
+        Gauge.builder("audit.buffer.pending", buffer, AuditBuffer::pending).register(registry);
+        FunctionCounter.builder("audit.buffer.full", buffer, AuditBuffer::fullWaits)
+                .description("Appends that had to wait for the writer")
+                .register(registry);
+
+        this.writer = Thread.ofPlatform().name("audit-writer").daemon().start(this::run);
+    }
+
+    /**
+     * Records a change. Returns once the record is buffered, not once it is on disk.
+     *
+     * @param before Value before the change, null if unknown
+     * @return Sequence of the record
+     * @throws IllegalArgumentException if the values do not fit the record format
+     */
+    public long append(AuditType type, long subjectId, long accountId, BigDecimal before, BigDecimal after) {
+        int scale = Math.max(0, Math.max(after.scale(), before == null ? 0 : before.scale()));
+        if (scale > MAX_SCALE) {
+            throw new IllegalArgumentException("Scale " + scale + " is too large for an audit record.");
+        }
+        long afterUnscaled = after.setScale(scale).unscaledValue().longValueExact();
+        long beforeUnscaled = before == null
+                ? AuditSegment.UNKNOWN
+                : before.setScale(scale).unscaledValue().longValueExact();
+
+        Instant now = Instant.now();
+        long micros = now.getEpochSecond() * 1_000_000L + now.getNano() / 1_000;
+        return buffer.put(micros, type.code(), subjectId, accountId, beforeUnscaled, afterUnscaled, (byte) scale);
+    }
+
+    public Path directory() { return directory; }
+
+    /**
+     * @return Sequence of the next record to reach disk
+     */
+    public long durable() { return buffer.consumed(); }
+
+    private void run() {
+        while (true) {
+            batch.clear();
+            int count = buffer.peek(batch);
+            if (count == 0) {
+                if (!running) {
+                    break;
+                }
+                LockSupport.parkNanos(idleNanos);
+                continue;
+            }
+
+            batch.flip();
+            try {
+                write(count);
+                buffer.advance(count);
+                written.increment(count);
+            } catch (IOException e) {
+                failures.increment();
+                discardPartialWrite();
+                LockSupport.parkNanos(RETRY_NANOS);
+            }
+        }
+        closeSegment();
+    }
+
+    private void write(int count) throws IOException {
+        if (segment != null && segmentSize + batch.remaining() > segmentBytes) {
+            closeSegment();
+        }
+        if (segment == null) {
+            openSegment(buffer.consumed());
+        }
+        while (batch.hasRemaining()) {
+            segment.write(batch);
+        }
+        if (sync) {
+            segment.force(false);
+        }
+        segmentSize += (long) count * AuditSegment.RECORD_SIZE;
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(AuditSegment.fileName(firstSequence));
+        // A file of the same name can only hold records that were never acknowledged
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(AuditSegment.HEADER_SIZE);
+            AuditSegment.writeHeader(header, firstSequence);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        segment = channel;
+        segmentPath = path;
+        segmentSize = AuditSegment.HEADER_SIZE;
+    }
+
+    // Cut the segment back to its acknowledged records; if that fails too, continue in a new segment
+    private void discardPartialWrite() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.truncate(segmentSize);
+            segment.position(segmentSize);
+        } catch (IOException e) {
+            closeSegment();
+        }
+    }
+
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try (FileChannel closing = segment) {
+            closing.force(true);
+        } catch (IOException e) {
+            failures.increment();
+        }
+        // A segment without records is removed, so its name is free for the retry
+        if (segmentSize > AuditSegment.HEADER_SIZE || !segmentPath.toFile().delete()) {
+            segmentPath.toFile().setReadOnly();
+        }
+        segment = null;
+        segmentPath = null;
+    }
+
+    /**
+     * Seals the last segment of a previous run.
+     *
+     * @return Sequence of the first record of this run
+     */
+    private long recover() throws IOException {
+        List<Path> segments = AuditLogReader.segments(directory);
+        if (segments.isEmpty()) {
+            return 0;
+        }
+        Path last = segments.getLast();
+        long first = AuditSegment.firstSequence(last.getFileName().toString());
+        long count = AuditSegment.read(last, record -> {});
+        if (count == 0) {
+            Files.delete(last);
+        } else {
+            last.toFile().setReadOnly();
+        }
+        return first + count;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+    }
+}
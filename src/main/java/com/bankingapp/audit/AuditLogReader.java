@@ -0,0 +1,140 @@
+package com.bankingapp.audit;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Decodes and filters the audit log, from code or from the command line:
+ *
+ * <pre>
+ * java -cp target/classes com.bankingapp.audit.AuditLogReader audit \
+ *     [--account=ID] [--subject=ID] [--type=ACCOUNT_BALANCE|CARD_CREDIT_USED] \
+ *     [--from=2025-01-01T00:00:00Z] [--to=2025-02-01T00:00:00Z] [--count]
+ * </pre>
+ *
+ * Prints one CSV line per matching record ({@code sequence,timestamp,type,
+ * subject,account,before,after}; before is empty when unknown), or only the
+ * number of matches with {@code --count}. Segments are memory-mapped and the
+ * filter is applied to the raw fixed-size records, so only matches are
+ * decoded. The reader needs nothing but the JDK.
+ *
+ * @author Avarexity - Whard A.
+ */
+public final class AuditLogReader {
+
+    /**
+     * Record filter; null fields and open time bounds match everything.
+     *
+     * @param fromMicros Inclusive lower bound, microseconds since the epoch
+     * @param toMicros Exclusive upper bound, microseconds since the epoch
+     */
+    public record Filter(Long accountId, Long subjectId, AuditType type, long fromMicros, long toMicros) {
+        public static final Filter ALL = new Filter(null, null, null, Long.MIN_VALUE, Long.MAX_VALUE);
+
+        boolean matches(ByteBuffer in, int start) {
+            long micros = in.getLong(start);
+            return micros >= fromMicros && micros < toMicros
+                    && (subjectId == null || in.getLong(start + 8) == subjectId)
+                    && (accountId == null || in.getLong(start + 16) == accountId)
+                    && (type == null || in.get(start + 40) == type.code());
+        }
+    }
+
+    private AuditLogReader() {}
+
+    /**
+     * @return The directory's segments in sequence order
+     */
+    public static List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> AuditSegment.firstSequence(p.getFileName().toString()) >= 0)
+                    .sorted(Comparator.comparingLong(p -> AuditSegment.firstSequence(p.getFileName().toString())))
+                    .toList();
+        }
+    }
+
+    /**
+     * Passes every matching record of the log to {@code sink}, in sequence order.
+     *
+     * A segment abandoned after a failed write may end with records that were
+     * written again at the start of the next segment; those are read from the
+     * next segment only.
+     *
+     * @return Number of valid records scanned
+     */
+    public static long scan(Path directory, Filter filter, Consumer<AuditRecord> sink) throws IOException {
+        List<Path> segments = segments(directory);
+        long scanned = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            long limit = Long.MAX_VALUE;
+            if (i + 1 < segments.size()) {
+                limit = firstSequence(segments.get(i + 1)) - firstSequence(segments.get(i));
+            }
+            scanned += AuditSegment.read(segments.get(i), limit, filter, sink);
+        }
+        return scanned;
+    }
+
+    private static long firstSequence(Path segment) {
+        return AuditSegment.firstSequence(segment.getFileName().toString());
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: AuditLogReader <directory> [--account=ID] [--subject=ID] [--type=TYPE] " +
+                    "[--from=INSTANT] [--to=INSTANT] [--count]");
+            System.exit(2);
+        }
+
+        Path directory = Path.of(args[0]);
+        Long account = null;
+        Long subject = null;
+        AuditType type = null;
+        long from = Long.MIN_VALUE;
+        long to = Long.MAX_VALUE;
+        boolean countOnly = false;
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--account=")) account = Long.parseLong(value);
+            else if (arg.startsWith("--subject=")) subject = Long.parseLong(value);
+            else if (arg.startsWith("--type=")) type = AuditType.valueOf(value);
+            else if (arg.startsWith("--from=")) from = micros(Instant.parse(value));
+            else if (arg.startsWith("--to=")) to = micros(Instant.parse(value));
+            else if (arg.equals("--count")) countOnly = true;
+            else throw new IllegalArgumentException("Unknown option " + arg);
+        }
+        Filter filter = new Filter(account, subject, type, from, to);
+
+        if (countOnly) {
+            long[] matches = {0};
+            scan(directory, filter, record -> matches[0]++);
+            System.out.println(matches[0]);
+            return;
+        }
+
+        PrintWriter out = new PrintWriter(new BufferedWriter(
+                new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16));
+        out.println("sequence,timestamp,type,subject,account,before,after");
+        scan(directory, filter, record -> out.append(Long.toString(record.sequence())).append(',')
+                .append(record.timestamp().toString()).append(',')
+                .append(record.type().name()).append(',')
+                .append(Long.toString(record.subjectId())).append(',')
+                .append(Long.toString(record.accountId())).append(',')
+                .append(record.before() == null ? "" : record.before().toPlainString()).append(',')
+                .append(record.after().toPlainString()).append('\n'));
+        out.flush();
+    }
+
+    private static long micros(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000L + instant.getNano() / 1_000;
+    }
+}
@@ -0,0 +1,16 @@
+package com.bankingapp.audit;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One decoded audit record.
+ *
+ * @param sequence Position in the log, gap-free from 0
+ * @param subjectId Account id for {@code ACCOUNT_BALANCE}, card id for {@code CARD_CREDIT_USED}
+ * @param accountId The account the change belongs to
+ * @param before Value before the change, null if it was not known (entity updated without being loaded)
+ */
+public record AuditRecord(long sequence, Instant timestamp, AuditType type, long subjectId, long accountId,
+                          BigDecimal before, BigDecimal after) {
+}
@@ -0,0 +1,160 @@
+package com.bankingapp.audit;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary format of one audit log segment.
+ *
+ * A segment is a 16 byte header (magic, version, record size, sequence of
+ * its first record) followed by fixed-size 48 byte records:
+ *
+ * <pre>
+ *  0  long   timestamp, microseconds since the epoch
+ *  8  long   subject id (account or card)
+ * 16  long   account id
+ * 24  long   before, unscaled ({@link Long#MIN_VALUE} if unknown)
+ * 32  long   after, unscaled
+ * 40  byte   type code
+ * 41  byte   scale of before and after
+ * 42  short  reserved
+ * 44  int    CRC32C of bytes 0-43
+ * </pre>
+ *
+ * The fixed size makes the n-th record of a segment a seek away and lets a
+ * reader map a segment and walk it without parsing. The per-record checksum
+ * tells a torn tail (crash mid-write) from a valid record; a segment is only
+ * ever appended to, so anything after the first bad record is discarded.
+ *
+ * @author Avarexity - Whard A.
+ */
+public final class AuditSegment {
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = 48;
+    public static final long UNKNOWN = Long.MIN_VALUE;
+
+    static final String PREFIX = "audit-";
+    static final String SUFFIX = ".log";
+
+    private static final int MAGIC = 0x42415544; // "BAUD"
+    private static final byte VERSION = 1;
+    private static final int CHECKED = 44;
+
+    private AuditSegment() {}
+
+    static String fileName(long firstSequence) {
+        return String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX);
+    }
+
+    /**
+     * @return Sequence of the segment's first record, -1 if the name is not a segment's
+     */
+    static long firstSequence(String fileName) {
+        if (!fileName.startsWith(PREFIX) || !fileName.endsWith(SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(fileName.substring(PREFIX.length(), fileName.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    static void writeHeader(ByteBuffer out, long firstSequence) {
+        out.putInt(MAGIC);
+        out.put(VERSION);
+        out.put((byte) RECORD_SIZE);
+        out.putShort((short) 0);
+        out.putLong(firstSequence);
+    }
+
+    static void writeRecord(ByteBuffer out, long timestampMicros, byte type, long subjectId, long accountId,
+                            long before, long after, byte scale, CRC32C crc) {
+        int start = out.position();
+        out.putLong(timestampMicros);
+        out.putLong(subjectId);
+        out.putLong(accountId);
+        out.putLong(before);
+        out.putLong(after);
+        out.put(type);
+        out.put(scale);
+        out.putShort((short) 0);
+        crc.reset();
+        crc.update(out.slice(start, CHECKED));
+        out.putInt((int) crc.getValue());
+    }
+
+    /**
+     * Reads the valid records of a segment in order, stopping at the first
+     * torn or corrupt one.
+     *
+     * @return Number of records read
+     * @throws IOException if the file is unreadable or not an audit segment
+     */
+    public static long read(Path path, Consumer<AuditRecord> sink) throws IOException {
+        return read(path, Long.MAX_VALUE, AuditLogReader.Filter.ALL, sink);
+    }
+
+    /**
+     * Reads up to {@code limit} valid records of a segment, passing on those
+     * the filter accepts. The filter sees the raw record, so records it
+     * rejects are never decoded.
+     *
+     * @return Number of valid records, matching or not
+     */
+    static long read(Path path, long limit, AuditLogReader.Filter filter, Consumer<AuditRecord> sink)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Truncated audit segment: " + path);
+            }
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != MAGIC || in.get() != VERSION || in.get() != RECORD_SIZE) {
+                throw new IOException("Not an audit segment: " + path);
+            }
+            in.getShort();
+            long sequence = in.getLong();
+
+            CRC32C crc = new CRC32C();
+            long count = 0;
+            while (count < limit && in.remaining() >= RECORD_SIZE) {
+                int start = in.position();
+                crc.reset();
+                crc.update(in.slice(start, CHECKED));
+                if ((int) crc.getValue() != in.getInt(start + CHECKED)) {
+                    break;
+                }
+                if (filter.matches(in, start)) {
+                    sink.accept(decode(in, sequence + count));
+                }
+                in.position(start + RECORD_SIZE);
+                count++;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Decodes the record at the buffer's position without moving it.
+     */
+    static AuditRecord decode(ByteBuffer in, long sequence) {
+        int start = in.position();
+        long micros = in.getLong(start);
+        long before = in.getLong(start + 24);
+        int scale = in.get(start + 41);
+        return new AuditRecord(sequence,
+                Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1_000L),
+                AuditType.ofCode(in.get(start + 40)),
+                in.getLong(start + 8),
+                in.getLong(start + 16),
+                before == UNKNOWN ? null : BigDecimal.valueOf(before, scale),
+                BigDecimal.valueOf(in.getLong(start + 32), scale));
+    }
+}
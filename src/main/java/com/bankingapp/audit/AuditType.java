@@ -0,0 +1,27 @@
+package com.bankingapp.audit;
+
+/**
+ * What an audit record describes. Stored by {@link #code()}, never by
+ * ordinal, so reordering constants does not corrupt old segments.
+ */
+public enum AuditType {
+    ACCOUNT_BALANCE(1),
+    CARD_CREDIT_USED(2);
+
+    private final byte code;
+
+    AuditType(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte code() { return code; }
+
+    public static AuditType ofCode(byte code) {
+        for (AuditType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown audit record type " + code);
+    }
+}
@@ -0,0 +1,187 @@
+package com.bankingapp.batch;
+
+import com.bankingapp.ledger.BalanceCache;
+import com.bankingapp.ledger.Journal;
+import com.bankingapp.ledger.JournalLine;
+import com.bankingapp.model.TransactionState;
+import com.bankingapp.model.TransactionType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Interest accrual and fee posting over every account.
+ *
+ * Accounts are walked in id order in chunks. Each chunk runs in one database
+ * transaction: interest and fees are computed in memory from
+ * {@link AccrualRules} and the balances in the {@link BalanceCache}, the
+ * resulting {@code DEPOSIT}/{@code FEE} transactions and their
+ * {@link Journal} lines are written with one JDBC batch insert each, and the
+ * run's checkpoint is advanced. The cache applies the chunk's balance changes
+ * (and writes their audit records) on commit, and writes them behind to
+ * {@code accounts.balance}. A run interrupted at any point resumes after its
+ * last committed chunk when started again with the same run id; that
+ * includes a chunk that failed because an account spent the money for its
+ * fee while the chunk was computed.
+ *
+ * Each chunk's postings are stamped with the time the chunk is written, just
+ * before it commits, not with the start of the run: a run over millions of
+ * accounts takes long enough that a start-of-run stamp would land behind the
+ * watermarks of readers that follow the journal by time.
+ *
+ * Postings follow the statement convention: both kinds name the account as
+ * sender, deposits credit it and fees debit it.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Service
+public class AccrualJob {
+    /**
+     * Outcome of a run (or of the part of it done by this call).
+     */
+    public record AccrualResult(long accounts, long interestPostings, long feePostings, boolean resumed) {}
+
+    private record Posting(long accountId, TransactionType type, BigDecimal amount, String currency) {}
+
+    private static final String SELECT_CHUNK =
+            "SELECT id, currency FROM accounts WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String INSERT_POSTING =
+            "INSERT INTO transactions (id, timestamp, amount, type, state, sender_id, currency, note) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final AccrualRules rules;
+    private final Journal journal;
+    private final BalanceCache balances;
+    private final int chunkSize;
+
+    @Autowired
+    public AccrualJob(JdbcTemplate jdbc, TransactionTemplate transactions, Journal journal, BalanceCache balances,
+                      @Value("${bankingapp.accrual.annual-interest-rate:0}") BigDecimal annualRate,
+                      @Value("${bankingapp.accrual.fee:0}") BigDecimal fee,
+                      @Value("${bankingapp.accrual.fee-waiver-balance:0}") BigDecimal feeWaiverBalance,
+                      @Value("${bankingapp.accrual.chunk-size:1000}") int chunkSize) {
+        this.jdbc = jdbc;
+        this.transactions = transactions;
+        this.rules = new AccrualRules(annualRate, fee, feeWaiverBalance);
+        this.journal = journal;
+        this.balances = balances;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Accrues interest for the given number of days and charges the fee on
+     * every account, or resumes the run if it was started before.
+     *
+     * @param runId Identifies the run, e.g. {@code 2025-03}; at most 32 characters
+     * @param days Days of interest to accrue
+     * @return Accounts processed and postings made by this call
+     */
+    public AccrualResult run(String runId, int days) {
+        Objects.requireNonNull(runId, "Run id cannot be null.");
+        if (days <= 0) {
+            throw new IllegalArgumentException("Days must be positive.");
+        }
+
+        List<Map<String, Object>> existing = jdbc.queryForList(
+                "SELECT posted_at, last_account_id, completed FROM accrual_runs WHERE run_id = ?", runId);
+        long lastAccountId;
+        boolean resumed = !existing.isEmpty();
+
+        if (resumed) {
+            Map<String, Object> run = existing.get(0);
+            if ((Boolean) run.get("completed")) {
+                return new AccrualResult(0, 0, 0, true);
+            }
+            lastAccountId = ((Number) run.get("last_account_id")).longValue();
+        } else {
+            lastAccountId = 0;
+            jdbc.update("INSERT INTO accrual_runs (run_id, posted_at, last_account_id, completed) VALUES (?, ?, 0, ?)",
+                    runId, Timestamp.valueOf(LocalDateTime.now()), false);
+        }
+
+        String interestNote = "Interest " + runId;
+        String feeNote = "Fee " + runId;
+        long[] totals = new long[3];
+
+        while (true) {
+            long from = lastAccountId;
+            Long next = transactions.execute(status -> chunk(runId, from, days, interestNote, feeNote, totals));
+            if (next == null) {
+                break;
+            }
+            lastAccountId = next;
+        }
+
+        jdbc.update("UPDATE accrual_runs SET completed = ? WHERE run_id = ?", true, runId);
+        return new AccrualResult(totals[0], totals[1], totals[2], resumed);
+    }
+
+    /**
+     * Processes the accounts after {@code after}.
+     *
+     * @return Last account id of the chunk, null if there were no more accounts
+     */
+    private Long chunk(String runId, long after, int days, String interestNote, String feeNote, long[] totals) {
+        List<Posting> postings = new ArrayList<>(chunkSize * 2);
+        long[] last = {after};
+        int[] read = {0};
+        Map<String, Currency> currencies = new HashMap<>();
+
+        jdbc.query(SELECT_CHUNK, rs -> {
+            long id = rs.getLong(1);
+            String code = rs.getString(2);
+            BigDecimal balance = balances.balance(id);
+            Currency currency = currencies.computeIfAbsent(code, Currency::getInstance);
+
+            BigDecimal interest = rules.interest(balance, currency, days);
+            if (interest.signum() > 0) {
+                postings.add(new Posting(id, TransactionType.DEPOSIT, interest, code));
+            }
+            BigDecimal fee = rules.fee(balance.add(interest), currency);
+            if (fee.signum() > 0) {
+                postings.add(new Posting(id, TransactionType.FEE, fee, code));
+            }
+
+            last[0] = id;
+            read[0]++;
+        }, after, chunkSize);
+
+        if (read[0] == 0) {
+            return null;
+        }
+
+        if (!postings.isEmpty()) {
+            LocalDateTime postedAt = LocalDateTime.now();
+            Timestamp timestamp = Timestamp.valueOf(postedAt);
+            List<Object[]> rows = new ArrayList<>(postings.size());
+            List<JournalLine> lines = new ArrayList<>(postings.size() * 2);
+            for (Posting posting : postings) {
+                boolean interest = posting.type() == TransactionType.DEPOSIT;
+                String id = UUID.randomUUID().toString();
+                rows.add(new Object[]{id, timestamp, posting.amount(),
+                        posting.type().name(), TransactionState.SUCCESS.name(), posting.accountId(),
+                        posting.currency(), interest ? interestNote : feeNote});
+                lines.addAll(Journal.lines(id, posting.type(), posting.accountId(), null, null,
+                        posting.amount(), posting.currency()));
+                totals[interest ? 1 : 2]++;
+            }
+            jdbc.batchUpdate(INSERT_POSTING, rows);
+            journal.append(lines, postedAt);
+            balances.post(lines);
+        }
+
+        jdbc.update("UPDATE accrual_runs SET last_account_id = ? WHERE run_id = ?", last[0], runId);
+        totals[0] += read[0];
+        return last[0];
+    }
+}
@@ -0,0 +1,63 @@
+package com.bankingapp.batch;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interest and fee rules of an accrual run, held in memory for the whole run.
+ *
+ * Interest is simple daily interest on a positive balance,
+ * {@code balance * annualRate * days / 365}. The fee is charged once per run
+ * on balances below the waiver threshold, and only if the balance covers it.
+ * Both are rounded half-even to the currency's minor unit; amounts are in the
+ * account's own currency.
+ *
+ * @author Avarexity - Whard A.
+ */
+public final class AccrualRules {
+    private static final BigDecimal DAYS_PER_YEAR = BigDecimal.valueOf(365);
+
+    private final BigDecimal annualRate;
+    private final BigDecimal fee;
+    private final BigDecimal feeWaiverBalance;
+    private final Map<Currency, Integer> scales = new ConcurrentHashMap<>();
+
+    public AccrualRules(BigDecimal annualRate, BigDecimal fee, BigDecimal feeWaiverBalance) {
+        this.annualRate = Objects.requireNonNull(annualRate, "Interest rate cannot be null.");
+        this.fee = Objects.requireNonNull(fee, "Fee cannot be null.");
+        this.feeWaiverBalance = Objects.requireNonNull(feeWaiverBalance, "Fee waiver balance cannot be null.");
+        if (annualRate.signum() < 0 || fee.signum() < 0) {
+            throw new IllegalArgumentException("Interest rate and fee cannot be negative.");
+        }
+    }
+
+    /**
+     * @return Interest earned over the given number of days, zero if none
+     */
+    public BigDecimal interest(BigDecimal balance, Currency currency, int days) {
+        if (balance.signum() <= 0 || annualRate.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        return balance.multiply(annualRate)
+                .multiply(BigDecimal.valueOf(days))
+                .divide(DAYS_PER_YEAR, scaleOf(currency), RoundingMode.HALF_EVEN);
+    }
+
+    /**
+     * @return Fee to charge, zero if waived or not covered by the balance
+     */
+    public BigDecimal fee(BigDecimal balance, Currency currency) {
+        if (fee.signum() == 0 || balance.compareTo(feeWaiverBalance) >= 0 || balance.compareTo(fee) < 0) {
+            return BigDecimal.ZERO;
+        }
+        return fee.setScale(scaleOf(currency), RoundingMode.HALF_EVEN);
+    }
+
+    private int scaleOf(Currency currency) {
+        return scales.computeIfAbsent(currency, c -> Math.max(c.getDefaultFractionDigits(), 0));
+    }
+}
@@ -0,0 +1,461 @@
+package com.bankingapp.batch;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Month-end statement generation for every account.
+ *
+ * The account id space is split into fixed-size ranges which are processed on
+ * a fork/join pool. For each range the accounts are read once, the closing
+ * balances are summed in one grouped query, and all of the period's
+ * transactions are pulled in a single query ordered by account, so statements
+ * are produced by walking the accounts and the transaction cursor side by
+ * side. The three queries of a range run in one read-only REPEATABLE READ
+ * transaction, so the closing balances and the period see the same snapshot.
+ * Each range is streamed as gzipped JSON lines (one statement per line) to
+ * {@code <dir>/<month>/statements-<first>-<last>.jsonl.gz}.
+ *
+ * The closing balance is the ACCOUNT book of the journal up to the end of the
+ * period, the opening entry written by the journal migration included
+ * whatever its date. {@code accounts.balance} is written behind by the
+ * {@link com.bankingapp.ledger.BalanceCache} and is not read.
+ *
+ * A range file is written under a temporary name and moved into place when
+ * complete, and the range is then appended to the month's checkpoint file.
+ * Running the job again for the same month skips every checkpointed range, so
+ * a crashed run resumes where it stopped. The checkpoint starts with the range
+ * size it was written with; a range start means nothing under another size, so
+ * a run with a different {@code range-size} refuses to resume it.
+ *
+ * The sender of a transaction is debited and the receiver credited, except
+ * for deposits, which credit the sender side. Only successful transactions
+ * count towards the totals; all are listed.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Service
+public class StatementJob {
+    /**
+     * Outcome of a run.
+     */
+    public record StatementResult(int ranges, int skippedRanges, long accounts, long transactions) {}
+
+    private record AccountHeader(long id, String accountNumber, String name, String currency) {}
+
+    static final String CHECKPOINT_FILE = "completed-ranges";
+    static final String RANGE_SIZE_HEADER = "range-size=";
+
+    private static final String SELECT_ACCOUNTS =
+            "SELECT id, account_number, name, currency FROM accounts WHERE id BETWEEN ? AND ? ORDER BY id";
+
+    // Balance of each account at a point in time; the opening entry stands for everything before the journal
+    private static final String SELECT_CLOSING =
+            "SELECT book_id, SUM(amount) FROM journal_lines WHERE book = 'ACCOUNT' AND book_id BETWEEN ? AND ?" +
+            " AND (posted_at < ? OR transaction_id = 'opening-balance') GROUP BY book_id";
+
+    // Every transaction of the period for every account of the range, grouped by account
+    private static final String SELECT_PERIOD =
+            "SELECT account_id, id, timestamp, type, state, amount, currency, note, credit FROM (" +
+            " SELECT sender_id AS account_id, id, timestamp, type, state, amount, currency, note," +
+            " CASE WHEN type = 'DEPOSIT' THEN 1 ELSE 0 END AS credit" +
+            " FROM transactions WHERE sender_id BETWEEN ? AND ? AND timestamp >= ? AND timestamp < ?" +
+            " UNION ALL" +
+            " SELECT receiver_id, id, timestamp, type, state, amount, currency, note, 1" +
+            " FROM transactions WHERE receiver_id BETWEEN ? AND ? AND timestamp >= ? AND timestamp < ?" +
+            ") p ORDER BY account_id, timestamp, id";
+
+    private static final SerializableString ACCOUNT_ID = new SerializedString("accountId");
+    private static final SerializableString ACCOUNT_NUMBER = new SerializedString("accountNumber");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString CURRENCY = new SerializedString("currency");
+    private static final SerializableString PERIOD = new SerializedString("period");
+    private static final SerializableString TRANSACTIONS = new SerializedString("transactions");
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString DATE = new SerializedString("date");
+    private static final SerializableString TYPE = new SerializedString("type");
+    private static final SerializableString STATE = new SerializedString("state");
+    private static final SerializableString AMOUNT = new SerializedString("amount");
+    private static final SerializableString NOTE = new SerializedString("note");
+    private static final SerializableString OPENING = new SerializedString("openingBalance");
+    private static final SerializableString CREDITS = new SerializedString("credits");
+    private static final SerializableString DEBITS = new SerializedString("debits");
+    private static final SerializableString CLOSING = new SerializedString("closingBalance");
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate snapshot;
+    private final JsonFactory json;
+    private final ForkJoinPool pool;
+    private final long rangeSize;
+    private final int fetchSize;
+
+    @Autowired
+    public StatementJob(JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+                        @Value("${bankingapp.statements.parallelism:0}") int parallelism,
+                        @Value("${bankingapp.statements.range-size:5000}") long rangeSize,
+                        @Value("${bankingapp.statements.fetch-size:1000}") int fetchSize) {
+        this.jdbc = jdbc;
+        this.snapshot = new TransactionTemplate(transactionManager);
+        this.snapshot.setReadOnly(true);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.json = new JsonFactory();
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.rangeSize = rangeSize;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Generates the statements of a month for every account, resuming a
+     * previous run of the same month if there is one.
+     *
+     * @param month The statement period
+     * @param directory Base output directory
+     * @return Ranges processed and skipped, statements and transactions written
+     * @throws IOException if the output directory or checkpoint cannot be used
+     * @throws IllegalStateException if the checkpoint was written with another range size
+     */
+    public StatementResult generate(YearMonth month, Path directory) throws IOException {
+        Path out = Files.createDirectories(directory.resolve(month.toString()));
+        Path checkpoint = out.resolve(CHECKPOINT_FILE);
+        Set<Long> completed = readCheckpoint(checkpoint, rangeSize);
+
+        Map<String, Object> bounds = jdbc.queryForMap("SELECT MIN(id) AS lo, MAX(id) AS hi FROM accounts");
+        if (bounds.get("lo") == null) {
+            return new StatementResult(0, 0, 0, 0);
+        }
+        long lo = ((Number) bounds.get("lo")).longValue();
+        long hi = ((Number) bounds.get("hi")).longValue();
+
+        List<long[]> pending = new ArrayList<>();
+        int skipped = 0;
+        for (long first = lo - Math.floorMod(lo, rangeSize); first <= hi; first += rangeSize) {
+            if (completed.contains(first)) {
+                skipped++;
+            } else {
+                pending.add(new long[]{first, first + rangeSize - 1});
+            }
+        }
+
+        AtomicLong accounts = new AtomicLong();
+        AtomicLong transactions = new AtomicLong();
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        LocalDateTime end = month.plusMonths(1).atDay(1).atStartOfDay();
+
+        try (CheckpointLog log = new CheckpointLog(checkpoint, rangeSize)) {
+            pool.invoke(new RangeTask(pending, 0, pending.size(), range -> {
+                long[] counts = writeRange(range[0], range[1], month, start, end, out);
+                accounts.addAndGet(counts[0]);
+                transactions.addAndGet(counts[1]);
+                log.complete(range[0]);
+            }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return new StatementResult(pending.size(), skipped, accounts.get(), transactions.get());
+    }
+
+    private long[] writeRange(long first, long last, YearMonth month, LocalDateTime start, LocalDateTime end,
+                              Path directory) throws IOException {
+        String name = "statements-" + first + "-" + last + ".jsonl.gz";
+        Path target = directory.resolve(name);
+        Path temp = directory.resolve(name + ".tmp");
+
+        long[] counts;
+        try {
+            counts = snapshot.execute(status -> {
+                try {
+                    return readRange(first, last, month, start, end, temp);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return counts;
+    }
+
+    private long[] readRange(long first, long last, YearMonth month, LocalDateTime start, LocalDateTime end,
+                             Path temp) throws IOException {
+        List<AccountHeader> accounts = jdbc.query(SELECT_ACCOUNTS,
+                (rs, i) -> new AccountHeader(rs.getLong(1), rs.getString(2), rs.getString(3),
+                        rs.getString(4)),
+                first, last);
+
+        Map<Long, BigDecimal> closing = new HashMap<>();
+        Timestamp endTs = Timestamp.valueOf(end);
+        jdbc.query(SELECT_CLOSING, rs -> {
+            closing.put(rs.getLong(1), rs.getBigDecimal(2));
+        }, first, last, endTs);
+
+        long[] transactions = {0};
+
+        try (OutputStream file = new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp), 64 * 1024));
+             StatementWriter writer = new StatementWriter(json, file, month.toString())) {
+            int[] next = {0};
+            AccountHeader[] current = {null};
+
+            jdbc.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_PERIOD,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                Timestamp startTs = Timestamp.valueOf(start);
+                statement.setLong(1, first);
+                statement.setLong(2, last);
+                statement.setTimestamp(3, startTs);
+                statement.setTimestamp(4, endTs);
+                statement.setLong(5, first);
+                statement.setLong(6, last);
+                statement.setTimestamp(7, startTs);
+                statement.setTimestamp(8, endTs);
+                return statement;
+            }, rs -> {
+                long accountId = rs.getLong(1);
+                if (current[0] == null || current[0].id() != accountId) {
+                    if (current[0] != null) {
+                        writer.end();
+                        current[0] = null;
+                    }
+                    // Accounts without activity in between still get an (empty) statement
+                    while (next[0] < accounts.size() && accounts.get(next[0]).id() < accountId) {
+                        AccountHeader idle = accounts.get(next[0]++);
+                        writer.begin(idle, closing.getOrDefault(idle.id(), BigDecimal.ZERO));
+                        writer.end();
+                    }
+                    if (next[0] == accounts.size() || accounts.get(next[0]).id() != accountId) {
+                        return; // account created after the accounts were read
+                    }
+                    current[0] = accounts.get(next[0]++);
+                    writer.begin(current[0], closing.getOrDefault(current[0].id(), BigDecimal.ZERO));
+                }
+
+                writer.line(rs.getString(2), rs.getTimestamp(3).toLocalDateTime(), rs.getString(4),
+                        rs.getString(5), rs.getBigDecimal(6), rs.getString(8), rs.getInt(9) == 1);
+                transactions[0]++;
+            });
+
+            if (current[0] != null) {
+                writer.end();
+            }
+            for (int i = next[0]; i < accounts.size(); i++) {
+                AccountHeader idle = accounts.get(i);
+                writer.begin(idle, closing.getOrDefault(idle.id(), BigDecimal.ZERO));
+                writer.end();
+            }
+        }
+        return new long[]{accounts.size(), transactions[0]};
+    }
+
+    private static Set<Long> readCheckpoint(Path checkpoint, long rangeSize) throws IOException {
+        Set<Long> completed = new HashSet<>();
+        if (!Files.exists(checkpoint)) {
+            return completed;
+        }
+        List<String> lines = Files.readAllLines(checkpoint, StandardCharsets.US_ASCII).stream()
+                .filter(line -> !line.isBlank()).map(String::trim).toList();
+        // Empty if the last run died before writing the header
+        if (lines.isEmpty()) {
+            return completed;
+        }
+        String header = lines.get(0);
+        if (!header.equals(RANGE_SIZE_HEADER + rangeSize)) {
+            throw new IllegalStateException("Checkpoint " + checkpoint + " was written with " +
+                    (header.startsWith(RANGE_SIZE_HEADER) ? "range size " + header.substring(RANGE_SIZE_HEADER.length())
+                            : "no range size") +
+                    ", this run uses " + rangeSize + "; run with the same range size or delete the month's output.");
+        }
+        for (String line : lines.subList(1, lines.size())) {
+            completed.add(Long.parseLong(line));
+        }
+        return completed;
+    }
+
+    /**
+     * Writes one range file: one JSON statement object per line. Opening
+     * balance and totals follow the transaction list so that the list can be
+     * streamed straight from the cursor.
+     */
+    private static final class StatementWriter implements Closeable {
+        private final JsonGenerator gen;
+        private final SerializableString period;
+        private BigDecimal closing;
+        private BigDecimal credits;
+        private BigDecimal debits;
+
+        StatementWriter(JsonFactory factory, OutputStream out, String period) throws IOException {
+            this.gen = factory.createGenerator(out, JsonEncoding.UTF8);
+            this.gen.setRootValueSeparator(new SerializedString("\n"));
+            this.period = new SerializedString(period);
+        }
+
+        void begin(AccountHeader account, BigDecimal closing) {
+            this.closing = closing;
+            this.credits = BigDecimal.ZERO;
+            this.debits = BigDecimal.ZERO;
+            try {
+                gen.writeStartObject();
+                gen.writeFieldName(ACCOUNT_ID);
+                gen.writeNumber(account.id());
+                gen.writeFieldName(ACCOUNT_NUMBER);
+                gen.writeString(account.accountNumber());
+                gen.writeFieldName(NAME);
+                gen.writeString(account.name());
+                gen.writeFieldName(CURRENCY);
+                gen.writeString(account.currency());
+                gen.writeFieldName(PERIOD);
+                gen.writeString(period);
+                gen.writeFieldName(TRANSACTIONS);
+                gen.writeStartArray();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void line(String id, LocalDateTime timestamp, String type, String state, BigDecimal amount,
+                  String note, boolean credit) {
+            if ("SUCCESS".equals(state)) {
+                if (credit) credits = credits.add(amount);
+                else debits = debits.add(amount);
+            }
+            try {
+                gen.writeStartObject();
+                gen.writeFieldName(ID);
+                gen.writeString(id);
+                gen.writeFieldName(DATE);
+                gen.writeString(timestamp.toString());
+                gen.writeFieldName(TYPE);
+                gen.writeString(type);
+                gen.writeFieldName(STATE);
+                gen.writeString(state);
+                gen.writeFieldName(AMOUNT);
+                gen.writeNumber(credit ? amount : amount.negate());
+                gen.writeFieldName(NOTE);
+                if (note != null) {
+                    gen.writeString(note);
+                } else {
+                    gen.writeNull();
+                }
+                gen.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void end() {
+            try {
+                gen.writeEndArray();
+                gen.writeFieldName(OPENING);
+                gen.writeNumber(closing.subtract(credits).add(debits));
+                gen.writeFieldName(CREDITS);
+                gen.writeNumber(credits);
+                gen.writeFieldName(DEBITS);
+                gen.writeNumber(debits);
+                gen.writeFieldName(CLOSING);
+                gen.writeNumber(closing);
+                gen.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            gen.close();
+        }
+    }
+
+    /**
+     * Append-only list of completed range starts, forced to disk per entry,
+     * after a header with the range size.
+     */
+    private static final class CheckpointLog implements Closeable {
+        private final FileOutputStream out;
+
+        CheckpointLog(Path path, long rangeSize) throws IOException {
+            this.out = new FileOutputStream(path.toFile(), true);
+            if (out.getChannel().size() == 0) {
+                out.write((RANGE_SIZE_HEADER + rangeSize + "\n").getBytes(StandardCharsets.US_ASCII));
+                out.getChannel().force(false);
+            }
+        }
+
+        synchronized void complete(long first) throws IOException {
+            out.write((first + "\n").getBytes(StandardCharsets.US_ASCII));
+            out.getChannel().force(false);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RangeWork {
+        void run(long[] range) throws IOException;
+    }
+
+    private static class RangeTask extends RecursiveAction {
+        private final List<long[]> ranges;
+        private final int from;
+        private final int to;
+        private final RangeWork work;
+
+        RangeTask(List<long[]> ranges, int from, int to, RangeWork work) {
+            this.ranges = ranges;
+            this.from = from;
+            this.to = to;
+            this.work = work;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                for (int i = from; i < to; i++) {
+                    try {
+                        work.run(ranges.get(i));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RangeTask(ranges, from, mid, work), new RangeTask(ranges, mid, to, work));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,324 @@
+package com.bankingapp.batch;
+
+import com.bankingapp.cache.ReferenceCache;
+import com.bankingapp.model.User;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Bulk import of users from a partner bank export.
+ *
+ * The CSV is read in chunks. Each chunk is parsed and validated in parallel on
+ * a fork/join pool; duplicates (within the file and against the users already
+ * in the database) are then filtered against in-memory email/phone sets, the
+ * passwords of the accepted users only are hashed in parallel on the same
+ * pool, and the users and their security questions are written with JDBC
+ * batch inserts, one transaction per chunk. Every rejected line goes to the
+ * rejects file with its line number, reason and the record without its
+ * password and security questions.
+ *
+ * Expected columns (header line required, no quoted fields):
+ * {@code name,surname,date_of_birth,email,phone,password,security_questions}
+ * where {@code security_questions} is {@code question=answer;question=answer}.
+ *
+ * Passwords are hashed at {@code bankingapp.import.password-strength}, which
+ * may be lower than the login cost; they are upgraded on first login.
+ * Ids are allocated from {@code MAX(id)}, so no registrations should run
+ * while an import is in progress.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Service
+public class UserImportJob {
+    /**
+     * Outcome of an import.
+     */
+    public record ImportResult(long read, long imported, long rejected) {}
+
+    private record Candidate(String name, String surname, LocalDate dateOfBirth, String email, String phone,
+                             char[] password, Map<String, String> questions) {}
+
+    private record Parsed(Candidate candidate, String error) {}
+
+    private static final int SPLIT_THRESHOLD = 256;
+    private static final int HASH_SPLIT_THRESHOLD = 8;
+    // Columns written to the rejects file: name, surname, date_of_birth, email, phone
+    private static final int PUBLIC_COLUMNS = 5;
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final ReferenceCache cache;
+    private final BCryptPasswordEncoder encoder;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    @Autowired
+    public UserImportJob(JdbcTemplate jdbc, TransactionTemplate transactions, ReferenceCache cache,
+                         @Value("${bankingapp.import.password-strength:10}") int passwordStrength,
+                         @Value("${bankingapp.import.parallelism:0}") int parallelism,
+                         @Value("${bankingapp.import.chunk-size:10000}") int chunkSize) {
+        this.jdbc = jdbc;
+        this.transactions = transactions;
+        this.cache = cache;
+        this.encoder = new BCryptPasswordEncoder(passwordStrength);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports users from a CSV file.
+     *
+     * @param csv The file to import
+     * @param rejects Where rejected lines are written
+     * @return How many lines were read, imported and rejected
+     * @throws IOException if either file cannot be read or written
+     */
+    public ImportResult importUsers(Path csv, Path rejects) throws IOException {
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        jdbc.query("SELECT email, phone FROM users", rs -> {
+            emails.add(rs.getString(1).toLowerCase(Locale.ROOT));
+            phones.add(digitsOf(rs.getString(2)));
+        });
+
+        long nextId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM users", Long.class) + 1;
+        long read = 0;
+        long imported = 0;
+
+        try (BufferedReader in = Files.newBufferedReader(csv);
+             BufferedWriter out = Files.newBufferedWriter(rejects)) {
+            out.write("line,reason,name,surname,date_of_birth,email,phone");
+            out.newLine();
+
+            String line = in.readLine(); // header
+            long lineNumber = 1;
+            List<String> chunk = new ArrayList<>(chunkSize);
+
+            while ((line = in.readLine()) != null) {
+                chunk.add(line);
+                if (chunk.size() == chunkSize) {
+                    int accepted = importChunk(chunk, lineNumber + 1, nextId, emails, phones, out);
+                    nextId += accepted;
+                    imported += accepted;
+                    read += chunk.size();
+                    lineNumber += chunk.size();
+                    chunk.clear();
+                }
+            }
+
+            if (!chunk.isEmpty()) {
+                imported += importChunk(chunk, lineNumber + 1, nextId, emails, phones, out);
+                read += chunk.size();
+            }
+        }
+
+        cache.evictUsers();
+        return new ImportResult(read, imported, read - imported);
+    }
+
+    private int importChunk(List<String> lines, long firstLine, long firstId, Set<String> emails,
+                            Set<String> phones, BufferedWriter rejects) throws IOException {
+        Parsed[] parsed = new Parsed[lines.size()];
+        pool.invoke(new ParseTask(lines, parsed, 0, lines.size()));
+
+        // Duplicate checks run in file order so the first occurrence wins
+        List<Candidate> accepted = new ArrayList<>(lines.size());
+        for (int i = 0; i < parsed.length; i++) {
+            String error = parsed[i].error();
+            Candidate candidate = parsed[i].candidate();
+
+            if (error == null) {
+                String email = candidate.email().toLowerCase(Locale.ROOT);
+                String phone = digitsOf(candidate.phone());
+                if (emails.contains(email)) {
+                    error = "Duplicate email";
+                } else if (phones.contains(phone)) {
+                    error = "Duplicate phone number";
+                } else {
+                    emails.add(email);
+                    phones.add(phone);
+                    accepted.add(candidate);
+                }
+            }
+
+            if (error != null) {
+                if (candidate != null) {
+                    Arrays.fill(candidate.password(), '\0');
+                }
+                rejects.write((firstLine + i) + "," + error + "," + redact(lines.get(i)));
+                rejects.newLine();
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            String[] hashes = new String[accepted.size()];
+            pool.invoke(new HashTask(accepted, hashes, 0, hashes.length));
+            transactions.executeWithoutResult(status -> insert(accepted, hashes, firstId));
+        }
+        return accepted.size();
+    }
+
+    // The password and the security answers never reach the rejects file
+    private static String redact(String line) {
+        String[] fields = line.split(",", PUBLIC_COLUMNS + 1);
+        return String.join(",", Arrays.asList(fields).subList(0, Math.min(fields.length, PUBLIC_COLUMNS)));
+    }
+
+    private void insert(List<Candidate> users, String[] hashes, long firstId) {
+        List<Object[]> userRows = new ArrayList<>(users.size());
+        List<Object[]> questionRows = new ArrayList<>();
+
+        long id = firstId;
+        for (int i = 0; i < users.size(); i++) {
+            Candidate user = users.get(i);
+            userRows.add(new Object[]{id, user.name(), user.surname(), Date.valueOf(user.dateOfBirth()),
+                    user.email(), user.phone(), hashes[i]});
+            for (Map.Entry<String, String> qa : user.questions().entrySet()) {
+                questionRows.add(new Object[]{id, qa.getKey(), qa.getValue()});
+            }
+            id++;
+        }
+
+        jdbc.batchUpdate("INSERT INTO users (id, name, surname, date_of_birth, email, phone, password) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", userRows);
+        if (!questionRows.isEmpty()) {
+            jdbc.batchUpdate("INSERT INTO user_security_questions (user_id, question, answer) VALUES (?, ?, ?)",
+                    questionRows);
+        }
+    }
+
+    private Parsed parse(String line) {
+        String[] fields = line.split(",", 7);
+        if (fields.length < 6) {
+            return new Parsed(null, "Missing columns");
+        }
+
+        String name = fields[0].trim();
+        String surname = fields[1].trim();
+        String email = fields[3].trim();
+        String phone = fields[4].trim();
+        if (name.isEmpty() || surname.isEmpty()) {
+            return new Parsed(null, "Missing name");
+        }
+        if (!User.isValidEmail(email)) {
+            return new Parsed(null, "Invalid email format");
+        }
+        if (!User.isValidPhone(phone)) {
+            return new Parsed(null, "Invalid phone number format");
+        }
+        if (!User.isValidPassword(fields[5])) {
+            return new Parsed(null, "Weak password");
+        }
+
+        LocalDate dateOfBirth;
+        try {
+            dateOfBirth = LocalDate.parse(fields[2].trim());
+        } catch (DateTimeParseException e) {
+            return new Parsed(null, "Invalid date of birth");
+        }
+
+        Map<String, String> questions = new LinkedHashMap<>();
+        if (fields.length == 7 && !fields[6].isBlank()) {
+            for (String qa : fields[6].split(";")) {
+                int eq = qa.indexOf('=');
+                if (eq <= 0) {
+                    return new Parsed(null, "Invalid security question");
+                }
+                questions.put(qa.substring(0, eq).trim(), qa.substring(eq + 1).trim());
+            }
+        }
+
+        return new Parsed(new Candidate(name, surname, dateOfBirth, email, phone, fields[5].toCharArray(),
+                questions), null);
+    }
+
+    private static String digitsOf(String phone) {
+        StringBuilder digits = new StringBuilder(phone.length());
+        for (int i = 0; i < phone.length(); i++) {
+            char c = phone.charAt(i);
+            if (c >= '0' && c <= '9') digits.append(c);
+        }
+        return digits.toString();
+    }
+
+    private class ParseTask extends RecursiveAction {
+        private final List<String> lines;
+        private final Parsed[] out;
+        private final int from;
+        private final int to;
+
+        ParseTask(List<String> lines, Parsed[] out, int from, int to) {
+            this.lines = lines;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    out[i] = parse(lines.get(i));
+                }
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ParseTask(lines, out, from, mid), new ParseTask(lines, out, mid, to));
+            }
+        }
+    }
+
+    // BCrypt per accepted user, wiping each raw password once hashed
+    private class HashTask extends RecursiveAction {
+        private final List<Candidate> users;
+        private final String[] out;
+        private final int from;
+        private final int to;
+
+        HashTask(List<Candidate> users, String[] out, int from, int to) {
+            this.users = users;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= HASH_SPLIT_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    char[] password = users.get(i).password();
+                    try {
+                        out[i] = encoder.encode(CharBuffer.wrap(password));
+                    } finally {
+                        Arrays.fill(password, '\0');
+                    }
+                }
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new HashTask(users, out, from, mid), new HashTask(users, out, mid, to));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,24 @@
+package com.bankingapp.cache;
+
+import java.lang.annotation.*;
+
+/**
+ * Coalesces concurrent identical calls of the annotated read: while one call
+ * for a key is running, further calls for the same key wait for its result
+ * instead of querying again. Only for methods returning immutable values
+ * (records, unmodifiable lists), since every caller gets the same instance.
+ *
+ * Groups are switched on, and their staleness bound set, by
+ * {@code bankingapp.coalescing.groups}; calls of a group not listed there run
+ * normally.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Coalesced {
+    /** Name of the group, for configuration and metrics */
+    String value();
+
+    /** SpEL expression over the method parameters that identifies identical calls */
+    String key();
+}
@@ -0,0 +1,77 @@
+package com.bankingapp.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies {@link Coalesced}. Runs ahead of admission control and the
+ * transaction interceptor, so a caller that joins another's read takes
+ * neither an admission slot nor a connection, but behind
+ * ExposeInvocationInterceptor ({@code HIGHEST_PRECEDENCE + 1}), which has to
+ * expose the invocation before the annotation argument can be bound.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class CoalescingAspect {
+    private final Map<String, SingleFlight> groups = new HashMap<>();
+    private final Map<Method, Expression> keys = new ConcurrentHashMap<>();
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+
+    /**
+     * @param spec {@code group:max-staleness-ms} entries separated by commas
+     */
+    @Autowired
+    public CoalescingAspect(MeterRegistry registry,
+                            @Value("${bankingapp.coalescing.groups:}") String spec) {
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid coalescing group: " + entry);
+            }
+            long staleness = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(parts[1]));
+            groups.put(parts[0], new SingleFlight(parts[0], staleness, registry, System::nanoTime));
+        }
+    }
+
+    @Around("@annotation(coalesced)")
+    public Object coalesce(ProceedingJoinPoint call, Coalesced coalesced) throws Throwable {
+        SingleFlight group = groups.get(coalesced.value());
+        if (group == null) {
+            return call.proceed();
+        }
+
+        Method method = ((MethodSignature) call.getSignature()).getMethod();
+        Expression expression = keys.computeIfAbsent(method, m -> parser.parseExpression(coalesced.key()));
+        Object key = expression.getValue(new MethodBasedEvaluationContext(call.getTarget(), method, call.getArgs(),
+                parameterNames));
+        // Same key in different methods of one group must not mix
+        return group.execute(Arrays.asList(method, key), call::proceed);
+    }
+}
@@ -0,0 +1,53 @@
+package com.bankingapp.cache;
+
+import com.bankingapp.model.Institute;
+import com.bankingapp.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Explicit eviction for the second-level cache regions holding reference data
+ * ({@code institutes}, {@code users}) and the query cache. Hibernate keeps the
+ * regions in sync for writes that go through the persistence context; this is
+ * for writes that bypass it (bulk/JDBC updates) and for the service write paths.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Component
+public class ReferenceCache {
+    private final EntityManagerFactory emf;
+
+    @Autowired
+    public ReferenceCache(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    public void evictInstitute(Long id) {
+        emf.getCache().evict(Institute.class, id);
+        evictQueries();
+    }
+
+    public void evictInstitutes() {
+        emf.getCache().evict(Institute.class);
+        evictQueries();
+    }
+
+    public void evictUser(Long id) {
+        emf.getCache().evict(User.class, id);
+        evictQueries();
+    }
+
+    public void evictUsers() {
+        emf.getCache().evict(User.class);
+        evictQueries();
+    }
+
+    /**
+     * Drops all cached finder results ({@code getBy...} queries).
+     */
+    public void evictQueries() {
+        emf.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+    }
+}
@@ -0,0 +1,97 @@
+package com.bankingapp.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongSupplier;
+
+/**
+ * One group of coalesced reads.
+ *
+ * The first caller for a key runs the load and publishes its result; callers
+ * arriving while it runs wait for that result. A caller only joins a load
+ * that started at most {@code maxStalenessNanos} before it arrived, so what
+ * it gets reflects the database no older than that; otherwise it starts a
+ * fresh load, which later callers join instead. Failures are shared the same
+ * way. Nothing is kept once a load finishes, this is not a cache.
+ *
+ * @author Avarexity - Whard A.
+ */
+public final class SingleFlight {
+    /**
+     * A read that may throw whatever the underlying call throws.
+     */
+    @FunctionalInterface
+    public interface Load<T> {
+        T run() throws Throwable;
+    }
+
+    private static final class Flight {
+        final long startedNanos;
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        Flight(long startedNanos) {
+            this.startedNanos = startedNanos;
+        }
+    }
+
+    private final Map<Object, Flight> flights = new ConcurrentHashMap<>();
+    private final long maxStalenessNanos;
+    private final LongSupplier clock;
+    private final Counter leaders;
+    private final Counter joined;
+
+    public SingleFlight(String group, long maxStalenessNanos, MeterRegistry registry, LongSupplier clock) {
+        this.maxStalenessNanos = maxStalenessNanos;
+        this.clock = clock;
+        this.leaders = Counter.builder("coalescing.calls")
+                .tag("group", group)
+                .tag("role", "leader")
+                .register(registry);
+        this.joined = Counter.builder("coalescing.calls")
+                .tag("group", group)
+                .tag("role", "joined")
+                .register(registry);
+        Gauge.builder("coalescing.inflight", flights, Map::size)
+                .tag("group", group)
+                .register(registry);
+    }
+
+    /**
+     * Runs the load for the key, or waits for a recent one already running.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Load<T> load) throws Throwable {
+        Flight mine = new Flight(clock.getAsLong());
+        Flight current = flights.compute(key, (k, running) ->
+                running != null && mine.startedNanos - running.startedNanos <= maxStalenessNanos ? running : mine);
+
+        if (current != mine) {
+            joined.increment();
+            try {
+                return (T) current.result.get();
+            } catch (ExecutionException e) {
+                throw e.getCause();
+            }
+        }
+
+        leaders.increment();
+        try {
+            T value = load.run();
+            mine.result.complete(value);
+            return value;
+        } catch (Throwable t) {
+            mine.result.completeExceptionally(t);
+            throw t;
+        } finally {
+            flights.remove(key, mine);
+        }
+    }
+
+    public int inflight() { return flights.size(); }
+}
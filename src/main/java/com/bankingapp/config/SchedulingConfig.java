@@ -0,0 +1,12 @@
+package com.bankingapp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} jobs (replica lag checks, analytics refresh).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,57 @@
+package com.bankingapp.config;
+
+import com.bankingapp.audit.AuditListener;
+import com.bankingapp.events.EventBus;
+import com.bankingapp.events.EventSubscriber;
+import com.bankingapp.ledger.BalanceCache;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.Filter;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Beans that stay eager when {@code spring.main.lazy-initialization} is on.
+ *
+ * Lazy start-up defers every other bean (analytics, statements, import,
+ * archive, password hashing, ...) to its first use. Kept eager are the
+ * beans the first transfer would otherwise wait for (data source, Flyway,
+ * Hibernate, the balance cache rebuilt from the journal) and the beans that
+ * only do their work when created: a lazy {@code @Scheduled} bean is never
+ * scheduled, a lazy subscriber never registered with the event bus, a lazy
+ * filter never applied, and the {@link AuditListener}, which nothing
+ * injects, never hooked into Hibernate, leaving balance changes unaudited.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerBeans() {
+        return (beanName, definition, beanType) -> beanType != null && (
+                DataSource.class.isAssignableFrom(beanType)
+                        || Flyway.class.isAssignableFrom(beanType)
+                        || EntityManagerFactory.class.isAssignableFrom(beanType)
+                        || BalanceCache.class.isAssignableFrom(beanType)
+                        || EventBus.class.isAssignableFrom(beanType)
+                        || EventSubscriber.class.isAssignableFrom(beanType)
+                        || AuditListener.class.isAssignableFrom(beanType)
+                        || Filter.class.isAssignableFrom(beanType)
+                        || hasScheduledMethods(beanType));
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        boolean[] found = {false};
+        ReflectionUtils.doWithMethods(ClassUtils.getUserClass(beanType),
+                method -> found[0] = true,
+                method -> !found[0] && method.isAnnotationPresent(Scheduled.class));
+        return found[0];
+    }
+}
@@ -2,25 +2,43 @@ package com.bankingapp.controller;
 
 import com.bankingapp.dto.AccountRequest;
 import com.bankingapp.dto.AccountResponse;
+import com.bankingapp.dto.CardResponse;
+import com.bankingapp.events.BalanceFeed;
 import com.bankingapp.model.Account;
 import com.bankingapp.model.User;
+import com.bankingapp.security.SessionClaims;
+import com.bankingapp.security.SessionTokenService;
 import com.bankingapp.service.AccountService;
+import com.bankingapp.service.CardService;
 import com.bankingapp.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/accounts")
 public class AccountController {
     private final AccountService accountService;
     private final UserService userService;
+    private final CardService cardService;
+    private final SessionTokenService tokens;
+    private final BalanceFeed balanceFeed;
 
     @Autowired
-    public AccountController(AccountService accountService, UserService userService) {
+    public AccountController(AccountService accountService, UserService userService, CardService cardService,
+                             SessionTokenService tokens, BalanceFeed balanceFeed) {
         this.accountService = accountService;
         this.userService = userService;
+        this.cardService = cardService;
+        this.tokens = tokens;
+        this.balanceFeed = balanceFeed;
     }
 
     @PostMapping
@@ -36,15 +54,77 @@ public class AccountController {
         return ResponseEntity.ok(AccountResponse.fromEntity(account));
     }
 
-    public ResponseEntity<AccountResponse> getAccount(Long accountId, Long userId) {
-        Account account = accountService.getById(accountId);
-        User user = userService.getById(userId);
+    // Lists the caller's own accounts; userId is optional and must be the caller's
+    @GetMapping
+    public ResponseEntity<List<AccountResponse>> getAccounts(
+            @RequestParam(required = false) Long userId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        SessionClaims claims = tokens.verify(authorization);
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (userId != null && !userId.equals(claims.userId())) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(accountService.getResponsesByOwner(claims.userId()));
+    }
+
+    @GetMapping("/{accountId}/cards")
+    public ResponseEntity<List<CardResponse>> getCards(
+            @PathVariable Long accountId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        SessionClaims claims = tokens.verify(authorization);
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!claims.ownsAccount(accountId)) {
+            return ResponseEntity.notFound().build();
+        }
 
-        if (account == null || !account.getOwner().equals(user)) {
+        return ResponseEntity.ok(cardService.getResponsesByAccount(accountId));
+    }
+
+    // Ownership comes from the session token, so only the account itself is read
+    @GetMapping("/{accountId}")
+    public ResponseEntity<AccountResponse> getAccount(
+            @PathVariable Long accountId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        SessionClaims claims = tokens.verify(authorization);
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!claims.ownsAccount(accountId)) {
             return ResponseEntity.notFound().build();
         }
 
-        return ResponseEntity.ok(AccountResponse.fromEntity(account));
+        AccountResponse account = accountService.getResponseById(accountId);
+        if (account == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(account);
+    }
+
+    // Live balance updates instead of polling getAccount, see BalanceFeed
+    @GetMapping(value = "/{accountId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> getEvents(
+            @PathVariable Long accountId,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        SessionClaims claims = tokens.verify(authorization);
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!claims.ownsAccount(accountId)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        AccountResponse account = accountService.getResponseById(accountId);
+        if (account == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(balanceFeed.subscribe(account));
     }
 
     public ResponseEntity<AccountResponse> deleteAccount(Long id) {
@@ -0,0 +1,58 @@
+package com.bankingapp.controller;
+
+import com.bankingapp.analytics.AggregateRow;
+import com.bankingapp.analytics.AnalyticsQuery;
+import com.bankingapp.analytics.GroupBy;
+import com.bankingapp.analytics.TransactionColumnStore;
+import com.bankingapp.model.TransactionState;
+import com.bankingapp.model.TransactionType;
+import com.bankingapp.security.SessionClaims;
+import com.bankingapp.security.SessionTokenService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+@RestController
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+    private final TransactionColumnStore store;
+    private final SessionTokenService tokens;
+
+    @Autowired
+    public AnalyticsController(TransactionColumnStore store, SessionTokenService tokens) {
+        this.store = store;
+        this.tokens = tokens;
+    }
+
+    // Aggregates one of the caller's accounts; there is no cross-customer view
+    @GetMapping("/transactions")
+    public ResponseEntity<List<AggregateRow>> aggregate(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Set<TransactionType> type,
+            @RequestParam(required = false) Set<TransactionState> state,
+            @RequestParam(required = false) Currency currency,
+            @RequestParam(required = false) Long accountId,
+            @RequestParam(required = false) Set<GroupBy> groupBy,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        SessionClaims claims = tokens.verify(authorization);
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (accountId == null || !claims.ownsAccount(accountId)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(store.scan(new AnalyticsQuery(from, to,
+                type == null ? Set.of() : type,
+                state == null ? Set.of() : state,
+                currency, accountId,
+                groupBy == null ? Set.of() : groupBy)));
+    }
+}
@@ -0,0 +1,66 @@
+package com.bankingapp.controller;
+
+import com.bankingapp.dto.LoginRequest;
+import com.bankingapp.dto.LoginResponse;
+import com.bankingapp.model.User;
+import com.bankingapp.security.SessionClaims;
+import com.bankingapp.security.SessionTokenService;
+import com.bankingapp.service.AccountService;
+import com.bankingapp.service.UserService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/auth")
+public class AuthController {
+    private final UserService userService;
+    private final AccountService accountService;
+    private final SessionTokenService tokens;
+    private final long retryAfterSeconds;
+
+    @Autowired
+    public AuthController(UserService userService, AccountService accountService, SessionTokenService tokens,
+                          @Value("${bankingapp.password.retry-after-seconds:2}") long retryAfterSeconds) {
+        this.userService = userService;
+        this.accountService = accountService;
+        this.tokens = tokens;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @PostMapping("/login")
+    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
+        User user;
+        try {
+            user = userService.authenticate(request.email(), request.password());
+        } catch (RejectedExecutionException e) {
+            // the hashing queue is full: a burst of logins, not a fault, so the client may come back
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                    .build();
+        }
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        String token = tokens.issue(user.getId(), accountService.getIdsByOwner(user.getId()));
+        return ResponseEntity.ok(new LoginResponse(token, tokens.getTtlMillis() / 1000));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        SessionClaims claims = tokens.verify(authorization);
+        if (claims == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        tokens.revoke(claims);
+        return ResponseEntity.noContent().build();
+    }
+}
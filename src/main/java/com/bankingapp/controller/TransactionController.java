@@ -5,25 +5,42 @@ import com.bankingapp.dto.TransactionResponse;
 import com.bankingapp.model.Account;
 import com.bankingapp.model.Institute;
 import com.bankingapp.model.Transaction;
+import com.bankingapp.security.SessionClaims;
+import com.bankingapp.security.SessionTokenService;
 import com.bankingapp.service.AccountService;
 import com.bankingapp.service.InstituteService;
 import com.bankingapp.service.TransactionService;
+import com.bankingapp.util.TransactionJsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.LocalDate;
+
 @RestController
 @RequestMapping("/api/transactions")
 public class TransactionController {
     private final TransactionService service;
     private final AccountService accountService;
     private final InstituteService instituteService;
+    private final SessionTokenService tokens;
+    private final ObjectMapper mapper;
 
     @Autowired
-    public TransactionController(TransactionService service, AccountService accountService, InstituteService instituteService) {
+    public TransactionController(TransactionService service, AccountService accountService,
+                                 InstituteService instituteService, SessionTokenService tokens, ObjectMapper mapper) {
         this.service = service;
         this.accountService = accountService;
         this.instituteService = instituteService;
+        this.tokens = tokens;
+        this.mapper = mapper;
     }
 
     @PostMapping("/transfer")
@@ -69,5 +86,42 @@ public class TransactionController {
         return TransactionResponse.fromEntity(tx);
     }
 
-    public TransactionResponse
+    // Streams the JSON array row by row instead of building a List<TransactionResponse>;
+    // live transactions only, unless a date range asks for archived months as well
+    @GetMapping(value = "/account/{accountId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void getByAccount(
+            @PathVariable Long accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            HttpServletResponse response) throws IOException {
+        SessionClaims claims = tokens.verify(authorization);
+        if (claims == null) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            return;
+        }
+        if (!claims.ownsAccount(accountId)) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        TransactionJsonWriter writer = new TransactionJsonWriter(mapper.getFactory(), response.getOutputStream());
+        try {
+            if (from != null) {
+                service.streamByAccount(accountId, from, to != null ? to : LocalDate.now(), writer::write);
+            } else {
+                service.streamByAccount(accountId, writer::write);
+            }
+        } catch (RuntimeException e) {
+            // Nothing sent yet: drop the partial body so the error becomes a 500;
+            // otherwise the array stays unterminated and the connection is aborted
+            writer.fail();
+            if (!response.isCommitted()) {
+                response.reset();
+            }
+            throw e;
+        }
+        writer.close();
+    }
 }
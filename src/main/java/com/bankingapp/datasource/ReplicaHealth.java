@@ -0,0 +1,83 @@
+package com.bankingapp.datasource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Tracks whether the read replica may currently serve read-only transactions.
+ * The replica is taken out of rotation when a connection to it fails (for a
+ * short back-off period) or when the configured lag probe reports that it is
+ * further behind the primary than allowed.
+ *
+ * @author Avarexity - Whard A.
+ */
+public class ReplicaHealth {
+    private final DataSource replica;
+    private final String lagQuery;
+    private final long maxLagSeconds;
+    private final long retryAfterMillis;
+
+    private volatile boolean lagging = false;
+    private volatile long downUntil = 0L;
+
+    /**
+     * Constructs a new ReplicaHealth.
+     *
+     * @param replica The replica data source to probe
+     * @param lagQuery Query returning the replica lag in seconds in its first column, blank to disable lag checks
+     * @param maxLagSeconds The maximum tolerated lag before reads go back to the primary
+     * @param retryAfterMillis How long the replica stays out of rotation after a connection failure
+     */
+    public ReplicaHealth(DataSource replica, String lagQuery, long maxLagSeconds, long retryAfterMillis) {
+        this.replica = replica;
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    /**
+     * @return true if read-only work may be routed to the replica
+     */
+    public boolean isAvailable() {
+        return !lagging && System.currentTimeMillis() >= downUntil;
+    }
+
+    /**
+     * Takes the replica out of rotation until the back-off period has passed.
+     */
+    public void markDown() {
+        downUntil = System.currentTimeMillis() + retryAfterMillis;
+    }
+
+    public boolean isLagging() { return lagging; }
+
+    /**
+     * Runs the lag probe against the replica. A failed probe or a NULL lag
+     * (replication stopped) counts as the replica being unavailable.
+     */
+    @Scheduled(fixedDelayString = "${bankingapp.datasource.replica.lag-check-interval-ms:5000}")
+    public void checkLag() {
+        if (lagQuery == null || lagQuery.isBlank()) {
+            return;
+        }
+
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            if (rs.next()) {
+                long lag = rs.getLong(1);
+                lagging = rs.wasNull() || lag > maxLagSeconds;
+            } else {
+                lagging = true;
+            }
+        } catch (SQLException e) {
+            lagging = true;
+            markDown();
+        }
+    }
+}
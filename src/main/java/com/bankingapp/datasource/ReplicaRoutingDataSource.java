@@ -0,0 +1,72 @@
+package com.bankingapp.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Routes connections of {@code @Transactional(readOnly = true)} work to the read
+ * replica and everything else to the primary. If the replica is unhealthy, or a
+ * connection to it cannot be opened, the request falls back to the primary.
+ *
+ * Must be wrapped in a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * so the connection is only fetched once the transaction's read-only flag is set.
+ *
+ * @author Avarexity - Whard A.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public enum Route { PRIMARY, REPLICA }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaHealth health;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaHealth health) {
+        this.primary = Objects.requireNonNull(primary, "Primary data source cannot be null.");
+        this.replica = Objects.requireNonNull(replica, "Replica data source cannot be null.");
+        this.health = Objects.requireNonNull(health, "Replica health cannot be null.");
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && health.isAvailable()) {
+            return Route.REPLICA;
+        }
+        return Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() != Route.REPLICA) {
+            return primary.getConnection();
+        }
+
+        try {
+            return replica.getConnection();
+        } catch (SQLException e) {
+            health.markDown();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (determineCurrentLookupKey() != Route.REPLICA) {
+            return primary.getConnection(username, password);
+        }
+
+        try {
+            return replica.getConnection(username, password);
+        } catch (SQLException e) {
+            health.markDown();
+            return primary.getConnection(username, password);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.bankingapp.dto;
 import com.bankingapp.model.Account;
 
 import java.math.BigDecimal;
+import java.util.Currency;
 
 public record AccountResponse(
         Long id,
@@ -10,6 +11,11 @@ public record AccountResponse(
         String currency,
         BigDecimal balance
 ) {
+    // Used by JPQL constructor expressions, see AccountRepository
+    public AccountResponse(Long id, String name, Currency currency, BigDecimal balance) {
+        this(id, name, currency.getCurrencyCode(), balance);
+    }
+
     public static AccountResponse fromEntity(Account account) {
         return new AccountResponse(
                 account.getId(),
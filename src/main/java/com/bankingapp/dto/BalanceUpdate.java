@@ -0,0 +1,19 @@
+package com.bankingapp.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Payload of a balance feed event: the account's balance at the end of a
+ * coalescing window and the transactions posted in it.
+ *
+ * @param dropped Transactions of the window left out because the window was over its limit
+ */
+public record BalanceUpdate(
+        Long accountId,
+        String currency,
+        BigDecimal balance,
+        List<TransactionResponse> transactions,
+        int dropped
+) {
+}
@@ -1,9 +1,14 @@
 package com.bankingapp.dto;
 
 import com.bankingapp.model.Card;
+import com.bankingapp.model.CreditCard;
+import com.bankingapp.model.DebitCard;
+import com.bankingapp.model.OTCard;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Currency;
 
 public record CardResponse(
         String number,
@@ -12,15 +17,35 @@ public record CardResponse(
         BigDecimal drawLimit,
         String type
 ) {
+    private static final DateTimeFormatter EXPIRY_FORMAT = DateTimeFormatter.ofPattern("MM/yy");
+
+    // Used by JPQL constructor expressions, see CardRepository
+    public CardResponse(String number, LocalDate expiryDate, Currency currency, BigDecimal drawLimit,
+                        Class<? extends Card> type) {
+        this(mask(number), expiryDate.format(EXPIRY_FORMAT), currency.getCurrencyCode(), drawLimit, typeOf(type));
+    }
+
     public static CardResponse fromEntity(Card card) {
         return new CardResponse(
-                card.getNumber().substring(0, 4) +
-                        "********" +
-                        card.getNumber().substring(card.getNumber().length() - 4),
-                card.getExpiryDate().format(DateTimeFormatter.ofPattern("MM/yy")),
+                mask(card.getNumber()),
+                card.getExpiryDate().format(EXPIRY_FORMAT),
                 card.getAccount().getCurrency().getCurrencyCode(),
                 card.getDrawLimit(),
                 card.getType()
         );
     }
+
+    private static String mask(String number) {
+        return number.substring(0, 4) +
+                "********" +
+                number.substring(number.length() - 4);
+    }
+
+    // Mirrors Card.getType() for the projection, which only has the entity class
+    private static String typeOf(Class<? extends Card> type) {
+        if (type == CreditCard.class) return "Credit";
+        if (type == DebitCard.class) return "Debit";
+        if (type == OTCard.class) return "One-Time Use";
+        throw new IllegalArgumentException("Card type not supported: " + type);
+    }
 }
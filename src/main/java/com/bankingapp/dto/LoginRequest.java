@@ -0,0 +1,12 @@
+package com.bankingapp.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public record LoginRequest(
+        @NotNull(message = "User email is required")
+        String email,
+
+        @NotNull(message = "User password is required")
+        char[] password
+) {
+}
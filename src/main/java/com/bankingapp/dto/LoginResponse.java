@@ -0,0 +1,7 @@
+package com.bankingapp.dto;
+
+public record LoginResponse(
+        String token,
+        long expiresIn
+) {
+}
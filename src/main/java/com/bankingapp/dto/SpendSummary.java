@@ -0,0 +1,18 @@
+package com.bankingapp.dto;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+/**
+ * Card payment spend in one currency over some time range.
+ */
+public record SpendSummary(
+        Currency currency,
+        long count,
+        BigDecimal sum,
+        BigDecimal max
+) {
+    public SpendSummary merge(SpendSummary other) {
+        return new SpendSummary(currency, count + other.count, sum.add(other.sum), max.max(other.max));
+    }
+}
@@ -1,9 +1,13 @@
 package com.bankingapp.dto;
 
 import com.bankingapp.model.Transaction;
+import com.bankingapp.model.TransactionState;
+import com.bankingapp.model.TransactionType;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Currency;
 
 public record TransactionResponse(
         String id,
@@ -14,10 +18,26 @@ public record TransactionResponse(
         BigDecimal amount,
         String note
 ) {
+    public static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy @ HH:mm:ss");
+
+    // Used by JPQL constructor expressions, see TransactionRepository
+    public TransactionResponse(String id, LocalDateTime timestamp, TransactionState state, TransactionType type,
+                               Currency currency, BigDecimal amount, String note) {
+        this(
+                id,
+                timestamp.format(DATE_FORMAT) + " CEST",
+                state.toString(),
+                type.toString(),
+                currency.getCurrencyCode(),
+                amount.stripTrailingZeros(),
+                note
+        );
+    }
+
     public static TransactionResponse fromEntity(Transaction tx) {
         return new TransactionResponse(
                 tx.getId(),
-                tx.getTimestamp().format(DateTimeFormatter.ofPattern("dd/MM/yyyy @ HH:mm:ss")) + " CEST",
+                tx.getTimestamp().format(DATE_FORMAT) + " CEST",
                 tx.getState().toString(),
                 tx.getType().toString(),
                 tx.getCurrency().getCurrencyCode(),
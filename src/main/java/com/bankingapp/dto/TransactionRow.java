@@ -0,0 +1,24 @@
+package com.bankingapp.dto;
+
+import com.bankingapp.model.TransactionState;
+import com.bankingapp.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Currency;
+
+/**
+ * Raw transaction columns as read by the streaming list queries. Unlike
+ * {@link TransactionResponse} nothing is formatted up front; the
+ * {@link com.bankingapp.util.TransactionJsonWriter} formats while writing.
+ */
+public record TransactionRow(
+        String id,
+        LocalDateTime timestamp,
+        TransactionState state,
+        TransactionType type,
+        Currency currency,
+        BigDecimal amount,
+        String note
+) {
+}
@@ -0,0 +1,329 @@
+package com.bankingapp.events;
+
+import com.bankingapp.dto.AccountResponse;
+import com.bankingapp.dto.BalanceUpdate;
+import com.bankingapp.dto.TransactionResponse;
+import com.bankingapp.service.AccountService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Live balance updates over Server-Sent Events.
+ *
+ * Subscribers are grouped per account. Posted transactions only mark their
+ * accounts dirty (a map lookup, nothing else, for accounts nobody watches);
+ * every window a single flusher reads the balances of all dirty accounts in
+ * one query, serializes one {@link BalanceUpdate} per account and hands that
+ * same payload to each of the account's subscribers. However many
+ * transactions post in a window, a client gets at most one event per window
+ * carrying the latest balance.
+ *
+ * Writes to a client block, so the flusher never writes: it leaves the
+ * payload in the subscriber's slot, which holds only the latest one, and a
+ * pool of {@code send-threads} drains the slots. A slow client therefore
+ * skips intermediate balances rather than queueing them, and cannot hold up
+ * the flusher or other clients. A send still running after
+ * {@code send-deadline-ms} evicts its client: it is unsubscribed, its emitter
+ * completed with an error and its sender interrupted.
+ *
+ * An idle subscriber is an {@link SseEmitter} (async request, no thread), a
+ * set entry and an empty slot. Heartbeat comments, drained the same way, find
+ * connections that went away without closing.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Component
+public class BalanceFeed implements EventSubscriber<TransactionPosted> {
+    private static final String EVENT_NAME = "balance";
+
+    /**
+     * Subscribers and pending transactions of one account.
+     */
+    private static final class Channel {
+        final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+        final Queue<TransactionPosted> pending = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * One client: the latest payload not yet sent, and the send in progress.
+     */
+    private static final class Subscriber {
+        final Long accountId;
+        final SseEmitter emitter;
+        final AtomicReference<String> latest = new AtomicReference<>();
+        final AtomicBoolean heartbeat = new AtomicBoolean();
+        final AtomicBoolean scheduled = new AtomicBoolean();
+        volatile Thread sender;
+        volatile long sendingSince;
+
+        Subscriber(Long accountId, SseEmitter emitter) {
+            this.accountId = accountId;
+            this.emitter = emitter;
+        }
+    }
+
+    private final AccountService accounts;
+    private final ObjectMapper mapper;
+    private final long timeoutMillis;
+    private final int maxTransactions;
+    private final long sendDeadlineNanos;
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService senders;
+
+    @Autowired
+    public BalanceFeed(AccountService accounts, ObjectMapper mapper,
+                       @Value("${bankingapp.feed.window-ms:100}") long windowMillis,
+                       @Value("${bankingapp.feed.heartbeat-ms:20000}") long heartbeatMillis,
+                       @Value("${bankingapp.feed.timeout-ms:1800000}") long timeoutMillis,
+                       @Value("${bankingapp.feed.max-transactions-per-update:20}") int maxTransactions,
+                       @Value("${bankingapp.feed.send-threads:8}") int sendThreads,
+                       @Value("${bankingapp.feed.send-deadline-ms:5000}") long sendDeadlineMillis) {
+        this.accounts = accounts;
+        this.mapper = mapper;
+        this.timeoutMillis = timeoutMillis;
+        this.maxTransactions = maxTransactions;
+        this.sendDeadlineNanos = TimeUnit.MILLISECONDS.toNanos(sendDeadlineMillis);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "balance-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threads = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(sendThreads, r -> {
+            Thread thread = new Thread(r, "balance-feed-send-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkMillis = Math.max(1, sendDeadlineMillis / 2);
+        scheduler.scheduleWithFixedDelay(this::flush, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::evictStuck, checkMillis, checkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public String name() { return "balance-feed"; }
+
+    @Override
+    public Class<TransactionPosted> eventType() { return TransactionPosted.class; }
+
+    @Override
+    public void onEvent(TransactionPosted event) {
+        post(event.senderId(), event);
+        post(event.receiverId(), event);
+    }
+
+    private void post(Long accountId, TransactionPosted event) {
+        if (accountId == null) {
+            return;
+        }
+        Channel channel = channels.get(accountId);
+        if (channel == null) {
+            return;
+        }
+        channel.pending.add(event);
+        dirty.add(accountId);
+    }
+
+    /**
+     * Opens a feed for an account; the current balance is sent right away.
+     *
+     * @param current The account as it is now
+     */
+    public SseEmitter subscribe(AccountResponse current) {
+        Long accountId = current.id();
+        SseEmitter emitter = newEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(accountId, emitter);
+        // Atomic with the removal of an emptied channel in unsubscribe
+        channels.compute(accountId, (id, channel) -> {
+            Channel target = channel != null ? channel : new Channel();
+            target.subscribers.add(subscriber);
+            return target;
+        });
+
+        Runnable remove = () -> unsubscribe(subscriber);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(e -> remove.run());
+
+        // Through the slot, so a flush racing with the subscription cannot be overtaken by the older balance
+        subscriber.latest.compareAndSet(null,
+                serialize(new BalanceUpdate(accountId, current.currency(), current.balance(), List.of(), 0)));
+        schedule(subscriber);
+        return emitter;
+    }
+
+    protected SseEmitter newEmitter(long timeoutMillis) {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    public int subscriberCount() {
+        int count = 0;
+        for (Channel channel : channels.values()) {
+            count += channel.subscribers.size();
+        }
+        return count;
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        channels.computeIfPresent(subscriber.accountId, (id, channel) -> {
+            channel.subscribers.remove(subscriber);
+            return channel.subscribers.isEmpty() ? null : channel;
+        });
+    }
+
+    /**
+     * Sends one update per dirty account. Runs every window on the feed thread.
+     */
+    private void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(dirty);
+        dirty.removeAll(ids);
+
+        List<AccountResponse> balances;
+        try {
+            balances = accounts.getResponsesByIds(ids);
+        } catch (RuntimeException e) {
+            dirty.addAll(ids); // database unavailable, retry next window
+            return;
+        }
+
+        for (AccountResponse account : balances) {
+            Channel channel = channels.get(account.id());
+            if (channel == null) {
+                continue;
+            }
+
+            List<TransactionResponse> transactions = new ArrayList<>();
+            int taken = 0;
+            TransactionPosted tx;
+            while ((tx = channel.pending.poll()) != null) {
+                taken++;
+                if (transactions.size() < maxTransactions) {
+                    transactions.add(new TransactionResponse(tx.transactionId(), tx.timestamp(), tx.state(),
+                            tx.type(), tx.currency(), tx.amount(), null));
+                }
+            }
+
+            String payload = serialize(new BalanceUpdate(account.id(), account.currency(), account.balance(),
+                    transactions, taken - transactions.size()));
+            for (Subscriber subscriber : channel.subscribers) {
+                // Replaces a payload the client has not taken yet; it only ever needs the latest
+                subscriber.latest.set(payload);
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void heartbeat() {
+        for (Channel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                subscriber.heartbeat.set(true);
+                schedule(subscriber);
+            }
+        }
+    }
+
+    // At most one drain per subscriber is queued or running, so its events stay in order
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                senders.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                subscriber.scheduled.set(false); // shutting down
+            }
+        }
+    }
+
+    /**
+     * Sends whatever is in the subscriber's slot until it stays empty. Runs on
+     * a sender thread.
+     */
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            String payload = subscriber.latest.getAndSet(null);
+            boolean heartbeat = subscriber.heartbeat.getAndSet(false);
+            if (payload == null && !heartbeat) {
+                subscriber.scheduled.set(false);
+                // A payload set after the slot was found empty, but before the flag was cleared
+                if ((subscriber.latest.get() == null && !subscriber.heartbeat.get())
+                        || !subscriber.scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+
+            // Any event shows the connection is alive, so the heartbeat goes only alone
+            SseEmitter.SseEventBuilder event = payload != null
+                    ? SseEmitter.event().name(EVENT_NAME).data(payload, MediaType.APPLICATION_JSON)
+                    : SseEmitter.event().comment("");
+            subscriber.sender = Thread.currentThread();
+            subscriber.sendingSince = System.nanoTime();
+            try {
+                subscriber.emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // client went away, the emitter already completed, or the send was evicted
+                unsubscribe(subscriber);
+                subscriber.latest.set(null);
+                subscriber.scheduled.set(false);
+                return;
+            } finally {
+                subscriber.sendingSince = 0;
+                subscriber.sender = null;
+                Thread.interrupted(); // an eviction that came too late must not hit the next send
+            }
+        }
+    }
+
+    /**
+     * Evicts clients whose send has run past the deadline. Runs on the feed thread.
+     */
+    private void evictStuck() {
+        long now = System.nanoTime();
+        for (Channel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                long since = subscriber.sendingSince;
+                if (since != 0 && now - since > sendDeadlineNanos) {
+                    unsubscribe(subscriber);
+                    Thread sender = subscriber.sender;
+                    subscriber.emitter.completeWithError(new TimeoutException("Balance update not sent in time."));
+                    if (sender != null && subscriber.sendingSince == since) {
+                        sender.interrupt();
+                    }
+                }
+            }
+        }
+    }
+
+    private String serialize(BalanceUpdate update) {
+        try {
+            return mapper.writeValueAsString(update);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Balance update cannot be serialized.", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        senders.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        channels.clear();
+    }
+}
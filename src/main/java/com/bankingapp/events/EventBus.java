@@ -0,0 +1,190 @@
+package com.bankingapp.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process fan-out of outbox events to typed subscribers.
+ *
+ * Each subscriber has its own bounded queue and worker thread, so a slow
+ * subscriber never delays the others. Events are offered in offset order;
+ * once a subscriber's queue is full it takes nothing more from the current
+ * batch and its dispatch offset stays put, so the relay reads those events
+ * again later (backpressure onto the outbox table, not onto the posting
+ * path). A subscriber's acknowledged offset only advances after its handler
+ * returned, and is what the relay persists.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Component
+public class EventBus {
+    record Envelope(long offset, Object event) {}
+
+    /**
+     * Delivery state of one subscriber.
+     */
+    static final class Subscription<E> {
+        private final EventSubscriber<E> subscriber;
+        private final BlockingQueue<Envelope> queue;
+        private final Counter failures;
+        private volatile long dispatched;
+        private volatile long acknowledged;
+        private boolean blocked;
+        private Thread worker;
+
+        Subscription(EventSubscriber<E> subscriber, int capacity, MeterRegistry registry) {
+            this.subscriber = subscriber;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.failures = Counter.builder("events.delivery.failures")
+                    .tag("subscriber", subscriber.name())
+                    .register(registry);
+            Gauge.builder("events.queue.size", queue, Collection::size)
+                    .tag("subscriber", subscriber.name())
+                    .register(registry);
+        }
+
+        String name() { return subscriber.name(); }
+        long dispatched() { return dispatched; }
+        long acknowledged() { return acknowledged; }
+    }
+
+    private final List<Subscription<?>> subscriptions = new ArrayList<>();
+    private final long retryBackoffMillis;
+    private volatile boolean running;
+
+    @Autowired
+    public EventBus(List<EventSubscriber<?>> subscribers, MeterRegistry registry,
+                    @Value("${bankingapp.events.queue-capacity:1024}") int capacity,
+                    @Value("${bankingapp.events.retry-backoff-ms:500}") long retryBackoffMillis) {
+        Set<String> names = new HashSet<>();
+        for (EventSubscriber<?> subscriber : subscribers) {
+            if (!names.add(subscriber.name())) {
+                throw new IllegalStateException("Duplicate event subscriber name: " + subscriber.name());
+            }
+            subscriptions.add(new Subscription<>(subscriber, capacity, registry));
+        }
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    public boolean hasSubscribers() { return !subscriptions.isEmpty(); }
+
+    List<Subscription<?>> subscriptions() { return subscriptions; }
+
+    /**
+     * Starts delivery, each subscriber continuing after its stored offset
+     * (0 if it has none).
+     */
+    synchronized void start(Map<String, Long> offsets) {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (Subscription<?> subscription : subscriptions) {
+            long offset = offsets.getOrDefault(subscription.name(), 0L);
+            subscription.dispatched = offset;
+            subscription.acknowledged = offset;
+            subscription.worker = Thread.ofPlatform()
+                    .name("event-" + subscription.name())
+                    .daemon()
+                    .start(() -> work(subscription));
+        }
+    }
+
+    /**
+     * @return Lowest offset dispatched to every subscriber; the next read starts after it
+     */
+    long lowestDispatched() {
+        long lowest = Long.MAX_VALUE;
+        for (Subscription<?> subscription : subscriptions) {
+            lowest = Math.min(lowest, subscription.dispatched);
+        }
+        return lowest == Long.MAX_VALUE ? 0 : lowest;
+    }
+
+    /**
+     * Called before each batch; clears the full-queue marks of the previous one.
+     */
+    void beginBatch() {
+        for (Subscription<?> subscription : subscriptions) {
+            subscription.blocked = false;
+        }
+    }
+
+    /**
+     * Offers an event to every subscriber that has not seen it yet.
+     *
+     * @return false if no subscriber can take anything more from this batch
+     */
+    boolean dispatch(long offset, Object event) {
+        boolean open = false;
+        for (Subscription<?> subscription : subscriptions) {
+            if (subscription.blocked || offset <= subscription.dispatched) {
+                open |= !subscription.blocked;
+                continue;
+            }
+            if (subscription.queue.offer(new Envelope(offset, event))) {
+                subscription.dispatched = offset;
+                open = true;
+            } else {
+                subscription.blocked = true;
+            }
+        }
+        return open;
+    }
+
+    private <E> void work(Subscription<E> subscription) {
+        EventSubscriber<E> subscriber = subscription.subscriber;
+        Class<E> type = subscriber.eventType();
+        try {
+            while (running) {
+                Envelope envelope = subscription.queue.poll(1, TimeUnit.SECONDS);
+                if (envelope == null) {
+                    continue;
+                }
+                if (type.isInstance(envelope.event())) {
+                    deliver(subscription, type.cast(envelope.event()));
+                }
+                subscription.acknowledged = envelope.offset();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Retries until the handler succeeds; later events wait so order is kept
+    private <E> void deliver(Subscription<E> subscription, E event) throws InterruptedException {
+        long backoff = retryBackoffMillis;
+        while (true) {
+            try {
+                subscription.subscriber.onEvent(event);
+                return;
+            } catch (InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                subscription.failures.increment();
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, 30_000L);
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        running = false;
+        for (Subscription<?> subscription : subscriptions) {
+            if (subscription.worker != null) {
+                subscription.worker.interrupt();
+            }
+        }
+    }
+}
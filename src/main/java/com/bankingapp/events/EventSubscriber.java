@@ -0,0 +1,23 @@
+package com.bankingapp.events;
+
+/**
+ * Receives outbox events of one type from the {@link EventBus}. Every bean
+ * implementing this is subscribed at startup.
+ *
+ * Delivery is at least once and in offset order: after a crash, events since
+ * the last persisted offset are delivered again, so handlers must be
+ * idempotent. A handler that throws gets the same event again after a backoff;
+ * later events wait behind it.
+ *
+ * @param <E> The event type
+ */
+public interface EventSubscriber<E> {
+    /**
+     * @return Stable, unique name under which the offset is stored
+     */
+    String name();
+
+    Class<E> eventType();
+
+    void onEvent(E event) throws Exception;
+}
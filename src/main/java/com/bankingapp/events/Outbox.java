@@ -0,0 +1,55 @@
+package com.bankingapp.events;
+
+import com.bankingapp.model.OutboxEvent;
+import com.bankingapp.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+/**
+ * Write side of the transactional outbox: records an event in the caller's
+ * database transaction, so it exists if and only if the change it describes
+ * was committed.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Component
+public class Outbox {
+    // Event types that may be stored, by the name written to event_type
+    static final Map<String, Class<?>> EVENT_TYPES = Map.of(
+            TransactionPosted.class.getSimpleName(), TransactionPosted.class);
+
+    private final OutboxEventRepository repo;
+    private final ObjectMapper mapper;
+
+    @Autowired
+    public Outbox(OutboxEventRepository repo, ObjectMapper mapper) {
+        this.repo = repo;
+        this.mapper = mapper;
+    }
+
+    /**
+     * Records an event. Must run inside the transaction making the change.
+     *
+     * @param aggregateId Id of the changed entity
+     * @param event One of the registered event types
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String aggregateId, Object event) {
+        String type = event.getClass().getSimpleName();
+        if (EVENT_TYPES.get(type) != event.getClass()) {
+            throw new IllegalArgumentException("Unregistered event type: " + event.getClass().getName());
+        }
+
+        try {
+            repo.save(new OutboxEvent(type, aggregateId, mapper.writeValueAsString(event)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Event cannot be serialized: " + type, e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.bankingapp.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the outbox table into the {@link EventBus}.
+ *
+ * Each run persists the subscribers' acknowledged offsets, reads the next
+ * batch after the lowest offset any subscriber has been handed, and offers it
+ * to the bus. Outbox rows every subscriber has acknowledged are deleted. On
+ * startup delivery resumes from the persisted offsets, so whatever was
+ * processed but not yet persisted is delivered again.
+ *
+ * Ids are assigned at insert, not at commit, so a row can become visible
+ * after one with a higher id was already delivered; reading past it would
+ * skip it, and the prune would then delete it. A run therefore only reads
+ * rows created more than {@code settle-ms} ago, longer than any transaction
+ * that appends to the outbox stays open, so every lower id has committed by
+ * the time a row is read.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Service
+public class OutboxRelay {
+    private record Row(long offset, String type, String payload) {}
+
+    private static final String SELECT_BATCH =
+            "SELECT id, event_type, payload FROM outbox_events WHERE id > ? AND created_at < ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbc;
+    private final EventBus bus;
+    private final ObjectMapper mapper;
+    private final int batchSize;
+    private final Duration settle;
+    private final Map<String, Long> persisted = new HashMap<>();
+    private boolean started;
+
+    @Autowired
+    public OutboxRelay(JdbcTemplate jdbc, EventBus bus, ObjectMapper mapper,
+                       @Value("${bankingapp.events.batch-size:500}") int batchSize,
+                       @Value("${bankingapp.events.settle-ms:5000}") long settleMillis) {
+        this.jdbc = jdbc;
+        this.bus = bus;
+        this.mapper = mapper;
+        this.batchSize = batchSize;
+        this.settle = Duration.ofMillis(settleMillis);
+    }
+
+    /**
+     * Moves one batch from the outbox to the bus.
+     *
+     * @return Number of events read
+     */
+    @Scheduled(fixedDelayString = "${bankingapp.events.poll-interval-ms:200}")
+    public synchronized int drain() {
+        if (!bus.hasSubscribers()) {
+            return 0;
+        }
+        if (!started) {
+            jdbc.query("SELECT subscriber, last_offset FROM event_offsets",
+                    rs -> { persisted.put(rs.getString(1), rs.getLong(2)); });
+            bus.start(persisted);
+            started = true;
+        }
+
+        persistOffsets();
+
+        List<Row> batch = jdbc.query(SELECT_BATCH,
+                (rs, i) -> new Row(rs.getLong(1), rs.getString(2), rs.getString(3)),
+                bus.lowestDispatched(), LocalDateTime.now().minus(settle), batchSize);
+
+        bus.beginBatch();
+        for (Row row : batch) {
+            if (!bus.dispatch(row.offset(), decode(row))) {
+                break; // every queue is full
+            }
+        }
+        return batch.size();
+    }
+
+    private void persistOffsets() {
+        List<Object[]> changed = new ArrayList<>();
+        long lowest = Long.MAX_VALUE;
+        for (EventBus.Subscription<?> subscription : bus.subscriptions()) {
+            long acknowledged = subscription.acknowledged();
+            lowest = Math.min(lowest, acknowledged);
+            if (acknowledged != persisted.getOrDefault(subscription.name(), 0L)) {
+                changed.add(new Object[]{subscription.name(), acknowledged});
+                persisted.put(subscription.name(), acknowledged);
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            jdbc.batchUpdate("INSERT INTO event_offsets (subscriber, last_offset) VALUES (?, ?) " +
+                    "ON DUPLICATE KEY UPDATE last_offset = VALUES(last_offset)", changed);
+            jdbc.update("DELETE FROM outbox_events WHERE id <= ?", lowest);
+        }
+    }
+
+    private Object decode(Row row) {
+        Class<?> type = Outbox.EVENT_TYPES.get(row.type());
+        if (type == null) {
+            throw new IllegalStateException("Unknown event type " + row.type() + " at offset " + row.offset());
+        }
+        try {
+            return mapper.readValue(row.payload(), type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable event at offset " + row.offset(), e);
+        }
+    }
+}
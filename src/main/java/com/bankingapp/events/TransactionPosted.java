@@ -0,0 +1,38 @@
+package com.bankingapp.events;
+
+import com.bankingapp.model.Transaction;
+import com.bankingapp.model.TransactionState;
+import com.bankingapp.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Currency;
+
+/**
+ * A transaction was written. Associations are reduced to ids; receiver and
+ * institute are null when absent.
+ */
+public record TransactionPosted(
+        String transactionId,
+        LocalDateTime timestamp,
+        TransactionType type,
+        TransactionState state,
+        Currency currency,
+        BigDecimal amount,
+        Long senderId,
+        Long receiverId,
+        Long instituteId
+) {
+    public static TransactionPosted of(Transaction tx) {
+        return new TransactionPosted(
+                tx.getId(),
+                tx.getTimestamp(),
+                tx.getType(),
+                tx.getState(),
+                tx.getCurrency(),
+                tx.getAmount(),
+                tx.getSender().getId(),
+                tx.getRecipient() != null ? tx.getRecipient().getId() : null,
+                tx.getInstitute() != null ? tx.getInstitute().getId() : null);
+    }
+}
@@ -0,0 +1,12 @@
+package com.bankingapp.fraud;
+
+/**
+ * Velocity of everything involved in a payment attempt, taken before the
+ * attempt itself is recorded.
+ */
+public record FraudContext(
+        VelocityAggregate.Snapshot card,
+        VelocityAggregate.Snapshot account,
+        VelocityAggregate.Snapshot institute
+) {
+}
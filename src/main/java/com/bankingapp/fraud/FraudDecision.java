@@ -0,0 +1,5 @@
+package com.bankingapp.fraud;
+
+public enum FraudDecision {
+    APPROVE, REVIEW, DECLINE
+}
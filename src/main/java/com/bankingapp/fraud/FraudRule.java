@@ -0,0 +1,17 @@
+package com.bankingapp.fraud;
+
+/**
+ * A rule of the fraud scoring stage. Every {@link org.springframework.stereotype.Component}
+ * implementing this is picked up by {@link FraudScoringStage}; the scores of all
+ * rules are added up.
+ *
+ * Rules run on the authorization path and must not block or do I/O.
+ */
+public interface FraudRule {
+    /**
+     * @param attempt The payment being authorized
+     * @param context Velocity of the card, account and institute
+     * @return A risk score, 0 meaning no risk
+     */
+    int score(PaymentAttempt attempt, FraudContext context);
+}
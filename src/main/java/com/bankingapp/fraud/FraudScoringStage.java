@@ -0,0 +1,169 @@
+package com.bankingapp.fraud;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Currency;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scores payments before they are authorized. Keeps in-memory velocity
+ * aggregates per card, account and institute, runs every {@link FraudRule}
+ * against them and turns the summed score into a {@link FraudDecision}.
+ * Amounts are minor units of the payment currency, so an institute, which
+ * is paid from accounts in any currency, keeps one aggregate per currency; a
+ * card or account only ever pays in one.
+ *
+ * Non-approving decisions are cached per card (or account, for a payment
+ * without a card) and merchant for a short time, so a burst of retries
+ * against the same merchant (card testing) is turned away without
+ * re-evaluating the rules. Evaluation time is recorded in the
+ * {@code fraud.scoring} timer; evaluations over the latency budget are counted
+ * in {@code fraud.scoring.over.budget}, and every decision in
+ * {@code fraud.decisions}, tagged with the decision.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Service
+public class FraudScoringStage {
+    private record DecisionKey(Long cardId, Long accountId, Long instituteId) {}
+
+    private record InstituteKey(Long instituteId, Currency currency) {}
+
+    private record CachedDecision(FraudDecision decision, long expiresAt) {}
+
+    private static final long DAY_MILLIS = 24 * 3_600_000L;
+
+    private final List<FraudRule> rules;
+    private final int reviewThreshold;
+    private final int declineThreshold;
+    private final long decisionTtlMillis;
+    private final int maxEntries;
+    private final long budgetNanos;
+
+    private final Map<Long, VelocityAggregate> cards = new ConcurrentHashMap<>();
+    private final Map<Long, VelocityAggregate> accounts = new ConcurrentHashMap<>();
+    private final Map<InstituteKey, VelocityAggregate> institutes = new ConcurrentHashMap<>();
+    private final Map<DecisionKey, CachedDecision> decisions = new ConcurrentHashMap<>();
+
+    private final Timer timer;
+    private final Counter overBudget;
+    private final Map<FraudDecision, Counter> decisionCounters = new EnumMap<>(FraudDecision.class);
+
+    @Autowired
+    public FraudScoringStage(List<FraudRule> rules, MeterRegistry registry,
+                             @Value("${bankingapp.fraud.review-threshold:50}") int reviewThreshold,
+                             @Value("${bankingapp.fraud.decline-threshold:100}") int declineThreshold,
+                             @Value("${bankingapp.fraud.decision-ttl-ms:2000}") long decisionTtlMillis,
+                             @Value("${bankingapp.fraud.max-tracked:1000000}") int maxEntries,
+                             @Value("${bankingapp.fraud.budget-us:50}") long budgetMicros) {
+        this.rules = List.copyOf(rules);
+        this.reviewThreshold = reviewThreshold;
+        this.declineThreshold = declineThreshold;
+        this.decisionTtlMillis = decisionTtlMillis;
+        this.maxEntries = maxEntries;
+        this.budgetNanos = TimeUnit.MICROSECONDS.toNanos(budgetMicros);
+        this.timer = Timer.builder("fraud.scoring")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.overBudget = Counter.builder("fraud.scoring.over.budget").register(registry);
+        for (FraudDecision decision : FraudDecision.values()) {
+            decisionCounters.put(decision, Counter.builder("fraud.decisions")
+                    .tag("decision", decision.name().toLowerCase())
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Scores a payment attempt. Does not record it; call {@link #record} once
+     * the payment has actually been authorized.
+     *
+     * @param attempt The payment attempt
+     * @return The decision
+     */
+    public FraudDecision score(PaymentAttempt attempt) {
+        long start = System.nanoTime();
+        long now = attempt.timestamp();
+
+        DecisionKey key = new DecisionKey(attempt.cardId(), attempt.accountId(), attempt.instituteId());
+        CachedDecision cached = decisions.get(key);
+        FraudDecision decision;
+
+        if (cached != null && cached.expiresAt() > now) {
+            decision = cached.decision();
+        } else {
+            FraudContext context = new FraudContext(
+                    snapshot(cards, attempt.cardId(), now),
+                    snapshot(accounts, attempt.accountId(), now),
+                    snapshot(institutes, instituteKey(attempt), now));
+
+            int score = 0;
+            for (FraudRule rule : rules) {
+                score += rule.score(attempt, context);
+            }
+
+            if (score >= declineThreshold) {
+                decision = FraudDecision.DECLINE;
+            } else if (score >= reviewThreshold) {
+                decision = FraudDecision.REVIEW;
+            } else {
+                decision = FraudDecision.APPROVE;
+            }
+
+            if (decision != FraudDecision.APPROVE) {
+                if (decisions.size() >= maxEntries) {
+                    decisions.values().removeIf(d -> d.expiresAt() <= now);
+                }
+                decisions.put(key, new CachedDecision(decision, now + decisionTtlMillis));
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+        if (elapsed > budgetNanos) {
+            overBudget.increment();
+        }
+        decisionCounters.get(decision).increment();
+        return decision;
+    }
+
+    /**
+     * Adds an authorized payment to the velocity aggregates.
+     *
+     * @param attempt The authorized payment
+     */
+    public void record(PaymentAttempt attempt) {
+        long now = attempt.timestamp();
+        add(cards, attempt.cardId(), attempt, now);
+        add(accounts, attempt.accountId(), attempt, now);
+        add(institutes, instituteKey(attempt), attempt, now);
+    }
+
+    private static InstituteKey instituteKey(PaymentAttempt attempt) {
+        return attempt.instituteId() != null ? new InstituteKey(attempt.instituteId(), attempt.currency()) : null;
+    }
+
+    private <K> void add(Map<K, VelocityAggregate> aggregates, K id, PaymentAttempt attempt, long now) {
+        if (id == null) {
+            return;
+        }
+        if (aggregates.size() >= maxEntries) {
+            // Anything idle for a day has nothing left in any window
+            aggregates.values().removeIf(a -> a.getLastSeen() < now - DAY_MILLIS);
+        }
+        aggregates.computeIfAbsent(id, k -> new VelocityAggregate()).add(now, attempt.amount(), attempt.instituteId());
+    }
+
+    private static <K> VelocityAggregate.Snapshot snapshot(Map<K, VelocityAggregate> aggregates, K id, long now) {
+        VelocityAggregate aggregate = id != null ? aggregates.get(id) : null;
+        return aggregate != null ? aggregate.snapshot(now) : VelocityAggregate.Snapshot.EMPTY;
+    }
+}
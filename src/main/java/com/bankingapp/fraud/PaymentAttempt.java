@@ -0,0 +1,44 @@
+package com.bankingapp.fraud;
+
+import com.bankingapp.model.Account;
+import com.bankingapp.model.Card;
+import com.bankingapp.model.Institute;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+/**
+ * A payment about to be authorized.
+ *
+ * @param cardId The card used, or null for a payment without one
+ * @param accountId The account behind the card
+ * @param instituteId The merchant, or null if unknown
+ * @param currency The payment currency
+ * @param amount Amount in minor units of {@code currency}
+ * @param timestamp Epoch milliseconds
+ */
+public record PaymentAttempt(
+        Long cardId,
+        Long accountId,
+        Long instituteId,
+        Currency currency,
+        long amount,
+        long timestamp
+) {
+    public static PaymentAttempt of(Card card, Institute merchant, BigDecimal amount) {
+        return of(card.getAccount(), card, merchant, card.getAccount().getCurrency(), amount);
+    }
+
+    public static PaymentAttempt of(Account payer, Card card, Institute merchant, Currency currency,
+                                    BigDecimal amount) {
+        int fractionDigits = currency.getDefaultFractionDigits();
+        return new PaymentAttempt(
+                card != null ? card.getId() : null,
+                payer.getId(),
+                merchant != null ? merchant.getId() : null,
+                currency,
+                amount.movePointRight(Math.max(fractionDigits, 0)).longValue(),
+                System.currentTimeMillis()
+        );
+    }
+}
@@ -0,0 +1,15 @@
+package com.bankingapp.fraud;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a payment is not authorized, because fraud scoring did not
+ * approve it or the card's own limits refused it.
+ */
+@ResponseStatus(HttpStatus.PAYMENT_REQUIRED)
+public class PaymentDeclinedException extends RuntimeException {
+    public PaymentDeclinedException(String message) {
+        super(message);
+    }
+}
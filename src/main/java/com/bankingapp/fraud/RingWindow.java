@@ -0,0 +1,103 @@
+package com.bankingapp.fraud;
+
+import java.util.Arrays;
+
+/**
+ * Sliding window of fixed-size ring buckets. Each bucket holds the count and
+ * amount of the payments that fell into it plus a 64-bit merchant bitmap;
+ * buckets are recycled in place once they fall out of the window, so a window
+ * never allocates after construction.
+ *
+ * Distinct merchants are estimated by linear counting over the OR of the
+ * bitmaps, which is accurate for the small numbers the rules care about and
+ * saturates at 64+.
+ *
+ * @author Avarexity - Whard A.
+ */
+public class RingWindow {
+    private static final int BITS = Long.SIZE;
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final long[] epochs;
+    private final long[] counts;
+    private final long[] amounts;
+    private final long[] merchants;
+
+    /**
+     * @param bucketMillis Width of one bucket
+     * @param buckets Number of buckets, the window spans {@code bucketMillis * buckets}
+     */
+    public RingWindow(long bucketMillis, int buckets) {
+        if (bucketMillis <= 0 || buckets <= 0) {
+            throw new IllegalArgumentException("Bucket width and count must be positive.");
+        }
+        this.bucketMillis = bucketMillis;
+        this.buckets = buckets;
+        this.epochs = new long[buckets];
+        this.counts = new long[buckets];
+        this.amounts = new long[buckets];
+        this.merchants = new long[buckets];
+        Arrays.fill(epochs, -1L);
+    }
+
+    /**
+     * Records a payment.
+     *
+     * @param now Time of the payment in epoch milliseconds
+     * @param amount Amount in minor units
+     * @param merchant Merchant id, or null if unknown
+     */
+    public synchronized void add(long now, long amount, Long merchant) {
+        long epoch = now / bucketMillis;
+        int slot = (int) (epoch % buckets);
+
+        if (epochs[slot] != epoch) {
+            epochs[slot] = epoch;
+            counts[slot] = 0;
+            amounts[slot] = 0;
+            merchants[slot] = 0;
+        }
+
+        counts[slot]++;
+        amounts[slot] += amount;
+        if (merchant != null) {
+            merchants[slot] |= 1L << (mix(merchant) & (BITS - 1));
+        }
+    }
+
+    /**
+     * @param now The current time in epoch milliseconds
+     * @return The aggregates over the buckets still inside the window
+     */
+    public synchronized WindowStats snapshot(long now) {
+        long oldest = now / bucketMillis - buckets;
+        long count = 0;
+        long amount = 0;
+        long bitmap = 0;
+
+        for (int i = 0; i < buckets; i++) {
+            if (epochs[i] > oldest) {
+                count += counts[i];
+                amount += amounts[i];
+                bitmap |= merchants[i];
+            }
+        }
+
+        return count == 0 ? WindowStats.EMPTY : new WindowStats(count, amount, estimateDistinct(bitmap));
+    }
+
+    private static int estimateDistinct(long bitmap) {
+        int zeros = BITS - Long.bitCount(bitmap);
+        if (zeros == 0) {
+            return BITS;
+        }
+        return (int) Math.round(-BITS * Math.log((double) zeros / BITS));
+    }
+
+    // Spreads sequential ids over the bitmap
+    private static int mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 58);
+    }
+}
@@ -0,0 +1,35 @@
+package com.bankingapp.fraud;
+
+/**
+ * Payment velocity of one card, account or institute over the last minute,
+ * hour and day.
+ *
+ * @author Avarexity - Whard A.
+ */
+public class VelocityAggregate {
+    /**
+     * Point-in-time view of the three windows.
+     */
+    public record Snapshot(WindowStats minute, WindowStats hour, WindowStats day) {
+        public static final Snapshot EMPTY = new Snapshot(WindowStats.EMPTY, WindowStats.EMPTY, WindowStats.EMPTY);
+    }
+
+    private final RingWindow minute = new RingWindow(1_000L, 60);
+    private final RingWindow hour = new RingWindow(60_000L, 60);
+    private final RingWindow day = new RingWindow(3_600_000L, 24);
+
+    private volatile long lastSeen;
+
+    public void add(long now, long amount, Long merchant) {
+        minute.add(now, amount, merchant);
+        hour.add(now, amount, merchant);
+        day.add(now, amount, merchant);
+        lastSeen = now;
+    }
+
+    public Snapshot snapshot(long now) {
+        return new Snapshot(minute.snapshot(now), hour.snapshot(now), day.snapshot(now));
+    }
+
+    public long getLastSeen() { return lastSeen; }
+}
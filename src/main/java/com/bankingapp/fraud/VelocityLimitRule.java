@@ -0,0 +1,47 @@
+package com.bankingapp.fraud;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Default velocity limits. Each exceeded limit adds its weight to the score;
+ * the limits include the attempt being scored.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Component
+public class VelocityLimitRule implements FraudRule {
+    private final long cardMinuteCount;
+    private final long cardDayAmount;
+    private final int cardHourMerchants;
+    private final long accountHourAmount;
+    private final long instituteMinuteCount;
+    private final int weight;
+
+    public VelocityLimitRule(@Value("${bankingapp.fraud.card.max-per-minute:5}") long cardMinuteCount,
+                             @Value("${bankingapp.fraud.card.max-amount-per-day:500000}") long cardDayAmount,
+                             @Value("${bankingapp.fraud.card.max-merchants-per-hour:8}") int cardHourMerchants,
+                             @Value("${bankingapp.fraud.account.max-amount-per-hour:1000000}") long accountHourAmount,
+                             @Value("${bankingapp.fraud.institute.max-per-minute:10000}") long instituteMinuteCount,
+                             @Value("${bankingapp.fraud.velocity-weight:50}") int weight) {
+        this.cardMinuteCount = cardMinuteCount;
+        this.cardDayAmount = cardDayAmount;
+        this.cardHourMerchants = cardHourMerchants;
+        this.accountHourAmount = accountHourAmount;
+        this.instituteMinuteCount = instituteMinuteCount;
+        this.weight = weight;
+    }
+
+    @Override
+    public int score(PaymentAttempt attempt, FraudContext context) {
+        int score = 0;
+
+        if (context.card().minute().count() + 1 > cardMinuteCount) score += weight;
+        if (context.card().day().amount() + attempt.amount() > cardDayAmount) score += weight;
+        if (context.card().hour().distinctMerchants() + 1 > cardHourMerchants) score += weight;
+        if (context.account().hour().amount() + attempt.amount() > accountHourAmount) score += weight;
+        if (context.institute().minute().count() + 1 > instituteMinuteCount) score += weight / 2;
+
+        return score;
+    }
+}
@@ -0,0 +1,12 @@
+package com.bankingapp.fraud;
+
+/**
+ * Aggregates over one sliding window.
+ *
+ * @param count Number of payments
+ * @param amount Sum of payment amounts in minor units
+ * @param distinctMerchants Estimated number of distinct merchants
+ */
+public record WindowStats(long count, long amount, int distinctMerchants) {
+    public static final WindowStats EMPTY = new WindowStats(0, 0, 0);
+}
@@ -0,0 +1,588 @@
+package com.bankingapp.ledger;
+
+import com.bankingapp.audit.AuditLog;
+import com.bankingapp.audit.AuditType;
+import com.bankingapp.dto.AccountResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Authoritative in-memory balance of every customer account, with
+ * {@code accounts.balance} as a write-behind copy, held by one instance at a
+ * time.
+ *
+ * A posting hands its {@link Journal} lines to {@link #post}: when the
+ * transaction commits, its debits are reserved against the available
+ * balance, atomically per account, and an account that cannot cover them
+ * fails the commit. Credits become available only once the commit went
+ * through, and reserved debits are released if it did not, so no money is
+ * spent before it is durable. Reads are served from memory.
+ *
+ * Changed accounts are marked dirty. A flusher thread adds what changed on
+ * all dirty accounts since their last flush in one batch every
+ * {@code max-lag-ms}, or sooner once {@code flush-batch-size} accounts are
+ * dirty, so many postings to one account cost one UPDATE; the copy in the
+ * table is at most about {@code max-lag-ms} behind. The flush writes signed
+ * deltas ({@code balance = balance + ?}), so a change written by anyone else
+ * is added to rather than overwritten, and it bumps {@code version}, so an
+ * entity loaded before it cannot write an old balance back.
+ *
+ * A delta that would take the stored balance below zero is not written: the
+ * account stays dirty and is counted in {@code balances.flush.rejected}, and
+ * the column has a non-negative CHECK for every other writer.
+ *
+ * Debits are reserved against the balances in memory, so two instances
+ * holding their own copies could both spend the same money. Only the
+ * instance holding the lease in {@code balance_owner} posts and flushes. It
+ * renews the lease every quarter of {@code lease-ms}, in the same database
+ * transaction as each flush, so a new owner cannot read the table while a
+ * flush is half written. A posting is accepted only while at least half of
+ * the lease is left; that half must cover its commit, after which a new
+ * owner can take over. Every other instance rejects postings with
+ * {@link BalanceOwnershipException} and serves reads from the journal. It
+ * takes the lease once it expires, e.g. when the owner stops or hangs.
+ *
+ * When it takes the lease, an instance rebuilds the balances from the
+ * journal, which is written in the posting transaction; accounts whose copy
+ * fell behind in a crash are flushed again. An owner that finds the lease
+ * taken drops its balances without writing them. Balance changes go to the
+ * {@link AuditLog} on commit.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Component
+public class BalanceCache {
+    private static final String SELECT_JOURNALED =
+            "SELECT a.id, a.name, a.currency, a.balance, COALESCE(SUM(j.amount), 0) FROM accounts a" +
+            " LEFT JOIN journal_lines j ON j.book = 'ACCOUNT' AND j.book_id = a.id";
+
+    private static final String GROUP_BY_ACCOUNT = " GROUP BY a.id, a.name, a.currency, a.balance";
+
+    private static final String REBUILD = SELECT_JOURNALED + GROUP_BY_ACCOUNT;
+
+    // The lease is timed by the database clock, so instance clocks need not agree
+    private static final String ACQUIRE =
+            "UPDATE balance_owner SET owner = ?, expires_at = TIMESTAMPADD(MICROSECOND, ?, CURRENT_TIMESTAMP(6))" +
+            " WHERE id = 1 AND expires_at < CURRENT_TIMESTAMP(6)";
+
+    private static final String RENEW =
+            "UPDATE balance_owner SET expires_at = TIMESTAMPADD(MICROSECOND, ?, CURRENT_TIMESTAMP(6))" +
+            " WHERE id = 1 AND owner = ?";
+
+    private static final String RELEASE =
+            "UPDATE balance_owner SET expires_at = '1970-01-01 00:00:00' WHERE id = 1 AND owner = ?";
+
+    private static final String FLUSH =
+            "UPDATE accounts SET balance = balance + ?, version = version + 1 WHERE id = ? AND balance + ? >= 0";
+
+    private static final long RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * One account; the balances are guarded by the instance.
+     */
+    private static final class Entry {
+        final long id;
+        final String name;
+        final String currency;
+        BigDecimal committed;
+        BigDecimal available; // committed less reserved debits
+        BigDecimal flushed;
+
+        Entry(long id, String name, String currency, BigDecimal committed, BigDecimal flushed) {
+            this.id = id;
+            this.name = name;
+            this.currency = currency;
+            this.committed = committed;
+            this.available = committed;
+            this.flushed = flushed;
+        }
+
+        synchronized AccountResponse response() { return new AccountResponse(id, name, currency, committed); }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final AuditLog audit;
+    private final long maxLagNanos;
+    private final int batchSize;
+    private final long leaseNanos;
+    private final String instance = UUID.randomUUID().toString();
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final Counter writes;
+    private final Counter failures;
+    private final Counter rejected;
+    private final Counter lost;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    // Whether this instance holds the lease, until when by System.nanoTime, and which holding it is
+    private volatile boolean owner;
+    private volatile long ownedUntil;
+    private volatile int epoch;
+
+    @Autowired
+    public BalanceCache(JdbcTemplate jdbc, PlatformTransactionManager transactionManager, AuditLog audit,
+                        MeterRegistry registry,
+                        @Value("${bankingapp.balances.max-lag-ms:500}") long maxLagMillis,
+                        @Value("${bankingapp.balances.flush-batch-size:1000}") int batchSize,
+                        @Value("${bankingapp.balances.lease-ms:10000}") long leaseMillis) {
+        this.jdbc = jdbc;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.audit = audit;
+        this.maxLagNanos = TimeUnit.MILLISECONDS.toNanos(maxLagMillis);
+        this.batchSize = batchSize;
+        this.leaseNanos = TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+        this.writes = Counter.builder("balances.flushed").register(registry);
+        this.failures = Counter.builder("balances.flush.failures").register(registry);
+        this.rejected = Counter.builder("balances.flush.rejected").register(registry);
+        this.lost = Counter.builder("balances.lease.lost").register(registry);
+        Gauge.builder("balances.dirty", dirty, Set::size).register(registry);
+        Gauge.builder("balances.owner", this, cache -> cache.owns() ? 1 : 0).register(registry);
+
+        acquire();
+        this.flusher = Thread.ofPlatform().name("balance-flusher").daemon().start(this::run);
+    }
+
+    /**
+     * Applies the ACCOUNT lines of a posting when the current transaction
+     * commits. Must run inside the transaction writing the lines.
+     *
+     * @throws IllegalArgumentException on commit, if an account cannot cover its debit
+     * @throws IllegalStateException if no transaction is active
+     * @throws BalanceOwnershipException if this instance does not hold the lease, now or on commit
+     */
+    public void post(List<JournalLine> lines) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Balances can only be posted inside a transaction.");
+        }
+        requirePostable();
+        // Net per account, in id order so reservations are always taken in the same order
+        SortedMap<Long, BigDecimal> deltas = new TreeMap<>();
+        for (JournalLine line : lines) {
+            if (line.book() == Book.ACCOUNT) {
+                deltas.merge(line.bookId(), line.amount(), BigDecimal::add);
+            }
+        }
+        deltas.values().removeIf(delta -> delta.signum() == 0);
+        for (Long id : deltas.keySet()) {
+            entry(id);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new Posting(deltas, epoch));
+    }
+
+    /**
+     * @return Balance that can be spent now, committed debits and those being committed deducted;
+     * on an instance without the lease, the journaled balance
+     * @throws IllegalArgumentException if the account is unknown
+     */
+    public BigDecimal available(long accountId) {
+        if (!owns()) {
+            AccountResponse account = journaled(List.of(accountId)).get(accountId);
+            if (account == null) {
+                throw new IllegalArgumentException("Account " + accountId + " is not known.");
+            }
+            return account.balance();
+        }
+        Entry entry = entry(accountId);
+        synchronized (entry) {
+            return entry.available;
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the account cannot cover {@code amount} now
+     */
+    public void requireAvailable(long accountId, BigDecimal amount) {
+        if (available(accountId).compareTo(amount) < 0) {
+            throw new IllegalArgumentException("Insufficient funds on account " + accountId + ".");
+        }
+    }
+
+    /**
+     * @return Committed balance, zero for an unknown account
+     */
+    public BigDecimal balance(long accountId) {
+        if (!owns()) {
+            AccountResponse account = journaled(List.of(accountId)).get(accountId);
+            return account == null ? BigDecimal.ZERO : account.balance();
+        }
+        Entry entry = entries.get(accountId);
+        if (entry == null) {
+            return BigDecimal.ZERO;
+        }
+        synchronized (entry) {
+            return entry.committed;
+        }
+    }
+
+    /**
+     * @return The account with its committed balance, null if unknown
+     */
+    public AccountResponse response(long accountId) {
+        if (!owns()) {
+            return journaled(List.of(accountId)).get(accountId);
+        }
+        Entry entry = entries.get(accountId);
+        return entry == null ? null : entry.response();
+    }
+
+    /**
+     * @return The known accounts among {@code ids}, in iteration order
+     */
+    public List<AccountResponse> responses(Collection<Long> ids) {
+        List<AccountResponse> responses = new ArrayList<>(ids.size());
+        if (!owns()) {
+            Map<Long, AccountResponse> journaled = journaled(ids);
+            for (Long id : ids) {
+                AccountResponse account = journaled.get(id);
+                if (account != null) {
+                    responses.add(account);
+                }
+            }
+            return responses;
+        }
+        for (Long id : ids) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                responses.add(entry.response());
+            }
+        }
+        return responses;
+    }
+
+    /**
+     * @return Whether this instance holds the lease on the balances
+     */
+    public boolean owns() {
+        return owner && System.nanoTime() - ownedUntil < 0;
+    }
+
+    /**
+     * Starts tracking a new account, on commit if a transaction is active.
+     */
+    public void open(long accountId, String name, String currency) {
+        afterCommit(() -> {
+            if (owner) {
+                entries.putIfAbsent(accountId, new Entry(accountId, name, currency, BigDecimal.ZERO, BigDecimal.ZERO));
+            }
+        });
+    }
+
+    /**
+     * Stops tracking a deleted account, on commit if a transaction is active.
+     */
+    public void close(long accountId) {
+        afterCommit(() -> {
+            entries.remove(accountId);
+            dirty.remove(accountId);
+        });
+    }
+
+    /**
+     * Writes the changes of all dirty accounts now and renews the lease. An
+     * account whose stored balance cannot take its change stays dirty.
+     *
+     * @return Number of accounts written, zero without the lease
+     */
+    public synchronized int flush() {
+        if (!owner) {
+            return 0;
+        }
+        // In id order, so concurrent writers of the same rows lock them in the same order
+        List<Long> ids = new ArrayList<>(dirty);
+        Collections.sort(ids);
+        dirty.removeAll(ids);
+
+        List<Object[]> rows = new ArrayList<>(ids.size());
+        List<Entry> written = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Entry entry = entries.get(id);
+            if (entry == null) {
+                continue;
+            }
+            synchronized (entry) {
+                BigDecimal delta = entry.committed.subtract(entry.flushed);
+                if (delta.signum() != 0) {
+                    rows.add(new Object[]{delta, id, delta});
+                    written.add(entry);
+                }
+            }
+        }
+
+        int[] counts = new int[rows.size()];
+        boolean[] held = {false};
+        long start = System.nanoTime();
+        try {
+            transactions.executeWithoutResult(status -> {
+                // Holds the lease row until the balances are written
+                held[0] = jdbc.update(RENEW, TimeUnit.NANOSECONDS.toMicros(leaseNanos), instance) == 1;
+                if (!held[0]) {
+                    return;
+                }
+                for (int from = 0; from < rows.size(); from += batchSize) {
+                    int[] batch = jdbc.batchUpdate(FLUSH, rows.subList(from, Math.min(from + batchSize, rows.size())));
+                    System.arraycopy(batch, 0, counts, from, batch.length);
+                }
+            });
+        } catch (DataAccessException | TransactionException e) {
+            failures.increment();
+            dirty.addAll(ids);
+            throw e;
+        }
+        if (!renewed(start, held[0])) {
+            return 0;
+        }
+
+        int flushed = 0;
+        for (int i = 0; i < written.size(); i++) {
+            Entry entry = written.get(i);
+            if (counts[i] == 0) {
+                rejected.increment();
+                dirty.add(entry.id);
+                continue;
+            }
+            synchronized (entry) {
+                entry.flushed = entry.flushed.add((BigDecimal) rows.get(i)[0]);
+            }
+            flushed++;
+        }
+        writes.increment(flushed);
+        return flushed;
+    }
+
+    /**
+     * Takes the lease if it expired, and then reloads every balance from the
+     * journal, before accepting postings.
+     */
+    private synchronized void acquire() {
+        Integer taken = transactions.execute(status ->
+                jdbc.update(ACQUIRE, instance, TimeUnit.NANOSECONDS.toMicros(leaseNanos)));
+        if (taken == null || taken == 0) {
+            return;
+        }
+        rebuild();
+        epoch++;
+        owner = true;
+        // The rebuild may have taken a while
+        renew();
+    }
+
+    private synchronized boolean renew() {
+        long start = System.nanoTime();
+        Integer renewed = transactions.execute(status ->
+                jdbc.update(RENEW, TimeUnit.NANOSECONDS.toMicros(leaseNanos), instance));
+        return renewed(start, renewed != null && renewed == 1);
+    }
+
+    // Extends the lease from before the statement that renewed it, or drops the balances if it was taken
+    private boolean renewed(long start, boolean held) {
+        if (held) {
+            ownedUntil = start + leaseNanos;
+            return true;
+        }
+        if (owner) {
+            owner = false;
+            epoch++;
+            entries.clear();
+            dirty.clear();
+            lost.increment();
+        }
+        return false;
+    }
+
+    private synchronized void releaseLease() {
+        if (owner) {
+            owner = false;
+            epoch++;
+            transactions.executeWithoutResult(status -> jdbc.update(RELEASE, instance));
+        }
+    }
+
+    private void requirePostable() {
+        // Half the lease is left for the commit
+        if (!owner || ownedUntil - System.nanoTime() < leaseNanos / 2) {
+            throw new BalanceOwnershipException("Balances are owned by another instance.");
+        }
+    }
+
+    /**
+     * Accounts with their journaled balances, for an instance without the lease.
+     */
+    private Map<Long, AccountResponse> journaled(Collection<Long> ids) {
+        Map<Long, AccountResponse> accounts = new HashMap<>();
+        if (ids.isEmpty()) {
+            return accounts;
+        }
+        String sql = SELECT_JOURNALED + " WHERE a.id IN (" + String.join(", ", Collections.nCopies(ids.size(), "?")) +
+                ")" + GROUP_BY_ACCOUNT;
+        jdbc.query(sql, rs -> {
+            long id = rs.getLong(1);
+            accounts.put(id, new AccountResponse(id, rs.getString(2), rs.getString(3), rs.getBigDecimal(5)));
+        }, ids.toArray());
+        return accounts;
+    }
+
+    /**
+     * Reloads every balance from the journal, when the lease is taken.
+     */
+    void rebuild() {
+        entries.clear();
+        dirty.clear();
+        jdbc.query(REBUILD, rs -> {
+            long id = rs.getLong(1);
+            Entry entry = new Entry(id, rs.getString(2), rs.getString(3), rs.getBigDecimal(5), rs.getBigDecimal(4));
+            entries.put(id, entry);
+            if (entry.committed.compareTo(entry.flushed) != 0) {
+                dirty.add(id);
+            }
+        });
+    }
+
+    private Entry entry(long accountId) {
+        Entry entry = entries.get(accountId);
+        if (entry == null) {
+            throw new IllegalArgumentException("Account " + accountId + " is not known.");
+        }
+        return entry;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void run() {
+        long flushed = System.nanoTime();
+        while (running) {
+            LockSupport.parkNanos(Math.min(maxLagNanos, leaseNanos / 4));
+            try {
+                if (!owner) {
+                    acquire();
+                } else if (System.nanoTime() - flushed >= maxLagNanos || dirty.size() >= batchSize) {
+                    flush();
+                    flushed = System.nanoTime();
+                } else {
+                    renew();
+                }
+            } catch (DataAccessException | TransactionException e) {
+                LockSupport.parkNanos(RETRY_NANOS);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+        flush();
+        releaseLease();
+    }
+
+    /**
+     * Reserves a posting's debits before its commit and settles it after.
+     */
+    private final class Posting implements TransactionSynchronization {
+        private final SortedMap<Long, BigDecimal> deltas;
+        private final int epoch;
+        private final List<Entry> reserved = new ArrayList<>();
+
+        Posting(SortedMap<Long, BigDecimal> deltas, int epoch) {
+            this.deltas = deltas;
+            this.epoch = epoch;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            requirePostable();
+            if (epoch != BalanceCache.this.epoch) {
+                throw new BalanceOwnershipException("Balances were reloaded during the posting.");
+            }
+            for (Map.Entry<Long, BigDecimal> delta : deltas.entrySet()) {
+                if (delta.getValue().signum() > 0) {
+                    continue;
+                }
+                Entry entry = entry(delta.getKey());
+                synchronized (entry) {
+                    BigDecimal after = entry.available.add(delta.getValue());
+                    if (after.signum() < 0) {
+                        release();
+                        throw new IllegalArgumentException("Insufficient funds on account " + entry.id + ".");
+                    }
+                    entry.available = after;
+                }
+                reserved.add(entry);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status != STATUS_COMMITTED) {
+                release();
+                return;
+            }
+            if (epoch != BalanceCache.this.epoch) {
+                return; // dropped or rebuilt from the journal since, which has this posting if it committed in time
+            }
+            for (Map.Entry<Long, BigDecimal> delta : deltas.entrySet()) {
+                Entry entry = entries.get(delta.getKey());
+                if (entry == null) {
+                    continue;
+                }
+                BigDecimal before;
+                BigDecimal after;
+                synchronized (entry) {
+                    before = entry.committed;
+                    after = before.add(delta.getValue());
+                    entry.committed = after;
+                    if (delta.getValue().signum() > 0) {
+                        entry.available = entry.available.add(delta.getValue());
+                    }
+                }
+                dirty.add(entry.id);
+                audit.append(AuditType.ACCOUNT_BALANCE, entry.id, entry.id, before, after);
+            }
+            if (dirty.size() >= batchSize) {
+                LockSupport.unpark(flusher);
+            }
+        }
+
+        private void release() {
+            for (Entry entry : reserved) {
+                synchronized (entry) {
+                    entry.available = entry.available.subtract(deltas.get(entry.id));
+                }
+            }
+            reserved.clear();
+        }
+    }
+}
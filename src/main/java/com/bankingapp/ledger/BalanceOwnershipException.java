@@ -0,0 +1,15 @@
+package com.bankingapp.ledger;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a posting reaches an instance that does not hold the lease on
+ * the balances, see {@link BalanceCache}.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class BalanceOwnershipException extends RuntimeException {
+    public BalanceOwnershipException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.bankingapp.ledger;
+
+/**
+ * Kinds of account the journal posts to. Together with a book id they name
+ * one ledger account.
+ */
+public enum Book {
+    /** A customer account; book id is the account id. */
+    ACCOUNT,
+    /** An institute's clearing account, owed the card payments made to it; book id is the institute id. */
+    CLEARING,
+    /** Cash in and out of the bank (deposits, interest, withdrawals); book id 0. */
+    CASH,
+    /** Fee income; book id 0. */
+    FEES,
+    /** Counterpart of the balances that predate the journal; book id 0. */
+    OPENING
+}
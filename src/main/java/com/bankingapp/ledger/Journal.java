@@ -0,0 +1,125 @@
+package com.bankingapp.ledger;
+
+import com.bankingapp.model.Transaction;
+import com.bankingapp.model.TransactionType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Double-entry journal: every posted transaction is written as balanced
+ * journal lines, one debit and one credit, in the caller's database
+ * transaction.
+ *
+ * <pre>
+ * TRANSFER      ACCOUNT sender   -amount   ACCOUNT receiver   +amount
+ * CARD_PAYMENT  ACCOUNT sender   -amount   CLEARING institute +amount
+ * DEPOSIT       ACCOUNT sender   +amount   CASH               -amount
+ * WITHDRAWAL    ACCOUNT sender   -amount   CASH               +amount
+ * FEE           ACCOUNT sender   -amount   FEES               +amount
+ * </pre>
+ *
+ * Lines are never updated or deleted, a correction is a new transaction, so
+ * the write path is a batched insert. Balances are derived from the lines:
+ * {@link BalanceCache} holds the ACCOUNT book in memory and {@link #balance}
+ * sums any book. {@link JournalCheck} verifies that each transaction nets to
+ * zero.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Component
+public class Journal {
+    private static final String INSERT_LINE =
+            "INSERT INTO journal_lines (transaction_id, posted_at, book, book_id, amount, currency) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+
+    @Autowired
+    public Journal(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Lines of a transaction, debit first.
+     *
+     * @param receiverId Receiving account of a transfer, otherwise ignored
+     * @param instituteId Merchant of a card payment, otherwise ignored
+     */
+    public static List<JournalLine> lines(String transactionId, TransactionType type, long senderId,
+                                          Long receiverId, Long instituteId, BigDecimal amount, String currency) {
+        JournalLine sender = new JournalLine(transactionId, Book.ACCOUNT, senderId,
+                type == TransactionType.DEPOSIT ? amount : amount.negate(), currency);
+        JournalLine counter = switch (type) {
+            case TRANSFER -> new JournalLine(transactionId, Book.ACCOUNT, receiverId, amount, currency);
+            case CARD_PAYMENT -> new JournalLine(transactionId, Book.CLEARING, instituteId, amount, currency);
+            case DEPOSIT -> new JournalLine(transactionId, Book.CASH, 0, amount.negate(), currency);
+            case WITHDRAWAL -> new JournalLine(transactionId, Book.CASH, 0, amount, currency);
+            case FEE -> new JournalLine(transactionId, Book.FEES, 0, amount, currency);
+        };
+        return type == TransactionType.DEPOSIT ? List.of(counter, sender) : List.of(sender, counter);
+    }
+
+    /**
+     * Posts a transaction. Must run inside the transaction recording it.
+     *
+     * @return The lines written
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<JournalLine> post(Transaction tx) {
+        List<JournalLine> lines = lines(tx.getId(), tx.getType(), tx.getSender().getId(),
+                tx.getRecipient() == null ? null : tx.getRecipient().getId(),
+                tx.getInstitute() == null ? null : tx.getInstitute().getId(),
+                tx.getAmount(), tx.getCurrency().getCurrencyCode());
+        append(lines, tx.getTimestamp());
+        return lines;
+    }
+
+    /**
+     * Appends lines with one batch insert.
+     *
+     * @throws IllegalArgumentException if the lines of a transaction do not net to zero
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(List<JournalLine> lines, LocalDateTime postedAt) {
+        BigDecimal net = BigDecimal.ZERO;
+        String transactionId = null;
+        Timestamp timestamp = Timestamp.valueOf(postedAt);
+        List<Object[]> rows = new ArrayList<>(lines.size());
+        for (JournalLine line : lines) {
+            if (!line.transactionId().equals(transactionId)) {
+                requireBalanced(transactionId, net);
+                transactionId = line.transactionId();
+                net = BigDecimal.ZERO;
+            }
+            net = net.add(line.amount());
+            rows.add(new Object[]{line.transactionId(), timestamp, line.book().name(), line.bookId(),
+                    line.amount(), line.currency()});
+        }
+        requireBalanced(transactionId, net);
+        jdbc.batchUpdate(INSERT_LINE, rows);
+    }
+
+    /**
+     * Balance of a ledger account derived from its lines.
+     */
+    public BigDecimal balance(Book book, long bookId) {
+        BigDecimal sum = jdbc.queryForObject("SELECT SUM(amount) FROM journal_lines WHERE book = ? AND book_id = ?",
+                BigDecimal.class, book.name(), bookId);
+        return sum == null ? BigDecimal.ZERO : sum;
+    }
+
+    private static void requireBalanced(String transactionId, BigDecimal net) {
+        if (net.signum() != 0) {
+            throw new IllegalArgumentException("Lines of transaction " + transactionId + " net to " + net + ".");
+        }
+    }
+}
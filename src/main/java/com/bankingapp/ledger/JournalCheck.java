@@ -0,0 +1,97 @@
+package com.bankingapp.ledger;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Batch check of the journal's double-entry invariant: the lines of every
+ * transaction net to zero, and every successful transaction still in the
+ * table has lines.
+ *
+ * Both are single streaming queries over the whole journal, grouped on the
+ * transaction index, so the check costs one pass however large the journal
+ * is. Problems found surface in {@code journal.unbalanced} and
+ * {@code journal.unposted}.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Service
+public class JournalCheck {
+    /**
+     * @param net Sum of the transaction's lines
+     * @param lines Number of lines
+     */
+    public record Unbalanced(String transactionId, BigDecimal net, long lines) {}
+
+    /**
+     * Outcome of a check.
+     *
+     * @param unposted Successful transactions without journal lines
+     */
+    public record CheckResult(long transactions, List<Unbalanced> unbalanced, List<String> unposted) {
+        public boolean balanced() { return unbalanced.isEmpty() && unposted.isEmpty(); }
+    }
+
+    private static final String SELECT_NETS =
+            "SELECT transaction_id, SUM(amount), COUNT(*) FROM journal_lines GROUP BY transaction_id";
+
+    private static final String SELECT_UNPOSTED =
+            "SELECT t.id FROM transactions t WHERE t.state = 'SUCCESS' AND NOT EXISTS (" +
+            " SELECT 1 FROM journal_lines j WHERE j.transaction_id = t.id)";
+
+    private final JdbcTemplate jdbc;
+    private final int fetchSize;
+    private final AtomicLong lastUnbalanced = new AtomicLong();
+    private final AtomicLong lastUnposted = new AtomicLong();
+
+    @Autowired
+    public JournalCheck(JdbcTemplate jdbc, MeterRegistry registry,
+                        @Value("${bankingapp.journal.check.fetch-size:5000}") int fetchSize) {
+        this.jdbc = jdbc;
+        this.fetchSize = fetchSize;
+        registry.gauge("journal.unbalanced", lastUnbalanced);
+        registry.gauge("journal.unposted", lastUnposted);
+    }
+
+    @Scheduled(cron = "${bankingapp.journal.check.cron:0 45 2 * * *}")
+    public CheckResult check() {
+        long[] transactions = {0};
+        List<Unbalanced> unbalanced = new ArrayList<>();
+        jdbc.query(connection -> streaming(connection.prepareStatement(SELECT_NETS,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)), rs -> {
+            transactions[0]++;
+            BigDecimal net = rs.getBigDecimal(2);
+            long lines = rs.getLong(3);
+            if (net.signum() != 0 || lines < 2) {
+                unbalanced.add(new Unbalanced(rs.getString(1), net, lines));
+            }
+        });
+
+        List<String> unposted = new ArrayList<>();
+        jdbc.query(connection -> streaming(connection.prepareStatement(SELECT_UNPOSTED,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)), rs -> {
+            unposted.add(rs.getString(1));
+        });
+
+        lastUnbalanced.set(unbalanced.size());
+        lastUnposted.set(unposted.size());
+        return new CheckResult(transactions[0], List.copyOf(unbalanced), List.copyOf(unposted));
+    }
+
+    private PreparedStatement streaming(PreparedStatement statement) throws SQLException {
+        statement.setFetchSize(fetchSize);
+        return statement;
+    }
+}
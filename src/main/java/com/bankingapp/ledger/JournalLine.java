@@ -0,0 +1,10 @@
+package com.bankingapp.ledger;
+
+import java.math.BigDecimal;
+
+/**
+ * One side of a posting.
+ *
+ * @param amount Positive credits the book, negative debits it
+ */
+public record JournalLine(String transactionId, Book book, long bookId, BigDecimal amount, String currency) {}
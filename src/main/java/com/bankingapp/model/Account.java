@@ -27,21 +27,26 @@ public class Account {
     @Column(unique = true, nullable = false)
     private String accountNumber;
 
-    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 3)
     private Currency currency;
 
     @Column(nullable = false)
     private BigDecimal balance;
 
-    @ManyToOne
+    // Checked on every update in optimistic mode, see AccountConcurrency
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     private User owner;
 
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Card> cards = new ArrayList<>();
 
-    @OneToOne(cascade = CascadeType.ALL)
-    @JoinColumn(name = "history_id", referencedColumnName = "id")
+    // In-memory view, not an entity; history is read through TransactionRepository
+    @Transient
     private TransactionHistory history;
 
     /**
@@ -81,6 +86,7 @@ public class Account {
     public String getName() { return name; }
     public Currency getCurrency() { return currency; }
     public BigDecimal getBalance() { return balance; }
+    public long getVersion() { return version; }
     public User getOwner() { return owner; }
     public List<Card> getCards() { return cards; }
     public TransactionHistory getHistory() { return history; }
@@ -203,20 +209,18 @@ public class Account {
     }
 
     /**
-     * Processes a payment using a card associated with this account.
+     * Checks a payment using a card associated with this account. The
+     * balance is not touched here; the payment is posted, and the balance
+     * changed, by {@code TransactionService.payment}.
      *
      * @param card The card to use for payment
      * @param amount The payment amount
-     * @return true if payment succeeded, false otherwise
+     * @return true if the card allows the payment, false otherwise
      */
     public boolean payCard(Card card, BigDecimal amount) {
         Objects.requireNonNull(amount, "Amount cannot be null.");
         Objects.requireNonNull(card, "Card cannot be null.");
-        if (cards.contains(card) && card.authorizePayment(amount)) {
-            this.balance = this.balance.subtract(amount);
-            return true;
-        }
-        return false;
+        return cards.contains(card) && card.authorizePayment(amount);
     }
 
     @Override
@@ -0,0 +1,44 @@
+package com.bankingapp.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one interest/fee accrual run. The last processed account id is
+ * advanced in the same database transaction as each chunk's postings, so a run
+ * that is restarted continues after the last committed chunk and never posts
+ * twice. {@code posted_at} is when the run started; the postings carry the
+ * time their own chunk was written. Written by
+ * {@link com.bankingapp.batch.AccrualJob} over JDBC.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Entity
+@Table(name = "accrual_runs")
+public class AccrualRun {
+    @Id
+    @Column(name = "run_id", length = 32)
+    private String runId;
+
+    @Column(name = "posted_at", nullable = false)
+    private LocalDateTime postedAt;
+
+    @Column(name = "last_account_id", nullable = false)
+    private long lastAccountId;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    /**
+     * No-arg constructor for JPA
+     */
+    protected AccrualRun() {}
+
+    // ------------ GETTERS ------------
+    public String getRunId() { return runId; }
+    public LocalDateTime getPostedAt() { return postedAt; }
+    public long getLastAccountId() { return lastAccountId; }
+    public boolean isCompleted() { return completed; }
+    // ---------------------------------
+}
@@ -30,10 +30,11 @@ public abstract class Card {
     @Column(nullable = false, columnDefinition = "DATE")
     private LocalDate expiryDate;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "account_id")
     private Account account;
 
+    private BigDecimal drawLimit;
     private String cvv;
     private String pin;
     private boolean ot = false;
@@ -83,6 +84,7 @@ public abstract class Card {
         this.cvv = cvv;
         this.account = account;
         this.pin = pin;
+        this.drawLimit = drawLimit;
     }
 
     /**
@@ -98,14 +100,17 @@ public abstract class Card {
         this.expiryDate = expiryDate;
         this.cvv = cvv;
         this.account = account;
+        this.drawLimit = BigDecimal.valueOf(10_000.0);
     }
 
     // ------------ GETTERS ------------
+    public Long getId() { return id; }
     public String getNumber() { return number; }
     public LocalDate getExpiryDate() { return expiryDate; }
     public String getCvv() { return cvv; }
     public Account getAccount() { return account; }
     public String getPin() { return pin; }
+    public BigDecimal getDrawLimit() { return drawLimit; }
     public boolean isOT() { return ot; }
     // ---------------------------------
 
@@ -122,6 +127,19 @@ public abstract class Card {
         } else this.pin = pin;
     }
 
+    /**
+     * Sets the maximum draw limit of the card.
+     *
+     * @param drawLimit The new draw limit
+     * @throws IllegalArgumentException if the limit is negative
+     */
+    public void setDrawLimit(BigDecimal drawLimit) {
+        Objects.requireNonNull(drawLimit, "Draw limit cannot be null.");
+        if (drawLimit.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Draw limit cannot be negative.");
+        } else this.drawLimit = drawLimit;
+    }
+
     public void setAccount(Account account) {
         Objects.requireNonNull(account);
         this.account = account;
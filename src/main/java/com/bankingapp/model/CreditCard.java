@@ -66,17 +66,18 @@ public class CreditCard extends Card {
     }
 
     /**
-     * Attempts to authorize a payment using the card
+     * Attempts to authorize a payment using the card, against the card's own
+     * limits. Does not move money; the payment is posted by
+     * {@code TransactionService.payment}.
      *
      * @param amount, the amount of money to be sent
-     * @return true - if the transaction was successful, otherwise false
+     * @return true - if the card allows the payment, otherwise false
      */
     @Override
     public boolean authorizePayment(@NotNull BigDecimal amount) {
         if (amount.compareTo(BigDecimal.ZERO) > 0 &&
                 this.creditLimit.compareTo(amount.add(this.creditUsed)) > -1 &&
                 this.getAccount() != null && validExp()) {
-            this.getAccount().setBalance(this.getAccount().getBalance().subtract(amount));
             this.creditUsed = this.creditUsed.add(amount);
             return true;
         }
@@ -71,10 +71,12 @@ public class DebitCard extends Card {
     }
 
     /**
-     * Attempts to authorize a payment using the card
+     * Attempts to authorize a payment using the card, against the card's own
+     * limits. Does not move money; the payment is posted by
+     * {@code TransactionService.payment}.
      *
      * @param amount, the amount of money to be sent
-     * @return true - if the transaction was successful, otherwise false
+     * @return true - if the card allows the payment, otherwise false
      */
     @Override
     public boolean authorizePayment(BigDecimal amount) {
@@ -82,7 +84,6 @@ public class DebitCard extends Card {
                 this.dailyLimit.compareTo(amount.add(this.dailySpent)) > -1 &&
                 this.dailyUsed < this.dailyUses && this.getAccount() != null &&
                 this.getAccount().getBalance().compareTo(amount) >= 0 && validExp()) {
-            this.getAccount().setBalance(this.getAccount().getBalance().subtract(amount));
             dailySpent = dailySpent.add(amount);
             dailyUsed++;
             return true;
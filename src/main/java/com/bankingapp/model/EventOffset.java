@@ -0,0 +1,30 @@
+package com.bankingapp.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Last outbox offset a subscriber has fully processed. Events after it are
+ * delivered again after a restart, so delivery is at least once.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Entity
+@Table(name = "event_offsets")
+public class EventOffset {
+    @Id
+    @Column(length = 64)
+    private String subscriber;
+
+    @Column(name = "last_offset", nullable = false)
+    private long lastOffset;
+
+    /**
+     * No-arg constructor for JPA
+     */
+    protected EventOffset() {}
+
+    // ------------ GETTERS ------------
+    public String getSubscriber() { return subscriber; }
+    public long getLastOffset() { return lastOffset; }
+    // ---------------------------------
+}
@@ -1,19 +1,45 @@
 package com.bankingapp.model;
 
+import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import java.util.Objects;
-import java.util.UUID;
 
+/**
+ * Represents a merchant or other institution that card payments can be made to.
+ * Institutes are reference data that rarely change, so they live in the
+ * second-level cache.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Entity
+@Table(name = "institutes")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "institutes")
 public class Institute {
-    private final String id = UUID.randomUUID().toString();
-    private final String name;
-    private final InstituteType type; // Enum: BANK, MERCHANT, etc.
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private InstituteType type; // Enum: BANK, MERCHANT, etc.
+
+    /**
+     * No-arg constructor for JPA
+     */
+    protected Institute() {}
 
     public Institute(String name, InstituteType type) {
         this.name = Objects.requireNonNull(name);
         this.type = Objects.requireNonNull(type);
     }
 
-    public String getId() { return id; }
+    public Long getId() { return id; }
     public String getName() { return name; }
     public InstituteType getType() { return type; }
 
@@ -27,7 +53,7 @@ public class Institute {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Institute that = (Institute) o;
-        return id.equals(that.id);
+        return id != null && id.equals(that.id);
     }
 
     @Override
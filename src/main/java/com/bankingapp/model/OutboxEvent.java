@@ -0,0 +1,55 @@
+package com.bankingapp.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An event recorded in the same database transaction as the change it
+ * describes. The generated id is the event's offset: it only grows, and
+ * consumers track how far they got by it. Rows are drained by
+ * {@link com.bankingapp.events.OutboxRelay} and deleted once every subscriber
+ * has acknowledged them.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    @Column(name = "aggregate_id", nullable = false, length = 36)
+    private String aggregateId;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * No-arg constructor for JPA
+     */
+    protected OutboxEvent() {}
+
+    public OutboxEvent(String eventType, String aggregateId, String payload) {
+        this.eventType = eventType;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // ------------ GETTERS ------------
+    public Long getId() { return id; }
+    public String getEventType() { return eventType; }
+    public String getAggregateId() { return aggregateId; }
+    public String getPayload() { return payload; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    // ---------------------------------
+}
@@ -0,0 +1,5 @@
+package com.bankingapp.model;
+
+public enum RollupGranularity {
+    HOUR, DAY
+}
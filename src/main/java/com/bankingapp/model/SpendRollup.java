@@ -0,0 +1,69 @@
+package com.bankingapp.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Currency;
+
+/**
+ * Pre-aggregated card payment spend for one hour or day, per institute or per
+ * institute type, and per currency. Rows are upserted by
+ * {@link com.bankingapp.service.SpendRollupService} in batches shortly after
+ * payments post and are never built from a full scan.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Entity
+@Table(name = "spend_rollups", uniqueConstraints = @UniqueConstraint(
+        name = "uk_spend_rollups_bucket",
+        columnNames = {"granularity", "dimension", "dimension_key", "bucket_start", "currency"}))
+public class SpendRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private RollupGranularity granularity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RollupDimension dimension;
+
+    /** Institute id or institute type name, depending on the dimension */
+    @Column(name = "dimension_key", nullable = false, length = 32)
+    private String dimensionKey;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    @Column(nullable = false, length = 3)
+    private Currency currency;
+
+    @Column(name = "tx_count", nullable = false)
+    private long txCount;
+
+    @Column(name = "amount_sum", nullable = false)
+    private BigDecimal amountSum;
+
+    @Column(name = "amount_max", nullable = false)
+    private BigDecimal amountMax;
+
+    /**
+     * No-arg constructor for JPA
+     */
+    protected SpendRollup() {}
+
+    // ------------ GETTERS ------------
+    public Long getId() { return id; }
+    public RollupGranularity getGranularity() { return granularity; }
+    public RollupDimension getDimension() { return dimension; }
+    public String getDimensionKey() { return dimensionKey; }
+    public LocalDateTime getBucketStart() { return bucketStart; }
+    public Currency getCurrency() { return currency; }
+    public long getTxCount() { return txCount; }
+    public BigDecimal getAmountSum() { return amountSum; }
+    public BigDecimal getAmountMax() { return amountMax; }
+    // ---------------------------------
+}
@@ -1,6 +1,7 @@
 package com.bankingapp.model;
 
 import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -10,13 +11,16 @@ import java.util.Objects;
 import java.util.UUID;
 
 @Entity
-@Table(name = "transactions")
-public class Transaction {
+@Table(name = "transactions", indexes = @Index(name = "idx_transactions_timestamp", columnList = "timestamp"))
+public class Transaction implements Persistable<String> {
 
+    // Assigned on creation, so save() has to be told the entity is new to persist it rather than merge
     @Id
-    @GeneratedValue(generator = "UUID")
     private final String id = UUID.randomUUID().toString();
 
+    @Transient
+    private boolean isNew = true;
+
     @Column(nullable = false)
     private final LocalDateTime timestamp = LocalDateTime.now();
 
@@ -29,16 +33,29 @@ public class Transaction {
     @Enumerated(EnumType.STRING)
     private TransactionState state;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "card_id", nullable = true)
     private Card card;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "sender_id", nullable = false)
     private final Account from;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "receiver_id")
     private Account to;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "institute_id")
     private Institute institute;
+
     private final Currency currency;
     private String note;
 
+    // Card payments wait for SpendRollupService to add them to the rollups
+    @Column(name = "rolled_up", nullable = false)
+    private boolean rolledUp = true;
+
     /**
      * No-arg constructor for JPA
      */
@@ -82,6 +99,7 @@ public class Transaction {
         setAmount(amount);
         this.note = note;
         this.state = TransactionState.PENDING;
+        this.rolledUp = false;
     }
 
     // ------------ GETTERS ------------
@@ -91,12 +109,20 @@ public class Transaction {
     public Account getSender() { return from; }
     public Account getRecipient() { return to; }
     public Institute getInstitute() { return institute; }
+    public Card getCard() { return card; }
     public Currency getCurrency() { return currency; }
     public BigDecimal getAmount() { return amount; }
     public TransactionState getState() { return state; }
     public String getNote() { return note; }
+
+    @Override
+    public boolean isNew() { return isNew; }
     // ---------------------------------
 
+    @PostPersist
+    @PostLoad
+    void markNotNew() { this.isNew = false; }
+
     // ------------ SETTERS ------------
     public void setAmount(BigDecimal amount) {
         Objects.requireNonNull(amount, "Amount cannot be null.");
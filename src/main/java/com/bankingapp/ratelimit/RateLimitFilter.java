@@ -0,0 +1,84 @@
+package com.bankingapp.ratelimit;
+
+import com.bankingapp.security.SessionClaims;
+import com.bankingapp.security.SessionTokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rate limits every {@code /api} request before it reaches a controller (and
+ * the connection pool). Requests with a valid session token are limited per
+ * user, on the user tier or a per-user override; all others per remote
+ * address on the anonymous tier. Refused requests get {@code 429} with
+ * {@code Retry-After} in whole seconds.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimiter limiter;
+    private final SessionTokenService tokens;
+    private final RateLimitTier anonymousTier;
+    private final RateLimitTier userTier;
+    private final Map<Long, RateLimitTier> userOverrides = new HashMap<>();
+
+    @Autowired
+    public RateLimitFilter(RateLimiter limiter, SessionTokenService tokens,
+                           @Value("${bankingapp.ratelimit.anonymous-tier:anonymous}") String anonymousTier,
+                           @Value("${bankingapp.ratelimit.user-tier:user}") String userTier,
+                           @Value("${bankingapp.ratelimit.user-overrides:}") String userOverrides) {
+        this.limiter = limiter;
+        this.tokens = tokens;
+        this.anonymousTier = limiter.tier(anonymousTier);
+        this.userTier = limiter.tier(userTier);
+        // userId:tier pairs, e.g. integration accounts on a partner tier
+        for (String entry : userOverrides.split(",")) {
+            if (!entry.isBlank()) {
+                String[] parts = entry.trim().split(":");
+                this.userOverrides.put(Long.parseLong(parts[0]), limiter.tier(parts[1]));
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String key;
+        RateLimitTier tier;
+        String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        SessionClaims claims = authorization != null ? tokens.verify(authorization) : null;
+        if (claims != null) {
+            key = "u:" + claims.userId();
+            tier = userOverrides.getOrDefault(claims.userId(), userTier);
+        } else {
+            key = "a:" + request.getRemoteAddr();
+            tier = anonymousTier;
+        }
+
+        long waitNanos = limiter.acquire(key, tier);
+        if (waitNanos > 0) {
+            long seconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
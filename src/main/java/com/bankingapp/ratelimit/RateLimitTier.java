@@ -0,0 +1,33 @@
+package com.bankingapp.ratelimit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A sustained rate and the burst allowed on top of it.
+ *
+ * @param permitsPerSecond Refill rate
+ * @param burst Bucket capacity, requests that may arrive at once after a quiet period
+ */
+public record RateLimitTier(String name, double permitsPerSecond, int burst) {
+    public RateLimitTier {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Tier " + name + " needs a positive rate and a burst of at least 1.");
+        }
+    }
+
+    /**
+     * Parses {@code name:rate:burst} entries separated by commas.
+     */
+    public static Map<String, RateLimitTier> parse(String spec) {
+        Map<String, RateLimitTier> tiers = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid rate limit tier: " + entry);
+            }
+            tiers.put(parts[0], new RateLimitTier(parts[0], Double.parseDouble(parts[1]), Integer.parseInt(parts[2])));
+        }
+        return tiers;
+    }
+}
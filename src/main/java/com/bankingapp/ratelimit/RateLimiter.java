@@ -0,0 +1,114 @@
+package com.bankingapp.ratelimit;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per client key, in a fixed number of shards.
+ *
+ * Lookups of an existing bucket are a plain map read followed by one CAS. A
+ * background sweep walks one shard at a time and drops buckets that have
+ * refilled completely: a full bucket behaves exactly like a missing one, so
+ * eviction does not change decisions (a request racing the removal of its
+ * bucket can at most get one extra token), and idle clients cost nothing.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Component
+public class RateLimiter {
+    private record Entry(RateLimitTier tier, TokenBucket bucket) {}
+
+    private final Map<String, Entry>[] shards;
+    private final int mask;
+    private final Map<String, RateLimitTier> tiers;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService sweeper;
+    private int nextShard;
+
+    @Autowired
+    public RateLimiter(@Value("${bankingapp.ratelimit.tiers:anonymous:5:10,user:20:40,partner:200:400}") String tiers,
+                       @Value("${bankingapp.ratelimit.shards:16}") int shards,
+                       @Value("${bankingapp.ratelimit.sweep-interval-ms:1000}") long sweepMillis) {
+        this(RateLimitTier.parse(tiers), shards, System::nanoTime);
+        sweeper.scheduleWithFixedDelay(this::sweepNext, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @SuppressWarnings("unchecked")
+    public RateLimiter(Map<String, RateLimitTier> tiers, int shards, LongSupplier clock) {
+        int size = Integer.highestOneBit(Math.max(1, shards - 1)) << 1;
+        this.shards = new Map[size];
+        for (int i = 0; i < size; i++) {
+            this.shards[i] = new ConcurrentHashMap<>();
+        }
+        this.mask = size - 1;
+        this.tiers = Map.copyOf(tiers);
+        this.clock = clock;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public RateLimitTier tier(String name) {
+        RateLimitTier tier = tiers.get(name);
+        if (tier == null) {
+            throw new IllegalArgumentException("Unknown rate limit tier: " + name);
+        }
+        return tier;
+    }
+
+    /**
+     * Takes a token from the key's bucket, creating it full on first use. A
+     * key that changes tier gets a fresh bucket for the new tier.
+     *
+     * @return 0 if allowed, otherwise nanoseconds until the next token
+     */
+    public long acquire(String key, RateLimitTier tier) {
+        long now = clock.getAsLong();
+        Map<String, Entry> shard = shards[spread(key.hashCode()) & mask];
+
+        Entry entry = shard.get(key);
+        if (entry == null || entry.tier() != tier) {
+            Entry created = new Entry(tier, new TokenBucket(tier, now));
+            entry = shard.merge(key, created, (current, fresh) -> current.tier() == tier ? current : fresh);
+        }
+        return entry.bucket().tryAcquire(now);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<String, Entry> shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * Drops the full buckets of one shard. Called by the sweeper, one shard per tick.
+     */
+    public void sweepNext() {
+        Map<String, Entry> shard = shards[nextShard];
+        nextShard = (nextShard + 1) & mask;
+        long now = clock.getAsLong();
+        shard.values().removeIf(entry -> entry.bucket().isFull(now));
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+}
@@ -0,0 +1,54 @@
+package com.bankingapp.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ *
+ * The bucket is kept in its GCRA form: instead of a token count and a refill
+ * time it stores a single "theoretical arrival time", the instant at which the
+ * bucket would be full again. Taking a token pushes it one emission interval
+ * forward; a request is refused if that would put it more than a full bucket
+ * ahead of now. One long means one CAS per request, with no refill
+ * arithmetic to race on.
+ *
+ * @author Avarexity - Whard A.
+ */
+public final class TokenBucket {
+    private final long intervalNanos;
+    private final long capacityNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(RateLimitTier tier, long nowNanos) {
+        this.intervalNanos = Math.max(1L, Math.round(1_000_000_000d / tier.permitsPerSecond()));
+        this.capacityNanos = intervalNanos * tier.burst();
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token.
+     *
+     * @param nowNanos Current {@link System#nanoTime()}
+     * @return 0 if the request may proceed, otherwise nanoseconds until a token is available
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > capacityNanos) {
+                return ahead - capacityNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return true if the bucket has refilled completely, so dropping it changes nothing
+     */
+    public boolean isFull(long nowNanos) {
+        return fullAt.get() - nowNanos <= 0;
+    }
+}
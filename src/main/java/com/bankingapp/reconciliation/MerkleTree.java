@@ -0,0 +1,89 @@
+package com.bankingapp.reconciliation;
+
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Binary hash tree over the buckets of the account id space.
+ *
+ * Leaf {@code i} holds the hash of bucket {@code i}'s {@link RangeDigest};
+ * every inner node the SHA-256 of its two children. Changing a leaf rehashes
+ * only its path to the root, so the tree follows incremental updates at
+ * O(log n) per bucket, two trees with equal roots agree everywhere, and
+ * {@link #diff} finds the differing buckets by descending only into
+ * subtrees whose hashes differ. Buckets never set hold the hash of an empty
+ * digest; the leaf count doubles as buckets are added.
+ *
+ * Not thread-safe.
+ *
+ * @author Avarexity - Whard A.
+ */
+final class MerkleTree {
+    private static final byte[] EMPTY_LEAF = new RangeDigest().hash();
+
+    private int leaves = 1;
+    private byte[][] nodes = {null, EMPTY_LEAF};
+
+    void set(int leaf, byte[] hash) {
+        grow(leaf + 1);
+        int node = leaves + leaf;
+        nodes[node] = hash;
+        for (node >>>= 1; node >= 1; node >>>= 1) {
+            nodes[node] = combine(nodes[2 * node], nodes[2 * node + 1]);
+        }
+    }
+
+    byte[] root() { return nodes[1]; }
+
+    int leaves() { return leaves; }
+
+    /**
+     * Passes to {@code sink}, in ascending order, every leaf whose hash
+     * differs between the two trees.
+     */
+    static void diff(MerkleTree a, MerkleTree b, IntConsumer sink) {
+        int leaves = Math.max(a.leaves, b.leaves);
+        a.grow(leaves);
+        b.grow(leaves);
+        diff(a, b, 1, sink);
+    }
+
+    private static void diff(MerkleTree a, MerkleTree b, int node, IntConsumer sink) {
+        if (Arrays.equals(a.nodes[node], b.nodes[node])) {
+            return;
+        }
+        if (node >= a.leaves) {
+            sink.accept(node - a.leaves);
+        } else {
+            diff(a, b, 2 * node, sink);
+            diff(a, b, 2 * node + 1, sink);
+        }
+    }
+
+    // Doubles the leaf count until there are at least n leaves and rebuilds the inner nodes
+    private void grow(int n) {
+        if (n <= leaves) {
+            return;
+        }
+        int size = leaves;
+        while (size < n) {
+            size <<= 1;
+        }
+        byte[][] grown = new byte[2 * size][];
+        System.arraycopy(nodes, leaves, grown, size, leaves);
+        Arrays.fill(grown, size + leaves, 2 * size, EMPTY_LEAF);
+        for (int node = size - 1; node >= 1; node--) {
+            grown[node] = combine(grown[2 * node], grown[2 * node + 1]);
+        }
+        leaves = size;
+        nodes = grown;
+    }
+
+    private static byte[] combine(byte[] left, byte[] right) {
+        MessageDigest sha = RangeDigest.sha256();
+        sha.update(left);
+        sha.update(right);
+        return sha.digest();
+    }
+}
@@ -0,0 +1,84 @@
+package com.bankingapp.reconciliation;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Sum and weighted sum of per-account amounts over one range of account ids.
+ *
+ * Both are linear, so a posting updates a digest with one addition and the
+ * ledger side (transactions) and the balance side (accounts) can be built
+ * independently and compared. The sum catches a wrong total; the weighted
+ * sum, each account's amount multiplied by a pseudo-random weight of its id,
+ * also catches errors that cancel out within the range (money on the wrong
+ * account). Arithmetic is exact, and the weight is computed identically in
+ * SQL ({@link #sqlWeight}), so equal inputs always give equal digests.
+ *
+ * @author Avarexity - Whard A.
+ */
+final class RangeDigest {
+    // Both below 2^31, so (id mod P) * M fits in a signed 64 bit integer and in DECIMAL(20,0)
+    private static final long MODULUS = 2_147_483_629L;
+    private static final long MULTIPLIER = 1_103_515_245L;
+
+    private BigDecimal sum = BigDecimal.ZERO;
+    private BigDecimal weighted = BigDecimal.ZERO;
+
+    RangeDigest() {}
+
+    RangeDigest(BigDecimal sum, BigDecimal weighted) {
+        this.sum = sum;
+        this.weighted = weighted;
+    }
+
+    RangeDigest copy() {
+        return new RangeDigest(sum, weighted);
+    }
+
+    static long weight(long accountId) {
+        return Math.floorMod(Math.floorMod(accountId, MODULUS) * MULTIPLIER, MODULUS);
+    }
+
+    /**
+     * @return SQL expression of the weight of the id column {@code column},
+     * widened before the multiplication, which overflows INT. DECIMAL(20,0) is
+     * a cast target on both MySQL and H2; BIGINT is not one on MySQL
+     */
+    static String sqlWeight(String column) {
+        return "MOD(CAST(MOD(" + column + ", " + MODULUS + ") AS DECIMAL(20,0)) * " + MULTIPLIER + ", " + MODULUS + ")";
+    }
+
+    void add(long accountId, BigDecimal amount) {
+        sum = sum.add(amount);
+        weighted = weighted.add(amount.multiply(BigDecimal.valueOf(weight(accountId))));
+    }
+
+    void subtract(long accountId, BigDecimal amount) {
+        add(accountId, amount.negate());
+    }
+
+    BigDecimal sum() { return sum; }
+
+    BigDecimal weighted() { return weighted; }
+
+    /**
+     * @return SHA-256 of the digest, independent of the scale of its values
+     */
+    byte[] hash() {
+        MessageDigest sha = sha256();
+        sha.update(sum.stripTrailingZeros().toPlainString().getBytes(StandardCharsets.US_ASCII));
+        sha.update((byte) '/');
+        sha.update(weighted.stripTrailingZeros().toPlainString().getBytes(StandardCharsets.US_ASCII));
+        return sha.digest();
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.bankingapp.reconciliation;
+
+import com.bankingapp.ledger.BalanceCache;
+import com.bankingapp.ledger.Journal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks that every account balance equals the sum of its lines in the
+ * {@link Journal}'s {@code ACCOUNT} book, without recomputing every account
+ * each time. The book includes the opening entries the journal migration
+ * wrote for balances no line explained (archived months, for one), so
+ * accounts need not start from zero, and it is never archived, so the
+ * journal alone holds the whole history.
+ *
+ * The account id space is split into buckets of {@code bucket-size} ids. The
+ * ledger side keeps a {@link RangeDigest} per bucket and a {@link MerkleTree}
+ * over them, both updated incrementally: each refresh streams only the lines
+ * posted since the watermark and persists the changed buckets and the new
+ * watermark in one database transaction, so a restart continues where it
+ * stopped. The watermark trails the clock by {@code settle-seconds}, longer
+ * than any posting stays open, so every line before it has committed and is
+ * counted exactly once.
+ *
+ * A verification builds the balance side in one consistent read: the
+ * balances per bucket, less the lines after the watermark. Buckets whose
+ * hashes differ from the ledger tree are re-verified in parallel account by
+ * account from the journal. That both lists the accounts that are off and
+ * repairs the bucket's ledger digest, in case the incremental one was what
+ * was wrong (e.g. a line that committed behind the watermark).
+ *
+ * {@code accounts.balance} is written behind by the {@link BalanceCache}, so
+ * a verification flushes the cache before reading. A posting that commits
+ * between the flush and the read can still be listed; it is not on the next
+ * run.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Service
+public class ReconciliationEngine {
+    /**
+     * An account whose balance is not the sum of its journal lines.
+     */
+    public record Mismatch(long accountId, BigDecimal balance, BigDecimal expected) {}
+
+    /**
+     * Outcome of a verification.
+     *
+     * @param buckets Buckets compared
+     * @param reverified Buckets whose digests differed and were checked account by account
+     * @param watermark Journal lines before it were covered by the digests
+     */
+    public record ReconciliationReport(int buckets, int reverified, List<Mismatch> mismatches,
+                                       LocalDateTime watermark) {}
+
+    private record BucketCheck(long bucket, RangeDigest ledger, List<Mismatch> mismatches) {}
+
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final String SELECT_POSTED =
+            "SELECT book_id, amount FROM journal_lines WHERE book = 'ACCOUNT' AND posted_at >= ? AND posted_at < ?";
+
+    private static final String SELECT_POSTED_SINCE =
+            "SELECT book_id, amount FROM journal_lines WHERE book = 'ACCOUNT' AND posted_at >= ?";
+
+    private static final String SELECT_BALANCE_DIGESTS =
+            "SELECT bucket, SUM(balance), SUM(balance * weight) FROM (" +
+            " SELECT FLOOR(id / ?) AS bucket, balance, " + RangeDigest.sqlWeight("id") + " AS weight FROM accounts" +
+            ") b GROUP BY bucket";
+
+    private static final String SELECT_BUCKET_BALANCES =
+            "SELECT id, balance FROM accounts WHERE id >= ? AND id < ?";
+
+    // Sum of the lines per account of a bucket, in total and before the watermark
+    private static final String SELECT_BUCKET_LEDGER =
+            "SELECT book_id, SUM(amount), SUM(CASE WHEN posted_at < ? THEN amount ELSE 0 END) FROM journal_lines " +
+            "WHERE book = 'ACCOUNT' AND book_id >= ? AND book_id < ? GROUP BY book_id";
+
+    private static final String UPSERT_BUCKET =
+            "INSERT INTO reconciliation_buckets (bucket_id, ledger_sum, ledger_weighted) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE ledger_sum = VALUES(ledger_sum), ledger_weighted = VALUES(ledger_weighted)";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactions;
+    private final TransactionTemplate snapshot;
+    private final BalanceCache balances;
+    private final ForkJoinPool pool;
+    private final long bucketSize;
+    private final Duration settle;
+    private final int fetchSize;
+    private final Counter reverified;
+    private final AtomicInteger lastMismatches = new AtomicInteger();
+
+    private final Map<Long, RangeDigest> ledger = new HashMap<>();
+    private final MerkleTree ledgerTree = new MerkleTree();
+    private LocalDateTime watermark;
+
+    @Autowired
+    public ReconciliationEngine(JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+                                BalanceCache balances, MeterRegistry registry,
+                                @Value("${bankingapp.reconciliation.bucket-size:1024}") long bucketSize,
+                                @Value("${bankingapp.reconciliation.settle-seconds:120}") long settleSeconds,
+                                @Value("${bankingapp.reconciliation.parallelism:0}") int parallelism,
+                                @Value("${bankingapp.reconciliation.fetch-size:5000}") int fetchSize) {
+        this.jdbc = jdbc;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.snapshot = new TransactionTemplate(transactionManager);
+        this.snapshot.setReadOnly(true);
+        this.snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.balances = balances;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.bucketSize = bucketSize;
+        this.settle = Duration.ofSeconds(settleSeconds);
+        this.fetchSize = fetchSize;
+        this.reverified = Counter.builder("reconciliation.buckets.reverified").register(registry);
+        registry.gauge("reconciliation.mismatches", lastMismatches);
+    }
+
+    /**
+     * Adds the journal lines posted since the last refresh to the ledger
+     * digests. The first refresh builds them from the whole journal.
+     *
+     * @return Number of lines added
+     */
+    @Scheduled(fixedDelayString = "${bankingapp.reconciliation.refresh-interval-ms:60000}")
+    public synchronized long refresh() {
+        load();
+        LocalDateTime cutoff = LocalDateTime.now().minus(settle);
+        if (!cutoff.isAfter(watermark)) {
+            return 0;
+        }
+
+        Map<Long, RangeDigest> changed = new HashMap<>();
+        long[] added = {0};
+        jdbc.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_POSTED,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setTimestamp(1, Timestamp.valueOf(watermark));
+            statement.setTimestamp(2, Timestamp.valueOf(cutoff));
+            return statement;
+        }, rs -> {
+            post(changed, rs.getLong(1), rs.getBigDecimal(2));
+            added[0]++;
+        });
+
+        transactions.executeWithoutResult(status -> {
+            persist(changed);
+            if (jdbc.update("UPDATE reconciliation_state SET watermark = ? WHERE id = 1", Timestamp.valueOf(cutoff)) == 0) {
+                jdbc.update("INSERT INTO reconciliation_state (id, watermark) VALUES (1, ?)", Timestamp.valueOf(cutoff));
+            }
+        });
+        changed.forEach(this::replace);
+        watermark = cutoff;
+        return added[0];
+    }
+
+    /**
+     * Compares the balances with the ledger digests and re-verifies the
+     * buckets that differ.
+     */
+    @Scheduled(cron = "${bankingapp.reconciliation.cron:0 15 * * * *}")
+    public synchronized ReconciliationReport verify() {
+        refresh();
+        balances.flush();
+
+        Map<Long, RangeDigest> balances = snapshot.execute(status -> balanceDigests());
+        MerkleTree balanceTree = new MerkleTree();
+        balances.forEach((bucket, digest) -> balanceTree.set(Math.toIntExact(bucket), digest.hash()));
+
+        List<Long> differing = new ArrayList<>();
+        MerkleTree.diff(ledgerTree, balanceTree, leaf -> differing.add((long) leaf));
+        int buckets = Math.max(ledgerTree.leaves(), balanceTree.leaves());
+        if (differing.isEmpty()) {
+            lastMismatches.set(0);
+            return new ReconciliationReport(buckets, 0, List.of(), watermark);
+        }
+
+        LocalDateTime asOf = watermark;
+        List<Future<BucketCheck>> checks = new ArrayList<>(differing.size());
+        for (long bucket : differing) {
+            checks.add(pool.submit(() -> snapshot.execute(status -> check(bucket, asOf))));
+        }
+
+        List<Mismatch> mismatches = new ArrayList<>();
+        Map<Long, RangeDigest> repaired = new HashMap<>();
+        for (Future<BucketCheck> check : checks) {
+            BucketCheck result = join(check);
+            mismatches.addAll(result.mismatches());
+            repaired.put(result.bucket(), result.ledger());
+        }
+        transactions.executeWithoutResult(status -> persist(repaired));
+        repaired.forEach(this::replace);
+
+        reverified.increment(differing.size());
+        lastMismatches.set(mismatches.size());
+        mismatches.sort(Comparator.comparingLong(Mismatch::accountId));
+        return new ReconciliationReport(buckets, differing.size(), List.copyOf(mismatches), watermark);
+    }
+
+    // Balance digest per bucket as of the watermark: current balances less every later line
+    private Map<Long, RangeDigest> balanceDigests() {
+        Map<Long, RangeDigest> digests = new HashMap<>();
+        jdbc.query(SELECT_BALANCE_DIGESTS, rs -> {
+            digests.put(rs.getLong(1), new RangeDigest(rs.getBigDecimal(2), rs.getBigDecimal(3)));
+        }, bucketSize);
+
+        Map<Long, RangeDigest> later = new HashMap<>();
+        jdbc.query(SELECT_POSTED_SINCE, rs -> {
+            post(later, rs.getLong(1), rs.getBigDecimal(2));
+        }, Timestamp.valueOf(watermark));
+        later.forEach((bucket, digest) -> {
+            RangeDigest balance = digests.computeIfAbsent(bucket, b -> new RangeDigest());
+            digests.put(bucket, new RangeDigest(balance.sum().subtract(digest.sum()),
+                    balance.weighted().subtract(digest.weighted())));
+        });
+        return digests;
+    }
+
+    // Account by account check of one bucket, and its ledger digest recomputed from scratch
+    private BucketCheck check(long bucket, LocalDateTime asOf) {
+        long from = bucket * bucketSize;
+        long to = from + bucketSize;
+
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        jdbc.query(SELECT_BUCKET_BALANCES, rs -> { balances.put(rs.getLong(1), rs.getBigDecimal(2)); }, from, to);
+
+        Map<Long, BigDecimal> expected = new HashMap<>();
+        RangeDigest ledger = new RangeDigest();
+        jdbc.query(SELECT_BUCKET_LEDGER, rs -> {
+            long account = rs.getLong(1);
+            expected.put(account, rs.getBigDecimal(2));
+            ledger.add(account, rs.getBigDecimal(3));
+        }, Timestamp.valueOf(asOf), from, to);
+
+        Set<Long> accounts = new TreeSet<>(balances.keySet());
+        accounts.addAll(expected.keySet());
+        List<Mismatch> mismatches = new ArrayList<>();
+        for (long account : accounts) {
+            BigDecimal balance = balances.getOrDefault(account, BigDecimal.ZERO);
+            BigDecimal net = expected.getOrDefault(account, BigDecimal.ZERO);
+            if (balance.compareTo(net) != 0) {
+                mismatches.add(new Mismatch(account, balance, net));
+            }
+        }
+        return new BucketCheck(bucket, ledger, mismatches);
+    }
+
+    private void post(Map<Long, RangeDigest> digests, long accountId, BigDecimal amount) {
+        digests.computeIfAbsent(accountId / bucketSize, this::startFrom).add(accountId, amount);
+    }
+
+    // A bucket's working copy starts from its current ledger digest
+    private RangeDigest startFrom(long bucket) {
+        RangeDigest current = ledger.get(bucket);
+        return current == null ? new RangeDigest() : current.copy();
+    }
+
+    private void persist(Map<Long, RangeDigest> digests) {
+        List<Object[]> rows = new ArrayList<>(digests.size());
+        digests.forEach((bucket, digest) -> rows.add(new Object[]{bucket, digest.sum(), digest.weighted()}));
+        jdbc.batchUpdate(UPSERT_BUCKET, rows);
+    }
+
+    private void replace(long bucket, RangeDigest digest) {
+        ledger.put(bucket, digest);
+        ledgerTree.set(Math.toIntExact(bucket), digest.hash());
+    }
+
+    private void load() {
+        if (watermark != null) {
+            return;
+        }
+        List<Timestamp> stored = jdbc.queryForList("SELECT watermark FROM reconciliation_state WHERE id = 1", Timestamp.class);
+        jdbc.query("SELECT bucket_id, ledger_sum, ledger_weighted FROM reconciliation_buckets", rs -> {
+            replace(rs.getLong(1), new RangeDigest(rs.getBigDecimal(2), rs.getBigDecimal(3)));
+        });
+        watermark = stored.isEmpty() ? ORIGIN : stored.get(0).toLocalDateTime();
+    }
+
+    private static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while verifying.", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime
+                    ? runtime
+                    : new IllegalStateException("Bucket verification failed.", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
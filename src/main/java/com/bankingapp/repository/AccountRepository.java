@@ -1,25 +1,50 @@
 package com.bankingapp.repository;
 
+import com.bankingapp.dto.AccountResponse;
 import com.bankingapp.model.Account;
 import com.bankingapp.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.Currency;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
-    // get all accounts owned by a specific user
+    // get all accounts owned by a specific user, cards fetched in the same query
+    @EntityGraph(attributePaths = "cards")
     List<Account> getByOwner(User owner);
 
+    // get a single account straight into its response DTO
+    @Query("select new com.bankingapp.dto.AccountResponse(a.id, a.name, a.currency, a.balance) " +
+            "from Account a where a.id = :id")
+    Optional<AccountResponse> findResponseById(@Param("id") Long id);
+
+    // get all accounts of an owner straight into response DTOs
+    @Query("select new com.bankingapp.dto.AccountResponse(a.id, a.name, a.currency, a.balance) " +
+            "from Account a where a.owner.id = :ownerId order by a.id")
+    List<AccountResponse> findResponsesByOwnerId(@Param("ownerId") Long ownerId);
+
+    // get only the ids of the accounts of an owner
+    // get several accounts straight into response DTOs, used by the balance feed
+    @Query("select new com.bankingapp.dto.AccountResponse(a.id, a.name, a.currency, a.balance) " +
+            "from Account a where a.id in :ids")
+    List<AccountResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select a.id from Account a where a.owner.id = :ownerId order by a.id")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId);
+
     // get accounts by name (exact match)
     List<Account> getByName(String name);
 
-    // get accounts by name (containing pattern)
-    List<Account> getByNameContaining(String namePattern);
+    // get accounts by name prefix (a leading wildcard could not use the name index)
+    List<Account> getByNameStartingWith(String namePrefix);
 
     // get accounts with a specific currency
     List<Account> getByCurrency(Currency currency);
@@ -1,10 +1,14 @@
 package com.bankingapp.repository;
 
+import com.bankingapp.dto.CardResponse;
 import com.bankingapp.model.Account;
 import com.bankingapp.model.Card;
 import com.bankingapp.model.User;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -12,30 +16,33 @@ import java.util.List;
 
 @Repository
 public interface CardRepository extends JpaRepository<Card, Long> {
-    // get all cards owned by a specific user
-    List<Card> getByOwner(User owner);
+    // get all cards on the accounts of a specific user
+    @Query("select c from Card c where c.account.owner = :owner")
+    List<Card> getByOwner(@Param("owner") User owner);
 
-    // get cards by name (exact match)
-    List<Card> getByName(String name);
+    // get cards by type (CreditCard.class, DebitCard.class, OTCard.class)
+    @Query("select c from Card c where type(c) = :type")
+    List<Card> getByType(@Param("type") Class<? extends Card> type);
 
-    // get cards by name (containing pattern)
-    List<Card> getByNameContaining(String namePattern);
-
-    // get cards by type
-    List<Card> getByType(String type);
-
-    // get cards by expiration date
-    List<Card> getByExpirationDate(LocalDate expirationDate);
+    // get cards by expiry date
+    List<Card> getByExpiryDate(LocalDate expiryDate);
 
     // get cards by account
+    @EntityGraph(attributePaths = "account")
     List<Card> getByAccount(Account account);
 
+    // get the cards of an account straight into response DTOs
+    @Query("select new com.bankingapp.dto.CardResponse(c.number, c.expiryDate, a.currency, c.drawLimit, type(c)) " +
+            "from Card c join c.account a where a.id = :accountId order by c.id")
+    List<CardResponse> findResponsesByAccountId(@Param("accountId") Long accountId);
+
     // get cards by card number
     Card getByNumber(@NotNull String number);
 
     // Check if a card with a certain number exists
     boolean existsByNumber(@NotNull String number);
 
-    // Count cards for a specific owner
-    Long countByOwner(User owner);
+    // Count cards on the accounts of a specific owner
+    @Query("select count(c) from Card c where c.account.owner = :owner")
+    Long countByOwner(@Param("owner") User owner);
 }
@@ -2,8 +2,11 @@ package com.bankingapp.repository;
 
 import com.bankingapp.model.Institute;
 import com.bankingapp.model.InstituteType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,8 +17,15 @@ public interface InstituteRepository extends JpaRepository<Institute, Long> {
     @NotNull Institute getById(@NotNull Long id);
 
     // Get all institutes by name
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Institute> getByName(String name);
 
     // Get all institutes by type
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Institute> getByType(InstituteType type);
+
+    // Get all institutes (query cached, entities come from the institutes region)
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @NotNull List<Institute> findAll();
 }
@@ -0,0 +1,50 @@
+package com.bankingapp.repository;
+
+import com.bankingapp.dto.SpendSummary;
+import com.bankingapp.model.RollupDimension;
+import com.bankingapp.model.RollupGranularity;
+import com.bankingapp.model.SpendRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SpendRollupRepository extends JpaRepository<SpendRollup, Long> {
+    // add a batch of payments to a rollup bucket, creating the bucket if needed
+    @Modifying
+    @Query(value = "INSERT INTO spend_rollups " +
+            "(granularity, dimension, dimension_key, bucket_start, currency, tx_count, amount_sum, amount_max) " +
+            "VALUES (:granularity, :dimension, :dimensionKey, :bucketStart, :currency, :count, :sum, :max) " +
+            "ON DUPLICATE KEY UPDATE tx_count = tx_count + :count, " +
+            "amount_sum = amount_sum + :sum, " +
+            "amount_max = GREATEST(amount_max, :max)", nativeQuery = true)
+    void upsert(@Param("granularity") String granularity,
+                @Param("dimension") String dimension,
+                @Param("dimensionKey") String dimensionKey,
+                @Param("bucketStart") LocalDateTime bucketStart,
+                @Param("currency") String currency,
+                @Param("count") long count,
+                @Param("sum") BigDecimal sum,
+                @Param("max") BigDecimal max);
+
+    // sum the buckets of a dimension key within [from, to) per currency
+    @Query("select new com.bankingapp.dto.SpendSummary(r.currency, sum(r.txCount), sum(r.amountSum), max(r.amountMax)) " +
+            "from SpendRollup r where r.granularity = :granularity and r.dimension = :dimension " +
+            "and r.dimensionKey = :dimensionKey and r.bucketStart >= :from and r.bucketStart < :to " +
+            "group by r.currency")
+    List<SpendSummary> summarize(@Param("granularity") RollupGranularity granularity,
+                                 @Param("dimension") RollupDimension dimension,
+                                 @Param("dimensionKey") String dimensionKey,
+                                 @Param("from") LocalDateTime from,
+                                 @Param("to") LocalDateTime to);
+
+    // get all buckets of a granularity within [from, to), used by the verification job
+    List<SpendRollup> getByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThan(
+            RollupGranularity granularity, LocalDateTime from, LocalDateTime to);
+}
@@ -1,20 +1,100 @@
 package com.bankingapp.repository;
 
+import com.bankingapp.dto.SpendSummary;
+import com.bankingapp.dto.TransactionResponse;
+import com.bankingapp.dto.TransactionRow;
 import com.bankingapp.model.*;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Currency;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    // get all transactions by owner
-    List<Transaction> getByMaker(User maker);
+    // Sent-or-received is a UNION ALL of the two indexed branches; an OR over
+    // sender_id and receiver_id cannot use either index on its own
+    String ACCOUNT_ROWS =
+            "SELECT id, timestamp, state, type, currency, amount, note FROM transactions " +
+            "WHERE sender_id = :accountId " +
+            "UNION ALL " +
+            "SELECT id, timestamp, state, type, currency, amount, note FROM transactions " +
+            "WHERE receiver_id = :accountId AND sender_id <> :accountId " +
+            "ORDER BY timestamp DESC, id DESC";
 
-    // get all transactions by account
-    List<Transaction> getByAccount(Account account);
+    // One keyset page of ACCOUNT_ROWS: the rows after (before, beforeId) in that
+    // order. Each branch is limited on its own index range, so a page costs
+    // the same however deep into the history it is
+    String PAGE_AFTER_CURSOR =
+            "AND (timestamp < :before OR (timestamp = :before AND id < :beforeId)) " +
+            "ORDER BY timestamp DESC, id DESC LIMIT :limit";
+    String ACCOUNT_PAGE =
+            "(SELECT id, timestamp, state, type, currency, amount, note FROM transactions " +
+            "WHERE sender_id = :accountId " + PAGE_AFTER_CURSOR + ") " +
+            "UNION ALL " +
+            "(SELECT id, timestamp, state, type, currency, amount, note FROM transactions " +
+            "WHERE receiver_id = :accountId AND sender_id <> :accountId " + PAGE_AFTER_CURSOR + ") " +
+            "ORDER BY timestamp DESC, id DESC LIMIT :limit";
+
+    // get all transactions made from accounts of an owner
+    @Query("select t from Transaction t where t.from.owner = :maker")
+    List<Transaction> getByMaker(@Param("maker") User maker);
+
+    // get all transactions sent by an account
+    @EntityGraph(attributePaths = {"card", "institute"})
+    @Query("select t from Transaction t where t.from = :account")
+    List<Transaction> getBySender(@Param("account") Account account);
+
+    // get all transactions received by an account, self transfers excluded (they are in getBySender)
+    @EntityGraph(attributePaths = {"card", "institute"})
+    @Query("select t from Transaction t where t.to = :account and t.from <> :account")
+    List<Transaction> getByReceiver(@Param("account") Account account);
+
+    // get all transactions sent or received by an account, newest first
+    default List<Transaction> getByAccount(Account account) {
+        List<Transaction> transactions = new ArrayList<>(getBySender(account));
+        transactions.addAll(getByReceiver(account));
+        transactions.sort(Comparator.comparing(Transaction::getTimestamp).reversed());
+        return transactions;
+    }
+
+    @Query(value = ACCOUNT_ROWS, nativeQuery = true)
+    List<Object[]> findRawByAccountId(@Param("accountId") Long accountId);
+
+    @Query(value = ACCOUNT_PAGE, nativeQuery = true)
+    List<Object[]> findRawPageByAccountId(@Param("accountId") Long accountId,
+                                          @Param("before") LocalDateTime before,
+                                          @Param("beforeId") String beforeId,
+                                          @Param("limit") int limit);
+
+    // get all transactions of an account straight into response DTOs, newest first
+    default List<TransactionResponse> findResponsesByAccountId(Long accountId) {
+        return findRawByAccountId(accountId).stream()
+                .map(TransactionRepository::toRow)
+                .map(row -> new TransactionResponse(row.id(), row.timestamp(), row.state(), row.type(),
+                        row.currency(), row.amount(), row.note()))
+                .toList();
+    }
+
+    // get up to limit transactions of an account older than (before, beforeId) as raw rows, newest first
+    default List<TransactionRow> findRowPageByAccountId(Long accountId, LocalDateTime before, String beforeId,
+                                                        int limit) {
+        return findRawPageByAccountId(accountId, before, beforeId, limit).stream()
+                .map(TransactionRepository::toRow)
+                .toList();
+    }
 
     // get all transactions by type
     List<Transaction> getByType(TransactionType type);
@@ -22,26 +102,74 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     // get all transactions by state
     List<Transaction> getByState(TransactionState state);
 
-    // get all transactions by date range
-    List<Transaction> getByDateBetween(LocalDate startDate, LocalDate endDate);
+    // get the transactions within [from, to) in time order as raw rows, see TransactionPartitionRouter
+    @Query("select new com.bankingapp.dto.TransactionRow(t.id, t.timestamp, t.state, t.type, t.currency, t.amount, t.note) " +
+            "from Transaction t where t.timestamp >= :from and t.timestamp < :to order by t.timestamp")
+    List<TransactionRow> findRowsBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
     // get all transactions by range amount
-    List<Transaction> getByAmount(BigDecimal minAmount, BigDecimal maxAmount);
+    List<Transaction> getByAmountBetween(BigDecimal minAmount, BigDecimal maxAmount);
 
-    // Fine all transactions by institute type
-    List<Transaction> getByInstituteType(InstituteType type);
+    // Fine all transactions by institute type; driven from institutes(type) into transactions(institute_id)
+    @Query("select t from Institute i join Transaction t on t.institute = i where i.type = :type")
+    List<Transaction> getByInstituteType(@Param("type") InstituteType type);
     
-    boolean existsByAccount(Account account);
-    
-    boolean existsByMaker(User maker);
+    @Query("select count(t) > 0 from Transaction t where t.from = :account")
+    boolean existsBySender(@Param("account") Account account);
+
+    @Query("select count(t) > 0 from Transaction t where t.to = :account")
+    boolean existsByReceiver(@Param("account") Account account);
+
+    default boolean existsByAccount(Account account) {
+        return existsBySender(account) || existsByReceiver(account);
+    }
+
+    @Query("select count(t) > 0 from Transaction t where t.from.owner = :maker")
+    boolean existsByMaker(@Param("maker") User maker);
     
-    boolean existsByInstituteType(InstituteType type);
+    @Query("select count(t) > 0 from Institute i join Transaction t on t.institute = i where i.type = :type")
+    boolean existsByInstituteType(@Param("type") InstituteType type);
 
     boolean existsByInstitute(Institute institute);
 
     List<Transaction> getByInstitute(Institute institute);
 
-    boolean existsByDateBetween(LocalDate startDate, LocalDate endDate);
+    // card payment spend to an institute within [from, to) per currency, for the edges rollups do not cover
+    @Query("select new com.bankingapp.dto.SpendSummary(t.currency, count(t), sum(t.amount), max(t.amount)) " +
+            "from Transaction t where t.type = com.bankingapp.model.TransactionType.CARD_PAYMENT " +
+            "and t.institute.id = :instituteId and t.timestamp >= :from and t.timestamp < :to group by t.currency")
+    List<SpendSummary> summarizeByInstitute(@Param("instituteId") Long instituteId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    // card payment spend to an institute type within [from, to) per currency
+    @Query("select new com.bankingapp.dto.SpendSummary(t.currency, count(t), sum(t.amount), max(t.amount)) " +
+            "from Institute i join Transaction t on t.institute = i " +
+            "where i.type = :type and t.type = com.bankingapp.model.TransactionType.CARD_PAYMENT " +
+            "and t.timestamp >= :from and t.timestamp < :to group by t.currency")
+    List<SpendSummary> summarizeByInstituteType(@Param("type") InstituteType type,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to);
+
+    // stream all card payments within [from, to) with their institute, used to recompute rollups
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select t from Transaction t join fetch t.institute " +
+            "where t.type = com.bankingapp.model.TransactionType.CARD_PAYMENT " +
+            "and t.timestamp >= :from and t.timestamp < :to")
+    Stream<Transaction> streamCardPayments(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
     boolean existsByAmountBetween(BigDecimal min, BigDecimal max);
+
+    // columns as selected by ACCOUNT_ROWS and ACCOUNT_PAGE
+    private static TransactionRow toRow(Object[] row) {
+        LocalDateTime timestamp = row[1] instanceof Timestamp sql ? sql.toLocalDateTime() : (LocalDateTime) row[1];
+        return new TransactionRow(
+                (String) row[0],
+                timestamp,
+                TransactionState.valueOf((String) row[2]),
+                TransactionType.valueOf((String) row[3]),
+                Currency.getInstance((String) row[4]),
+                (BigDecimal) row[5],
+                (String) row[6]);
+    }
 }
@@ -1,8 +1,11 @@
 package com.bankingapp.repository;
 
 import com.bankingapp.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
@@ -15,9 +18,11 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @NotNull User getById(Long id);
 
     // Existing method
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> getByEmail(String email);
     
     // Get by phone number
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> getByPhone(String phone);
     
     // Get by name and surname
@@ -0,0 +1,22 @@
+package com.bankingapp.security;
+
+import java.util.Set;
+
+/**
+ * What a verified session token says about its bearer.
+ *
+ * @param tokenId Unique id of the token, used for revocation
+ * @param userId The authenticated user
+ * @param accountIds The accounts the user owned when the token was issued
+ * @param expiresAt Expiry as epoch milliseconds
+ */
+public record SessionClaims(
+        String tokenId,
+        Long userId,
+        Set<Long> accountIds,
+        long expiresAt
+) {
+    public boolean ownsAccount(Long accountId) { return accountIds.contains(accountId); }
+
+    public boolean isExpired(long now) { return now >= expiresAt; }
+}
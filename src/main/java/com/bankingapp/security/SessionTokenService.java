@@ -0,0 +1,175 @@
+package com.bankingapp.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Issues and verifies stateless, HMAC-SHA256 signed session tokens carrying the
+ * user id and the ids of the accounts they own. Verification never touches the
+ * database: the signature is checked once per token, after which the parsed
+ * claims are kept in a small local cache. Logged-out tokens go into an
+ * in-memory revocation set until they expire.
+ *
+ * Token layout: {@code base64url(tokenId.userId.expiresAt.acc1,acc2,...).base64url(hmac)}
+ *
+ * The revocation set is per instance; tokens are short-lived to bound the
+ * window in which a revoked token could still be used elsewhere, and in which
+ * the account list may be stale.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Service
+public class SessionTokenService {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAX_CACHED = 10_000;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final long ttlMillis;
+    private final ThreadLocal<Mac> mac;
+    private final SecureRandom random = new SecureRandom();
+
+    private final Map<String, SessionClaims> verified = new ConcurrentHashMap<>();
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SessionTokenService(@Value("${bankingapp.security.token-secret:}") String secret,
+                               @Value("${bankingapp.security.token-ttl-seconds:900}") long ttlSeconds) {
+        byte[] keyBytes = secret.isBlank() ? randomKey() : secret.getBytes(StandardCharsets.UTF_8);
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttlMillis = ttlSeconds * 1000;
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Issues a token for a user.
+     *
+     * @param userId The authenticated user
+     * @param accountIds The accounts owned by the user
+     * @return The signed token
+     */
+    public String issue(Long userId, Collection<Long> accountIds) {
+        Objects.requireNonNull(userId, "User ID cannot be null.");
+        byte[] id = new byte[12];
+        random.nextBytes(id);
+
+        String payload = ENCODER.encodeToString(id) + "." + userId + "." + (System.currentTimeMillis() + ttlMillis) + "." +
+                accountIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        String encoded = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+
+        return encoded + "." + ENCODER.encodeToString(sign(encoded));
+    }
+
+    /**
+     * Verifies a token, or an {@code Authorization: Bearer <token>} header value.
+     *
+     * @param token The token
+     * @return The claims, or null if the token is missing, malformed, forged, expired or revoked
+     */
+    public SessionClaims verify(String token) {
+        if (token == null) {
+            return null;
+        }
+        if (token.startsWith("Bearer ")) {
+            token = token.substring(7);
+        }
+
+        long now = System.currentTimeMillis();
+        SessionClaims claims = verified.get(token);
+        if (claims == null) {
+            claims = parse(token);
+            if (claims == null) {
+                return null;
+            }
+            if (verified.size() >= MAX_CACHED) {
+                verified.clear();
+            }
+            verified.put(token, claims);
+        }
+
+        if (claims.isExpired(now)) {
+            verified.remove(token);
+            return null;
+        }
+        if (revoked.containsKey(claims.tokenId())) {
+            return null;
+        }
+        return claims;
+    }
+
+    /**
+     * Revokes a token until it expires.
+     *
+     * @param claims The claims of the token to revoke
+     */
+    public void revoke(SessionClaims claims) {
+        long now = System.currentTimeMillis();
+        revoked.put(claims.tokenId(), claims.expiresAt());
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+
+    public long getTtlMillis() { return ttlMillis; }
+
+    private SessionClaims parse(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+
+        try {
+            String encoded = token.substring(0, dot);
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, sign(encoded))) {
+                return null;
+            }
+
+            String[] parts = new String(DECODER.decode(encoded), StandardCharsets.UTF_8).split("\\.", -1);
+            if (parts.length != 4) {
+                return null;
+            }
+
+            Set<Long> accountIds = new HashSet<>();
+            if (!parts[3].isEmpty()) {
+                for (String accountId : parts[3].split(",")) {
+                    accountIds.add(Long.parseLong(accountId));
+                }
+            }
+            return new SessionClaims(parts[0], Long.parseLong(parts[1]), Set.copyOf(accountIds), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private byte[] sign(String payload) {
+        return mac.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot initialise " + ALGORITHM + ".", e);
+        }
+    }
+
+    private static byte[] randomKey() {
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        return bytes;
+    }
+}
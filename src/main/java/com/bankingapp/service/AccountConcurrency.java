@@ -0,0 +1,139 @@
+package com.bankingapp.service;
+
+import com.bankingapp.model.Account;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+
+/**
+ * Read-modify-write of two accounts under the configured concurrency mode.
+ *
+ * Neither mode guards the balances: they are no longer read or written on
+ * the account rows, and whether the sender can cover a transfer is decided
+ * by the reservation in the BalanceCache. Both modes only serialize the
+ * updates of an account on its row, so that work on the same account runs
+ * one at a time and in order.
+ *
+ * <ul>
+ *   <li>{@code PESSIMISTIC}: both rows are read with {@code SELECT ... FOR UPDATE},
+ *   always the lower id first, so two updates of the same pair lock in the
+ *   same order and cannot deadlock. Writers to a hot account queue on the row
+ *   lock.</li>
+ *   <li>{@code OPTIMISTIC}: rows are read without locks and the update is
+ *   checked against {@link Account#getVersion()} on commit. The version is
+ *   incremented even when the work leaves the rows unchanged, as a transfer
+ *   does now that balances move in the BalanceCache, so two updates of the
+ *   same account still conflict. A conflicting
+ *   update rolls back and is retried on fresh rows after a jittered backoff,
+ *   up to {@code max-attempts} times. Cheaper when conflicts are rare, wasted
+ *   work when they are not.</li>
+ * </ul>
+ *
+ * Called inside an existing transaction the update joins it and is not
+ * retried, since only the outer transaction can be rolled back and re-run.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Component
+public class AccountConcurrency {
+    public enum Mode { OPTIMISTIC, PESSIMISTIC }
+
+    private final EntityManager em;
+    private final TransactionTemplate transactions;
+    private final Mode mode;
+    private final int maxAttempts;
+    private final long backoffMillis;
+    private final Counter conflicts;
+    private final Counter exhausted;
+
+    @Autowired
+    public AccountConcurrency(EntityManager em, PlatformTransactionManager transactionManager, MeterRegistry registry,
+                              @Value("${bankingapp.accounts.concurrency:PESSIMISTIC}") Mode mode,
+                              @Value("${bankingapp.accounts.optimistic.max-attempts:5}") int maxAttempts,
+                              @Value("${bankingapp.accounts.optimistic.backoff-ms:2}") long backoffMillis) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("At least one attempt is needed.");
+        }
+        this.em = em;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.mode = mode;
+        this.maxAttempts = maxAttempts;
+        this.backoffMillis = backoffMillis;
+        this.conflicts = Counter.builder("accounts.update.conflicts").register(registry);
+        this.exhausted = Counter.builder("accounts.update.retries.exhausted").register(registry);
+    }
+
+    public Mode mode() { return mode; }
+
+    /**
+     * Applies {@code work} to the current state of both accounts in one
+     * transaction. The work may run more than once in optimistic mode, so it
+     * must not have side effects outside the transaction.
+     *
+     * @param work Receives the accounts in argument order
+     * @throws OptimisticLockingFailureException if every attempt conflicted
+     */
+    public <T> T update(Long firstId, Long secondId, BiFunction<Account, Account, T> work) {
+        if (mode == Mode.PESSIMISTIC || TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transactions.execute(status -> apply(firstId, secondId, work));
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactions.execute(status -> apply(firstId, secondId, work));
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                conflicts.increment();
+                if (attempt == maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                backoff(attempt);
+            }
+        }
+    }
+
+    private <T> T apply(Long firstId, Long secondId, BiFunction<Account, Account, T> work) {
+        LockModeType lock = mode == Mode.PESSIMISTIC ? LockModeType.PESSIMISTIC_WRITE : LockModeType.NONE;
+        boolean ascending = firstId <= secondId;
+        Account lower = load(ascending ? firstId : secondId, lock);
+        Account higher = firstId.equals(secondId) ? lower : load(ascending ? secondId : firstId, lock);
+        return ascending ? work.apply(lower, higher) : work.apply(higher, lower);
+    }
+
+    private Account load(Long id, LockModeType lock) {
+        Account account = em.find(Account.class, id);
+        if (account == null) {
+            throw new EntityNotFoundException("Account " + id + " does not exist.");
+        }
+        // The instance may have been read before this transaction (open session in view)
+        em.refresh(account, lock);
+        if (mode == Mode.OPTIMISTIC) {
+            em.lock(account, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        }
+        return account;
+    }
+
+    // Full jitter: spreads retries of transfers that collided so they do not collide again
+    private void backoff(int attempt) {
+        long ceiling = backoffMillis << Math.min(attempt - 1, 10);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying an account update.", e);
+        }
+    }
+}
@@ -1,32 +1,43 @@
 package com.bankingapp.service;
 
+import com.bankingapp.cache.Coalesced;
+import com.bankingapp.dto.AccountResponse;
+import com.bankingapp.ledger.BalanceCache;
 import com.bankingapp.model.Account;
 import com.bankingapp.model.User;
 import com.bankingapp.repository.AccountRepository;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Currency;
 import java.util.List;
 
 @Service
 public class AccountService {
     private final AccountRepository repo;
+    private final BalanceCache balances;
 
     @Autowired
-    public AccountService(AccountRepository repo) {
+    public AccountService(AccountRepository repo, BalanceCache balances) {
         this.repo = repo;
+        this.balances = balances;
     }
 
     public Account createAccount(String name, Currency currency, User owner) {
-        Account account = new Account(generateId(), name, currency, owner);
-        return repo.save(account);
+        Account account = repo.save(new Account(generateId(), name, currency, owner));
+        balances.open(account.getId(), account.getName(), account.getCurrency().getCurrencyCode());
+        return account;
     }
 
     public boolean removeAccount(Account account) {
         try {
             repo.delete(account);
+            balances.close(account.getId());
             return true;
         } catch (Exception e) {
             return false;
@@ -41,8 +52,28 @@ public class AccountService {
         }
     }
 
+    @Transactional(readOnly = true)
     public List<Account> getByOwner(User owner) { return repo.getByOwner(owner); }
 
+    // Served from memory, see BalanceCache
+    public AccountResponse getResponseById(Long id) { return balances.response(id); }
+
+    @Coalesced(value = "accounts-by-owner", key = "#ownerId")
+    @Transactional(readOnly = true)
+    public List<AccountResponse> getResponsesByOwner(Long ownerId) {
+        return Collections.unmodifiableList(balances.responses(repo.findIdsByOwnerId(ownerId)));
+    }
+
+    public List<Long> getIdsByOwner(Long ownerId) { return repo.findIdsByOwnerId(ownerId); }
+
+    // Live balances come from memory, never from the write-behind copy or a lagging replica
+    public List<AccountResponse> getResponsesByIds(Collection<Long> ids) { return balances.responses(ids); }
+
+    @Transactional(readOnly = true)
+    public List<Account> getByBalanceBetween(BigDecimal min, BigDecimal max) {
+        return repo.getByBalanceBetween(min, max);
+    }
+
     private @NotNull Long generateId() { return repo.count() + 1; }
 }
 
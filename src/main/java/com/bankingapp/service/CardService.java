@@ -1,13 +1,13 @@
 package com.bankingapp.service;
 
-import com.bankingapp.model.Account;
-import com.bankingapp.model.Card;
-import com.bankingapp.model.CreditCard;
-import com.bankingapp.model.User;
+import com.bankingapp.dto.CardResponse;
+import com.bankingapp.fraud.PaymentDeclinedException;
+import com.bankingapp.model.*;
 import com.bankingapp.repository.CardRepository;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Random;
@@ -17,10 +17,37 @@ import org.springframework.stereotype.Service;
 @Service
 public class CardService {
     private final CardRepository repo;
+    private final TransactionService transactions;
     private static final Random random = new Random();
 
     @Autowired
-    public CardService(CardRepository repo) { this.repo = repo; }
+    public CardService(CardRepository repo, TransactionService transactions) {
+        this.repo = repo;
+        this.transactions = transactions;
+    }
+
+    /**
+     * Authorizes a card payment to a merchant and posts it, through
+     * {@link TransactionService#payment(Account, Card, Institute, java.util.Currency, BigDecimal, String)}:
+     * fraud scoring runs first, then the card's own limit checks. Anything
+     * scoring does not approve, review included, is declined; nothing is
+     * held for later.
+     *
+     * @param card The card used
+     * @param merchant The institute being paid
+     * @param amount The payment amount
+     * @return true if the payment was authorized
+     * @throws IllegalArgumentException if the account cannot cover the amount
+     */
+    public boolean authorizePayment(@NotNull Card card, Institute merchant, @NotNull BigDecimal amount) {
+        Account account = card.getAccount();
+        try {
+            transactions.payment(account, card, merchant, account.getCurrency(), amount, null);
+            return true;
+        } catch (PaymentDeclinedException e) {
+            return false;
+        }
+    }
 
     public void addCard(@NotNull String type, @NotNull Account owner) {
         Card card;
@@ -45,6 +72,8 @@ public class CardService {
 
     public List<Card> getByOwner(User user) { return repo.getByOwner(user); }
 
+    public List<CardResponse> getResponsesByAccount(Long accountId) { return repo.findResponsesByAccountId(accountId); }
+
     private static @NotNull String generateNum() {
 
         return String.format("%04d-%04d-%04d-%04d",
@@ -1,46 +1,63 @@
 package com.bankingapp.service;
 
+import com.bankingapp.cache.ReferenceCache;
 import com.bankingapp.model.Institute;
 import com.bankingapp.model.InstituteType;
 import com.bankingapp.repository.InstituteRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
 public class InstituteService {
     private final InstituteRepository repo;
+    private final ReferenceCache cache;
 
     @Autowired
-    public InstituteService(InstituteRepository repo) {
+    public InstituteService(InstituteRepository repo, ReferenceCache cache) {
         this.repo = repo;
+        this.cache = cache;
     }
 
-    public Institute getById(Long id) {
-        if (repo.existsById(id)) {
-            return repo.getReferenceById(id);
-        } else {
-            return null;
+    public Institute addInstitute(String name, InstituteType type) {
+        Institute institute = repo.save(new Institute(name, type));
+        cache.evictQueries();
+        return institute;
+    }
+
+    public boolean removeInstitute(Institute institute) {
+        try {
+            repo.delete(institute);
+            cache.evictInstitute(institute.getId());
+            return true;
+        } catch (Exception e) {
+            return false;
         }
     }
 
+    // Served from the institutes cache region, no existsById round trip
+    public Institute getById(Long id) {
+        return repo.findById(id).orElse(null);
+    }
+
     public Institute findById(Long id) {
-        if (repo.existsById(id)) {
-            return repo.getById(id);
-        } else {
-            throw new IllegalArgumentException("Institute ID: " + id + " does not exist");
-        }
+        return repo.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Institute ID: " + id + " does not exist"));
     }
 
+    @Transactional(readOnly = true)
     public List<Institute> getByName(String name) {
         return repo.getByName(name);
     }
 
+    @Transactional(readOnly = true)
     public List<Institute> getByType(InstituteType type) {
         return repo.getByType(type);
     }
 
+    @Transactional(readOnly = true)
     public List<Institute> getAllInstitutes() {
         return repo.findAll();
     }
@@ -0,0 +1,133 @@
+package com.bankingapp.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashes and verifies passwords with BCrypt on a dedicated, bounded executor so
+ * that registration and login bursts cannot take every CPU away from request
+ * handling. When the queue is full, new work is rejected straight away with a
+ * {@link RejectedExecutionException} instead of piling up.
+ *
+ * Raw password arrays passed in are wiped once they have been used.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Service
+public class PasswordHashingService {
+    /**
+     * Result of a password check.
+     *
+     * @param matches Whether the password matched the stored hash
+     * @param rehash A fresh hash at the current cost factor if the stored one is outdated, otherwise null
+     */
+    public record PasswordCheck(boolean matches, String rehash) {
+        public boolean needsRehash() { return rehash != null; }
+    }
+
+    private final int strength;
+    private final BCryptPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final String dummyHash;
+
+    @Autowired
+    public PasswordHashingService(@Value("${bankingapp.password.strength:12}") int strength,
+                                  @Value("${bankingapp.password.threads:0}") int threads,
+                                  @Value("${bankingapp.password.queue-capacity:256}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+
+        this.strength = strength;
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        // Checked against when the user does not exist, so both cases cost the same
+        this.dummyHash = encoder.encode("dummy-password");
+    }
+
+    public int getStrength() { return strength; }
+
+    public int getQueuedTasks() { return executor.getQueue().size(); }
+
+    /**
+     * Hashes a raw password at the configured cost factor.
+     *
+     * @param password The raw password, wiped afterwards
+     * @return The BCrypt hash
+     * @throws RejectedExecutionException if the hashing queue is full
+     */
+    public CompletableFuture<String> hash(char[] password) {
+        return submit(password, () -> encoder.encode(CharBuffer.wrap(password)));
+    }
+
+    /**
+     * Checks a raw password against a stored hash. If it matches and the hash
+     * was made with a different cost factor, a new hash is computed in the
+     * same task so the caller can store it (rehash-on-login).
+     *
+     * @param password The raw password, wiped afterwards
+     * @param hash The stored hash, or null if the user does not exist
+     * @return The result of the check
+     * @throws RejectedExecutionException if the hashing queue is full
+     */
+    public CompletableFuture<PasswordCheck> verify(char[] password, String hash) {
+        return submit(password, () -> {
+            if (hash == null) {
+                encoder.matches(CharBuffer.wrap(password), dummyHash);
+                return new PasswordCheck(false, null);
+            }
+            if (!encoder.matches(CharBuffer.wrap(password), hash)) {
+                return new PasswordCheck(false, null);
+            }
+            if (strengthOf(hash) != strength) {
+                return new PasswordCheck(true, encoder.encode(CharBuffer.wrap(password)));
+            }
+            return new PasswordCheck(true, null);
+        });
+    }
+
+    private <T> CompletableFuture<T> submit(char[] password, Callable<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return task.call();
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                } finally {
+                    Arrays.fill(password, '\0');
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            Arrays.fill(password, '\0');
+            throw e;
+        }
+    }
+
+    // BCrypt hashes look like $2a$12$..., the cost factor being the two digits
+    private static int strengthOf(String hash) {
+        try {
+            return Integer.parseInt(hash.substring(4, 6));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
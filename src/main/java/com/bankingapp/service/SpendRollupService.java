@@ -0,0 +1,257 @@
+package com.bankingapp.service;
+
+import com.bankingapp.dto.SpendSummary;
+import com.bankingapp.model.*;
+import com.bankingapp.repository.SpendRollupRepository;
+import com.bankingapp.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+/**
+ * Maintains hourly and daily card payment rollups per institute and per
+ * institute type, and answers spend queries from them.
+ *
+ * Posting a payment does not touch the rollups: every bucket of an institute
+ * type is shared by all its merchants' payments, and upserting it in the
+ * payment's transaction would serialize them on that row. Card payments are
+ * written with {@code rolled_up} false instead, and {@link #rollUp()} claims
+ * them in batches, adding each batch to its buckets with one upsert per
+ * bucket in the same database transaction as the claim, so a payment is
+ * counted exactly once even if a batch fails or two instances run it. The
+ * rollups trail the payments by up to {@code interval-ms}.
+ *
+ * A range is split into whole days (daily rollups), whole hours at either end
+ * (hourly rollups) and the sub-hour remainders, which are read from the raw
+ * transactions; for a range ending now that remainder is the current partial
+ * bucket.
+ *
+ * @author Avarexity - Whard A.
+ */
+@Service
+public class SpendRollupService {
+    /**
+     * A rollup bucket that disagrees with a recompute from the raw transactions.
+     */
+    public record Mismatch(RollupGranularity granularity, RollupDimension dimension, String dimensionKey,
+                           LocalDateTime bucketStart, Currency currency, SpendSummary rollup, SpendSummary recomputed) {}
+
+    private record BucketKey(RollupGranularity granularity, RollupDimension dimension, String dimensionKey,
+                             LocalDateTime bucketStart, Currency currency) {}
+
+    private record Pending(String id, LocalDateTime timestamp, BigDecimal amount, boolean counted,
+                           Long instituteId, Currency currency) {}
+
+    // Locks only the transaction rows; institutes are read apart so payments to them are not blocked
+    private static final String SELECT_PENDING =
+            "SELECT id, timestamp, amount, type, state, institute_id, currency FROM transactions " +
+            "WHERE rolled_up = FALSE ORDER BY id LIMIT ? FOR UPDATE";
+    private static final String CLAIM = "UPDATE transactions SET rolled_up = TRUE WHERE id = ?";
+
+    private final SpendRollupRepository repo;
+    private final TransactionRepository transactions;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate batches;
+    private final int batchSize;
+
+    @Autowired
+    public SpendRollupService(SpendRollupRepository repo, TransactionRepository transactions,
+                              JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+                              @Value("${bankingapp.rollups.batch-size:1000}") int batchSize) {
+        this.repo = repo;
+        this.transactions = transactions;
+        this.jdbc = jdbc;
+        this.batches = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Adds the card payments posted since the last run to their four buckets
+     * (hour and day, institute and institute type), one batch per database
+     * transaction, until none are left.
+     *
+     * @return Number of payments added
+     */
+    @Scheduled(fixedDelayString = "${bankingapp.rollups.interval-ms:1000}")
+    public long rollUp() {
+        long added = 0;
+        while (true) {
+            long[] batch = batches.execute(status -> rollUpBatch());
+            added += batch[1];
+            if (batch[0] < batchSize) {
+                return added;
+            }
+        }
+    }
+
+    /**
+     * @return Rows claimed and, of those, payments added to the rollups
+     */
+    private long[] rollUpBatch() {
+        List<Pending> pending = jdbc.query(SELECT_PENDING, (rs, i) -> new Pending(
+                rs.getString(1),
+                rs.getTimestamp(2).toLocalDateTime(),
+                rs.getBigDecimal(3),
+                TransactionType.CARD_PAYMENT.name().equals(rs.getString(4))
+                        && TransactionState.SUCCESS.name().equals(rs.getString(5)),
+                rs.getObject(6) == null ? null : rs.getLong(6),
+                Currency.getInstance(rs.getString(7))), batchSize);
+        if (pending.isEmpty()) {
+            return new long[] {0, 0};
+        }
+
+        Map<Long, String> types = new HashMap<>();
+        Map<BucketKey, SpendSummary> deltas = new HashMap<>();
+        long added = 0;
+        for (Pending payment : pending) {
+            if (!payment.counted() || payment.instituteId() == null) {
+                continue;
+            }
+            String type = types.computeIfAbsent(payment.instituteId(), id ->
+                    jdbc.queryForObject("SELECT type FROM institutes WHERE id = ?", String.class, id));
+            addToBuckets(deltas, payment.timestamp(), payment.instituteId(), type, payment.currency(), payment.amount());
+            added++;
+        }
+
+        deltas.forEach((key, delta) -> repo.upsert(key.granularity().name(), key.dimension().name(),
+                key.dimensionKey(), key.bucketStart(), key.currency().getCurrencyCode(),
+                delta.count(), delta.sum(), delta.max()));
+        jdbc.batchUpdate(CLAIM, pending.stream().map(payment -> new Object[] {payment.id()}).toList());
+        return new long[] {pending.size(), added};
+    }
+
+    /**
+     * @return Card payment spend to the institute within [from, to), per currency
+     */
+    @Transactional(readOnly = true)
+    public Collection<SpendSummary> getSpend(Institute institute, LocalDateTime from, LocalDateTime to) {
+        Long id = institute.getId();
+        return summarize(RollupDimension.INSTITUTE, String.valueOf(id), from, to,
+                (a, b) -> transactions.summarizeByInstitute(id, a, b));
+    }
+
+    /**
+     * @return Card payment spend to all institutes of a type within [from, to), per currency
+     */
+    @Transactional(readOnly = true)
+    public Collection<SpendSummary> getSpend(InstituteType type, LocalDateTime from, LocalDateTime to) {
+        return summarize(RollupDimension.INSTITUTE_TYPE, type.name(), from, to,
+                (a, b) -> transactions.summarizeByInstituteType(type, a, b));
+    }
+
+    /**
+     * Recomputes every bucket starting within [from, to) from the raw
+     * transactions and compares it with the stored rollups. Both bounds should
+     * be whole days so that daily buckets are complete.
+     *
+     * @return The buckets that differ, empty if the rollups are correct
+     */
+    @Transactional(readOnly = true)
+    public List<Mismatch> verify(LocalDateTime from, LocalDateTime to) {
+        Map<BucketKey, SpendSummary> recomputed = new HashMap<>();
+        try (Stream<Transaction> payments = transactions.streamCardPayments(from, to)) {
+            payments.forEach(tx -> addToBuckets(recomputed, tx.getTimestamp(), tx.getInstitute().getId(),
+                    tx.getInstitute().getType().name(), tx.getCurrency(), tx.getAmount()));
+        }
+
+        List<Mismatch> mismatches = new ArrayList<>();
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            for (SpendRollup rollup : repo.getByGranularityAndBucketStartGreaterThanEqualAndBucketStartLessThan(granularity, from, to)) {
+                BucketKey key = new BucketKey(rollup.getGranularity(), rollup.getDimension(), rollup.getDimensionKey(),
+                        rollup.getBucketStart(), rollup.getCurrency());
+                SpendSummary stored = new SpendSummary(rollup.getCurrency(), rollup.getTxCount(),
+                        rollup.getAmountSum(), rollup.getAmountMax());
+                SpendSummary expected = recomputed.remove(key);
+
+                if (expected == null || !sameSpend(stored, expected)) {
+                    mismatches.add(new Mismatch(key.granularity(), key.dimension(), key.dimensionKey(),
+                            key.bucketStart(), key.currency(), stored, expected));
+                }
+            }
+        }
+
+        // Whatever is left was never rolled up
+        recomputed.forEach((key, expected) -> mismatches.add(new Mismatch(key.granularity(), key.dimension(),
+                key.dimensionKey(), key.bucketStart(), key.currency(), null, expected)));
+        return mismatches;
+    }
+
+    private static void addToBuckets(Map<BucketKey, SpendSummary> buckets, LocalDateTime timestamp, Long instituteId,
+                                     String type, Currency currency, BigDecimal amount) {
+        LocalDateTime hour = timestamp.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime day = timestamp.truncatedTo(ChronoUnit.DAYS);
+        String institute = String.valueOf(instituteId);
+        SpendSummary one = new SpendSummary(currency, 1, amount, amount);
+
+        buckets.merge(new BucketKey(RollupGranularity.HOUR, RollupDimension.INSTITUTE, institute, hour, currency), one, SpendSummary::merge);
+        buckets.merge(new BucketKey(RollupGranularity.DAY, RollupDimension.INSTITUTE, institute, day, currency), one, SpendSummary::merge);
+        buckets.merge(new BucketKey(RollupGranularity.HOUR, RollupDimension.INSTITUTE_TYPE, type, hour, currency), one, SpendSummary::merge);
+        buckets.merge(new BucketKey(RollupGranularity.DAY, RollupDimension.INSTITUTE_TYPE, type, day, currency), one, SpendSummary::merge);
+    }
+
+    private Collection<SpendSummary> summarize(RollupDimension dimension, String key, LocalDateTime from, LocalDateTime to,
+                                               BiFunction<LocalDateTime, LocalDateTime, List<SpendSummary>> raw) {
+        Map<Currency, SpendSummary> result = new HashMap<>();
+        if (!from.isBefore(to)) {
+            return result.values();
+        }
+
+        LocalDateTime firstDay = ceil(from, ChronoUnit.DAYS);
+        LocalDateTime lastDay = to.truncatedTo(ChronoUnit.DAYS);
+
+        if (firstDay.isBefore(lastDay)) {
+            add(result, repo.summarize(RollupGranularity.DAY, dimension, key, firstDay, lastDay));
+            summarizeHours(result, dimension, key, from, firstDay, raw);
+            summarizeHours(result, dimension, key, lastDay, to, raw);
+        } else {
+            summarizeHours(result, dimension, key, from, to, raw);
+        }
+        return result.values();
+    }
+
+    private void summarizeHours(Map<Currency, SpendSummary> result, RollupDimension dimension, String key,
+                                LocalDateTime from, LocalDateTime to,
+                                BiFunction<LocalDateTime, LocalDateTime, List<SpendSummary>> raw) {
+        if (!from.isBefore(to)) {
+            return;
+        }
+
+        LocalDateTime firstHour = ceil(from, ChronoUnit.HOURS);
+        LocalDateTime lastHour = to.truncatedTo(ChronoUnit.HOURS);
+
+        if (firstHour.isBefore(lastHour)) {
+            add(result, repo.summarize(RollupGranularity.HOUR, dimension, key, firstHour, lastHour));
+            if (from.isBefore(firstHour)) add(result, raw.apply(from, firstHour));
+            if (lastHour.isBefore(to)) add(result, raw.apply(lastHour, to));
+        } else {
+            add(result, raw.apply(from, to));
+        }
+    }
+
+    private static void add(Map<Currency, SpendSummary> result, List<SpendSummary> summaries) {
+        for (SpendSummary summary : summaries) {
+            result.merge(summary.currency(), summary, SpendSummary::merge);
+        }
+    }
+
+    private static LocalDateTime ceil(LocalDateTime time, ChronoUnit unit) {
+        LocalDateTime floor = time.truncatedTo(unit);
+        return floor.equals(time) ? floor : floor.plus(1, unit);
+    }
+
+    private static boolean sameSpend(SpendSummary a, SpendSummary b) {
+        return a.count() == b.count() && a.sum().compareTo(b.sum()) == 0 && a.max().compareTo(b.max()) == 0;
+    }
+}
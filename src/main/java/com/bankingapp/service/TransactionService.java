@@ -1,24 +1,75 @@
 package com.bankingapp.service;
 
+import com.bankingapp.admission.AdmissionController;
+import com.bankingapp.admission.Admitted;
+import com.bankingapp.admission.Priority;
+import com.bankingapp.archive.ArchivedTransaction;
+import com.bankingapp.archive.SegmentStore;
+import com.bankingapp.archive.TransactionPartitionRouter;
+import com.bankingapp.cache.Coalesced;
+import com.bankingapp.dto.TransactionResponse;
+import com.bankingapp.dto.TransactionRow;
+import com.bankingapp.events.Outbox;
+import com.bankingapp.events.TransactionPosted;
+import com.bankingapp.fraud.FraudDecision;
+import com.bankingapp.fraud.FraudScoringStage;
+import com.bankingapp.fraud.PaymentAttempt;
+import com.bankingapp.fraud.PaymentDeclinedException;
+import com.bankingapp.ledger.BalanceCache;
+import com.bankingapp.ledger.Journal;
 import com.bankingapp.model.*;
 import com.bankingapp.repository.TransactionRepository;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Currency;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Service
 public class TransactionService {
+    // Keyset start of a history read, after every real transaction
+    private static final LocalDateTime END_OF_TIME = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
     private final TransactionRepository repo;
+    private final TransactionPartitionRouter router;
+    private final SegmentStore archive;
+    private final Outbox outbox;
+    private final AccountConcurrency accounts;
+    private final Journal journal;
+    private final BalanceCache balances;
+    private final AdmissionController admission;
+    private final FraudScoringStage fraud;
+    private final int pageSize;
     private TransactionHistory history;
 
     @Autowired
-    public TransactionService(TransactionRepository repo) {
+    public TransactionService(TransactionRepository repo, TransactionPartitionRouter router,
+                              SegmentStore archive, Outbox outbox, AccountConcurrency accounts,
+                              Journal journal, BalanceCache balances,
+                              AdmissionController admission, FraudScoringStage fraud,
+                              @Value("${bankingapp.transactions.stream-page-size:500}") int pageSize) {
         this.repo = repo;
+        this.router = router;
+        this.archive = archive;
+        this.outbox = outbox;
+        this.accounts = accounts;
+        this.journal = journal;
+        this.balances = balances;
+        this.admission = admission;
+        this.fraud = fraud;
+        this.pageSize = pageSize;
         this.history = new TransactionHistory();
     }
 
@@ -27,18 +78,75 @@ public class TransactionService {
         return tx;
     }
 
+    /**
+     * Moves {@code amount} from sender to receiver and posts the transfer to
+     * the {@link Journal}, under the configured {@link AccountConcurrency} mode.
+     * The balances change in the {@link BalanceCache} on commit.
+     *
+     * @throws IllegalArgumentException if the sender cannot cover the amount
+     */
+    @Admitted
     public Transaction transfer(Account sender, Account receiver, Currency currency,
                                 BigDecimal amount, String note) {
-        Transaction tx = new Transaction(sender, receiver, currency,  amount, note);
-        repo.save(tx);
-        return tx;
+        return accounts.update(sender.getId(), receiver.getId(), (from, to) -> {
+            balances.requireAvailable(from.getId(), amount);
+            Transaction tx = new Transaction(from, to, currency, amount, note);
+            post(tx);
+            return tx;
+        });
     }
 
+    /**
+     * Debits the sender and credits the merchant's clearing account.
+     *
+     * @throws PaymentDeclinedException if fraud scoring does not approve the payment
+     * @throws IllegalArgumentException if the sender cannot cover the amount
+     */
+    @Admitted(Priority.CRITICAL)
     public Transaction payment(Account sender, Institute merchant, Currency currency,
                                BigDecimal amount, String note) {
-        Transaction tx = new Transaction(sender, merchant, currency, amount, note);
+        return payment(sender, null, merchant, currency, amount, note);
+    }
+
+    /**
+     * Debits the sender and credits the merchant's clearing account, for a
+     * payment made with {@code card}, or without a card if it is null. The
+     * {@link FraudScoringStage} scores the payment first and anything it does
+     * not approve is declined: there is no hold, so a payment sent to review
+     * is turned away like a declined one and may be retried. An approved
+     * payment must then pass the card's own limits, and is added to the
+     * velocity aggregates once it has committed.
+     *
+     * @throws PaymentDeclinedException if fraud scoring or the card declines the payment
+     * @throws IllegalArgumentException if the sender cannot cover the amount
+     */
+    @Admitted(Priority.CRITICAL)
+    public Transaction payment(Account sender, Card card, Institute merchant, Currency currency,
+                               BigDecimal amount, String note) {
+        PaymentAttempt attempt = PaymentAttempt.of(sender, card, merchant, currency, amount);
+        FraudDecision decision = fraud.score(attempt);
+        if (decision != FraudDecision.APPROVE) {
+            throw new PaymentDeclinedException("Payment declined by fraud scoring: " + decision);
+        }
+        if (card != null && !card.authorizePayment(amount)) {
+            throw new PaymentDeclinedException("Payment declined by card limits.");
+        }
+
+        Transaction payment = accounts.update(sender.getId(), sender.getId(), (from, same) -> {
+            balances.requireAvailable(from.getId(), amount);
+            Transaction tx = new Transaction(from, merchant, currency, amount, note);
+            post(tx);
+            return tx;
+        });
+        fraud.record(attempt);
+        return payment;
+    }
+
+    private void post(Transaction tx) {
+        tx.setState(TransactionState.SUCCESS);
         repo.save(tx);
-        return tx;
+        balances.post(journal.post(tx));
+        outbox.append(tx.getId(), TransactionPosted.of(tx));
     }
 
     public TransactionHistory getTransactionHistory() { return history; }
@@ -59,14 +167,106 @@ public class TransactionService {
         }
     }
 
+    @Admitted(Priority.LOW)
+    @Transactional(readOnly = true)
     public List<Transaction> getByAccount(Account account) {
-        if (repo.existsByAccount(account)) {
-            return repo.getByAccount(account);
-        } else {
-            return null;
+        List<Transaction> transactions = repo.getByAccount(account);
+        return transactions.isEmpty() ? null : transactions;
+    }
+
+    /**
+     * Live transactions of an account, newest first. Archived months are not
+     * read; {@link #streamByAccount(Long, LocalDate, LocalDate, Consumer)}
+     * reaches them for a bounded range.
+     */
+    @Coalesced(value = "transactions-by-account", key = "#accountId")
+    @Admitted(Priority.LOW)
+    @Transactional(readOnly = true)
+    public List<TransactionResponse> getResponsesByAccount(Long accountId) {
+        return Collections.unmodifiableList(repo.findResponsesByAccountId(accountId));
+    }
+
+    /**
+     * Hands every live transaction of an account to the sink, newest first,
+     * without materializing the list. Archived months are not read, so a
+     * history read never scans the archive.
+     *
+     * The table is read in keyset pages of {@code pageSize} rows, each page
+     * admitted and read on its own, so no connection or admission slot is
+     * held while the sink writes to a slow client.
+     */
+    public void streamByAccount(Long accountId, Consumer<TransactionRow> sink) {
+        streamLive(accountId, END_OF_TIME, null, sink);
+    }
+
+    /**
+     * Hands the transactions of an account from the start of
+     * {@code startDate} to the end of {@code endDate} to the sink, newest
+     * first: the part of the table the range overlaps, then the archived
+     * months it overlaps. Other months are never opened.
+     */
+    public void streamByAccount(Long accountId, LocalDate startDate, LocalDate endDate,
+                                Consumer<TransactionRow> sink) {
+        LocalDateTime from = startDate.atStartOfDay();
+        LocalDateTime to = endDate.plusDays(1).atStartOfDay();
+        TransactionPartitionRouter.Route route = router.route(from, to);
+        if (route.includesLive()) {
+            streamLive(accountId, route.liveTo(), route.liveFrom(), sink);
+        }
+        archivedByAccount(accountId, route.archived(), from, to, sink);
+    }
+
+    // Keyset pages newest first, from before `to` down to `from` (null for no lower bound)
+    private void streamLive(Long accountId, LocalDateTime to, LocalDateTime from, Consumer<TransactionRow> sink) {
+        LocalDateTime before = to;
+        String beforeId = "";
+        List<TransactionRow> page;
+        do {
+            page = readPage(accountId, before, beforeId);
+            for (TransactionRow row : page) {
+                if (from != null && row.timestamp().isBefore(from)) {
+                    return;
+                }
+                sink.accept(row);
+            }
+            if (!page.isEmpty()) {
+                TransactionRow last = page.getLast();
+                before = last.timestamp();
+                beforeId = last.id();
+            }
+        } while (page.size() == pageSize);
+    }
+
+    private List<TransactionRow> readPage(Long accountId, LocalDateTime before, String beforeId) {
+        AdmissionController.Permit permit = admission.acquire(Priority.LOW);
+        boolean noConnection = false;
+        try {
+            return repo.findRowPageByAccountId(accountId, before, beforeId, pageSize);
+        } catch (CannotCreateTransactionException | DataAccessResourceFailureException e) {
+            noConnection = true;
+            throw e;
+        } finally {
+            admission.release(permit, noConnection);
+        }
+    }
+
+    // The given archived months newest first; a month is scanned whole, its matches reversed
+    private void archivedByAccount(long accountId, List<YearMonth> months, LocalDateTime from, LocalDateTime to,
+                                   Consumer<TransactionRow> sink) {
+        for (int m = months.size() - 1; m >= 0; m--) {
+            List<ArchivedTransaction> matches = new ArrayList<>();
+            archive.read(months.get(m), tx -> {
+                if (tx.involves(accountId) && !tx.timestamp().isBefore(from) && tx.timestamp().isBefore(to)) {
+                    matches.add(tx);
+                }
+            });
+            for (int i = matches.size() - 1; i >= 0; i--) {
+                sink.accept(matches.get(i).toRow());
+            }
         }
     }
 
+    @Transactional(readOnly = true)
     public List<Transaction> getByInstitute(Institute institute) {
         if (repo.existsByInstitute(institute)) {
             return repo.getByInstitute(institute);
@@ -75,6 +275,7 @@ public class TransactionService {
         }
     }
 
+    @Transactional(readOnly = true)
     public List<Transaction> getByInstituteType(InstituteType type) {
         if (repo.existsByInstituteType(type)) {
             return repo.getByInstituteType(type);
@@ -83,6 +284,7 @@ public class TransactionService {
         }
     }
 
+    @Transactional(readOnly = true)
     public List<Transaction> getByMaker(User maker) {
         if (repo.existsByMaker(maker)) {
             return repo.getByMaker(maker);
@@ -91,17 +293,34 @@ public class TransactionService {
         }
     }
 
-    public List<Transaction> getByDateBetween(LocalDate startDate, LocalDate endDate) {
-        if (repo.existsByDateBetween(startDate, endDate)) {
-            return repo.getByDateBetween(startDate, endDate);
-        } else {
-            return null;
+    /**
+     * Transactions from the start of {@code startDate} to the end of
+     * {@code endDate} in time order. Only the archived months and the part of
+     * the table the range overlaps are read.
+     */
+    @Admitted(Priority.LOW)
+    @Transactional(readOnly = true)
+    public List<TransactionRow> getByDateBetween(LocalDate startDate, LocalDate endDate) {
+        LocalDateTime from = startDate.atStartOfDay();
+        LocalDateTime to = endDate.plusDays(1).atStartOfDay();
+        TransactionPartitionRouter.Route route = router.route(from, to);
+
+        List<TransactionRow> rows = new ArrayList<>();
+        for (YearMonth month : route.archived()) {
+            archive.read(month, tx -> {
+                if (!tx.timestamp().isBefore(from) && tx.timestamp().isBefore(to)) rows.add(tx.toRow());
+            });
+        }
+        if (route.includesLive()) {
+            rows.addAll(repo.findRowsBetween(route.liveFrom(), route.liveTo()));
         }
+        return rows.isEmpty() ? null : rows;
     }
 
+    @Transactional(readOnly = true)
     public List<Transaction> getByAmount(BigDecimal min, BigDecimal max) {
         if (repo.existsByAmountBetween(min, max)) {
-            return repo.getByAmount(min, max);
+            return repo.getByAmountBetween(min, max);
         } else {
             return null;
         }
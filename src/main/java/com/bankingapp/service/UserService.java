@@ -1,10 +1,14 @@
 package com.bankingapp.service;
 
+import com.bankingapp.cache.ReferenceCache;
 import com.bankingapp.model.User;
 import com.bankingapp.repository.UserRepository;
 import org.jetbrains.annotations.NotNull;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -12,22 +16,67 @@ import java.util.List;
 @Service
 public class UserService {
     private final UserRepository repo;
+    private final ReferenceCache cache;
+    private final PasswordHashingService passwords;
+    private final TransactionTemplate reads;
+    private final TransactionTemplate writes;
 
     @Autowired
-    public UserService(UserRepository repo) {
+    public UserService(UserRepository repo, ReferenceCache cache, PasswordHashingService passwords,
+                       PlatformTransactionManager transactionManager) {
         this.repo = repo;
+        this.cache = cache;
+        this.passwords = passwords;
+        this.reads = new TransactionTemplate(transactionManager);
+        this.reads.setReadOnly(true);
+        this.writes = new TransactionTemplate(transactionManager);
     }
 
     public User register(String name, String surname, LocalDate dateOfBirth,
                          String email, String phone, char[] password) {
         User user = new User(generateId(), name, surname, dateOfBirth, email, phone, password);
+        user.setPasswordHash(passwords.hash(user.takePendingPassword()).join());
         repo.save(user);
         return user;
     }
 
+    /**
+     * Checks a user's credentials. If the stored hash was made with an outdated
+     * cost factor it is replaced by one at the current cost.
+     *
+     * The user is read in a short read-only transaction and BCrypt runs with
+     * no transaction open, so a login never holds a connection while hashing;
+     * only the rehash is written in a transaction of its own.
+     *
+     * @param email The user's email
+     * @param password The raw password, wiped afterwards
+     * @return The user, or null if the email is unknown or the password is wrong
+     */
+    public User authenticate(String email, char[] password) {
+        User user = reads.execute(status -> getByEmail(email));
+        PasswordHashingService.PasswordCheck check =
+                passwords.verify(password, user != null ? user.getPasswordHash() : null).join();
+
+        if (!check.matches()) {
+            return null;
+        }
+        if (check.needsRehash()) {
+            user.setPasswordHash(check.rehash());
+            writes.executeWithoutResult(status -> repo.save(user));
+        }
+        return user;
+    }
+
+    public void changePassword(User user, char[] password) {
+        user.setPassword(password);
+        user.setPasswordHash(passwords.hash(user.takePendingPassword()).join());
+        repo.save(user);
+    }
+
     public boolean close(User user) {
         try {
             repo.delete(user);
+            cache.evictUser(user.getId());
             return true;
         }
         catch (Exception e) {
@@ -35,28 +84,17 @@ public class UserService {
         }
     }
 
+    // Served from the users cache region, no existsById round trip
     public User getById(Long id) {
-        if (repo.existsById(id)) {
-            return repo.getReferenceById(id);
-        } else {
-            return null;
-        }
+        return repo.findById(id).orElse(null);
     }
 
     public User getByEmail(String email) {
-        if (repo.existsByEmail(email)) {
-            return repo.getByEmail(email).get();
-        } else {
-            return null;
-        }
+        return repo.getByEmail(email).orElse(null);
     }
 
     public User getByPhone(String phone) {
-        if (repo.existsByPhone(phone)) {
-            return repo.getByPhone(phone).get();
-        } else {
-            return null;
-        }
+        return repo.getByPhone(phone).orElse(null);
     }
 
     private @NotNull Long generateId() {
@@ -75,18 +113,22 @@ public class UserService {
         return repo.existsById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<User> getByNameAndSurname(String name, String surname) {
         return repo.getByNameAndSurname(name, surname);
     }
 
+    @Transactional(readOnly = true)
     public List<User> getBySurname(String surname) {
         return repo.getBySurname(surname);
     }
 
+    @Transactional(readOnly = true)
     public List<User> getByDateOfBirthAfter(LocalDate date) {
         return repo.getByDateOfBirthAfter(date);
     }
 
+    @Transactional(readOnly = true)
     public List<User> getByDateOfBirthBetween(LocalDate startDate, LocalDate endDate) {
         return repo.getByDateOfBirthBetween(startDate, endDate);
     }
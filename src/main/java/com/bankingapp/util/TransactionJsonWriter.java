@@ -0,0 +1,152 @@
+package com.bankingapp.util;
+
+import com.bankingapp.dto.TransactionResponse;
+import com.bankingapp.dto.TransactionRow;
+import com.bankingapp.model.TransactionState;
+import com.bankingapp.model.TransactionType;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.format.DateTimeFormatter;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes transactions as a JSON array straight to an output stream, one row at
+ * a time, producing the same document as serializing a
+ * {@code List<TransactionResponse>}. Field names, enum values and currency
+ * codes are pre-encoded, and the date is formatted into a reused buffer, so a
+ * row costs next to no allocation and the list never exists in memory.
+ *
+ * Not thread-safe; use one writer per response.
+ *
+ * @author Avarexity - Whard A.
+ */
+public class TransactionJsonWriter implements AutoCloseable {
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString DATE = new SerializedString("date");
+    private static final SerializableString STATE = new SerializedString("state");
+    private static final SerializableString TYPE = new SerializedString("type");
+    private static final SerializableString CURRENCY = new SerializedString("currency");
+    private static final SerializableString AMOUNT = new SerializedString("amount");
+    private static final SerializableString NOTE = new SerializedString("note");
+
+    private static final DateTimeFormatter DATE_FORMAT = TransactionResponse.DATE_FORMAT;
+    private static final String ZONE_SUFFIX = " CEST";
+
+    private static final SerializableString[] STATES = encode(TransactionState.values());
+    private static final SerializableString[] TYPES = encode(TransactionType.values());
+
+    private final JsonGenerator gen;
+    private final Map<Currency, SerializableString> currencies = new HashMap<>();
+    private final StringBuilder date = new StringBuilder(32);
+    private char[] dateChars = new char[32];
+    private boolean failed;
+
+    public TransactionJsonWriter(JsonFactory factory, OutputStream out) throws IOException {
+        this.gen = factory.createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        this.gen.writeStartArray();
+    }
+
+    /**
+     * Writes a single transaction object.
+     *
+     * @param row The transaction to write
+     * @throws UncheckedIOException if the client connection fails
+     */
+    public void write(TransactionRow row) {
+        try {
+            gen.writeStartObject();
+
+            gen.writeFieldName(ID);
+            gen.writeString(row.id());
+
+            gen.writeFieldName(DATE);
+            writeDate(row);
+
+            gen.writeFieldName(STATE);
+            gen.writeString(STATES[row.state().ordinal()]);
+
+            gen.writeFieldName(TYPE);
+            gen.writeString(TYPES[row.type().ordinal()]);
+
+            gen.writeFieldName(CURRENCY);
+            gen.writeString(currencies.computeIfAbsent(row.currency(),
+                    c -> new SerializedString(c.getCurrencyCode())));
+
+            gen.writeFieldName(AMOUNT);
+            gen.writeNumber(row.amount().stripTrailingZeros());
+
+            gen.writeFieldName(NOTE);
+            if (row.note() != null) {
+                gen.writeString(row.note());
+            } else {
+                gen.writeNull();
+            }
+
+            gen.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeDate(TransactionRow row) throws IOException {
+        date.setLength(0);
+        DATE_FORMAT.formatTo(row.timestamp(), date);
+        date.append(ZONE_SUFFIX);
+
+        int length = date.length();
+        if (length > dateChars.length) {
+            dateChars = new char[length];
+        }
+        date.getChars(0, length, dateChars, 0);
+        gen.writeString(dateChars, 0, length);
+    }
+
+    /**
+     * Closes the array and flushes. Does not close the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        if (failed) {
+            return;
+        }
+        gen.writeEndArray();
+        gen.close();
+    }
+
+    /**
+     * Abandons the document after a failure part way through: the generator
+     * is released without closing the array, so a client that has already
+     * received part of the response cannot mistake it for a complete, shorter
+     * list. Later calls to {@link #close()} do nothing.
+     */
+    public void fail() {
+        if (failed) {
+            return;
+        }
+        failed = true;
+        try {
+            gen.close();
+        } catch (IOException ignored) {
+            // The connection is usually what failed
+        }
+    }
+
+    private static SerializableString[] encode(Enum<?>[] values) {
+        SerializableString[] encoded = new SerializableString[values.length];
+        for (Enum<?> value : values) {
+            encoded[value.ordinal()] = new SerializedString(value.toString());
+        }
+        return encoded;
+    }
+}
@@ -0,0 +1,123 @@
+-- Tables as mapped by the entities in com.bankingapp.model.
+-- Written to run on MySQL 8 and on H2 in MySQL mode (tests).
+
+CREATE TABLE users (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    name          VARCHAR(255) NOT NULL,
+    surname       VARCHAR(255) NOT NULL,
+    date_of_birth DATE         NOT NULL,
+    email         VARCHAR(255) NOT NULL,
+    phone         VARCHAR(255) NOT NULL,
+    password      VARCHAR(60),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE user_security_questions (
+    user_id  BIGINT       NOT NULL,
+    question VARCHAR(255) NOT NULL,
+    answer   VARCHAR(255),
+    PRIMARY KEY (user_id, question),
+    CONSTRAINT fk_security_questions_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE institutes (
+    id   BIGINT       NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    type VARCHAR(32)  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE accounts (
+    id             BIGINT         NOT NULL AUTO_INCREMENT,
+    name           VARCHAR(255),
+    account_number VARCHAR(255)   NOT NULL,
+    currency       VARCHAR(3)     NOT NULL,
+    balance        DECIMAL(38, 2) NOT NULL,
+    owner_id       BIGINT         NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_accounts_number UNIQUE (account_number),
+    CONSTRAINT fk_accounts_owner FOREIGN KEY (owner_id) REFERENCES users (id)
+);
+
+CREATE TABLE cards (
+    id           BIGINT         NOT NULL AUTO_INCREMENT,
+    card_type    VARCHAR(31)    NOT NULL,
+    number       VARCHAR(16)    NOT NULL,
+    expiry_date  DATE           NOT NULL,
+    account_id   BIGINT,
+    draw_limit   DECIMAL(38, 2),
+    cvv          VARCHAR(255),
+    pin          VARCHAR(255),
+    ot           BOOLEAN        NOT NULL,
+    credit_limit DECIMAL(38, 2),
+    credit_used  DECIMAL(38, 2),
+    daily_limit  DECIMAL(38, 2),
+    daily_spent  DECIMAL(38, 2),
+    daily_used   INT,
+    daily_uses   INT,
+    used         BOOLEAN,
+    max_draw     DECIMAL(38, 2),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_cards_number UNIQUE (number),
+    CONSTRAINT fk_cards_account FOREIGN KEY (account_id) REFERENCES accounts (id)
+);
+
+CREATE TABLE transactions (
+    id           VARCHAR(36)    NOT NULL,
+    timestamp    DATETIME(6)    NOT NULL,
+    amount       DECIMAL(38, 2) NOT NULL,
+    type         VARCHAR(32),
+    state        VARCHAR(32),
+    card_id      BIGINT,
+    sender_id    BIGINT         NOT NULL,
+    receiver_id  BIGINT,
+    institute_id BIGINT,
+    currency     VARCHAR(3),
+    note         VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_transactions_card FOREIGN KEY (card_id) REFERENCES cards (id),
+    CONSTRAINT fk_transactions_sender FOREIGN KEY (sender_id) REFERENCES accounts (id),
+    CONSTRAINT fk_transactions_receiver FOREIGN KEY (receiver_id) REFERENCES accounts (id),
+    CONSTRAINT fk_transactions_institute FOREIGN KEY (institute_id) REFERENCES institutes (id)
+);
+
+-- Date range reads, archiver deletes, analytics refresh
+CREATE INDEX idx_transactions_timestamp ON transactions (timestamp);
+
+CREATE TABLE spend_rollups (
+    id            BIGINT         NOT NULL AUTO_INCREMENT,
+    granularity   VARCHAR(8)     NOT NULL,
+    dimension     VARCHAR(16)    NOT NULL,
+    dimension_key VARCHAR(32)    NOT NULL,
+    bucket_start  DATETIME(6)    NOT NULL,
+    currency      VARCHAR(3)     NOT NULL,
+    tx_count      BIGINT         NOT NULL,
+    amount_sum    DECIMAL(38, 2) NOT NULL,
+    amount_max    DECIMAL(38, 2) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_spend_rollups_bucket UNIQUE (granularity, dimension, dimension_key, bucket_start, currency)
+);
+
+CREATE TABLE accrual_runs (
+    run_id          VARCHAR(32) NOT NULL,
+    posted_at       DATETIME(6) NOT NULL,
+    last_account_id BIGINT      NOT NULL,
+    completed       BOOLEAN     NOT NULL,
+    PRIMARY KEY (run_id)
+);
+
+CREATE TABLE outbox_events (
+    id           BIGINT      NOT NULL AUTO_INCREMENT,
+    event_type   VARCHAR(64) NOT NULL,
+    aggregate_id VARCHAR(36) NOT NULL,
+    payload      LONGTEXT    NOT NULL,
+    created_at   DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE event_offsets (
+    subscriber  VARCHAR(64) NOT NULL,
+    last_offset BIGINT      NOT NULL,
+    PRIMARY KEY (subscriber)
+);
@@ -0,0 +1,38 @@
+-- One index per finder shape, see QueryPlanTest. Where a finder filters on a
+-- foreign key and orders or ranges by time, the index is (key, timestamp) so
+-- rows come back in order without a sort; InnoDB uses these for the foreign
+-- keys as well.
+
+-- Account history (sender branch and receiver branch of the UNION ALL),
+-- StatementJob ranges, maker lookups
+CREATE INDEX idx_transactions_sender_time ON transactions (sender_id, timestamp);
+CREATE INDEX idx_transactions_receiver_time ON transactions (receiver_id, timestamp);
+
+-- Card payment spend per institute within a time range, and plain institute lookups
+CREATE INDEX idx_transactions_institute_type_time ON transactions (institute_id, type, timestamp);
+
+-- Card payments within a time range (rollup rebuild), lookups by type
+CREATE INDEX idx_transactions_type_time ON transactions (type, timestamp);
+
+CREATE INDEX idx_transactions_state ON transactions (state);
+CREATE INDEX idx_transactions_amount ON transactions (amount);
+CREATE INDEX idx_transactions_card ON transactions (card_id);
+
+CREATE INDEX idx_accounts_owner ON accounts (owner_id);
+CREATE INDEX idx_accounts_name ON accounts (name);
+CREATE INDEX idx_accounts_currency ON accounts (currency);
+CREATE INDEX idx_accounts_balance ON accounts (balance);
+
+CREATE INDEX idx_cards_account ON cards (account_id);
+CREATE INDEX idx_cards_type ON cards (card_type);
+CREATE INDEX idx_cards_expiry ON cards (expiry_date);
+
+CREATE INDEX idx_institutes_type ON institutes (type);
+CREATE INDEX idx_institutes_name ON institutes (name);
+
+CREATE INDEX idx_users_surname_name ON users (surname, name);
+CREATE INDEX idx_users_phone ON users (phone);
+CREATE INDEX idx_users_birth ON users (date_of_birth);
+
+-- Rollup verification reads whole granularity/time slices
+CREATE INDEX idx_spend_rollups_granularity_bucket ON spend_rollups (granularity, bucket_start);
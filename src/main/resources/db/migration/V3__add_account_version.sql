@@ -0,0 +1,2 @@
+-- Optimistic concurrency on accounts, see AccountConcurrency
+ALTER TABLE accounts ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
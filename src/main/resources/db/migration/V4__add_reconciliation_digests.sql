@@ -0,0 +1,14 @@
+-- Ledger digest per account-id bucket, maintained by ReconciliationEngine
+CREATE TABLE reconciliation_buckets (
+    bucket_id       BIGINT         NOT NULL,
+    ledger_sum      DECIMAL(65, 2) NOT NULL,
+    ledger_weighted DECIMAL(65, 2) NOT NULL,
+    PRIMARY KEY (bucket_id)
+);
+
+-- Transactions before the watermark are included in reconciliation_buckets
+CREATE TABLE reconciliation_state (
+    id        TINYINT     NOT NULL,
+    watermark DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
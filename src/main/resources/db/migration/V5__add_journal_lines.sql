@@ -0,0 +1,43 @@
+-- Double-entry journal, see com.bankingapp.ledger.Journal. Rows are only ever
+-- inserted; every transaction's lines sum to zero. A positive amount credits
+-- the book, a negative one debits it.
+CREATE TABLE journal_lines (
+    id             BIGINT         NOT NULL AUTO_INCREMENT,
+    transaction_id VARCHAR(36)    NOT NULL,
+    posted_at      DATETIME(6)    NOT NULL,
+    book           VARCHAR(16)    NOT NULL,
+    book_id        BIGINT         NOT NULL,
+    amount         DECIMAL(38, 2) NOT NULL,
+    currency       VARCHAR(3)     NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- JournalCheck groups by transaction, balances are summed per book
+CREATE INDEX idx_journal_lines_transaction ON journal_lines (transaction_id);
+CREATE INDEX idx_journal_lines_book ON journal_lines (book, book_id);
+
+-- Lines of the successful transactions still in the table
+INSERT INTO journal_lines (transaction_id, posted_at, book, book_id, amount, currency)
+SELECT id, timestamp, 'ACCOUNT', sender_id, CASE WHEN type = 'DEPOSIT' THEN amount ELSE -amount END, currency
+FROM transactions WHERE state = 'SUCCESS';
+
+INSERT INTO journal_lines (transaction_id, posted_at, book, book_id, amount, currency)
+SELECT id, timestamp,
+       CASE type WHEN 'TRANSFER' THEN 'ACCOUNT' WHEN 'CARD_PAYMENT' THEN 'CLEARING' WHEN 'FEE' THEN 'FEES' ELSE 'CASH' END,
+       CASE type WHEN 'TRANSFER' THEN receiver_id WHEN 'CARD_PAYMENT' THEN institute_id ELSE 0 END,
+       CASE WHEN type = 'DEPOSIT' THEN -amount ELSE amount END, currency
+FROM transactions WHERE state = 'SUCCESS';
+
+-- Opening entry: whatever the lines above do not explain of the current
+-- balances (archived months, transfers left PENDING), so the ACCOUNT book
+-- starts equal to accounts.balance
+INSERT INTO journal_lines (transaction_id, posted_at, book, book_id, amount, currency)
+SELECT 'opening-balance', CURRENT_TIMESTAMP, 'ACCOUNT', a.id,
+       a.balance - COALESCE((SELECT SUM(j.amount) FROM journal_lines j WHERE j.book = 'ACCOUNT' AND j.book_id = a.id), 0),
+       a.currency
+FROM accounts a
+WHERE a.balance <> COALESCE((SELECT SUM(j.amount) FROM journal_lines j WHERE j.book = 'ACCOUNT' AND j.book_id = a.id), 0);
+
+INSERT INTO journal_lines (transaction_id, posted_at, book, book_id, amount, currency)
+SELECT transaction_id, posted_at, 'OPENING', 0, -amount, currency
+FROM journal_lines WHERE transaction_id = 'opening-balance';
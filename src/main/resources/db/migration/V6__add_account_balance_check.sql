@@ -0,0 +1,3 @@
+-- No writer may take a balance below zero; the balance cache adds signed
+-- deltas, see com.bankingapp.ledger.BalanceCache
+ALTER TABLE accounts ADD CONSTRAINT chk_accounts_balance_non_negative CHECK (balance >= 0);
@@ -0,0 +1,10 @@
+-- Lease on the in-memory balances: only the instance named here posts and
+-- flushes them, see com.bankingapp.ledger.BalanceCache
+CREATE TABLE balance_owner (
+    id         INT         NOT NULL,
+    owner      VARCHAR(64) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO balance_owner (id, owner, expires_at) VALUES (1, '', '1970-01-01 00:00:00');
@@ -0,0 +1,2 @@
+-- Reconciliation reads the ACCOUNT book by posting time, from its watermark on
+CREATE INDEX idx_journal_lines_book_posted ON journal_lines (book, posted_at);
@@ -0,0 +1,6 @@
+-- Card payments not yet added to the spend rollups, claimed in batches by
+-- com.bankingapp.service.SpendRollupService; earlier rows were rolled up as
+-- they posted
+ALTER TABLE transactions ADD COLUMN rolled_up BOOLEAN NOT NULL DEFAULT TRUE;
+
+CREATE INDEX idx_transactions_rolled_up ON transactions (rolled_up);
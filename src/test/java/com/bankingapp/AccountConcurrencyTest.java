@@ -0,0 +1,146 @@
+package com.bankingapp;
+
+import com.bankingapp.service.AccountConcurrency;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountConcurrencyTest {
+    private static final int ACCOUNTS = 3;
+    private static final long INITIAL = 1_000_000;
+
+    private String url;
+    private JdbcTemplate jdbc;
+    private EntityManagerFactory emf;
+
+    private AccountConcurrency start(AccountConcurrency.Mode mode) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        url = "jdbc:h2:mem:concurrency-" + mode + ";MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000";
+        dataSource.setURL(url);
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO users (id, name, surname, date_of_birth, email, phone) " +
+                "VALUES (1, 'John', 'Doe', DATE '1990-01-01', 'john@example.com', '0')");
+        for (int id = 1; id <= ACCOUNTS; id++) {
+            jdbc.update("INSERT INTO accounts (id, account_number, currency, balance, owner_id) VALUES (?, ?, 'EUR', ?, 1)",
+                    id, "ACC-" + id, INITIAL);
+        }
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.bankingapp.model");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        // Boot's naming: accountNumber maps to account_number
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.cache.use_second_level_cache", "false",
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName()));
+        factory.afterPropertiesSet();
+        emf = factory.getObject();
+
+        return new AccountConcurrency(SharedEntityManagerCreator.createSharedEntityManager(emf),
+                new JpaTransactionManager(emf), new SimpleMeterRegistry(), mode, 1_000, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        emf.close();
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    @ParameterizedTest
+    @EnumSource(AccountConcurrency.Mode.class)
+    void testNoLostUpdatesUnderContention(AccountConcurrency.Mode mode) throws Exception {
+        AccountConcurrency concurrency = start(mode);
+        AtomicLongArray net = new AtomicLongArray(ACCOUNTS + 1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            workers.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 100; i++) {
+                    long from = 1 + random.nextInt(ACCOUNTS);
+                    long to = from % ACCOUNTS + 1;
+                    long amount = 1 + random.nextInt(10);
+                    concurrency.update(from, to, (sender, receiver) -> {
+                        sender.transferMoney(receiver, BigDecimal.valueOf(amount));
+                        return null;
+                    });
+                    net.addAndGet((int) from, -amount);
+                    net.addAndGet((int) to, amount);
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        for (int id = 1; id <= ACCOUNTS; id++) {
+            BigDecimal balance = jdbc.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, id);
+            assertEquals(0, BigDecimal.valueOf(INITIAL + net.get(id)).compareTo(balance), "account " + id);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(AccountConcurrency.Mode.class)
+    void testOptimisticUpdateBumpsVersionOfUnchangedRows(AccountConcurrency.Mode mode) {
+        AccountConcurrency concurrency = start(mode);
+        concurrency.update(1L, 2L, (sender, receiver) -> null);
+
+        long expected = mode == AccountConcurrency.Mode.OPTIMISTIC ? 1 : 0;
+        assertEquals(expected, jdbc.queryForObject("SELECT version FROM accounts WHERE id = 1", Long.class));
+        assertEquals(expected, jdbc.queryForObject("SELECT version FROM accounts WHERE id = 2", Long.class));
+        assertEquals(0, jdbc.queryForObject("SELECT version FROM accounts WHERE id = 3", Long.class));
+    }
+
+    @Test
+    void testOptimisticConflictWithoutEntityChangeIsRetried() {
+        AccountConcurrency concurrency = start(AccountConcurrency.Mode.OPTIMISTIC);
+        JdbcDataSource otherSource = new JdbcDataSource();
+        otherSource.setURL(url);
+        JdbcTemplate other = new JdbcTemplate(otherSource);
+        AtomicInteger runs = new AtomicInteger();
+
+        concurrency.update(1L, 2L, (sender, receiver) -> {
+            if (runs.incrementAndGet() == 1) {
+                // Someone else, on their own connection, updates the sender between our read and our commit
+                other.update("UPDATE accounts SET version = version + 1 WHERE id = 1");
+            }
+            return null;
+        });
+
+        assertEquals(2, runs.get());
+        assertEquals(2, jdbc.queryForObject("SELECT version FROM accounts WHERE id = 1", Long.class));
+    }
+
+    @ParameterizedTest
+    @EnumSource(AccountConcurrency.Mode.class)
+    void testWorkSeesAccountsInArgumentOrder(AccountConcurrency.Mode mode) {
+        AccountConcurrency concurrency = start(mode);
+        long[] seen = concurrency.update(3L, 1L, (first, second) -> new long[]{first.getId(), second.getId()});
+        assertArrayEquals(new long[]{3, 1}, seen);
+    }
+}
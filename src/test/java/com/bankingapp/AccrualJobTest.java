@@ -0,0 +1,140 @@
+package com.bankingapp;
+
+import com.bankingapp.audit.AuditLog;
+import com.bankingapp.batch.AccrualJob;
+import com.bankingapp.ledger.BalanceCache;
+import com.bankingapp.ledger.Journal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccrualJobTest {
+    // 1 is at the fee waiver, 5 cannot cover the fee
+    private static final long[][] BALANCES = {{1, 1000}, {2, 500}, {3, 300}, {4, 250}, {5, 0}};
+
+    @TempDir
+    Path auditDirectory;
+
+    private JdbcTemplate jdbc;
+    private AuditLog audit;
+    private BalanceCache balances;
+    private AccrualJob job;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:accrual;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+
+        jdbc.update("INSERT INTO users (id, name, surname, date_of_birth, email, phone) " +
+                "VALUES (1, 'John', 'Doe', DATE '1990-01-01', 'john@example.com', '0')");
+        for (long[] account : BALANCES) {
+            jdbc.update("INSERT INTO accounts (id, name, account_number, currency, balance, owner_id) " +
+                    "VALUES (?, 'Main', ?, 'EUR', 0, 1)", account[0], "ACC-" + account[0]);
+            jdbc.update("INSERT INTO journal_lines (transaction_id, posted_at, book, book_id, amount, currency) " +
+                    "VALUES ('opening-balance', ?, 'ACCOUNT', ?, ?, 'EUR')",
+                    Timestamp.valueOf(LocalDateTime.now()), account[0], BigDecimal.valueOf(account[1]));
+        }
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        audit = new AuditLog(new SimpleMeterRegistry(), auditDirectory, 1024, 1 << 20, false, 200);
+        balances = new BalanceCache(jdbc, transactionManager, audit, new SimpleMeterRegistry(), 60_000, 1000, 60_000);
+        // 0.1% over 10 days; two accounts per chunk
+        job = new AccrualJob(jdbc, new TransactionTemplate(transactionManager), new Journal(jdbc), balances,
+                new BigDecimal("0.0365"), new BigDecimal("2.00"), new BigDecimal("1000"), 2);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        balances.shutdown();
+        audit.shutdown();
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    private BigDecimal journaled(long accountId) {
+        return jdbc.queryForObject("SELECT SUM(amount) FROM journal_lines WHERE book = 'ACCOUNT' AND book_id = ?",
+                BigDecimal.class, accountId);
+    }
+
+    private int postings(long accountId) {
+        return jdbc.queryForObject("SELECT COUNT(*) FROM transactions WHERE sender_id = ?", Integer.class, accountId);
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), () -> expected + " != " + actual);
+    }
+
+    @Test
+    void testRunPostsInterestAndFees() {
+        assertEquals(new AccrualJob.AccrualResult(5, 4, 3, false), job.run("2025-03", 10));
+
+        List<String> expected = List.of("1001.00", "498.50", "298.30", "248.25", "0");
+        for (int i = 0; i < BALANCES.length; i++) {
+            long id = BALANCES[i][0];
+            assertAmount(expected.get(i), journaled(id));
+            assertAmount(expected.get(i), balances.balance(id));
+        }
+        assertEquals(Boolean.TRUE, jdbc.queryForObject(
+                "SELECT completed FROM accrual_runs WHERE run_id = '2025-03'", Boolean.class));
+
+        assertEquals(new AccrualJob.AccrualResult(0, 0, 0, true), job.run("2025-03", 10));
+        assertEquals(2, postings(2));
+    }
+
+    @Test
+    void testResumesAfterFailedChunk() {
+        // The second chunk, [3, 4], fails to insert account 4's postings and rolls back whole
+        jdbc.execute("ALTER TABLE transactions ADD CONSTRAINT no_account_4 CHECK (sender_id <> 4)");
+        assertThrows(DataIntegrityViolationException.class, () -> job.run("2025-03", 10));
+
+        assertEquals(2L, jdbc.queryForObject(
+                "SELECT last_account_id FROM accrual_runs WHERE run_id = '2025-03'", Long.class));
+        assertEquals(2, postings(2));
+        assertEquals(0, postings(3));
+        assertAmount("300", balances.balance(3));
+
+        jdbc.execute("ALTER TABLE transactions DROP CONSTRAINT no_account_4");
+        assertEquals(new AccrualJob.AccrualResult(3, 2, 2, true), job.run("2025-03", 10));
+
+        for (long id = 1; id <= 4; id++) {
+            assertEquals(id == 1 ? 1 : 2, postings(id), "account " + id);
+        }
+        assertAmount("298.30", journaled(3));
+        assertAmount("248.25", balances.balance(4));
+    }
+
+    @Test
+    void testChunksStampedWhenWritten() {
+        // A run started an hour ago that got through the first chunk
+        LocalDateTime started = LocalDateTime.now().minusHours(1);
+        jdbc.update("INSERT INTO accrual_runs (run_id, posted_at, last_account_id, completed) VALUES ('2025-03', ?, 2, ?)",
+                Timestamp.valueOf(started), false);
+        LocalDateTime resumed = LocalDateTime.now();
+
+        job.run("2025-03", 10);
+
+        Timestamp earliest = jdbc.queryForObject("SELECT MIN(timestamp) FROM transactions", Timestamp.class);
+        Timestamp journal = jdbc.queryForObject(
+                "SELECT MIN(posted_at) FROM journal_lines WHERE transaction_id <> 'opening-balance'", Timestamp.class);
+        assertFalse(earliest.toLocalDateTime().isBefore(resumed));
+        assertFalse(journal.toLocalDateTime().isBefore(resumed));
+    }
+}
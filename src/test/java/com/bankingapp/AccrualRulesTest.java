@@ -0,0 +1,50 @@
+package com.bankingapp;
+
+import com.bankingapp.batch.AccrualRules;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccrualRulesTest {
+    private static final Currency EUR = Currency.getInstance("EUR");
+    private static final Currency JPY = Currency.getInstance("JPY");
+
+    private final AccrualRules rules = new AccrualRules(new BigDecimal("0.0365"), new BigDecimal("2.50"),
+            new BigDecimal("1000"));
+
+    @Test
+    void testInterestRoundedToMinorUnit() {
+        // 1000 * 3.65% * 30 / 365 = 3.00
+        assertEquals(new BigDecimal("3.00"), rules.interest(new BigDecimal("1000"), EUR, 30));
+        assertEquals(new BigDecimal("3"), rules.interest(new BigDecimal("1000"), JPY, 30));
+    }
+
+    @Test
+    void testNoInterestOnEmptyBalance() {
+        assertEquals(0, rules.interest(BigDecimal.ZERO, EUR, 30).signum());
+    }
+
+    @Test
+    void testFee() {
+        assertEquals(new BigDecimal("2.50"), rules.fee(new BigDecimal("999.99"), EUR));
+    }
+
+    @Test
+    void testFeeWaived() {
+        assertEquals(0, rules.fee(new BigDecimal("1000"), EUR).signum());
+    }
+
+    @Test
+    void testFeeNotChargedBeyondBalance() {
+        assertEquals(0, rules.fee(new BigDecimal("2.49"), EUR).signum());
+    }
+
+    @Test
+    void testNegativeRateRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AccrualRules(new BigDecimal("-0.01"), BigDecimal.ZERO, BigDecimal.ZERO));
+    }
+}
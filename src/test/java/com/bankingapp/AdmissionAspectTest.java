@@ -0,0 +1,104 @@
+package com.bankingapp;
+
+import com.bankingapp.admission.AdmissionAspect;
+import com.bankingapp.admission.AdmissionController;
+import com.bankingapp.admission.AdmissionRejectedException;
+import com.bankingapp.admission.Admitted;
+import com.bankingapp.admission.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Calls {@link Admitted} methods through the Spring proxy, so the aspect's
+ * order relative to the infrastructure advisors is exercised, not just the
+ * controller behind it.
+ */
+@SpringJUnitConfig(AdmissionAspectTest.Config.class)
+class AdmissionAspectTest {
+    @Configuration
+    @EnableAspectJAutoProxy
+    @Import({AdmissionAspect.class, Guarded.class})
+    static class Config {
+        @Bean
+        AdmissionController admissionController() {
+            return new AdmissionController(new SimpleMeterRegistry(), 1, 1, 1, 2.0, 1, 50, 50, 50);
+        }
+    }
+
+    static class Guarded {
+        @Autowired
+        private AdmissionController admission;
+
+        @Autowired
+        private Guarded self;
+
+        @Admitted
+        public int inflight() {
+            return admission.getInflight();
+        }
+
+        @Admitted(Priority.CRITICAL)
+        public int nested() {
+            return self.inflight();
+        }
+
+        @Admitted
+        public void hold(CountDownLatch entered, CountDownLatch release) throws InterruptedException {
+            entered.countDown();
+            release.await(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Autowired
+    private Guarded guarded;
+
+    @Autowired
+    private AdmissionController admission;
+
+    @Test
+    void testCallRunsUnderSlotThroughProxy() {
+        assertTrue(AopUtils.isAopProxy(guarded));
+        assertEquals(1, guarded.inflight());
+        assertEquals(0, admission.getInflight());
+    }
+
+    @Test
+    void testNestedCallUsesOuterSlot() {
+        // The limit is 1, so a second acquire would be shed
+        assertEquals(1, guarded.nested());
+        assertEquals(0, admission.getInflight());
+    }
+
+    @Test
+    void testCallShedWhenLimitReached() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> {
+                guarded.hold(entered, release);
+                return null;
+            });
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            assertThrows(AdmissionRejectedException.class, guarded::inflight);
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+            assertEquals(0, admission.getInflight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.bankingapp;
+
+import com.bankingapp.admission.AdaptiveLimit;
+import com.bankingapp.admission.AdmissionController;
+import com.bankingapp.admission.AdmissionRejectedException;
+import com.bankingapp.admission.Priority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControllerTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private AdmissionController controller(int limit, int maxQueue) {
+        return new AdmissionController(registry, limit, 1, 100, 2.0, maxQueue, 2_000, 2_000, 2_000);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void testLimitCutWhenLatencyRises() {
+        AdaptiveLimit limit = new AdaptiveLimit(20, 2, 50, 2.0);
+        for (int i = 0; i < 20; i++) limit.onSample(1_000_000, 20);
+        int healthy = limit.get();
+        assertTrue(healthy >= 20);
+
+        for (int i = 0; i < 200; i++) limit.onSample(10_000_000, healthy);
+        assertTrue(limit.get() < healthy, "limit " + limit.get());
+    }
+
+    @Test
+    void testLimitGrowsOnlyWhenUsed() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 2, 50, 2.0);
+        for (int i = 0; i < 100; i++) limit.onSample(1_000_000, 1);
+        assertEquals(10, limit.get());
+
+        for (int i = 0; i < 100; i++) limit.onSample(1_000_000, 10);
+        assertTrue(limit.get() > 10);
+    }
+
+    @Test
+    void testLimitNeverBelowMinimum() {
+        AdaptiveLimit limit = new AdaptiveLimit(10, 4, 50, 2.0);
+        for (int i = 0; i < 100; i++) limit.onDrop();
+        assertEquals(4, limit.get());
+    }
+
+    @Test
+    void testShedsLowestPriorityWhenQueueFull() throws Exception {
+        AdmissionController admission = controller(1, 1);
+        AdmissionController.Permit held = admission.acquire(Priority.NORMAL);
+
+        Future<AdmissionController.Permit> low = executor.submit(() -> admission.acquire(Priority.LOW));
+        await(() -> admission.getQueued() == 1);
+
+        // a full queue makes room for a more important call by shedding the least important one
+        Future<AdmissionController.Permit> critical = executor.submit(() -> admission.acquire(Priority.CRITICAL));
+        ExecutionException shed = assertThrows(ExecutionException.class, () -> low.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(AdmissionRejectedException.class, shed.getCause());
+
+        // an equally or less important call is shed itself
+        assertThrows(AdmissionRejectedException.class, () -> admission.acquire(Priority.LOW));
+
+        admission.release(held, false);
+        admission.release(critical.get(5, TimeUnit.SECONDS), false);
+        assertEquals(0, admission.getInflight());
+        assertEquals(2.0, registry.get("admission.rejected").tag("priority", "low").counter().count());
+    }
+
+    @Test
+    void testHigherPriorityAdmittedFirst() throws Exception {
+        AdmissionController admission = controller(1, 10);
+        AdmissionController.Permit held = admission.acquire(Priority.NORMAL);
+
+        List<Priority> order = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        for (Priority priority : List.of(Priority.LOW, Priority.NORMAL, Priority.CRITICAL)) {
+            int queued = admission.getQueued();
+            executor.submit(() -> {
+                AdmissionController.Permit permit = admission.acquire(priority);
+                order.add(priority);
+                admission.release(permit, false);
+                done.countDown();
+                return null;
+            });
+            await(() -> admission.getQueued() == queued + 1);
+        }
+
+        admission.release(held, false);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(Priority.CRITICAL, Priority.NORMAL, Priority.LOW), order);
+    }
+
+    @Test
+    void testQueuedCallShedAfterMaxWait() {
+        AdmissionController admission = new AdmissionController(registry, 1, 1, 1, 2.0, 10, 1_000, 1_000, 20);
+        AdmissionController.Permit held = admission.acquire(Priority.CRITICAL);
+
+        long start = System.nanoTime();
+        assertThrows(AdmissionRejectedException.class, () -> admission.acquire(Priority.LOW));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0, admission.getQueued());
+
+        admission.release(held, false);
+        admission.release(admission.acquire(Priority.LOW), false);
+    }
+}
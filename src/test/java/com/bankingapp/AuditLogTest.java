@@ -0,0 +1,147 @@
+package com.bankingapp;
+
+import com.bankingapp.audit.AuditLog;
+import com.bankingapp.audit.AuditLogReader;
+import com.bankingapp.audit.AuditRecord;
+import com.bankingapp.audit.AuditSegment;
+import com.bankingapp.audit.AuditType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogTest {
+    @TempDir
+    Path directory;
+
+    private final List<AuditLog> logs = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (AuditLog log : logs) {
+            log.shutdown();
+        }
+    }
+
+    private AuditLog open(int capacity, long segmentBytes) throws IOException {
+        AuditLog log = new AuditLog(new SimpleMeterRegistry(), directory, capacity, segmentBytes, false, 50);
+        logs.add(log);
+        return log;
+    }
+
+    private static void awaitDurable(AuditLog log, long sequence) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (log.durable() < sequence) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the writer");
+            Thread.sleep(1);
+        }
+    }
+
+    private List<AuditRecord> readAll(AuditLogReader.Filter filter) throws IOException {
+        List<AuditRecord> records = new ArrayList<>();
+        AuditLogReader.scan(directory, filter, records::add);
+        return records;
+    }
+
+    @Test
+    void testRoundTrip() throws Exception {
+        AuditLog log = open(1024, 1 << 20);
+        log.append(AuditType.ACCOUNT_BALANCE, 1, 1, new BigDecimal("100.00"), new BigDecimal("89.50"));
+        log.append(AuditType.CARD_CREDIT_USED, 7, 1, BigDecimal.ZERO, new BigDecimal("10.5"));
+        log.append(AuditType.ACCOUNT_BALANCE, 2, 2, null, new BigDecimal("-3.0001"));
+        awaitDurable(log, 3);
+
+        List<AuditRecord> records = readAll(AuditLogReader.Filter.ALL);
+        assertEquals(3, records.size());
+
+        AuditRecord card = records.get(1);
+        assertEquals(1, card.sequence());
+        assertEquals(AuditType.CARD_CREDIT_USED, card.type());
+        assertEquals(7, card.subjectId());
+        assertEquals(1, card.accountId());
+        assertEquals(0, card.before().signum());
+        assertEquals(new BigDecimal("10.5"), card.after());
+
+        assertNull(records.get(2).before());
+        assertEquals(new BigDecimal("-3.0001"), records.get(2).after());
+
+        List<AuditRecord> account1 = readAll(new AuditLogReader.Filter(1L, null, AuditType.ACCOUNT_BALANCE,
+                Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(1, account1.size());
+        assertEquals(new BigDecimal("89.50"), account1.get(0).after());
+    }
+
+    @Test
+    void testConcurrentProducersGapFree() throws Exception {
+        AuditLog log = open(64, 4096);
+        int threads = 8;
+        int perThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> producers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long account = t;
+                producers.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        log.append(AuditType.ACCOUNT_BALANCE, account, account,
+                                BigDecimal.valueOf(i), BigDecimal.valueOf(i + 1));
+                    }
+                }));
+            }
+            for (Future<?> producer : producers) {
+                producer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        awaitDurable(log, (long) threads * perThread);
+
+        List<AuditRecord> records = readAll(AuditLogReader.Filter.ALL);
+        assertEquals(threads * perThread, records.size());
+        long[] next = new long[threads];
+        for (int i = 0; i < records.size(); i++) {
+            AuditRecord record = records.get(i);
+            assertEquals(i, record.sequence());
+            // each producer's records keep their order
+            assertEquals(next[(int) record.subjectId()]++, record.before().longValueExact());
+        }
+        assertTrue(AuditLogReader.segments(directory).size() > 1, "log did not rotate");
+    }
+
+    @Test
+    void testTornTailIgnoredAndSequenceContinues() throws Exception {
+        AuditLog first = open(1024, 1 << 20);
+        first.append(AuditType.ACCOUNT_BALANCE, 1, 1, BigDecimal.ONE, BigDecimal.TEN);
+        first.append(AuditType.ACCOUNT_BALANCE, 1, 1, BigDecimal.TEN, BigDecimal.ONE);
+        awaitDurable(first, 2);
+        first.shutdown();
+        logs.remove(first);
+
+        // crash in the middle of the third record
+        Path segment = AuditLogReader.segments(directory).getFirst();
+        segment.toFile().setWritable(true);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.allocate(AuditSegment.RECORD_SIZE / 2));
+        }
+
+        AuditLog reopened = open(1024, 1 << 20);
+        reopened.append(AuditType.ACCOUNT_BALANCE, 1, 1, BigDecimal.ONE, BigDecimal.ZERO);
+        awaitDurable(reopened, 3);
+
+        List<AuditRecord> records = readAll(AuditLogReader.Filter.ALL);
+        assertEquals(List.of(0L, 1L, 2L), records.stream().map(AuditRecord::sequence).toList());
+        assertEquals(0, records.get(2).after().signum());
+    }
+}
@@ -0,0 +1,266 @@
+package com.bankingapp;
+
+import com.bankingapp.audit.AuditLog;
+import com.bankingapp.ledger.BalanceCache;
+import com.bankingapp.ledger.BalanceOwnershipException;
+import com.bankingapp.ledger.Journal;
+import com.bankingapp.ledger.JournalLine;
+import com.bankingapp.model.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceCacheTest {
+    @TempDir
+    Path auditDirectory;
+
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate transactions;
+    private Journal journal;
+    private AuditLog audit;
+    private BalanceCache cache;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:balances;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        transactions = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        journal = new Journal(jdbc);
+
+        jdbc.update("INSERT INTO users (id, name, surname, date_of_birth, email, phone) " +
+                "VALUES (1, 'John', 'Doe', DATE '1990-01-01', 'john@example.com', '0')");
+        jdbc.update("INSERT INTO accounts (id, name, account_number, currency, balance, owner_id) VALUES " +
+                "(1, 'Main', 'ACC-1', 'EUR', 100.00, 1), (2, 'Savings', 'ACC-2', 'EUR', 0.00, 1)");
+        transactions.executeWithoutResult(status ->
+                journal.append(lines(TransactionType.DEPOSIT, 1, null, "100.00"), LocalDateTime.now()));
+
+        audit = new AuditLog(new SimpleMeterRegistry(), auditDirectory, 1024, 1 << 20, false, 200);
+        cache = cache();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        cache.shutdown();
+        audit.shutdown();
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    // A flush interval long enough that only explicit flushes happen
+    private BalanceCache cache() {
+        return cache(60_000);
+    }
+
+    private BalanceCache cache(long leaseMillis) {
+        registry = new SimpleMeterRegistry();
+        return new BalanceCache(jdbc, new DataSourceTransactionManager(dataSource), audit, registry, 60_000, 1000, leaseMillis);
+    }
+
+    private static List<JournalLine> lines(TransactionType type, long sender, Long receiver, String amount) {
+        return Journal.lines(UUID.randomUUID().toString(), type, sender, receiver, null, new BigDecimal(amount), "EUR");
+    }
+
+    private void post(List<JournalLine> lines) {
+        post(cache, lines);
+    }
+
+    private void post(BalanceCache cache, List<JournalLine> lines) {
+        transactions.executeWithoutResult(status -> {
+            journal.append(lines, LocalDateTime.now());
+            cache.post(lines);
+        });
+    }
+
+    private BigDecimal stored(long accountId) {
+        return jdbc.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+    }
+
+    @Test
+    void testBalanceChangesOnCommitAndIsWrittenBehind() {
+        post(lines(TransactionType.TRANSFER, 1, 2L, "30.00"));
+
+        assertEquals(0, cache.balance(1).compareTo(new BigDecimal("70.00")));
+        assertEquals(0, cache.response(2).balance().compareTo(new BigDecimal("30.00")));
+        assertEquals(0, stored(2).compareTo(BigDecimal.ZERO), "not flushed yet");
+
+        assertEquals(2, cache.flush());
+        assertEquals(0, stored(1).compareTo(new BigDecimal("70.00")));
+        assertEquals(0, stored(2).compareTo(new BigDecimal("30.00")));
+        assertEquals(1, jdbc.queryForObject("SELECT version FROM accounts WHERE id = 2", Long.class));
+    }
+
+    @Test
+    void testRolledBackPostingChangesNothing() {
+        List<JournalLine> lines = lines(TransactionType.TRANSFER, 1, 2L, "30.00");
+        transactions.executeWithoutResult(status -> {
+            journal.append(lines, LocalDateTime.now());
+            cache.post(lines);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(0, cache.balance(1).compareTo(new BigDecimal("100.00")));
+        assertEquals(0, cache.available(1).compareTo(new BigDecimal("100.00")));
+        assertEquals(0, cache.flush());
+    }
+
+    @Test
+    void testOverdraftRejectedOnCommit() {
+        post(lines(TransactionType.WITHDRAWAL, 1, null, "60.00"));
+
+        List<JournalLine> second = lines(TransactionType.WITHDRAWAL, 1, null, "60.00");
+        assertThrows(IllegalArgumentException.class, () -> post(second));
+
+        assertEquals(0, cache.balance(1).compareTo(new BigDecimal("40.00")));
+        assertEquals(0, cache.available(1).compareTo(new BigDecimal("40.00")));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM journal_lines WHERE transaction_id = ?",
+                Integer.class, second.get(0).transactionId()));
+    }
+
+    @Test
+    void testCreditNotAvailableBeforeCommit() {
+        transactions.executeWithoutResult(status -> {
+            List<JournalLine> lines = lines(TransactionType.DEPOSIT, 2, null, "50.00");
+            journal.append(lines, LocalDateTime.now());
+            cache.post(lines);
+            assertEquals(0, cache.available(2).signum());
+        });
+
+        assertEquals(0, cache.available(2).compareTo(new BigDecimal("50.00")));
+    }
+
+    @Test
+    void testPostingsToOneAccountCoalesceIntoOneWrite() {
+        for (int i = 0; i < 50; i++) {
+            post(lines(TransactionType.FEE, 1, null, "1.00"));
+        }
+
+        assertEquals(1, cache.flush());
+        assertEquals(0, stored(1).compareTo(new BigDecimal("50.00")));
+    }
+
+    @Test
+    void testRebuildFromJournalRepairsStaleCopy() throws InterruptedException {
+        // A posting whose instance crashed before the flush: journaled, the table still has the old balances
+        transactions.executeWithoutResult(status ->
+                journal.append(lines(TransactionType.TRANSFER, 1, 2L, "25.00"), LocalDateTime.now()));
+        cache.shutdown();
+        cache = cache();
+
+        assertEquals(0, cache.balance(1).compareTo(new BigDecimal("75.00")));
+        assertEquals(0, cache.balance(2).compareTo(new BigDecimal("25.00")));
+        assertEquals(2, cache.flush());
+        assertEquals(0, stored(1).compareTo(new BigDecimal("75.00")));
+        assertEquals(0, stored(2).compareTo(new BigDecimal("25.00")));
+    }
+
+    @Test
+    void testFlushAddsToChangesWrittenElsewhere() {
+        post(lines(TransactionType.TRANSFER, 1, 2L, "30.00"));
+        jdbc.update("UPDATE accounts SET balance = balance + 5 WHERE id = 2");
+
+        assertEquals(2, cache.flush());
+        assertEquals(0, stored(1).compareTo(new BigDecimal("70.00")));
+        assertEquals(0, stored(2).compareTo(new BigDecimal("35.00")));
+    }
+
+    @Test
+    void testFlushNeverTakesStoredBalanceBelowZero() {
+        post(lines(TransactionType.WITHDRAWAL, 1, null, "60.00"));
+        jdbc.update("UPDATE accounts SET balance = 10 WHERE id = 1");
+
+        assertEquals(0, cache.flush());
+        assertEquals(0, stored(1).compareTo(BigDecimal.TEN));
+        assertEquals(1.0, registry.counter("balances.flush.rejected").count());
+        assertThrows(DataIntegrityViolationException.class,
+                () -> jdbc.update("UPDATE accounts SET balance = -1 WHERE id = 1"));
+
+        // Still dirty: written once the stored balance can take it
+        jdbc.update("UPDATE accounts SET balance = 100 WHERE id = 1");
+        assertEquals(1, cache.flush());
+        assertEquals(0, stored(1).compareTo(new BigDecimal("40.00")));
+    }
+
+    @Test
+    void testPostingOutsideTransactionRejected() {
+        assertThrows(IllegalStateException.class, () -> cache.post(lines(TransactionType.FEE, 1, null, "1.00")));
+    }
+
+    @Test
+    void testSecondInstanceRejectsPostingsAndReadsJournal() throws InterruptedException {
+        BalanceCache second = cache();
+        try {
+            assertTrue(cache.owns());
+            assertFalse(second.owns());
+            List<JournalLine> lines = lines(TransactionType.TRANSFER, 1, 2L, "30.00");
+            assertThrows(BalanceOwnershipException.class, () -> post(second, lines));
+            assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM journal_lines WHERE transaction_id = ?",
+                    Integer.class, lines.get(0).transactionId()));
+
+            // Committed on the owner, seen by the other instance before any flush
+            post(lines(TransactionType.TRANSFER, 1, 2L, "30.00"));
+            assertEquals(0, second.balance(1).compareTo(new BigDecimal("70.00")));
+            assertEquals(0, second.available(2).compareTo(new BigDecimal("30.00")));
+            assertEquals(List.of(1L, 2L), second.responses(List.of(1L, 2L, 3L)).stream()
+                    .map(account -> account.id()).toList());
+            assertEquals(0, second.flush());
+        } finally {
+            second.shutdown();
+        }
+    }
+
+    @Test
+    void testLeaseTakenOverAfterOwnerStops() throws InterruptedException {
+        cache.shutdown();
+        cache = cache(400);
+        BalanceCache standby = cache(400);
+        try {
+            post(lines(TransactionType.TRANSFER, 1, 2L, "30.00"));
+            cache.shutdown();
+
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (!standby.owns()) {
+                assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the lease");
+                Thread.sleep(20);
+            }
+            assertEquals(0, standby.balance(2).compareTo(new BigDecimal("30.00")));
+            post(standby, lines(TransactionType.TRANSFER, 2, 1L, "10.00"));
+            assertEquals(0, standby.balance(2).compareTo(new BigDecimal("20.00")));
+        } finally {
+            standby.shutdown();
+        }
+    }
+
+    @Test
+    void testOwnerDropsBalancesWhenLeaseTaken() {
+        post(lines(TransactionType.TRANSFER, 1, 2L, "30.00"));
+        jdbc.update("UPDATE balance_owner SET owner = 'other', expires_at = TIMESTAMPADD(HOUR, 1, CURRENT_TIMESTAMP(6))");
+
+        // Nothing written: the new owner flushes what it rebuilt from the journal
+        assertEquals(0, cache.flush());
+        assertEquals(0, stored(2).compareTo(BigDecimal.ZERO));
+        assertFalse(cache.owns());
+        assertEquals(1.0, registry.counter("balances.lease.lost").count());
+        assertThrows(BalanceOwnershipException.class, () -> post(lines(TransactionType.FEE, 1, null, "1.00")));
+        assertEquals(0, cache.balance(2).compareTo(new BigDecimal("30.00")));
+    }
+}
@@ -0,0 +1,215 @@
+package com.bankingapp;
+
+import com.bankingapp.dto.AccountResponse;
+import com.bankingapp.events.BalanceFeed;
+import com.bankingapp.events.TransactionPosted;
+import com.bankingapp.model.TransactionState;
+import com.bankingapp.model.TransactionType;
+import com.bankingapp.service.AccountService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class BalanceFeedTest {
+    private final Map<Long, BigDecimal> balances = new ConcurrentHashMap<>();
+    private final List<CountingEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final AccountService accounts = mock(AccountService.class);
+    private volatile CountDownLatch blockNext;
+    private BalanceFeed feed;
+
+    private static class CountingEmitter extends SseEmitter {
+        final AtomicInteger sent = new AtomicInteger();
+        final CountDownLatch blocked;
+        volatile String last;
+        volatile Throwable failure;
+
+        CountingEmitter(long timeout, CountDownLatch blocked) {
+            super(timeout);
+            this.blocked = blocked;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (blocked != null) {
+                // A client that stopped reading: the write waits until the socket gives up
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    throw new IOException("Interrupted while writing", e);
+                }
+            }
+            StringBuilder data = new StringBuilder();
+            builder.build().forEach(part -> data.append(part.getData()));
+            last = data.toString();
+            sent.incrementAndGet();
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            failure = ex;
+            super.completeWithError(ex);
+        }
+    }
+
+    private void start(long windowMillis) {
+        start(windowMillis, 5_000);
+    }
+
+    private void start(long windowMillis, long sendDeadlineMillis) {
+        when(accounts.getResponsesByIds(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> new AccountResponse(id, "Account " + id, "EUR", balances.get(id))).toList();
+        });
+        feed = new BalanceFeed(accounts, new ObjectMapper().findAndRegisterModules(), windowMillis, 60_000, 0, 20,
+                2, sendDeadlineMillis) {
+            @Override
+            protected SseEmitter newEmitter(long timeoutMillis) {
+                CountingEmitter emitter = new CountingEmitter(timeoutMillis, blockNext);
+                blockNext = null;
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    @AfterEach
+    void tearDown() {
+        feed.shutdown();
+    }
+
+    private static TransactionPosted transfer(long from, long to, String amount) {
+        return new TransactionPosted(UUID.randomUUID().toString(), LocalDateTime.now(), TransactionType.TRANSFER,
+                TransactionState.SUCCESS, Currency.getInstance("EUR"), new BigDecimal(amount), from, to, null);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for updates");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void testInitialBalanceSentOnSubscribe() throws Exception {
+        start(100);
+        feed.subscribe(new AccountResponse(1L, "Main", "EUR", new BigDecimal("42.00")));
+
+        await(() -> emitters.get(0).sent.get() == 1);
+        assertTrue(emitters.get(0).last.contains("\"balance\":42.00"));
+    }
+
+    @Test
+    void testBurstCoalescedToLatestBalance() throws Exception {
+        start(300);
+        balances.put(1L, BigDecimal.ZERO);
+        feed.subscribe(new AccountResponse(1L, "Main", "EUR", BigDecimal.ZERO));
+        CountingEmitter emitter = emitters.get(0);
+
+        for (int i = 1; i <= 1000; i++) {
+            balances.put(1L, BigDecimal.valueOf(i));
+            feed.onEvent(transfer(2L, 1L, "1"));
+        }
+
+        await(() -> emitter.sent.get() > 1);
+        Thread.sleep(350);
+        // one or two windows for the whole burst, each with the balance at flush time
+        assertTrue(emitter.sent.get() <= 3, "sent " + emitter.sent.get());
+        assertTrue(emitter.last.contains("\"balance\":1000"));
+        verify(accounts, atMost(2)).getResponsesByIds(anyCollection());
+    }
+
+    @Test
+    void testUnwatchedAccountsIgnored() throws Exception {
+        start(20);
+        feed.onEvent(transfer(5L, 6L, "10"));
+        Thread.sleep(100);
+
+        verify(accounts, never()).getResponsesByIds(anyCollection());
+    }
+
+    @Test
+    void testFiftyThousandSubscribers() throws Exception {
+        start(100);
+        int accountCount = 1_000;
+        int perAccount = 50;
+        for (long id = 1; id <= accountCount; id++) {
+            balances.put(id, BigDecimal.ZERO);
+            for (int s = 0; s < perAccount; s++) {
+                feed.subscribe(new AccountResponse(id, "Account " + id, "EUR", BigDecimal.ZERO));
+            }
+        }
+        assertEquals(50_000, feed.subscriberCount());
+
+        for (long id = 1; id <= accountCount; id++) {
+            balances.put(id, new BigDecimal("5.00"));
+            feed.onEvent(transfer(accountCount + id, id, "5.00"));
+        }
+
+        // a subscriber whose initial balance was not sent yet gets only the update
+        await(() -> emitters.stream().allMatch(e -> e.last != null && e.last.contains("\"balance\":5.00")));
+        // balances of all dirty accounts are read together, not per subscriber or per event
+        verify(accounts, atMost(5)).getResponsesByIds(anyCollection());
+    }
+
+    @Test
+    void testStuckClientEvictedAfterDeadline() throws Exception {
+        start(20, 200);
+        balances.put(1L, BigDecimal.ONE);
+        blockNext = new CountDownLatch(1);
+        feed.subscribe(new AccountResponse(1L, "Main", "EUR", BigDecimal.ZERO));
+        feed.subscribe(new AccountResponse(1L, "Main", "EUR", BigDecimal.ZERO));
+        CountingEmitter stuck = emitters.get(0);
+        CountingEmitter healthy = emitters.get(1);
+
+        feed.onEvent(transfer(2L, 1L, "1"));
+        // the feed keeps serving others while one send hangs
+        await(() -> healthy.last != null && healthy.last.contains("\"balance\":1"));
+
+        await(() -> feed.subscriberCount() == 1);
+        assertInstanceOf(TimeoutException.class, stuck.failure);
+        assertEquals(0, stuck.sent.get());
+
+        balances.put(1L, BigDecimal.TWO);
+        feed.onEvent(transfer(2L, 1L, "1"));
+        await(() -> healthy.last.contains("\"balance\":2"));
+    }
+
+    @Test
+    void testSlowClientGetsOnlyLatestBalance() throws Exception {
+        start(20);
+        balances.put(1L, BigDecimal.ZERO);
+        CountDownLatch release = new CountDownLatch(1);
+        blockNext = release;
+        feed.subscribe(new AccountResponse(1L, "Main", "EUR", BigDecimal.ZERO));
+        CountingEmitter slow = emitters.get(0);
+
+        // several windows flushed while the initial send is stuck
+        for (int i = 1; i <= 5; i++) {
+            balances.put(1L, BigDecimal.valueOf(i));
+            feed.onEvent(transfer(2L, 1L, "1"));
+            Thread.sleep(60);
+        }
+        release.countDown();
+
+        await(() -> slow.last != null && slow.last.contains("\"balance\":5"));
+        Thread.sleep(100);
+        assertEquals(2, slow.sent.get());
+    }
+}
@@ -0,0 +1,114 @@
+package com.bankingapp;
+
+import com.bankingapp.dto.AccountResponse;
+import com.bankingapp.dto.TransactionResponse;
+import com.bankingapp.ledger.BalanceCache;
+import com.bankingapp.service.AccountService;
+import com.bankingapp.service.TransactionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Calls the real {@code @Coalesced} service reads through the application
+ * context, so the coalescing, admission and transaction advice run in their
+ * configured order around them.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:coalescing;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class CoalescingAspectTest {
+    private static final int CALLERS = 8;
+
+    @Autowired
+    private AccountService accounts;
+
+    @Autowired
+    private TransactionService transactions;
+
+    @Autowired
+    private BalanceCache balances;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM journal_lines");
+        jdbc.update("DELETE FROM transactions");
+        jdbc.update("DELETE FROM cards");
+        jdbc.update("DELETE FROM accounts");
+        jdbc.update("DELETE FROM users");
+
+        jdbc.update("INSERT INTO users (id, name, surname, date_of_birth, email, phone, password) " +
+                "VALUES (1, 'John', 'Doe', DATE '1990-01-01', 'john@example.com', '1234567890', 'Password123!')");
+        for (int i = 1; i <= 2; i++) {
+            jdbc.update("INSERT INTO accounts (id, name, account_number, currency, balance, owner_id) " +
+                    "VALUES (?, ?, ?, 'USD', 100, 1)", i, "Account " + i, "ACC-" + i);
+            balances.open(i, "Account " + i, "USD");
+        }
+        jdbc.update("INSERT INTO transactions (id, timestamp, amount, type, state, sender_id, receiver_id, currency, note) " +
+                "VALUES ('tx-1', CURRENT_TIMESTAMP, 10, 'TRANSFER', 'SUCCESS', 1, 2, 'USD', 'rent')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private double calls(String group, String role) {
+        return registry.get("coalescing.calls").tag("group", group).tag("role", role).counter().count();
+    }
+
+    @Test
+    void testAccountsByOwnerRunsThroughAspect() {
+        double leaders = calls("accounts-by-owner", "leader");
+
+        List<AccountResponse> owned = accounts.getResponsesByOwner(1L);
+
+        assertEquals(List.of(1L, 2L), owned.stream().map(AccountResponse::id).toList());
+        assertEquals(leaders + 1, calls("accounts-by-owner", "leader"));
+    }
+
+    @Test
+    void testConcurrentTransactionReadsShareResult() throws Exception {
+        String group = "transactions-by-account";
+        double before = calls(group, "leader") + calls(group, "joined");
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<TransactionResponse>>> futures = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return transactions.getResponsesByAccount(1L);
+            }));
+        }
+        start.countDown();
+
+        for (Future<List<TransactionResponse>> future : futures) {
+            List<TransactionResponse> result = future.get(10, TimeUnit.SECONDS);
+            assertEquals(List.of("tx-1"), result.stream().map(TransactionResponse::id).toList());
+        }
+        assertEquals(before + CALLERS, calls(group, "leader") + calls(group, "joined"));
+    }
+}
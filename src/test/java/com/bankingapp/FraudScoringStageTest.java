@@ -0,0 +1,122 @@
+package com.bankingapp;
+
+import com.bankingapp.admission.AdmissionController;
+import com.bankingapp.archive.SegmentStore;
+import com.bankingapp.archive.TransactionPartitionRouter;
+import com.bankingapp.events.Outbox;
+import com.bankingapp.fraud.FraudDecision;
+import com.bankingapp.fraud.FraudScoringStage;
+import com.bankingapp.fraud.PaymentAttempt;
+import com.bankingapp.fraud.PaymentDeclinedException;
+import com.bankingapp.fraud.VelocityLimitRule;
+import com.bankingapp.ledger.BalanceCache;
+import com.bankingapp.ledger.Journal;
+import com.bankingapp.model.Account;
+import com.bankingapp.model.Card;
+import com.bankingapp.model.Institute;
+import com.bankingapp.model.Transaction;
+import com.bankingapp.repository.CardRepository;
+import com.bankingapp.repository.TransactionRepository;
+import com.bankingapp.service.AccountConcurrency;
+import com.bankingapp.service.CardService;
+import com.bankingapp.service.TransactionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class FraudScoringStageTest {
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final Currency EUR = Currency.getInstance("EUR");
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private FraudScoringStage stage;
+    private long now;
+
+    @BeforeEach
+    void setUp() {
+        // Two payments a minute per institute; a breach alone is worth 50, which is REVIEW
+        VelocityLimitRule rule = new VelocityLimitRule(1_000, 1_000_000_000L, 1_000, 1_000_000_000L, 2, 100);
+        stage = new FraudScoringStage(List.of(rule), registry, 50, 100, 0, 1_000, 1_000_000);
+        now = System.currentTimeMillis();
+    }
+
+    private PaymentAttempt attempt(long cardId, Currency currency) {
+        return new PaymentAttempt(cardId, cardId, 7L, currency, 1_000, now++);
+    }
+
+    @Test
+    void testInstituteWindowsKeyedByCurrency() {
+        stage.record(attempt(1, USD));
+        stage.record(attempt(2, USD));
+
+        assertEquals(FraudDecision.REVIEW, stage.score(attempt(3, USD)));
+        assertEquals(FraudDecision.APPROVE, stage.score(attempt(4, EUR)));
+    }
+
+    private TransactionService payments(FraudScoringStage fraud, AccountConcurrency accounts) {
+        return new TransactionService(mock(TransactionRepository.class),
+                mock(TransactionPartitionRouter.class), mock(SegmentStore.class), mock(Outbox.class), accounts,
+                mock(Journal.class), mock(BalanceCache.class), mock(AdmissionController.class), fraud, 500);
+    }
+
+    @Test
+    void testReviewIsDeclined() {
+        FraudScoringStage fraud = mock(FraudScoringStage.class);
+        when(fraud.score(any())).thenReturn(FraudDecision.REVIEW);
+        AccountConcurrency accounts = mock(AccountConcurrency.class);
+        Account account = mock(Account.class);
+        when(account.getId()).thenReturn(1L);
+        when(account.getCurrency()).thenReturn(USD);
+        Card card = mock(Card.class);
+        when(card.getAccount()).thenReturn(account);
+        when(card.authorizePayment(any())).thenReturn(true);
+        TransactionService transactions = payments(fraud, accounts);
+
+        assertThrows(PaymentDeclinedException.class, () -> transactions.payment(account, mock(Institute.class),
+                USD, new BigDecimal("10.00"), null));
+        assertFalse(new CardService(mock(CardRepository.class), transactions)
+                .authorizePayment(card, mock(Institute.class), new BigDecimal("10.00")));
+        verify(card, never()).authorizePayment(any());
+        verify(accounts, never()).update(any(), any(), any());
+        verify(fraud, never()).record(any());
+    }
+
+    @Test
+    void testApprovedPaymentPostedThenRecorded() {
+        FraudScoringStage fraud = mock(FraudScoringStage.class);
+        when(fraud.score(any())).thenReturn(FraudDecision.APPROVE);
+        AccountConcurrency accounts = mock(AccountConcurrency.class);
+        Transaction tx = mock(Transaction.class);
+        when(accounts.update(any(), any(), any())).thenReturn(tx);
+        Account account = mock(Account.class);
+        when(account.getId()).thenReturn(1L);
+
+        assertSame(tx, payments(fraud, accounts).payment(account, mock(Institute.class), USD,
+                new BigDecimal("10.00"), null));
+        var order = inOrder(fraud, accounts);
+        order.verify(fraud).score(any());
+        order.verify(accounts).update(eq(1L), eq(1L), any());
+        order.verify(fraud).record(any());
+    }
+
+    @Test
+    void testDecisionsCounted() {
+        stage.record(attempt(1, USD));
+        stage.record(attempt(2, USD));
+        stage.score(attempt(3, USD));
+        stage.score(attempt(4, EUR));
+
+        assertEquals(1.0, registry.counter("fraud.decisions", "decision", "review").count());
+        assertEquals(1.0, registry.counter("fraud.decisions", "decision", "approve").count());
+        assertEquals(0.0, registry.counter("fraud.decisions", "decision", "decline").count());
+    }
+}
@@ -0,0 +1,130 @@
+package com.bankingapp;
+
+import com.bankingapp.ledger.Book;
+import com.bankingapp.ledger.Journal;
+import com.bankingapp.ledger.JournalCheck;
+import com.bankingapp.ledger.JournalLine;
+import com.bankingapp.model.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+    private JdbcTemplate jdbc;
+    private Journal journal;
+    private JournalCheck check;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:journal;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+
+        // History from before the journal existed, which the migration backfills
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").target("4").load().migrate();
+        jdbc.update("INSERT INTO users (id, name, surname, date_of_birth, email, phone) " +
+                "VALUES (1, 'John', 'Doe', DATE '1990-01-01', 'john@example.com', '0')");
+        jdbc.update("INSERT INTO institutes (id, name, type) VALUES (1, 'Shop', 'MERCHANT')");
+        jdbc.update("INSERT INTO accounts (id, account_number, currency, balance, owner_id) VALUES " +
+                "(1, 'ACC-1', 'EUR', 64.50, 1), (2, 'ACC-2', 'EUR', 30.00, 1), (3, 'ACC-3', 'EUR', 500.00, 1)");
+        insert("t1", "DEPOSIT", "SUCCESS", 1, null, null, "100.00");
+        insert("t2", "TRANSFER", "SUCCESS", 1, 2L, null, "30.00");
+        insert("t3", "CARD_PAYMENT", "SUCCESS", 1, null, 1L, "5.00");
+        insert("t4", "FEE", "SUCCESS", 1, null, null, "0.50");
+        insert("t5", "WITHDRAWAL", "FAILED", 1, null, null, "1000.00");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+        journal = new Journal(jdbc);
+        check = new JournalCheck(jdbc, new SimpleMeterRegistry(), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    private void insert(String id, String type, String state, long sender, Long receiver, Long institute,
+                        String amount) {
+        jdbc.update("INSERT INTO transactions (id, timestamp, amount, type, state, sender_id, receiver_id, " +
+                "institute_id, currency) VALUES (?, CURRENT_TIMESTAMP, ?, ?, ?, ?, ?, ?, 'EUR')",
+                id, new BigDecimal(amount), type, state, sender, receiver, institute);
+    }
+
+    @ParameterizedTest
+    @EnumSource(TransactionType.class)
+    void testLinesOfEveryTypeNetToZero(TransactionType type) {
+        List<JournalLine> lines = Journal.lines("t", type, 1, 2L, 3L, new BigDecimal("12.34"), "EUR");
+
+        assertEquals(2, lines.size());
+        assertEquals(0, lines.get(0).amount().add(lines.get(1).amount()).signum());
+        assertTrue(lines.get(0).amount().signum() < 0, "debit first");
+        assertTrue(lines.stream().anyMatch(l -> l.book() == Book.ACCOUNT && l.bookId() == 1));
+    }
+
+    @Test
+    void testCardPaymentCreditsInstituteClearing() {
+        List<JournalLine> lines = Journal.lines("t", TransactionType.CARD_PAYMENT, 1, null, 7L,
+                new BigDecimal("5.00"), "EUR");
+
+        assertEquals(new JournalLine("t", Book.CLEARING, 7, new BigDecimal("5.00"), "EUR"), lines.get(1));
+    }
+
+    @Test
+    void testMigrationBackfillsBalancedJournal() {
+        JournalCheck.CheckResult result = check.check();
+
+        assertTrue(result.balanced(), result.toString());
+        // four backfilled transactions and the opening entry
+        assertEquals(5, result.transactions());
+        assertEquals(0, journal.balance(Book.ACCOUNT, 1).compareTo(new BigDecimal("64.50")));
+        assertEquals(0, journal.balance(Book.ACCOUNT, 2).compareTo(new BigDecimal("30.00")));
+        assertEquals(0, journal.balance(Book.ACCOUNT, 3).compareTo(new BigDecimal("500.00")));
+        assertEquals(0, journal.balance(Book.CLEARING, 1).compareTo(new BigDecimal("5.00")));
+        assertEquals(0, journal.balance(Book.FEES, 0).compareTo(new BigDecimal("0.50")));
+    }
+
+    @Test
+    void testAppendedTransactionKeepsJournalBalanced() {
+        insert("t6", "TRANSFER", "SUCCESS", 3, 2L, null, "20.00");
+        journal.append(Journal.lines("t6", TransactionType.TRANSFER, 3, 2L, null, new BigDecimal("20.00"), "EUR"),
+                LocalDateTime.now());
+
+        assertTrue(check.check().balanced());
+        assertEquals(0, journal.balance(Book.ACCOUNT, 2).compareTo(new BigDecimal("50.00")));
+    }
+
+    @Test
+    void testUnbalancedLinesRejected() {
+        List<JournalLine> lines = List.of(
+                new JournalLine("t7", Book.ACCOUNT, 1, new BigDecimal("-10.00"), "EUR"),
+                new JournalLine("t7", Book.CASH, 0, new BigDecimal("9.99"), "EUR"));
+
+        assertThrows(IllegalArgumentException.class, () -> journal.append(lines, LocalDateTime.now()));
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM journal_lines WHERE transaction_id = 't7'",
+                Integer.class));
+    }
+
+    @Test
+    void testCheckFindsUnbalancedAndUnpostedTransactions() {
+        jdbc.update("INSERT INTO journal_lines (transaction_id, posted_at, book, book_id, amount, currency) " +
+                "VALUES ('t2', CURRENT_TIMESTAMP, 'ACCOUNT', 2, 1.00, 'EUR')");
+        insert("t8", "DEPOSIT", "SUCCESS", 3, null, null, "10.00");
+
+        JournalCheck.CheckResult result = check.check();
+
+        assertEquals(List.of(new JournalCheck.Unbalanced("t2", new BigDecimal("1.00"), 3)), result.unbalanced());
+        assertEquals(List.of("t8"), result.unposted());
+    }
+}
@@ -0,0 +1,190 @@
+package com.bankingapp;
+
+import com.bankingapp.events.EventBus;
+import com.bankingapp.events.EventSubscriber;
+import com.bankingapp.events.OutboxRelay;
+import com.bankingapp.events.TransactionPosted;
+import com.bankingapp.model.TransactionState;
+import com.bankingapp.model.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxRelayTest {
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private final List<EventBus> buses = new ArrayList<>();
+
+    private static class Collector implements EventSubscriber<TransactionPosted> {
+        final List<String> received = Collections.synchronizedList(new ArrayList<>());
+        final AtomicInteger failuresLeft = new AtomicInteger();
+        volatile long delayMillis;
+
+        @Override
+        public String name() { return "collector"; }
+
+        @Override
+        public Class<TransactionPosted> eventType() { return TransactionPosted.class; }
+
+        @Override
+        public void onEvent(TransactionPosted event) throws Exception {
+            Thread.sleep(delayMillis);
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new IllegalStateException("Subscriber down");
+            }
+            received.add(event.transactionId());
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:outbox;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE outbox_events (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "event_type VARCHAR(64) NOT NULL, aggregate_id VARCHAR(36) NOT NULL, payload CLOB NOT NULL, " +
+                "created_at TIMESTAMP NOT NULL)");
+        jdbc.execute("CREATE TABLE event_offsets (subscriber VARCHAR(64) PRIMARY KEY, last_offset BIGINT NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        buses.forEach(EventBus::shutdown);
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    private OutboxRelay relay(Collector collector, int capacity) {
+        return relay(collector, capacity, 0);
+    }
+
+    private OutboxRelay relay(Collector collector, int capacity, long settleMillis) {
+        EventBus bus = new EventBus(List.<EventSubscriber<?>>of(collector), new SimpleMeterRegistry(), capacity, 10);
+        buses.add(bus);
+        return new OutboxRelay(jdbc, bus, mapper, 100, settleMillis);
+    }
+
+    private void post(String id) throws Exception {
+        post(jdbc, id);
+    }
+
+    private void post(JdbcTemplate jdbc, String id) throws Exception {
+        TransactionPosted event = new TransactionPosted(id, LocalDateTime.now(), TransactionType.TRANSFER,
+                TransactionState.SUCCESS, Currency.getInstance("EUR"), new BigDecimal("12.50"), 1L, 2L, null);
+        jdbc.update("INSERT INTO outbox_events (event_type, aggregate_id, payload, created_at) VALUES (?, ?, ?, ?)",
+                "TransactionPosted", id, mapper.writeValueAsString(event), LocalDateTime.now());
+    }
+
+    private static void await(OutboxRelay relay, BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for delivery");
+            relay.drain();
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void testDeliversInOrder() throws Exception {
+        Collector collector = new Collector();
+        OutboxRelay relay = relay(collector, 16);
+        for (int i = 0; i < 10; i++) post("tx-" + i);
+
+        await(relay, () -> collector.received.size() == 10);
+        assertEquals(List.of("tx-0", "tx-1", "tx-2", "tx-3", "tx-4", "tx-5", "tx-6", "tx-7", "tx-8", "tx-9"),
+                collector.received);
+    }
+
+    @Test
+    void testOffsetsPersistedAndOutboxPruned() throws Exception {
+        Collector collector = new Collector();
+        OutboxRelay relay = relay(collector, 16);
+        for (int i = 0; i < 3; i++) post("tx-" + i);
+
+        await(relay, () -> jdbc.queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class) == 0);
+
+        assertEquals(List.of("tx-0", "tx-1", "tx-2"), collector.received);
+        assertEquals(3L, jdbc.queryForObject("SELECT last_offset FROM event_offsets WHERE subscriber = 'collector'", Long.class));
+    }
+
+    @Test
+    void testResumesAfterPersistedOffset() throws Exception {
+        Collector first = new Collector();
+        OutboxRelay relay = relay(first, 16);
+        post("tx-0");
+        post("tx-1");
+        await(relay, () -> jdbc.queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class) == 0);
+        buses.forEach(EventBus::shutdown);
+
+        post("tx-2");
+        Collector second = new Collector();
+        OutboxRelay restarted = relay(second, 16);
+        await(restarted, () -> second.received.size() == 1);
+        assertEquals(List.of("tx-2"), second.received);
+    }
+
+    @Test
+    void testFailedDeliveryRetried() throws Exception {
+        Collector collector = new Collector();
+        collector.failuresLeft.set(3);
+        OutboxRelay relay = relay(collector, 16);
+        post("tx-0");
+        post("tx-1");
+
+        await(relay, () -> collector.received.size() == 2);
+        assertEquals(List.of("tx-0", "tx-1"), collector.received);
+    }
+
+    @Test
+    void testBackpressureWithFullQueue() throws Exception {
+        Collector collector = new Collector();
+        collector.delayMillis = 5;
+        OutboxRelay relay = relay(collector, 2);
+        for (int i = 0; i < 20; i++) post("tx-" + i);
+
+        await(relay, () -> collector.received.size() == 20);
+        assertEquals("tx-19", collector.received.get(19));
+        assertEquals(20, collector.received.stream().distinct().count());
+    }
+
+    @Test
+    void testLowerIdCommittedAfterHigherIdDelivered() throws Exception {
+        Collector collector = new Collector();
+        OutboxRelay relay = relay(collector, 16, 300);
+
+        try (Connection late = dataSource.getConnection()) {
+            late.setAutoCommit(false);
+            post(new JdbcTemplate(new SingleConnectionDataSource(late, true)), "tx-late");
+            post("tx-early");
+            assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class));
+
+            // tx-early has the higher id and is committed, but still inside the settle window
+            relay.drain();
+            Thread.sleep(50);
+            relay.drain();
+            assertTrue(collector.received.isEmpty());
+            late.commit();
+        }
+
+        await(relay, () -> collector.received.size() == 2);
+        assertEquals(List.of("tx-late", "tx-early"), collector.received);
+        await(relay, () -> jdbc.queryForObject("SELECT COUNT(*) FROM outbox_events", Integer.class) == 0);
+    }
+}
@@ -0,0 +1,81 @@
+package com.bankingapp;
+
+import com.bankingapp.service.PasswordHashingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+    private PasswordHashingService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new PasswordHashingService(4, 1, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void testHashAndVerify() {
+        String hash = service.hash("Password123!".toCharArray()).join();
+        assertTrue(hash.startsWith("$2a$04$"));
+
+        PasswordHashingService.PasswordCheck check = service.verify("Password123!".toCharArray(), hash).join();
+        assertTrue(check.matches());
+        assertFalse(check.needsRehash());
+    }
+
+    @Test
+    void testWrongPassword() {
+        String hash = service.hash("Password123!".toCharArray()).join();
+        assertFalse(service.verify("Password124!".toCharArray(), hash).join().matches());
+    }
+
+    @Test
+    void testUnknownUser() {
+        assertFalse(service.verify("Password123!".toCharArray(), null).join().matches());
+    }
+
+    @Test
+    void testRehashWhenCostChanges() {
+        PasswordHashingService stronger = new PasswordHashingService(5, 1, 8);
+        try {
+            String hash = service.hash("Password123!".toCharArray()).join();
+            PasswordHashingService.PasswordCheck check = stronger.verify("Password123!".toCharArray(), hash).join();
+
+            assertTrue(check.matches());
+            assertTrue(check.needsRehash());
+            assertTrue(check.rehash().startsWith("$2a$05$"));
+        } finally {
+            stronger.shutdown();
+        }
+    }
+
+    @Test
+    void testPasswordWiped() {
+        char[] password = "Password123!".toCharArray();
+        service.hash(password).join();
+        assertArrayEquals(new char["Password123!".length()], password);
+    }
+
+    @Test
+    void testQueueLimit() {
+        PasswordHashingService tiny = new PasswordHashingService(12, 1, 1);
+        try {
+            assertThrows(RejectedExecutionException.class, () -> {
+                for (int i = 0; i < 10; i++) {
+                    tiny.hash("Password123!".toCharArray());
+                }
+            });
+        } finally {
+            tiny.shutdown();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.bankingapp;
+
+import com.bankingapp.security.SessionTokenService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fails if a list endpoint issues more SQL statements than its budget, which
+ * is what an N+1 regression (lazy association walked per row) looks like.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:querycount;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class QueryCountTest {
+    private static final long MAX_STATEMENTS = 1;
+    private static final int ROWS = 25;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    @Autowired
+    private SessionTokenService tokens;
+
+    private Statistics statistics;
+    private String authorization;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM transactions");
+        jdbc.update("DELETE FROM cards");
+        jdbc.update("DELETE FROM accounts");
+        jdbc.update("DELETE FROM users");
+
+        jdbc.update("INSERT INTO users (id, name, surname, date_of_birth, email, phone, password) " +
+                "VALUES (1, 'John', 'Doe', DATE '1990-01-01', 'john@example.com', '1234567890', 'Password123!')");
+        for (int i = 1; i <= ROWS; i++) {
+            jdbc.update("INSERT INTO accounts (id, name, account_number, currency, balance, owner_id) " +
+                    "VALUES (?, ?, ?, 'USD', 100, 1)", i, "Account " + i, "ACC-" + i);
+            jdbc.update("INSERT INTO cards (id, card_type, number, expiry_date, account_id, draw_limit, cvv, pin, ot) " +
+                    "VALUES (?, 'Debit', ?, DATE '2030-01-01', 1, 1000, '123', '1234', FALSE)",
+                    i, String.format("%016d", i));
+            jdbc.update("INSERT INTO transactions (id, timestamp, amount, type, state, sender_id, receiver_id, currency, note) " +
+                    "VALUES (?, CURRENT_TIMESTAMP, 10, 'TRANSFER', 'SUCCESS', 1, ?, 'USD', 'rent')",
+                    "tx-" + i, i);
+        }
+
+        authorization = "Bearer " + tokens.issue(1L, LongStream.rangeClosed(1, ROWS).boxed().toList());
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testAccountList() throws Exception {
+        mvc.perform(get("/api/accounts").param("userId", "1")
+                .header(HttpHeaders.AUTHORIZATION, authorization)).andExpect(status().isOk());
+        assertWithinBudget();
+    }
+
+    @Test
+    void testCardList() throws Exception {
+        mvc.perform(get("/api/accounts/1/cards").header(HttpHeaders.AUTHORIZATION, authorization)).andExpect(status().isOk());
+        assertWithinBudget();
+    }
+
+    @Test
+    void testTransactionList() throws Exception {
+        mvc.perform(get("/api/transactions/account/1").header(HttpHeaders.AUTHORIZATION, authorization)).andExpect(status().isOk());
+        assertWithinBudget();
+    }
+
+    private void assertWithinBudget() {
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= MAX_STATEMENTS,
+                "Expected at most " + MAX_STATEMENTS + " SQL statements but " + statements + " were issued.");
+    }
+}
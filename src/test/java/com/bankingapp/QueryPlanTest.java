@@ -0,0 +1,216 @@
+package com.bankingapp;
+
+import com.bankingapp.model.*;
+import com.bankingapp.repository.*;
+import jakarta.persistence.EntityManager;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every repository finder against the schema built by the Flyway
+ * migrations, EXPLAINs each statement it issues and fails if any of them
+ * reads a whole table. A new finder needs an index (V*__ migration) and a
+ * line here.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:queryplan;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional
+class QueryPlanTest {
+    private static final Capture CAPTURE = new Capture();
+
+    /**
+     * Records the SQL Hibernate prepares on the test thread.
+     */
+    static class Capture implements StatementInspector {
+        private final ThreadLocal<List<String>> statements = new ThreadLocal<>();
+
+        @Override
+        public String inspect(String sql) {
+            List<String> current = statements.get();
+            if (current != null) {
+                current.add(sql);
+            }
+            return sql;
+        }
+    }
+
+    @TestConfiguration
+    static class CaptureConfig {
+        @Bean
+        HibernatePropertiesCustomizer statementCapture() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, CAPTURE);
+        }
+    }
+
+    @Autowired
+    private TransactionRepository transactions;
+
+    @Autowired
+    private AccountRepository accounts;
+
+    @Autowired
+    private CardRepository cards;
+
+    @Autowired
+    private InstituteRepository institutes;
+
+    @Autowired
+    private UserRepository users;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private final LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private final LocalDateTime to = from.plusMonths(1);
+
+    @Test
+    void testTransactionFinders() {
+        User user = em.getReference(User.class, 1L);
+        Account account = em.getReference(Account.class, 1L);
+        Institute institute = em.getReference(Institute.class, 1L);
+
+        assertIndexed("getByMaker", () -> transactions.getByMaker(user));
+        assertIndexed("getByAccount", () -> transactions.getByAccount(account));
+        assertIndexed("findResponsesByAccountId", () -> transactions.findResponsesByAccountId(1L));
+        assertIndexed("findRowPageByAccountId", () -> transactions.findRowPageByAccountId(1L, to, "", 500));
+        assertIndexed("getByType", () -> transactions.getByType(TransactionType.CARD_PAYMENT));
+        assertIndexed("getByState", () -> transactions.getByState(TransactionState.PENDING));
+        assertIndexed("findRowsBetween", () -> transactions.findRowsBetween(from, to));
+        assertIndexed("getByAmountBetween", () -> transactions.getByAmountBetween(BigDecimal.ONE, BigDecimal.TEN));
+        assertIndexed("existsByAmountBetween", () -> transactions.existsByAmountBetween(BigDecimal.ONE, BigDecimal.TEN));
+        assertIndexed("getByInstituteType", () -> transactions.getByInstituteType(InstituteType.SHOP));
+        assertIndexed("existsByInstituteType", () -> transactions.existsByInstituteType(InstituteType.SHOP));
+        assertIndexed("getByInstitute", () -> transactions.getByInstitute(institute));
+        assertIndexed("existsByInstitute", () -> transactions.existsByInstitute(institute));
+        assertIndexed("existsByAccount", () -> transactions.existsByAccount(account));
+        assertIndexed("existsByMaker", () -> transactions.existsByMaker(user));
+        assertIndexed("summarizeByInstitute", () -> transactions.summarizeByInstitute(1L, from, to));
+        assertIndexed("summarizeByInstituteType", () -> transactions.summarizeByInstituteType(InstituteType.SHOP, from, to));
+        assertIndexed("streamCardPayments", () -> {
+            try (Stream<?> payments = transactions.streamCardPayments(from, to)) {
+                payments.count();
+            }
+        });
+    }
+
+    @Test
+    void testAccountFinders() {
+        User user = em.getReference(User.class, 1L);
+
+        assertIndexed("getByOwner", () -> accounts.getByOwner(user));
+        assertIndexed("findResponseById", () -> accounts.findResponseById(1L));
+        assertIndexed("findResponsesByOwnerId", () -> accounts.findResponsesByOwnerId(1L));
+        assertIndexed("findResponsesByIdIn", () -> accounts.findResponsesByIdIn(List.of(1L, 2L)));
+        assertIndexed("findIdsByOwnerId", () -> accounts.findIdsByOwnerId(1L));
+        assertIndexed("getByName", () -> accounts.getByName("Main"));
+        assertIndexed("getByNameStartingWith", () -> accounts.getByNameStartingWith("Ma"));
+        assertIndexed("getByCurrency", () -> accounts.getByCurrency(Currency.getInstance("EUR")));
+        assertIndexed("getByBalanceBetween", () -> accounts.getByBalanceBetween(BigDecimal.ONE, BigDecimal.TEN));
+        assertIndexed("countByOwner", () -> accounts.countByOwner(user));
+        assertIndexed("existsById", () -> accounts.existsById(1L));
+    }
+
+    @Test
+    void testCardFinders() {
+        User user = em.getReference(User.class, 1L);
+        Account account = em.getReference(Account.class, 1L);
+
+        assertIndexed("getByOwner", () -> cards.getByOwner(user));
+        assertIndexed("getByType", () -> cards.getByType(DebitCard.class));
+        assertIndexed("getByExpiryDate", () -> cards.getByExpiryDate(LocalDate.of(2030, 1, 1)));
+        assertIndexed("getByAccount", () -> cards.getByAccount(account));
+        assertIndexed("findResponsesByAccountId", () -> cards.findResponsesByAccountId(1L));
+        assertIndexed("getByNumber", () -> cards.getByNumber("0000000000000001"));
+        assertIndexed("existsByNumber", () -> cards.existsByNumber("0000000000000001"));
+        assertIndexed("countByOwner", () -> cards.countByOwner(user));
+    }
+
+    @Test
+    void testReferenceFinders() {
+        assertIndexed("institutes.getByName", () -> institutes.getByName("Shop"));
+        assertIndexed("institutes.getByType", () -> institutes.getByType(InstituteType.SHOP));
+        assertIndexed("users.getByEmail", () -> users.getByEmail("john@example.com"));
+        assertIndexed("users.getByPhone", () -> users.getByPhone("1234567890"));
+        assertIndexed("users.getByNameAndSurname", () -> users.getByNameAndSurname("John", "Doe"));
+        assertIndexed("users.getBySurname", () -> users.getBySurname("Doe"));
+        assertIndexed("users.getByDateOfBirthAfter", () -> users.getByDateOfBirthAfter(LocalDate.of(2000, 1, 1)));
+        assertIndexed("users.getByDateOfBirthBetween",
+                () -> users.getByDateOfBirthBetween(LocalDate.of(1990, 1, 1), LocalDate.of(2000, 1, 1)));
+    }
+
+    private void assertIndexed(String finder, Runnable call) {
+        List<String> statements = new ArrayList<>();
+        CAPTURE.statements.set(statements);
+        try {
+            call.run();
+        } finally {
+            CAPTURE.statements.remove();
+        }
+
+        assertFalse(statements.isEmpty(), finder + " issued no SQL");
+        for (String sql : statements) {
+            String plan = explain(sql);
+            assertFalse(plan.contains(".tableScan"), finder + " reads a whole table:\n" + plan);
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbc.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                ParameterMetaData parameters = statement.getParameterMetaData();
+                for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                    bindSample(statement, i, parameters.getParameterType(i));
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    StringBuilder plan = new StringBuilder();
+                    while (rs.next()) {
+                        plan.append(rs.getString(1)).append('\n');
+                    }
+                    return plan.toString();
+                }
+            }
+        });
+    }
+
+    // A value of the parameter's type, so the plan is the one a real call gets
+    private static void bindSample(PreparedStatement statement, int index, int type) throws SQLException {
+        switch (type) {
+            case Types.BIGINT, Types.INTEGER, Types.SMALLINT, Types.TINYINT -> statement.setLong(index, 1);
+            case Types.DECIMAL, Types.NUMERIC -> statement.setBigDecimal(index, BigDecimal.ONE);
+            case Types.BOOLEAN, Types.BIT -> statement.setBoolean(index, true);
+            case Types.DATE -> statement.setDate(index, Date.valueOf(LocalDate.of(2025, 1, 1)));
+            case Types.TIMESTAMP -> statement.setTimestamp(index, Timestamp.valueOf(LocalDateTime.of(2025, 1, 1, 0, 0)));
+            case Types.VARCHAR, Types.CHAR, Types.LONGVARCHAR -> statement.setString(index, "A%");
+            default -> statement.setNull(index, type);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.bankingapp;
+
+import com.bankingapp.ratelimit.RateLimitTier;
+import com.bankingapp.ratelimit.RateLimiter;
+import com.bankingapp.ratelimit.TokenBucket;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+    private static final long SECOND = 1_000_000_000L;
+    private static final RateLimitTier TEN_PER_SECOND = new RateLimitTier("test", 10, 5);
+
+    private final AtomicLong now = new AtomicLong(1_000 * SECOND);
+    private RateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new RateLimiter(Map.of("test", TEN_PER_SECOND), 4, now::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        limiter.shutdown();
+    }
+
+    @Test
+    void testBurstThenRefused() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.acquire("a", TEN_PER_SECOND));
+        }
+        long wait = limiter.acquire("a", TEN_PER_SECOND);
+        assertEquals(SECOND / 10, wait);
+    }
+
+    @Test
+    void testRefillsAtRate() {
+        for (int i = 0; i < 5; i++) limiter.acquire("a", TEN_PER_SECOND);
+
+        now.addAndGet(SECOND / 10);
+        assertEquals(0, limiter.acquire("a", TEN_PER_SECOND));
+        assertTrue(limiter.acquire("a", TEN_PER_SECOND) > 0);
+    }
+
+    @Test
+    void testKeysIndependent() {
+        for (int i = 0; i < 5; i++) limiter.acquire("a", TEN_PER_SECOND);
+
+        assertTrue(limiter.acquire("a", TEN_PER_SECOND) > 0);
+        assertEquals(0, limiter.acquire("b", TEN_PER_SECOND));
+    }
+
+    @Test
+    void testSweepDropsOnlyFullBuckets() {
+        limiter.acquire("idle", TEN_PER_SECOND);
+        for (int i = 0; i < 5; i++) limiter.acquire("busy", TEN_PER_SECOND);
+        now.addAndGet(SECOND / 5);
+
+        for (int i = 0; i < 4; i++) limiter.sweepNext();
+        assertEquals(1, limiter.size());
+        assertTrue(limiter.acquire("busy", TEN_PER_SECOND) == 0);
+    }
+
+    @Test
+    void testNoOverAdmissionUnderContention() throws Exception {
+        TokenBucket bucket = new TokenBucket(new RateLimitTier("burst", 1, 1000), 0);
+        AtomicInteger admitted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch done = new CountDownLatch(8);
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    if (bucket.tryAcquire(0) == 0) admitted.incrementAndGet();
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        pool.shutdown();
+
+        assertEquals(1000, admitted.get());
+    }
+
+    @Test
+    void testTierParsing() {
+        Map<String, RateLimitTier> tiers = RateLimitTier.parse("anonymous:5:10, partner:200.5:400");
+        assertEquals(200.5, tiers.get("partner").permitsPerSecond());
+        assertEquals(10, tiers.get("anonymous").burst());
+        assertThrows(IllegalArgumentException.class, () -> RateLimitTier.parse("broken:5"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.bankingapp;
+
+import com.bankingapp.security.SessionTokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Every account and transaction read needs a session token, and only reads
+ * the caller's own accounts: no token is 401, someone else's account is 404.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:readaccess;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "bankingapp.ratelimit.tiers=anonymous:1000:1000,user:1000:1000,partner:1000:1000"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ReadAccessTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private SessionTokenService tokens;
+
+    private String owner;
+    private String stranger;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM journal_lines");
+        jdbc.update("DELETE FROM transactions");
+        jdbc.update("DELETE FROM cards");
+        jdbc.update("DELETE FROM accounts");
+        jdbc.update("DELETE FROM users");
+
+        for (int user = 1; user <= 2; user++) {
+            jdbc.update("INSERT INTO users (id, name, surname, date_of_birth, email, phone, password) " +
+                    "VALUES (?, 'John', 'Doe', DATE '1990-01-01', ?, ?, 'Password123!')",
+                    user, "john" + user + "@example.com", "123456789" + user);
+            jdbc.update("INSERT INTO accounts (id, name, account_number, currency, balance, owner_id) " +
+                    "VALUES (?, 'Main', ?, 'USD', 100, ?)", user, "ACC-" + user, user);
+        }
+        jdbc.update("INSERT INTO transactions (id, timestamp, amount, type, state, sender_id, receiver_id, currency, note) " +
+                "VALUES ('tx-1', CURRENT_TIMESTAMP, 10, 'TRANSFER', 'SUCCESS', 1, 2, 'USD', 'rent')");
+
+        owner = "Bearer " + tokens.issue(1L, List.of(1L));
+        stranger = "Bearer " + tokens.issue(2L, List.of(2L));
+    }
+
+    private void assertOwnerOnly(MockHttpServletRequestBuilder request) throws Exception {
+        mvc.perform(request).andExpect(status().isUnauthorized());
+        mvc.perform(request.header(HttpHeaders.AUTHORIZATION, "Bearer forged.token"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testAccountList() throws Exception {
+        assertOwnerOnly(get("/api/accounts"));
+        mvc.perform(get("/api/accounts").param("userId", "1").header(HttpHeaders.AUTHORIZATION, stranger))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/api/accounts").param("userId", "1").header(HttpHeaders.AUTHORIZATION, owner))
+                .andExpect(status().isOk());
+        mvc.perform(get("/api/accounts").header(HttpHeaders.AUTHORIZATION, owner))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testCardList() throws Exception {
+        assertOwnerOnly(get("/api/accounts/1/cards"));
+        mvc.perform(get("/api/accounts/1/cards").header(HttpHeaders.AUTHORIZATION, stranger))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/api/accounts/1/cards").header(HttpHeaders.AUTHORIZATION, owner))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testTransactionList() throws Exception {
+        assertOwnerOnly(get("/api/transactions/account/1"));
+        mvc.perform(get("/api/transactions/account/1").header(HttpHeaders.AUTHORIZATION, stranger))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/api/transactions/account/1").header(HttpHeaders.AUTHORIZATION, owner))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testAccount() throws Exception {
+        assertOwnerOnly(get("/api/accounts/1"));
+        mvc.perform(get("/api/accounts/1").header(HttpHeaders.AUTHORIZATION, stranger))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testBalanceEvents() throws Exception {
+        assertOwnerOnly(get("/api/accounts/1/events"));
+        mvc.perform(get("/api/accounts/1/events").header(HttpHeaders.AUTHORIZATION, stranger))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testAnalytics() throws Exception {
+        assertOwnerOnly(analytics());
+        mvc.perform(analytics().param("accountId", "1").header(HttpHeaders.AUTHORIZATION, stranger))
+                .andExpect(status().isNotFound());
+        mvc.perform(analytics().header(HttpHeaders.AUTHORIZATION, owner))
+                .andExpect(status().isNotFound());
+        mvc.perform(analytics().param("accountId", "1").header(HttpHeaders.AUTHORIZATION, owner))
+                .andExpect(status().isOk());
+    }
+
+    private static MockHttpServletRequestBuilder analytics() {
+        return get("/api/analytics/transactions")
+                .param("from", "2020-01-01T00:00:00")
+                .param("to", "2100-01-01T00:00:00");
+    }
+}
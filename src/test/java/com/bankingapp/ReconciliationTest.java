@@ -0,0 +1,213 @@
+package com.bankingapp;
+
+import com.bankingapp.audit.AuditLog;
+import com.bankingapp.ledger.BalanceCache;
+import com.bankingapp.ledger.Journal;
+import com.bankingapp.model.TransactionType;
+import com.bankingapp.reconciliation.ReconciliationEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReconciliationTest {
+    private static final int ACCOUNTS = 16;
+    // The types MySQL accepts in CAST; H2 in MySQL mode also takes BIGINT, INT, ..., MySQL does not
+    private static final Set<String> MYSQL_CAST_TYPES = Set.of("BINARY", "CHAR", "DATE", "DATETIME", "DECIMAL",
+            "DOUBLE", "FLOAT", "JSON", "NCHAR", "REAL", "SIGNED", "TIME", "UNSIGNED", "YEAR");
+
+    @TempDir
+    Path directory;
+
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private AuditLog audit;
+    private final List<ReconciliationEngine> engines = new ArrayList<>();
+    private final List<BalanceCache> caches = new ArrayList<>();
+    private final LocalDateTime posted = LocalDateTime.now().minusHours(1);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:reconciliation;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        audit = new AuditLog(new SimpleMeterRegistry(), directory.resolve("audit"), 1024, 1 << 20, false, 200);
+
+        jdbc.update("INSERT INTO users (id, name, surname, date_of_birth, email, phone) " +
+                "VALUES (1, 'John', 'Doe', DATE '1990-01-01', 'john@example.com', '0')");
+        for (int id = 1; id <= ACCOUNTS; id++) {
+            jdbc.update("INSERT INTO accounts (id, account_number, currency, balance, owner_id) VALUES (?, ?, 'EUR', 0, 1)",
+                    id, "ACC-" + id);
+            post(id, null, "DEPOSIT", "SUCCESS", "100.00");
+        }
+        post(1, 2L, "TRANSFER", "SUCCESS", "25.50");
+        post(7, 12L, "TRANSFER", "SUCCESS", "10.00");
+        post(9, null, "FEE", "SUCCESS", "2.00");
+        post(3, 4L, "TRANSFER", "FAILED", "50.00");
+        settleBalances();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        engines.forEach(ReconciliationEngine::shutdown);
+        for (BalanceCache cache : caches) {
+            cache.shutdown();
+        }
+        audit.shutdown();
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    private ReconciliationEngine engine() throws IOException {
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        BalanceCache cache = new BalanceCache(jdbc, transactionManager, audit, new SimpleMeterRegistry(),
+                60_000, 1000, 60_000);
+        caches.add(cache);
+        ReconciliationEngine engine = new ReconciliationEngine(jdbc, transactionManager, cache,
+                new SimpleMeterRegistry(), 4, 0, 2, 100);
+        engines.add(engine);
+        return engine;
+    }
+
+    private String post(long sender, Long receiver, String type, String state, String amount) {
+        return post(sender, receiver, type, state, amount, posted);
+    }
+
+    private String post(long sender, Long receiver, String type, String state, String amount, LocalDateTime at) {
+        String id = UUID.randomUUID().toString();
+        jdbc.update("INSERT INTO transactions (id, timestamp, amount, type, state, sender_id, receiver_id, currency) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, 'EUR')",
+                id, Timestamp.valueOf(at), new BigDecimal(amount), type, state, sender, receiver);
+        if (state.equals("SUCCESS")) {
+            new Journal(jdbc).append(Journal.lines(id, TransactionType.valueOf(type), sender, receiver, null,
+                    new BigDecimal(amount), "EUR"), at);
+        }
+        return id;
+    }
+
+    // Sets every balance to the net of its successful transactions
+    private void settleBalances() {
+        jdbc.update("UPDATE accounts SET balance = COALESCE((SELECT SUM(CASE WHEN t.type = 'DEPOSIT' THEN t.amount " +
+                "ELSE -t.amount END) FROM transactions t WHERE t.sender_id = accounts.id AND t.state = 'SUCCESS'), 0) " +
+                "+ COALESCE((SELECT SUM(t.amount) FROM transactions t WHERE t.receiver_id = accounts.id " +
+                "AND t.state = 'SUCCESS'), 0)");
+    }
+
+    @Test
+    void testConsistentLedgerNeedsNoReverification() throws IOException {
+        ReconciliationEngine.ReconciliationReport report = engine().verify();
+
+        assertEquals(0, report.reverified());
+        assertTrue(report.mismatches().isEmpty());
+        assertTrue(report.buckets() >= ACCOUNTS / 4);
+    }
+
+    @Test
+    void testWrongBalanceReverifiesOnlyItsBucket() throws IOException {
+        ReconciliationEngine engine = engine();
+        engine.verify();
+
+        jdbc.update("UPDATE accounts SET balance = balance + 5 WHERE id = 6");
+        ReconciliationEngine.ReconciliationReport report = engine.verify();
+
+        assertEquals(1, report.reverified());
+        assertEquals(List.of(new ReconciliationEngine.Mismatch(6, new BigDecimal("105.00"), new BigDecimal("100.00"))),
+                report.mismatches());
+    }
+
+    @Test
+    void testMoneyMovedWithinBucketWithoutTransactionDetected() throws IOException {
+        ReconciliationEngine engine = engine();
+        engine.verify();
+
+        // the bucket's total is unchanged, only the weighted sum sees this
+        jdbc.update("UPDATE accounts SET balance = balance - 5 WHERE id = 5");
+        jdbc.update("UPDATE accounts SET balance = balance + 5 WHERE id = 6");
+        ReconciliationEngine.ReconciliationReport report = engine.verify();
+
+        assertEquals(1, report.reverified());
+        assertEquals(List.of(5L, 6L), report.mismatches().stream().map(ReconciliationEngine.Mismatch::accountId).toList());
+    }
+
+    @Test
+    void testStaleLedgerDigestRepaired() throws IOException {
+        ReconciliationEngine engine = engine();
+        engine.verify();
+
+        // committed after the refresh, but posted before its watermark
+        post(13, 14L, "TRANSFER", "SUCCESS", "40.00");
+        settleBalances();
+
+        ReconciliationEngine.ReconciliationReport report = engine.verify();
+        assertEquals(1, report.reverified());
+        assertTrue(report.mismatches().isEmpty());
+        assertEquals(0, engine.verify().reverified());
+    }
+
+    @Test
+    void testOpeningBalancesCounted() throws IOException {
+        // balances no transaction explains, carried by opening entries as the journal migration writes them
+        jdbc.update("UPDATE accounts SET balance = balance + 1000 WHERE id IN (3, 11)");
+        for (long id : new long[] {3, 11}) {
+            jdbc.update("INSERT INTO journal_lines (transaction_id, posted_at, book, book_id, amount, currency) " +
+                    "VALUES ('opening-balance', ?, 'ACCOUNT', ?, 1000, 'EUR')", Timestamp.valueOf(posted), id);
+        }
+        ReconciliationEngine engine = engine();
+
+        assertTrue(engine.verify().mismatches().isEmpty());
+
+        jdbc.update("UPDATE accounts SET balance = balance - 1000 WHERE id = 11");
+        assertEquals(List.of(new ReconciliationEngine.Mismatch(11, new BigDecimal("100.00"), new BigDecimal("1100.00"))),
+                engine.verify().mismatches());
+    }
+
+    @Test
+    void testIncrementalStateSurvivesRestart() throws IOException {
+        engine().verify();
+
+        post(2, 3L, "TRANSFER", "SUCCESS", "1.00", LocalDateTime.now());
+        settleBalances();
+
+        // the transfer's debit and credit lines
+        ReconciliationEngine restarted = engine();
+        assertEquals(2, restarted.refresh());
+        assertEquals(0, restarted.verify().reverified());
+    }
+
+    @Test
+    void testQueriesOnlyCastToTypesMySqlAccepts() throws IllegalAccessException {
+        Pattern cast = Pattern.compile("CAST\\(.*?\\bAS\\s+([A-Z]+)", Pattern.CASE_INSENSITIVE);
+        int casts = 0;
+        for (Field field : ReconciliationEngine.class.getDeclaredFields()) {
+            if (field.getType() != String.class || !Modifier.isStatic(field.getModifiers())) continue;
+            field.setAccessible(true);
+            Matcher matcher = cast.matcher((String) field.get(null));
+            while (matcher.find()) {
+                casts++;
+                assertTrue(MYSQL_CAST_TYPES.contains(matcher.group(1).toUpperCase()), field.getName() + ": " + matcher.group());
+            }
+        }
+        assertTrue(casts > 0);
+    }
+}
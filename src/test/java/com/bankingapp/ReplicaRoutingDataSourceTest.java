@@ -0,0 +1,98 @@
+package com.bankingapp;
+
+import com.bankingapp.datasource.ReplicaHealth;
+import com.bankingapp.datasource.ReplicaRoutingDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+    private JdbcDataSource primary;
+    private JdbcDataSource replica;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = embedded("primary");
+        replica = embedded("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void testWritesGoToPrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(replica, "");
+        assertEquals("primary", whoAmI(routing));
+    }
+
+    @Test
+    void testReadOnlyGoesToReplica() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(replica, "");
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("replica", whoAmI(routing));
+    }
+
+    @Test
+    void testFallbackWhenReplicaUnreachable() throws SQLException {
+        JdbcDataSource missing = new JdbcDataSource();
+        missing.setURL("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        ReplicaHealth health = new ReplicaHealth(missing, "", 5, 60_000);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, missing, health);
+        routing.afterPropertiesSet();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("primary", whoAmI(routing));
+        assertFalse(health.isAvailable());
+    }
+
+    @Test
+    void testFallbackWhenReplicaLags() throws SQLException {
+        ReplicaHealth health = new ReplicaHealth(replica, "SELECT 30", 5, 60_000);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, health);
+        routing.afterPropertiesSet();
+        health.checkLag();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertTrue(health.isLagging());
+        assertEquals("primary", whoAmI(routing));
+    }
+
+    private ReplicaRoutingDataSource routing(JdbcDataSource replica, String lagQuery) {
+        ReplicaHealth health = new ReplicaHealth(replica, lagQuery, 5, 60_000);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, health);
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    private static JdbcDataSource embedded(String name) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(16))");
+            statement.execute("DELETE FROM node");
+            statement.execute("INSERT INTO node VALUES ('" + name + "')");
+        }
+        return dataSource;
+    }
+
+    private static String whoAmI(ReplicaRoutingDataSource routing) throws SQLException {
+        try (Connection connection = routing.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT name FROM node")) {
+            rs.next();
+            return rs.getString(1);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.bankingapp;
+
+import com.bankingapp.fraud.RingWindow;
+import com.bankingapp.fraud.WindowStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingWindowTest {
+    private RingWindow window;
+
+    @BeforeEach
+    void setUp() {
+        window = new RingWindow(1_000L, 60); // one minute of one-second buckets
+    }
+
+    @Test
+    void testEmpty() {
+        assertEquals(WindowStats.EMPTY, window.snapshot(10_000L));
+    }
+
+    @Test
+    void testCountAndAmount() {
+        window.add(10_000L, 500, 1L);
+        window.add(10_500L, 250, 1L);
+        window.add(30_000L, 1000, 2L);
+
+        WindowStats stats = window.snapshot(30_000L);
+        assertEquals(3, stats.count());
+        assertEquals(1750, stats.amount());
+        assertEquals(2, stats.distinctMerchants());
+    }
+
+    @Test
+    void testOldBucketsExpire() {
+        window.add(10_000L, 500, 1L);
+        window.add(50_000L, 250, 2L);
+
+        WindowStats stats = window.snapshot(75_000L);
+        assertEquals(1, stats.count());
+        assertEquals(250, stats.amount());
+    }
+
+    @Test
+    void testRecycledBucketIsReset() {
+        window.add(10_000L, 500, 1L);
+        window.add(70_000L, 100, 1L); // same slot one lap later
+
+        WindowStats stats = window.snapshot(70_000L);
+        assertEquals(1, stats.count());
+        assertEquals(100, stats.amount());
+    }
+
+    @Test
+    void testDistinctMerchantsEstimate() {
+        for (long merchant = 1; merchant <= 10; merchant++) {
+            window.add(10_000L, 1, merchant);
+        }
+        int estimate = window.snapshot(10_000L).distinctMerchants();
+        assertTrue(estimate >= 8 && estimate <= 12, "Estimate was " + estimate);
+    }
+}
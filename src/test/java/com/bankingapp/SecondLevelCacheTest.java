@@ -0,0 +1,72 @@
+package com.bankingapp;
+
+import com.bankingapp.model.Institute;
+import com.bankingapp.repository.InstituteRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the application with the shipped cache configuration, so a cache
+ * URI that does not resolve fails here, and checks that a reference entity
+ * read twice is served from the second-level cache the second time.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:secondlevelcache;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SecondLevelCacheTest {
+    @Autowired
+    private InstituteRepository institutes;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManagerFactory emf;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM institutes");
+        jdbc.update("INSERT INTO institutes (id, name, type) VALUES (1, 'Corner Shop', 'SHOP')");
+        SessionFactory sessionFactory = emf.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        statistics = sessionFactory.getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void testContextLoadsWithCacheRegions() {
+        List<String> regions = List.of(statistics.getSecondLevelCacheRegionNames());
+        assertTrue(regions.contains("institutes"), regions.toString());
+        assertTrue(regions.contains("users"), regions.toString());
+    }
+
+    @Test
+    void testSecondFindByIdIsCacheHit() {
+        Institute first = institutes.findById(1L).orElseThrow();
+        assertEquals(0, statistics.getSecondLevelCacheHitCount());
+        assertEquals(1, statistics.getSecondLevelCachePutCount());
+        long statements = statistics.getPrepareStatementCount();
+
+        Institute second = institutes.findById(1L).orElseThrow();
+        assertEquals(first.getName(), second.getName());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+        assertEquals(statements, statistics.getPrepareStatementCount(), "Second read went to the database.");
+    }
+}
@@ -0,0 +1,68 @@
+package com.bankingapp;
+
+import com.bankingapp.security.SessionClaims;
+import com.bankingapp.security.SessionTokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTokenServiceTest {
+    private SessionTokenService tokens;
+
+    @BeforeEach
+    void setUp() {
+        tokens = new SessionTokenService("test-secret-test-secret-test-secret", 900);
+    }
+
+    @Test
+    void testIssueAndVerify() {
+        String token = tokens.issue(7L, List.of(1L, 2L));
+        SessionClaims claims = tokens.verify("Bearer " + token);
+
+        assertNotNull(claims);
+        assertEquals(7L, claims.userId());
+        assertTrue(claims.ownsAccount(1L));
+        assertTrue(claims.ownsAccount(2L));
+        assertFalse(claims.ownsAccount(3L));
+    }
+
+    @Test
+    void testNoAccounts() {
+        SessionClaims claims = tokens.verify(tokens.issue(7L, List.of()));
+        assertNotNull(claims);
+        assertTrue(claims.accountIds().isEmpty());
+    }
+
+    @Test
+    void testTamperedToken() {
+        String token = tokens.issue(7L, List.of(1L));
+        String forged = tokens.issue(8L, List.of(1L, 99L));
+        String spliced = forged.substring(0, forged.indexOf('.')) + token.substring(token.indexOf('.'));
+
+        assertNull(tokens.verify(spliced));
+        assertNull(tokens.verify("garbage"));
+        assertNull(tokens.verify(null));
+    }
+
+    @Test
+    void testOtherSecret() {
+        SessionTokenService other = new SessionTokenService("another-secret-another-secret", 900);
+        assertNull(other.verify(tokens.issue(7L, List.of(1L))));
+    }
+
+    @Test
+    void testRevoke() {
+        String token = tokens.issue(7L, List.of(1L));
+        tokens.revoke(tokens.verify(token));
+        assertNull(tokens.verify(token));
+    }
+
+    @Test
+    void testExpired() {
+        SessionTokenService shortLived = new SessionTokenService("test-secret-test-secret-test-secret", 0);
+        assertNull(shortLived.verify(shortLived.issue(7L, List.of(1L))));
+    }
+}
@@ -0,0 +1,133 @@
+package com.bankingapp;
+
+import com.bankingapp.cache.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final SingleFlight flight = new SingleFlight("test", TimeUnit.MILLISECONDS.toNanos(100), registry, clock::get);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private Future<String> submit(Object key, SingleFlight.Load<String> load) {
+        return executor.submit(() -> {
+            try {
+                return flight.execute(key, load);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new ExecutionException(t);
+            }
+        });
+    }
+
+    private double calls(String role) {
+        return registry.get("coalescing.calls").tag("role", role).counter().count();
+    }
+
+    private static void awaitLeader(SingleFlight flight) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (flight.inflight() == 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the load");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void testConcurrentCallsShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> leader = submit(1L, () -> {
+            loads.incrementAndGet();
+            release.await();
+            return "account-1";
+        });
+        awaitLeader(flight);
+
+        List<Future<String>> joiners = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            joiners.add(submit(1L, () -> {
+                loads.incrementAndGet();
+                return "other";
+            }));
+        }
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (calls("joined") < 20) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for joiners");
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        assertEquals("account-1", leader.get(5, TimeUnit.SECONDS));
+        for (Future<String> joiner : joiners) {
+            assertEquals("account-1", joiner.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1.0, calls("leader"));
+        assertEquals(0, flight.inflight());
+    }
+
+    @Test
+    void testDifferentKeysNotCoalesced() throws Throwable {
+        assertEquals("a", flight.execute(1L, () -> "a"));
+        assertEquals("b", flight.execute(2L, () -> "b"));
+        assertEquals(2.0, calls("leader"));
+        assertEquals(0.0, calls("joined"));
+    }
+
+    @Test
+    void testLoadTooOldToJoinStartsFreshOne() throws Throwable {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> old = submit(1L, () -> {
+            release.await();
+            return "old";
+        });
+        awaitLeader(flight);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(150));
+        assertEquals("fresh", flight.execute(1L, () -> "fresh"));
+        release.countDown();
+
+        assertEquals("old", old.get(5, TimeUnit.SECONDS));
+        assertEquals(2.0, calls("leader"));
+    }
+
+    @Test
+    void testFailureSharedAndNotRemembered() throws Throwable {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = submit(1L, () -> {
+            release.await();
+            throw new IllegalStateException("Database down");
+        });
+        awaitLeader(flight);
+        Future<String> joiner = submit(1L, () -> "unused");
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (calls("joined") < 1) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for the joiner");
+            Thread.sleep(1);
+        }
+        release.countDown();
+
+        ExecutionException failed = assertThrows(ExecutionException.class, () -> joiner.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failed.getCause());
+        assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+
+        assertEquals("recovered", flight.execute(1L, () -> "recovered"));
+    }
+}
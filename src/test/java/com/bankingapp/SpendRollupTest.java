@@ -0,0 +1,172 @@
+package com.bankingapp;
+
+import com.bankingapp.dto.SpendSummary;
+import com.bankingapp.model.Institute;
+import com.bankingapp.model.InstituteType;
+import com.bankingapp.service.SpendRollupService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Spend read from the rollups must equal a sum over the raw payments, for
+ * ranges that start and end inside hours and days, and the verification job
+ * must find nothing to correct. Payments are rolled up in several batches and
+ * only once.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:spendrollup;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "bankingapp.rollups.batch-size=5",
+        "bankingapp.rollups.interval-ms=3600000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class SpendRollupTest {
+    private record Payment(LocalDateTime timestamp, long instituteId, String currency, BigDecimal amount) {}
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 10, 0, 0);
+    private static final Map<Long, InstituteType> TYPES = Map.of(
+            1L, InstituteType.SHOP, 2L, InstituteType.SHOP, 3L, InstituteType.RESTAURANT);
+
+    @Autowired
+    private SpendRollupService rollups;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManager em;
+
+    private final List<Payment> payments = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM spend_rollups");
+        jdbc.update("DELETE FROM journal_lines");
+        jdbc.update("DELETE FROM transactions");
+        jdbc.update("DELETE FROM cards");
+        jdbc.update("DELETE FROM accounts");
+        jdbc.update("DELETE FROM users");
+        jdbc.update("DELETE FROM institutes");
+
+        jdbc.update("INSERT INTO users (id, name, surname, date_of_birth, email, phone, password) " +
+                "VALUES (1, 'John', 'Doe', DATE '1990-01-01', 'john@example.com', '1234567890', 'Password123!')");
+        jdbc.update("INSERT INTO accounts (id, name, account_number, currency, balance, owner_id) " +
+                "VALUES (1, 'Main', 'ACC-1', 'USD', 100000, 1)");
+        TYPES.forEach((id, type) -> jdbc.update("INSERT INTO institutes (id, name, type) VALUES (?, ?, ?)",
+                id, "Merchant " + id, type.name()));
+
+        // Edges of hours and days on both sides, in two currencies and three institutes
+        pay(DAY.minusDays(1).withHour(23).withMinute(59).withSecond(59), 1, "USD", "5.00");
+        pay(DAY, 1, "USD", "10.00");
+        pay(DAY.withMinute(30), 1, "EUR", "7.25");
+        pay(DAY.withMinute(30), 2, "USD", "3.00");
+        pay(DAY.withHour(1), 1, "USD", "20.00");
+        pay(DAY.withHour(5).withMinute(59).withSecond(59), 3, "USD", "99.99");
+        pay(DAY.withHour(5).withMinute(59).withSecond(59), 1, "USD", "1.50");
+        pay(DAY.withHour(23).withMinute(15), 1, "USD", "40.00");
+        pay(DAY.plusDays(1), 1, "USD", "2.00");
+        pay(DAY.plusDays(1).withHour(12).withMinute(30), 2, "EUR", "8.00");
+        pay(DAY.plusDays(1).withHour(12).withMinute(45), 1, "USD", "60.00");
+        pay(DAY.plusDays(2).withMinute(10), 1, "USD", "4.00");
+
+        // not a card payment, claimed without being counted
+        jdbc.update("INSERT INTO transactions (id, timestamp, amount, type, state, sender_id, currency, rolled_up) " +
+                "VALUES ('deposit', ?, 1000, 'DEPOSIT', 'SUCCESS', 1, 'USD', FALSE)", Timestamp.valueOf(DAY));
+
+        assertEquals(payments.size(), rollups.rollUp());
+    }
+
+    private void pay(LocalDateTime timestamp, long instituteId, String currency, String amount) {
+        Payment payment = new Payment(timestamp, instituteId, currency, new BigDecimal(amount));
+        payments.add(payment);
+        jdbc.update("INSERT INTO transactions (id, timestamp, amount, type, state, sender_id, institute_id, currency, rolled_up) " +
+                "VALUES (?, ?, ?, 'CARD_PAYMENT', 'SUCCESS', 1, ?, ?, FALSE)",
+                "tx-" + payments.size(), Timestamp.valueOf(timestamp), payment.amount(), instituteId, currency);
+    }
+
+    private Map<String, SpendSummary> raw(LocalDateTime from, LocalDateTime to, long instituteId, InstituteType type) {
+        Map<String, SpendSummary> result = new TreeMap<>();
+        for (Payment payment : payments) {
+            boolean matches = instituteId > 0 ? payment.instituteId() == instituteId : TYPES.get(payment.instituteId()) == type;
+            if (matches && !payment.timestamp().isBefore(from) && payment.timestamp().isBefore(to)) {
+                result.merge(payment.currency(), new SpendSummary(Currency.getInstance(payment.currency()), 1,
+                        payment.amount(), payment.amount()), SpendSummary::merge);
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, SpendSummary> byCurrency(Collection<SpendSummary> summaries) {
+        Map<String, SpendSummary> result = new TreeMap<>();
+        summaries.forEach(summary -> result.put(summary.currency().getCurrencyCode(), summary));
+        return result;
+    }
+
+    private static void assertSameSpend(Map<String, SpendSummary> expected, Map<String, SpendSummary> actual, String range) {
+        assertEquals(expected.keySet(), actual.keySet(), range);
+        expected.forEach((currency, summary) -> {
+            SpendSummary other = actual.get(currency);
+            assertEquals(summary.count(), other.count(), range);
+            assertEquals(0, summary.sum().compareTo(other.sum()), range);
+            assertEquals(0, summary.max().compareTo(other.max()), range);
+        });
+    }
+
+    @Test
+    void testSpendMatchesRawSum() {
+        List<LocalDateTime[]> ranges = List.of(
+                new LocalDateTime[] {DAY.minusMinutes(30), DAY.plusDays(2).withMinute(20)},
+                new LocalDateTime[] {DAY.withMinute(15), DAY.withHour(5).withMinute(59).withSecond(59)},
+                new LocalDateTime[] {DAY.withMinute(15), DAY.withHour(6)},
+                new LocalDateTime[] {DAY.withMinute(30), DAY.plusDays(1)},
+                new LocalDateTime[] {DAY.withMinute(10), DAY.withMinute(40)},
+                new LocalDateTime[] {DAY.withHour(1), DAY.withHour(1)},
+                new LocalDateTime[] {DAY.withHour(1).withMinute(1), DAY.plusDays(1).withHour(12).withMinute(40)},
+                new LocalDateTime[] {DAY.minusDays(1), DAY.plusDays(3)});
+
+        for (LocalDateTime[] range : ranges) {
+            String label = range[0] + " - " + range[1];
+            Institute institute = em.find(Institute.class, 1L);
+            assertSameSpend(raw(range[0], range[1], 1, null),
+                    byCurrency(rollups.getSpend(institute, range[0], range[1])), label);
+            assertSameSpend(raw(range[0], range[1], 0, InstituteType.SHOP),
+                    byCurrency(rollups.getSpend(InstituteType.SHOP, range[0], range[1])), label);
+        }
+    }
+
+    @Test
+    void testVerifyFindsNoMismatch() {
+        assertEquals(List.of(), rollups.verify(DAY.minusDays(1), DAY.plusDays(3)));
+    }
+
+    @Test
+    void testRolledUpOnce() {
+        assertEquals(0, rollups.rollUp());
+        assertEquals(0, jdbc.queryForObject("SELECT COUNT(*) FROM transactions WHERE rolled_up = FALSE", Integer.class));
+
+        pay(DAY.withHour(2), 1, "USD", "6.00");
+        assertEquals(1, rollups.rollUp());
+        assertEquals(List.of(), rollups.verify(DAY.minusDays(1), DAY.plusDays(3)));
+    }
+
+    @Test
+    void testVerifyFindsMissingBucket() {
+        jdbc.update("DELETE FROM spend_rollups WHERE granularity = 'HOUR' AND bucket_start = ?", Timestamp.valueOf(DAY));
+
+        assertFalse(rollups.verify(DAY.minusDays(1), DAY.plusDays(3)).isEmpty());
+    }
+}
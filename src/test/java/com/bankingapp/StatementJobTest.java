@@ -0,0 +1,188 @@
+package com.bankingapp;
+
+import com.bankingapp.batch.StatementJob;
+import com.bankingapp.ledger.Journal;
+import com.bankingapp.model.TransactionType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementJobTest {
+    private static final YearMonth MARCH = YearMonth.of(2025, 3);
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private JdbcTemplate jdbc;
+    private Journal journal;
+    private StatementJob job;
+    private int ids;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:statements;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+        journal = new Journal(jdbc);
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+        jdbc.update("INSERT INTO users (id, name, surname, date_of_birth, email, phone) " +
+                "VALUES (1, 'John', 'Doe', DATE '1990-01-01', 'john@example.com', '5555555555')");
+        // The stored balances are written behind and never read by the job
+        for (long id = 1; id <= 5; id++) {
+            jdbc.update("INSERT INTO accounts (id, name, account_number, currency, balance, owner_id) " +
+                    "VALUES (?, 'Main', ?, 'USD', 0, 1)", id, "ACC-" + id);
+        }
+
+        LocalDateTime march = MARCH.atDay(10).atTime(9, 0);
+        insert(march.minusMonths(1), "DEPOSIT", "SUCCESS", 1, null, "999.00");
+        insert(march, "DEPOSIT", "SUCCESS", 1, null, "200.00");
+        insert(march.plusHours(1), "TRANSFER", "SUCCESS", 1, 2L, "50.00");
+        insert(march.plusHours(2), "TRANSFER", "SUCCESS", 3, 1L, "30.00");
+        insert(march.plusHours(3), "TRANSFER", "FAILED", 1, 2L, "500.00");
+        insert(march.plusHours(4), "TRANSFER", "SUCCESS", 4, 4L, "25.00");
+        insert(MARCH.plusMonths(1).atDay(1).atStartOfDay(), "TRANSFER", "SUCCESS", 1, 2L, "100.00");
+
+        // Current balances, after everything above; the opening entries carry what the lines do not explain
+        long[][] balances = {{1, 1000}, {2, 500}, {3, 300}, {4, 250}, {5, 75}};
+        for (long[] account : balances) {
+            BigDecimal lines = jdbc.queryForObject("SELECT COALESCE(SUM(amount), 0) FROM journal_lines " +
+                    "WHERE book = 'ACCOUNT' AND book_id = ?", BigDecimal.class, account[0]);
+            jdbc.update("INSERT INTO journal_lines (transaction_id, posted_at, book, book_id, amount, currency) " +
+                    "VALUES ('opening-balance', ?, 'ACCOUNT', ?, ?, 'USD')",
+                    Timestamp.valueOf(LocalDateTime.now()), account[0], BigDecimal.valueOf(account[1]).subtract(lines));
+        }
+
+        // Two accounts per range: [0, 1], [2, 3], [4, 5]
+        job = new StatementJob(jdbc, new DataSourceTransactionManager(dataSource), 2, 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.shutdown();
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    private void insert(LocalDateTime timestamp, String type, String state, long sender, Long receiver, String amount) {
+        String id = "tx-" + ++ids;
+        jdbc.update("INSERT INTO transactions (id, timestamp, amount, type, state, sender_id, receiver_id, currency) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, 'USD')",
+                id, Timestamp.valueOf(timestamp), new BigDecimal(amount), type, state, sender, receiver);
+        if (state.equals("SUCCESS")) {
+            journal.append(Journal.lines(id, TransactionType.valueOf(type), sender, receiver, null,
+                    new BigDecimal(amount), "USD"), timestamp);
+        }
+    }
+
+    private Map<Long, JsonNode> statements() throws IOException {
+        Map<Long, JsonNode> statements = new HashMap<>();
+        try (var files = Files.list(dir.resolve(MARCH.toString()))) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".jsonl.gz")).toList()) {
+                try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                        new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = in.readLine()) != null) {
+                        JsonNode statement = mapper.readTree(line);
+                        statements.put(statement.get("accountId").asLong(), statement);
+                    }
+                }
+            }
+        }
+        return statements;
+    }
+
+    private static void assertTotals(JsonNode statement, String opening, String credits, String debits, String closing) {
+        assertEquals(0, new BigDecimal(opening).compareTo(statement.get("openingBalance").decimalValue()), statement::toString);
+        assertEquals(0, new BigDecimal(credits).compareTo(statement.get("credits").decimalValue()), statement::toString);
+        assertEquals(0, new BigDecimal(debits).compareTo(statement.get("debits").decimalValue()), statement::toString);
+        assertEquals(0, new BigDecimal(closing).compareTo(statement.get("closingBalance").decimalValue()), statement::toString);
+    }
+
+    @Test
+    void testOpeningAndClosingBalances() throws IOException {
+        assertEquals(new StatementJob.StatementResult(3, 0, 5, 9), job.generate(MARCH, dir));
+
+        Map<Long, JsonNode> statements = statements();
+        assertEquals(5, statements.size());
+        // 100 paid out in April; the failed transfer is listed but not counted
+        assertTotals(statements.get(1L), "920", "230", "50", "1100");
+        assertEquals(4, statements.get(1L).get("transactions").size());
+        assertTotals(statements.get(2L), "350", "50", "0", "400");
+        assertTotals(statements.get(3L), "330", "0", "30", "300");
+    }
+
+    @Test
+    void testSelfTransferAndIdleAccount() throws IOException {
+        job.generate(MARCH, dir);
+        Map<Long, JsonNode> statements = statements();
+
+        // Listed as both a debit and a credit, which cancel out
+        JsonNode self = statements.get(4L);
+        assertTotals(self, "250", "25", "25", "250");
+        assertEquals(Set.of(-25, 25), Set.of(
+                self.get("transactions").get(0).get("amount").decimalValue().intValueExact(),
+                self.get("transactions").get(1).get("amount").decimalValue().intValueExact()));
+
+        JsonNode idle = statements.get(5L);
+        assertTotals(idle, "75", "0", "0", "75");
+        assertTrue(idle.get("transactions").isEmpty());
+    }
+
+    @Test
+    void testResumesAfterCrash() throws IOException {
+        // A run that completed [0, 1] and died while writing [2, 3]
+        Path out = Files.createDirectories(dir.resolve(MARCH.toString()));
+        Files.writeString(out.resolve("completed-ranges"), "range-size=2\n0\n", StandardCharsets.US_ASCII);
+        Files.writeString(out.resolve("statements-2-3.jsonl.gz.tmp"), "partial");
+
+        assertEquals(new StatementJob.StatementResult(2, 1, 4, 5), job.generate(MARCH, dir));
+        assertFalse(Files.exists(out.resolve("statements-0-1.jsonl.gz")));
+        assertFalse(Files.exists(out.resolve("statements-2-3.jsonl.gz.tmp")));
+        assertEquals(Set.of(2L, 3L, 4L, 5L), statements().keySet());
+        List<String> checkpoint = Files.readAllLines(out.resolve("completed-ranges"));
+        assertEquals("range-size=2", checkpoint.get(0));
+        assertEquals(List.of("0", "2", "4"), checkpoint.subList(1, checkpoint.size()).stream().sorted().toList());
+
+        assertEquals(new StatementJob.StatementResult(0, 3, 0, 0), job.generate(MARCH, dir));
+    }
+
+    @Test
+    void testRefusesCheckpointOfOtherRangeSize() throws IOException {
+        // Written by a run with five accounts per range: start 0 covered [0, 4]
+        Path out = Files.createDirectories(dir.resolve(MARCH.toString()));
+        Files.writeString(out.resolve("completed-ranges"), "range-size=5\n0\n", StandardCharsets.US_ASCII);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> job.generate(MARCH, dir));
+        assertTrue(e.getMessage().contains("range size 5"), e.getMessage());
+        assertEquals(List.of("range-size=5", "0"), Files.readAllLines(out.resolve("completed-ranges")));
+        try (var files = Files.list(out)) {
+            assertEquals(1, files.count());
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.bankingapp;
+
+import com.bankingapp.archive.ArchivedTransaction;
+import com.bankingapp.archive.SegmentStore;
+import com.bankingapp.archive.TransactionPartitionRouter;
+import com.bankingapp.model.TransactionState;
+import com.bankingapp.model.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionArchiveTest {
+    private static final Currency EUR = Currency.getInstance("EUR");
+
+    @TempDir
+    Path directory;
+
+    private SegmentStore store;
+    private TransactionPartitionRouter router;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new SegmentStore(directory);
+        router = new TransactionPartitionRouter(store);
+    }
+
+    private static ArchivedTransaction tx(String id, LocalDateTime timestamp, String amount, Long receiver, String note) {
+        return new ArchivedTransaction(id, timestamp, new BigDecimal(amount), TransactionType.TRANSFER,
+                TransactionState.SUCCESS, EUR, 1L, receiver, null, null, note);
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        List<ArchivedTransaction> written = List.of(
+                tx("a", LocalDateTime.of(2024, 1, 3, 10, 0, 0, 123_000_000), "10.50", 2L, "rent"),
+                tx("b", LocalDateTime.of(2024, 1, 9, 8, 30), "-0.01", null, null),
+                tx("c", LocalDateTime.of(2024, 1, 31, 23, 59, 59), "123456789012.3456", 3L, "ünïcode"));
+
+        assertEquals(3, store.write(YearMonth.of(2024, 1), writer -> {
+            for (ArchivedTransaction t : written) writer.write(t);
+        }));
+
+        List<ArchivedTransaction> read = new ArrayList<>();
+        store.read(YearMonth.of(2024, 1), read::add);
+        assertEquals(written, read);
+    }
+
+    @Test
+    void testSegmentIsImmutable() throws IOException {
+        store.write(YearMonth.of(2024, 1), writer -> writer.write(tx("a", LocalDateTime.of(2024, 1, 1, 0, 0), "1", null, null)));
+
+        assertThrows(IllegalStateException.class, () -> store.write(YearMonth.of(2024, 1), writer -> {}));
+        // Files.isWritable is always true for root, so check the permission bits themselves
+        Path segment = directory.resolve("transactions-2024-01.seg.gz");
+        if (Files.getFileStore(segment).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            Set<PosixFilePermission> permissions = Files.getPosixFilePermissions(segment);
+            assertFalse(permissions.contains(PosixFilePermission.OWNER_WRITE), permissions::toString);
+            assertFalse(permissions.contains(PosixFilePermission.GROUP_WRITE), permissions::toString);
+            assertFalse(permissions.contains(PosixFilePermission.OTHERS_WRITE), permissions::toString);
+        } else {
+            assertTrue((Boolean) Files.getAttribute(segment, "dos:readonly"));
+        }
+    }
+
+    @Test
+    void testMonthsRediscoveredOnStart() throws IOException {
+        store.write(YearMonth.of(2024, 2), writer -> {});
+        store.write(YearMonth.of(2024, 1), writer -> {});
+
+        SegmentStore reopened = new SegmentStore(directory);
+        assertEquals(List.of(YearMonth.of(2024, 1), YearMonth.of(2024, 2)), List.copyOf(reopened.months()));
+    }
+
+    @Test
+    void testRouteWithoutArchive() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+        TransactionPartitionRouter.Route route = router.route(from, to);
+        assertTrue(route.archived().isEmpty());
+        assertEquals(from, route.liveFrom());
+        assertEquals(to, route.liveTo());
+    }
+
+    @Test
+    void testRouteSpanningArchiveAndTable() throws IOException {
+        for (int month = 1; month <= 6; month++) {
+            store.write(YearMonth.of(2024, month), writer -> {});
+        }
+
+        TransactionPartitionRouter.Route route = router.route(
+                LocalDateTime.of(2024, 5, 15, 0, 0), LocalDateTime.of(2024, 8, 1, 0, 0));
+        assertEquals(List.of(YearMonth.of(2024, 5), YearMonth.of(2024, 6)), route.archived());
+        assertEquals(LocalDateTime.of(2024, 7, 1, 0, 0), route.liveFrom());
+    }
+
+    @Test
+    void testRouteEntirelyArchived() throws IOException {
+        for (int month = 1; month <= 6; month++) {
+            store.write(YearMonth.of(2024, month), writer -> {});
+        }
+
+        TransactionPartitionRouter.Route route = router.route(
+                LocalDateTime.of(2024, 2, 10, 0, 0), LocalDateTime.of(2024, 3, 1, 0, 0));
+        assertEquals(List.of(YearMonth.of(2024, 2)), route.archived());
+        assertFalse(route.includesLive());
+    }
+}
@@ -0,0 +1,153 @@
+package com.bankingapp;
+
+import com.bankingapp.admission.AdmissionController;
+import com.bankingapp.archive.SegmentStore;
+import com.bankingapp.archive.TransactionArchiver;
+import com.bankingapp.archive.TransactionPartitionRouter;
+import com.bankingapp.dto.TransactionRow;
+import com.bankingapp.events.Outbox;
+import com.bankingapp.fraud.FraudScoringStage;
+import com.bankingapp.ledger.BalanceCache;
+import com.bankingapp.ledger.Journal;
+import com.bankingapp.repository.TransactionRepository;
+import com.bankingapp.service.AccountConcurrency;
+import com.bankingapp.service.TransactionService;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TransactionArchiverTest {
+    // Archived with four months retained; the current month stays live
+    private static final YearMonth OLDER = YearMonth.now().minusMonths(5);
+    private static final YearMonth OLD = YearMonth.now().minusMonths(4);
+
+    @TempDir
+    Path directory;
+
+    private JdbcDataSource dataSource;
+    private JdbcTemplate jdbc;
+    private SegmentStore store;
+    private int ids;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:archiver;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbc = new JdbcTemplate(dataSource);
+        store = new SegmentStore(directory);
+
+        jdbc.update("INSERT INTO users (id, name, surname, date_of_birth, email, phone) " +
+                "VALUES (1, 'John', 'Doe', DATE '1990-01-01', 'john@example.com', '0')");
+        jdbc.update("INSERT INTO accounts (id, name, account_number, currency, balance, owner_id) VALUES " +
+                "(1, 'Main', 'ACC-1', 'EUR', 0, 1), (2, 'Savings', 'ACC-2', 'EUR', 0, 1)");
+
+        insert(OLDER.atDay(3).atTime(10, 0), "10.00");
+        insert(OLDER.atDay(9).atTime(8, 30), "20.00");
+        insert(OLDER.atEndOfMonth().atTime(23, 59, 59), "30.00");
+        insert(OLD.atDay(1).atStartOfDay(), "40.00");
+        insert(OLD.atDay(15).atTime(12, 0), "50.00");
+        insert(LocalDateTime.now(), "60.00");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    private void insert(LocalDateTime timestamp, String amount) {
+        jdbc.update("INSERT INTO transactions (id, timestamp, amount, type, state, sender_id, receiver_id, currency) " +
+                "VALUES (?, ?, ?, 'TRANSFER', 'SUCCESS', 1, 2, 'EUR')",
+                "tx-" + ++ids, Timestamp.valueOf(timestamp), new BigDecimal(amount));
+    }
+
+    private List<String> archived(SegmentStore store, YearMonth month) {
+        List<String> ids = new ArrayList<>();
+        store.read(month, tx -> ids.add(tx.id()));
+        return ids;
+    }
+
+    private List<String> live() {
+        return jdbc.queryForList("SELECT id FROM transactions ORDER BY timestamp", String.class);
+    }
+
+    @Test
+    void testMonthsBeforeRetentionArchivedAndDeleted() throws IOException {
+        TransactionArchiver archiver = new TransactionArchiver(jdbc, store, 4, 2, 100);
+
+        assertEquals(5, archiver.archive());
+        assertEquals(List.of(OLDER, OLD), List.copyOf(store.months()));
+        assertEquals(List.of("tx-1", "tx-2", "tx-3"), archived(store, OLDER));
+        assertEquals(List.of("tx-4", "tx-5"), archived(store, OLD));
+        assertEquals(List.of("tx-6"), live());
+
+        assertEquals(0, archiver.archive());
+    }
+
+    @Test
+    void testResumesAfterCrashMidDelete() throws IOException {
+        // Dies after the first delete batch of the first month, with its segment published
+        JdbcTemplate crashing = new JdbcTemplate(dataSource) {
+            private int deletes;
+
+            @Override
+            public int update(String sql, Object... args) {
+                if (sql.startsWith("DELETE") && ++deletes > 1) {
+                    throw new IllegalStateException("crash");
+                }
+                return super.update(sql, args);
+            }
+        };
+        assertThrows(IllegalStateException.class, () -> new TransactionArchiver(crashing, store, 4, 1, 100).archive());
+        assertEquals(List.of(OLDER), List.copyOf(store.months()));
+        assertEquals(List.of("tx-2", "tx-3", "tx-4", "tx-5", "tx-6"), live());
+
+        SegmentStore restarted = new SegmentStore(directory);
+        assertEquals(2, new TransactionArchiver(jdbc, restarted, 4, 1, 100).archive());
+        assertEquals(List.of("tx-1", "tx-2", "tx-3"), archived(restarted, OLDER));
+        assertEquals(List.of("tx-4", "tx-5"), archived(restarted, OLD));
+        assertEquals(List.of("tx-6"), live());
+    }
+
+    @Test
+    void testHistoryOpensOnlyRoutedMonths() throws IOException {
+        new TransactionArchiver(jdbc, store, 4, 100, 100).archive();
+        SegmentStore segments = spy(store);
+        TransactionRepository repo = mock(TransactionRepository.class);
+        when(repo.findRowPageByAccountId(anyLong(), any(), any(), anyInt())).thenReturn(List.of());
+        TransactionService service = new TransactionService(repo,
+                new TransactionPartitionRouter(segments), segments, mock(Outbox.class),
+                mock(AccountConcurrency.class), mock(Journal.class), mock(BalanceCache.class),
+                mock(AdmissionController.class), mock(FraudScoringStage.class), 500);
+
+        List<TransactionRow> rows = new ArrayList<>();
+        service.streamByAccount(2L, rows::add);
+        assertTrue(rows.isEmpty());
+        verify(segments, never()).read(any(), any());
+
+        service.streamByAccount(2L, OLD.atDay(10), OLD.atEndOfMonth(), rows::add);
+        assertEquals(List.of("tx-5"), rows.stream().map(TransactionRow::id).toList());
+        verify(segments).read(eq(OLD), any());
+        verify(segments, never()).read(eq(OLDER), any());
+    }
+}
@@ -0,0 +1,85 @@
+package com.bankingapp;
+
+import com.bankingapp.analytics.AggregateRow;
+import com.bankingapp.analytics.AnalyticsQuery;
+import com.bankingapp.analytics.TransactionColumnLoader;
+import com.bankingapp.analytics.TransactionColumnStore;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionColumnLoaderTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2025, 3, 10, 12, 0);
+
+    private JdbcTemplate jdbc;
+    private TransactionColumnStore store;
+    private TransactionColumnLoader loader;
+    private int ids;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:columnloader;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+        jdbc.update("INSERT INTO users (id, name, surname, date_of_birth, email, phone) " +
+                "VALUES (1, 'John', 'Doe', DATE '1990-01-01', 'john@example.com', '5555555555')");
+        jdbc.update("INSERT INTO accounts (id, name, account_number, currency, balance, owner_id) " +
+                "VALUES (1, 'Main', 'ACC-1', 'USD', 0, 1)");
+
+        store = new TransactionColumnStore();
+        loader = new TransactionColumnLoader(jdbc, store, 100, 120);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    private void insert(LocalDateTime timestamp, String amount) {
+        jdbc.update("INSERT INTO transactions (id, timestamp, amount, type, state, sender_id, currency) " +
+                "VALUES (?, ?, ?, 'DEPOSIT', 'SUCCESS', 1, 'USD')",
+                "tx-" + ++ids, Timestamp.valueOf(timestamp), new BigDecimal(amount));
+    }
+
+    private long total() {
+        List<AggregateRow> rows = store.scan(AnalyticsQuery.between(NOW.minusDays(1), NOW.plusDays(1)));
+        return rows.isEmpty() ? 0 : rows.get(0).amount();
+    }
+
+    @Test
+    void testRowsLoadedOnce() {
+        insert(NOW, "1.00");
+        insert(NOW, "2.00");
+        insert(NOW.plusSeconds(1), "4.00");
+
+        assertEquals(3, loader.refresh());
+        assertEquals(0, loader.refresh());
+        insert(NOW.plusSeconds(1), "8.00");
+        assertEquals(1, loader.refresh());
+        assertEquals(1500, total());
+    }
+
+    @Test
+    void testLateCommitBehindWatermarkLoaded() {
+        insert(NOW, "1.00");
+        assertEquals(1, loader.refresh());
+
+        // Created before the loaded row, committed after the refresh
+        insert(NOW.minusSeconds(30), "2.00");
+        assertEquals(1, loader.refresh());
+        assertEquals(300, total());
+        assertEquals(0, loader.refresh());
+    }
+}
@@ -0,0 +1,113 @@
+package com.bankingapp;
+
+import com.bankingapp.analytics.AggregateRow;
+import com.bankingapp.analytics.AnalyticsQuery;
+import com.bankingapp.analytics.GroupBy;
+import com.bankingapp.analytics.TransactionColumnStore;
+import com.bankingapp.model.TransactionState;
+import com.bankingapp.model.TransactionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionColumnStoreTest {
+    private static final Currency EUR = Currency.getInstance("EUR");
+    private static final Currency USD = Currency.getInstance("USD");
+    private static final LocalDateTime DAY_ONE = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+    private TransactionColumnStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new TransactionColumnStore();
+        store.append(DAY_ONE.plusHours(1), 1000, TransactionType.CARD_PAYMENT, TransactionState.SUCCESS, EUR, 1L);
+        store.append(DAY_ONE.plusHours(2), 2500, TransactionType.CARD_PAYMENT, TransactionState.FAILED, EUR, 1L);
+        store.append(DAY_ONE.plusHours(3), 700, TransactionType.TRANSFER, TransactionState.SUCCESS, USD, 2L);
+        store.append(DAY_ONE.plusDays(1), 300, TransactionType.CARD_PAYMENT, TransactionState.SUCCESS, EUR, 2L);
+        store.commit();
+    }
+
+    @Test
+    void testUncommittedRowsInvisible() {
+        store.append(DAY_ONE.plusHours(4), 9999, TransactionType.FEE, TransactionState.SUCCESS, EUR, 1L);
+
+        List<AggregateRow> rows = store.scan(AnalyticsQuery.between(DAY_ONE, DAY_ONE.plusDays(2)));
+        assertEquals(1, rows.size());
+        assertEquals(4, rows.get(0).count());
+        assertEquals(4500, rows.get(0).amount());
+    }
+
+    @Test
+    void testGroupByDay() {
+        List<AggregateRow> rows = store.scan(AnalyticsQuery.between(DAY_ONE, DAY_ONE.plusDays(2), GroupBy.DAY));
+
+        assertEquals(2, rows.size());
+        assertEquals(LocalDate.of(2025, 3, 1), rows.get(0).day());
+        assertEquals(3, rows.get(0).count());
+        assertEquals(4200, rows.get(0).amount());
+        assertEquals(LocalDate.of(2025, 3, 2), rows.get(1).day());
+        assertEquals(300, rows.get(1).amount());
+        assertNull(rows.get(0).type());
+    }
+
+    @Test
+    void testGroupByTypeAndCurrency() {
+        List<AggregateRow> rows = store.scan(AnalyticsQuery.between(DAY_ONE, DAY_ONE.plusDays(2),
+                GroupBy.TYPE, GroupBy.CURRENCY));
+
+        assertEquals(2, rows.size());
+        AggregateRow transfers = rows.stream().filter(r -> r.type() == TransactionType.TRANSFER).findFirst().orElseThrow();
+        assertEquals(USD, transfers.currency());
+        assertEquals(700, transfers.amount());
+        AggregateRow payments = rows.stream().filter(r -> r.type() == TransactionType.CARD_PAYMENT).findFirst().orElseThrow();
+        assertEquals(EUR, payments.currency());
+        assertEquals(3, payments.count());
+    }
+
+    @Test
+    void testFilters() {
+        AnalyticsQuery query = new AnalyticsQuery(DAY_ONE, DAY_ONE.plusDays(1),
+                Set.of(TransactionType.CARD_PAYMENT), Set.of(TransactionState.SUCCESS), EUR, 1L, Set.of());
+
+        List<AggregateRow> rows = store.scan(query);
+        assertEquals(1, rows.size());
+        assertEquals(1, rows.get(0).count());
+        assertEquals(1000, rows.get(0).amount());
+    }
+
+    @Test
+    void testUnknownCurrencyIsEmpty() {
+        AnalyticsQuery query = new AnalyticsQuery(DAY_ONE, DAY_ONE.plusDays(2),
+                Set.of(), Set.of(), Currency.getInstance("JPY"), null, Set.of());
+
+        assertTrue(store.scan(query).isEmpty());
+    }
+
+    @Test
+    void testSpansSegments() {
+        TransactionColumnStore large = new TransactionColumnStore();
+        int rows = 200_000;
+        for (int i = 0; i < rows; i++) {
+            large.append(DAY_ONE.plusSeconds(i), 1, TransactionType.DEPOSIT, TransactionState.SUCCESS, EUR, i);
+        }
+        large.commit();
+
+        List<AggregateRow> result = large.scan(AnalyticsQuery.between(DAY_ONE, DAY_ONE.plusDays(3), GroupBy.DAY));
+        assertEquals(3, result.size());
+        assertEquals(rows, result.stream().mapToLong(AggregateRow::count).sum());
+        assertEquals(86_400, result.get(0).count());
+    }
+
+    @Test
+    void testTooManyGroups() {
+        assertThrows(IllegalArgumentException.class, () -> store.scan(AnalyticsQuery.between(
+                DAY_ONE.minusYears(500), DAY_ONE, GroupBy.DAY, GroupBy.TYPE, GroupBy.STATE, GroupBy.CURRENCY)));
+    }
+}
@@ -0,0 +1,82 @@
+package com.bankingapp;
+
+import com.bankingapp.dto.TransactionResponse;
+import com.bankingapp.dto.TransactionRow;
+import com.bankingapp.model.TransactionState;
+import com.bankingapp.model.TransactionType;
+import com.bankingapp.util.TransactionJsonWriter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The streamed array must be byte for byte what serializing the
+ * {@code List<TransactionResponse>} of the same rows produced.
+ */
+class TransactionJsonWriterTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LocalDateTime time = LocalDateTime.of(2025, 3, 9, 7, 5, 3);
+
+    private String streamed(List<TransactionRow> rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TransactionJsonWriter writer = new TransactionJsonWriter(mapper.getFactory(), out)) {
+            rows.forEach(writer::write);
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private String listed(List<TransactionRow> rows) throws JsonProcessingException {
+        return mapper.writeValueAsString(rows.stream()
+                .map(row -> new TransactionResponse(row.id(), row.timestamp(), row.state(), row.type(),
+                        row.currency(), row.amount(), row.note()))
+                .toList());
+    }
+
+    @Test
+    void testEmptyList() throws IOException {
+        assertEquals("[]", streamed(List.of()));
+        assertEquals(listed(List.of()), streamed(List.of()));
+    }
+
+    @Test
+    void testSameBytesAsListSerialization() throws IOException {
+        List<TransactionRow> rows = List.of(
+                new TransactionRow("tx-1", time, TransactionState.SUCCESS, TransactionType.TRANSFER,
+                        Currency.getInstance("EUR"), new BigDecimal("10.50"), "rent"),
+                // Card payment, paid to an institute
+                new TransactionRow("tx-2", time.minusDays(40), TransactionState.PENDING, TransactionType.CARD_PAYMENT,
+                        Currency.getInstance("USD"), new BigDecimal("100.00"), null),
+                new TransactionRow("tx-3", time.minusYears(1), TransactionState.FAILED, TransactionType.WITHDRAWAL,
+                        Currency.getInstance("JPY"), new BigDecimal("0.01"), "quote \" and \\ and é €"),
+                new TransactionRow("tx-4", time.withHour(23), TransactionState.REVERSED, TransactionType.FEE,
+                        Currency.getInstance("EUR"), new BigDecimal("2"), ""));
+
+        assertEquals(listed(rows), streamed(rows));
+    }
+
+    @Test
+    void testFailLeavesArrayOpen() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TransactionJsonWriter writer = new TransactionJsonWriter(mapper.getFactory(), out);
+        writer.write(new TransactionRow("tx-1", time, TransactionState.SUCCESS, TransactionType.TRANSFER,
+                Currency.getInstance("EUR"), BigDecimal.TEN, null));
+
+        writer.fail();
+        writer.close();
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.startsWith("[{\"id\":\"tx-1\""), body);
+        assertFalse(body.endsWith("]"), body);
+        assertThrows(JsonProcessingException.class, () -> mapper.readTree(body));
+    }
+}
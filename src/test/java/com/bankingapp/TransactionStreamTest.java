@@ -0,0 +1,119 @@
+package com.bankingapp;
+
+import com.bankingapp.repository.TransactionRepository;
+import com.bankingapp.security.SessionTokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/transactions/account/{id} reads the history in keyset pages (3
+ * rows here) and must still return exactly the document the list query
+ * serializes to, across page boundaries, timestamp ties and both sides of a
+ * transfer.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transactionstream;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "bankingapp.transactions.stream-page-size=3"
+})
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TransactionStreamTest {
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private TransactionRepository transactions;
+
+    @Autowired
+    private SessionTokenService tokens;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    private final LocalDateTime start = LocalDateTime.of(2025, 5, 1, 12, 0);
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM journal_lines");
+        jdbc.update("DELETE FROM transactions");
+        jdbc.update("DELETE FROM cards");
+        jdbc.update("DELETE FROM accounts");
+        jdbc.update("DELETE FROM users");
+
+        jdbc.update("INSERT INTO users (id, name, surname, date_of_birth, email, phone, password) " +
+                "VALUES (1, 'John', 'Doe', DATE '1990-01-01', 'john@example.com', '1234567890', 'Password123!')");
+        for (int i = 1; i <= 3; i++) {
+            jdbc.update("INSERT INTO accounts (id, name, account_number, currency, balance, owner_id) " +
+                    "VALUES (?, 'Main', ?, 'USD', 100, 1)", i, "ACC-" + i);
+        }
+    }
+
+    private void insert(String id, LocalDateTime timestamp, long sender, long receiver, String note) {
+        jdbc.update("INSERT INTO transactions (id, timestamp, amount, type, state, sender_id, receiver_id, currency, note) " +
+                "VALUES (?, ?, 12.50, 'TRANSFER', 'SUCCESS', ?, ?, 'USD', ?)",
+                id, Timestamp.valueOf(timestamp), sender, receiver, note);
+    }
+
+    private String stream(long accountId) throws Exception {
+        String token = "Bearer " + tokens.issue(1L, List.of(1L, 2L, 3L));
+        return mvc.perform(get("/api/transactions/account/" + accountId).header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void testEmptyHistory() throws Exception {
+        assertEquals("[]", stream(1));
+    }
+
+    @Test
+    void testPagedStreamMatchesList() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            insert("sent-" + i, start.minusHours(i), 1, 2, i % 2 == 0 ? null : "note " + i);
+            insert("received-" + i, start.minusHours(i).minusMinutes(30), 3, 1, null);
+        }
+        // Same timestamp across a page boundary, and a self transfer listed once
+        insert("tie-a", start.plusDays(1), 1, 2, "tie");
+        insert("tie-b", start.plusDays(1), 2, 1, "tie");
+        insert("tie-c", start.plusDays(1), 1, 3, "tie");
+        insert("self", start.minusDays(1), 1, 1, "self");
+
+        String expected = mapper.writeValueAsString(transactions.findResponsesByAccountId(1L));
+        String actual = stream(1);
+
+        assertEquals(expected, actual);
+        assertEquals(14, mapper.readTree(actual).size());
+    }
+
+    @Test
+    void testExactMultipleOfPageSize() throws Exception {
+        for (int i = 0; i < 6; i++) {
+            insert("tx-" + i, start.minusMinutes(i), 2, 3, null);
+        }
+
+        assertEquals(mapper.writeValueAsString(transactions.findResponsesByAccountId(2L)), stream(2));
+    }
+}
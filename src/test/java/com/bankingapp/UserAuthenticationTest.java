@@ -0,0 +1,115 @@
+package com.bankingapp;
+
+import com.bankingapp.cache.ReferenceCache;
+import com.bankingapp.controller.AuthController;
+import com.bankingapp.dto.LoginRequest;
+import com.bankingapp.dto.LoginResponse;
+import com.bankingapp.model.User;
+import com.bankingapp.repository.UserRepository;
+import com.bankingapp.security.SessionTokenService;
+import com.bankingapp.service.AccountService;
+import com.bankingapp.service.PasswordHashingService;
+import com.bankingapp.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * BCrypt must run with no transaction open: the user is read in a short
+ * read-only transaction, and only a rehash is written, in its own. A login
+ * turned away by the hashing queue is a 503 the client may retry.
+ */
+class UserAuthenticationTest {
+    private static final String EMAIL = "john@example.com";
+
+    private final UserRepository repo = mock(UserRepository.class);
+    private final PasswordHashingService passwords = mock(PasswordHashingService.class);
+    private final PlatformTransactionManager transactions = mock(PlatformTransactionManager.class);
+    private final UserService service = new UserService(repo, mock(ReferenceCache.class), passwords, transactions);
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User(1L, "John", "Doe", LocalDate.of(1990, 1, 1), EMAIL, "1234567890",
+                "Password123!".toCharArray());
+        user.setPasswordHash("$2a$10$stored");
+        when(repo.getByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(transactions.getTransaction(any())).thenAnswer(call -> new SimpleTransactionStatus());
+    }
+
+    @Test
+    void testVerifiesOutsideTransaction() {
+        when(passwords.verify(any(), eq("$2a$10$stored")))
+                .thenReturn(CompletableFuture.completedFuture(new PasswordHashingService.PasswordCheck(true, null)));
+
+        assertSame(user, service.authenticate(EMAIL, "Password123!".toCharArray()));
+
+        InOrder order = inOrder(transactions, repo, passwords);
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        order.verify(transactions).getTransaction(definition.capture());
+        order.verify(repo).getByEmail(EMAIL);
+        order.verify(transactions).commit(any());
+        order.verify(passwords).verify(any(), any());
+        assertTrue(definition.getValue().isReadOnly());
+        verify(transactions, times(1)).getTransaction(any());
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void testRehashWrittenInOwnTransaction() {
+        when(passwords.verify(any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new PasswordHashingService.PasswordCheck(true, "$2a$12$fresh")));
+
+        assertSame(user, service.authenticate(EMAIL, "Password123!".toCharArray()));
+
+        InOrder order = inOrder(transactions, repo, passwords);
+        order.verify(transactions).commit(any());
+        order.verify(passwords).verify(any(), any());
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        order.verify(transactions).getTransaction(definition.capture());
+        order.verify(repo).save(user);
+        order.verify(transactions).commit(any());
+        assertFalse(definition.getValue().isReadOnly());
+        assertEquals("$2a$12$fresh", user.getPasswordHash());
+    }
+
+    @Test
+    void testWrongPasswordWritesNothing() {
+        when(passwords.verify(any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new PasswordHashingService.PasswordCheck(false, null)));
+
+        assertNull(service.authenticate(EMAIL, "Wrong123!".toCharArray()));
+        verify(transactions, times(1)).getTransaction(any());
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void testFullHashingQueueAnsweredWithRetryAfter() {
+        when(passwords.verify(any(), any())).thenThrow(new RejectedExecutionException("queue full"));
+        AuthController controller = new AuthController(service, mock(AccountService.class),
+                mock(SessionTokenService.class), 3);
+
+        ResponseEntity<LoginResponse> response =
+                controller.login(new LoginRequest(EMAIL, "Password123!".toCharArray()));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
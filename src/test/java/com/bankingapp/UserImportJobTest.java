@@ -0,0 +1,116 @@
+package com.bankingapp;
+
+import com.bankingapp.batch.UserImportJob;
+import com.bankingapp.cache.ReferenceCache;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class UserImportJobTest {
+    @TempDir
+    Path dir;
+
+    private JdbcTemplate jdbc;
+    private UserImportJob job;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:userimport;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+        jdbc.update("INSERT INTO users (id, name, surname, date_of_birth, email, phone) " +
+                "VALUES (1, 'John', 'Doe', DATE '1990-01-01', 'john@example.com', '5555555555')");
+
+        // Chunks of 3 lines, so duplicates and line numbers cross chunk boundaries
+        job = new UserImportJob(jdbc, new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                mock(ReferenceCache.class), 4, 2, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        job.shutdown();
+        jdbc.execute("DROP ALL OBJECTS");
+    }
+
+    private UserImportJob.ImportResult run(String... lines) throws IOException {
+        Path csv = dir.resolve("users.csv");
+        Files.writeString(csv, "name,surname,date_of_birth,email,phone,password,security_questions\n" +
+                String.join("\n", lines) + "\n");
+        return job.importUsers(csv, dir.resolve("rejects.csv"));
+    }
+
+    private List<String> rejects() throws IOException {
+        return Files.readAllLines(dir.resolve("rejects.csv"));
+    }
+
+    @Test
+    void testValidRowsImportedWithHashedPasswords() throws IOException {
+        UserImportJob.ImportResult result = run(
+                "Ann,Lee,1990-01-01,ann@example.com,1111111111,Secret123!,pet=cat;city=Oslo",
+                "Gus,Hill,1985-05-05,gus@example.com,4444444444,Secret456!,");
+
+        assertEquals(new UserImportJob.ImportResult(2, 2, 0), result);
+        Map<String, Object> ann = jdbc.queryForMap("SELECT id, password FROM users WHERE email = 'ann@example.com'");
+        assertEquals(2L, ((Number) ann.get("ID")).longValue());
+        assertTrue(new BCryptPasswordEncoder().matches("Secret123!", (String) ann.get("PASSWORD")));
+        assertEquals(2, jdbc.queryForObject("SELECT COUNT(*) FROM user_security_questions WHERE user_id = 2",
+                Integer.class));
+        assertEquals(List.of("line,reason,name,surname,date_of_birth,email,phone"), rejects());
+    }
+
+    @Test
+    void testDuplicatesAndMalformedRowsRejected() throws IOException {
+        UserImportJob.ImportResult result = run(
+                "Ann,Lee,1990-01-01,ann@example.com,1111111111,Secret123!,pet=cat",
+                "John,Roe,1991-01-01,JOHN@example.com,6666666666,Secret123!,",
+                "Anna,Lee,1990-01-01,ann@example.com,7777777777,Secret123!,",
+                "Bob,Ray,1990-01-01,bob@example.com,111-111-1111,Secret123!,",
+                "Carl,Ray,1990-01-01",
+                "Dan,Moe,1990-01-01,dan@example.com,2222222222,weak,",
+                "Eve,Fox,1990-13-01,eve@example.com,3333333333,Secret789!,",
+                "Fay,Fox,1990-01-01,fay@example.com,8888888888,Secret789!,noanswer",
+                "Gus,Hill,1985-05-05,gus@example.com,4444444444,Secret456!,");
+
+        assertEquals(new UserImportJob.ImportResult(9, 2, 7), result);
+        assertEquals(List.of("ann@example.com", "gus@example.com"),
+                jdbc.queryForList("SELECT email FROM users WHERE id > 1 ORDER BY id", String.class));
+        assertEquals(List.of(
+                "line,reason,name,surname,date_of_birth,email,phone",
+                "3,Duplicate email,John,Roe,1991-01-01,JOHN@example.com,6666666666",
+                "4,Duplicate email,Anna,Lee,1990-01-01,ann@example.com,7777777777",
+                "5,Duplicate phone number,Bob,Ray,1990-01-01,bob@example.com,111-111-1111",
+                "6,Missing columns,Carl,Ray,1990-01-01",
+                "7,Weak password,Dan,Moe,1990-01-01,dan@example.com,2222222222",
+                "8,Invalid date of birth,Eve,Fox,1990-13-01,eve@example.com,3333333333",
+                "9,Invalid security question,Fay,Fox,1990-01-01,fay@example.com,8888888888"), rejects());
+    }
+
+    @Test
+    void testRejectsNeverContainSecrets() throws IOException {
+        run("Ann,Lee,1990-01-01,ann@example.com,1111111111,Secret123!,pet=cat",
+            "Ann,Lee,1990-01-01,ann@example.com,1111111111,Other123!,pet=dog",
+            "Dan,Moe,1990-01-01,dan@example.com,2222222222,weak,city=Oslo");
+
+        String content = Files.readString(dir.resolve("rejects.csv"));
+        for (String secret : List.of("Other123!", "weak", "pet=", "city=", "dog", "Oslo")) {
+            assertFalse(content.contains(secret), content);
+        }
+    }
+}
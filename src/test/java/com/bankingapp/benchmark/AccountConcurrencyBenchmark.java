@@ -0,0 +1,163 @@
+package com.bankingapp.benchmark;
+
+import com.bankingapp.audit.AuditLog;
+import com.bankingapp.events.Outbox;
+import com.bankingapp.ledger.BalanceCache;
+import com.bankingapp.ledger.Journal;
+import com.bankingapp.model.Account;
+import com.bankingapp.repository.OutboxEventRepository;
+import com.bankingapp.repository.TransactionRepository;
+import com.bankingapp.service.AccountConcurrency;
+import com.bankingapp.service.TransactionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.OptimisticLockException;
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transfers between random pairs of accounts from 8 threads, per
+ * concurrency mode, through {@link TransactionService#transfer}: the row lock
+ * or version check, the reservation in the {@link BalanceCache}, the journal
+ * lines, the transaction row and the outbox event. With {@code accounts=4}
+ * nearly every transfer collides with another one (high contention); with
+ * {@code accounts=10000} collisions are rare (low contention). {@code exhausted}
+ * counts optimistic transfers that gave up after all retries; they are failed
+ * requests, not throughput.
+ *
+ * H2 in MySQL mode with the Flyway schema; InnoDB row locks queue the same
+ * way, so the crossover between the modes carries over, the absolute numbers
+ * do not. Audit records go to a temporary directory with fsync on, as in
+ * production.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Threads(8)
+@Fork(1)
+public class AccountConcurrencyBenchmark {
+    private static final BigDecimal AMOUNT = BigDecimal.ONE;
+    private static final Currency EUR = Currency.getInstance("EUR");
+
+    @Param({"OPTIMISTIC", "PESSIMISTIC"})
+    private AccountConcurrency.Mode mode;
+
+    @Param({"4", "10000"})
+    private int accounts;
+
+    private JdbcTemplate jdbc;
+    private EntityManagerFactory emf;
+    private AuditLog audit;
+    private BalanceCache balances;
+    private TransactionService transactions;
+    private Account[] refs;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long exhausted;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:concurrency-" + mode + "-" + accounts +
+                ";MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=30000");
+        Flyway.configure().dataSource(dataSource).locations("classpath:db/migration").load().migrate();
+
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.update("INSERT INTO users (id, name, surname, date_of_birth, email, phone) " +
+                "VALUES (1, 'Bench', 'Mark', DATE '1990-01-01', 'bench@example.com', '0')");
+        List<Object[]> rows = new ArrayList<>(accounts);
+        for (int id = 1; id <= accounts; id++) {
+            rows.add(new Object[]{id, "ACC-" + id});
+        }
+        jdbc.batchUpdate("INSERT INTO accounts (id, account_number, currency, balance, owner_id) " +
+                "VALUES (?, ?, 'EUR', 1000000000, 1)", rows);
+        // Opening lines, so the cache rebuilt from the journal starts at the balances above
+        jdbc.update("INSERT INTO journal_lines (transaction_id, posted_at, book, book_id, amount, currency) " +
+                "SELECT 'opening-balance', CURRENT_TIMESTAMP, 'ACCOUNT', id, balance, currency FROM accounts");
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.bankingapp.model");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        // Boot's naming: accountNumber maps to account_number
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.cache.use_second_level_cache", "false",
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName()));
+        factory.afterPropertiesSet();
+        emf = factory.getObject();
+
+        // The transfer only reads the ids off these; the rows are re-read under the configured mode
+        refs = new Account[accounts + 1];
+        EntityManager loader = emf.createEntityManager();
+        for (Account account : loader.createQuery("SELECT a FROM Account a", Account.class).getResultList()) {
+            refs[Math.toIntExact(account.getId())] = account;
+        }
+        loader.close();
+
+        // Shares the DataSource, so the journal and the cache write in the JPA transaction
+        JpaTransactionManager transactionManager = new JpaTransactionManager(emf);
+        EntityManager em = SharedEntityManagerCreator.createSharedEntityManager(emf);
+        JpaRepositoryFactory repositories = new JpaRepositoryFactory(em);
+        audit = new AuditLog(new SimpleMeterRegistry(), Files.createTempDirectory("concurrency-audit"),
+                65536, 64L << 20, true, 200);
+        balances = new BalanceCache(jdbc, transactionManager, audit, new SimpleMeterRegistry(), 500, 1000, 10_000);
+        AccountConcurrency concurrency = new AccountConcurrency(em, transactionManager,
+                new SimpleMeterRegistry(), mode, 5, 2);
+        // Routing, archive, admission and fraud scoring are not on the transfer path
+        transactions = new TransactionService(repositories.getRepository(TransactionRepository.class), null, null,
+                new Outbox(repositories.getRepository(OutboxEventRepository.class), new ObjectMapper().findAndRegisterModules()),
+                concurrency, new Journal(jdbc), balances, null, null, 500);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        balances.shutdown();
+        emf.close();
+        jdbc.execute("SHUTDOWN");
+        audit.shutdown();
+        FileSystemUtils.deleteRecursively(audit.directory());
+    }
+
+    @Benchmark
+    public void transfer(Outcomes outcomes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = 1 + random.nextInt(accounts);
+        int to = 1 + random.nextInt(accounts - 1);
+        if (to >= from) {
+            to++;
+        }
+
+        try {
+            transactions.transfer(refs[from], refs[to], EUR, AMOUNT, "bench");
+        } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+            outcomes.exhausted++;
+        }
+    }
+}
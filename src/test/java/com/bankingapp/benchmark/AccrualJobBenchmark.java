@@ -0,0 +1,110 @@
+package com.bankingapp.benchmark;
+
+import com.bankingapp.audit.AuditLog;
+import com.bankingapp.batch.AccrualJob;
+import com.bankingapp.ledger.BalanceCache;
+import com.bankingapp.ledger.Journal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full accrual run over synthetic accounts in an in-memory H2 database, per
+ * chunk size. Each invocation is a new run, so every account gets interest
+ * and (below the waiver) a fee.
+ *
+ * The default account count keeps the benchmark short; the target figure is
+ * measured with {@code -p accounts=10000000}, which needs a few GB of heap.
+ * Against MySQL the numbers are lower but chunk size behaves the same way.
+ * Audit records go to a temporary directory with fsync on, as in production;
+ * balances are written behind by the {@link BalanceCache}, whose last flush is
+ * not measured.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class AccrualJobBenchmark {
+    @Param({"200000"})
+    private int accounts;
+
+    @Param({"500", "2000", "10000"})
+    private int chunkSize;
+
+    private JdbcTemplate jdbc;
+    private AuditLog audit;
+    private BalanceCache balances;
+    private AccrualJob job;
+    private int run;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:accrual" + chunkSize + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbc = new JdbcTemplate(dataSource);
+
+        jdbc.execute("CREATE TABLE accounts (id BIGINT PRIMARY KEY, name VARCHAR(255), " +
+                "currency VARCHAR(3) NOT NULL, balance DECIMAL(19, 2) NOT NULL, version BIGINT NOT NULL DEFAULT 0)");
+        jdbc.execute("CREATE TABLE transactions (id VARCHAR(36) PRIMARY KEY, timestamp TIMESTAMP NOT NULL, " +
+                "amount DECIMAL(19, 2) NOT NULL, type VARCHAR(16), state VARCHAR(16), sender_id BIGINT NOT NULL, " +
+                "currency VARCHAR(3), note VARCHAR(255))");
+        jdbc.execute("CREATE INDEX idx_transactions_sender ON transactions (sender_id)");
+        jdbc.execute("CREATE TABLE journal_lines (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "transaction_id VARCHAR(36) NOT NULL, posted_at TIMESTAMP NOT NULL, book VARCHAR(16) NOT NULL, " +
+                "book_id BIGINT NOT NULL, amount DECIMAL(19, 2) NOT NULL, currency VARCHAR(3) NOT NULL)");
+        jdbc.execute("CREATE INDEX idx_journal_lines_book ON journal_lines (book, book_id)");
+        jdbc.execute("CREATE TABLE accrual_runs (run_id VARCHAR(32) PRIMARY KEY, posted_at TIMESTAMP NOT NULL, " +
+                "last_account_id BIGINT NOT NULL, completed BOOLEAN NOT NULL)");
+        jdbc.execute("CREATE TABLE balance_owner (id INT PRIMARY KEY, owner VARCHAR(64) NOT NULL, " +
+                "expires_at TIMESTAMP(6) NOT NULL)");
+        jdbc.update("INSERT INTO balance_owner (id, owner, expires_at) VALUES (1, '', '1970-01-01 00:00:00')");
+
+        List<Object[]> rows = new ArrayList<>(10_000);
+        for (int id = 1; id <= accounts; id++) {
+            rows.add(new Object[]{id, id % 5 == 0 ? "USD" : "EUR", BigDecimal.valueOf(id % 5000, 0)});
+            if (rows.size() == 10_000) {
+                jdbc.batchUpdate("INSERT INTO accounts (id, currency, balance) VALUES (?, ?, ?)", rows);
+                rows.clear();
+            }
+        }
+        if (!rows.isEmpty()) {
+            jdbc.batchUpdate("INSERT INTO accounts (id, currency, balance) VALUES (?, ?, ?)", rows);
+        }
+        // Opening lines, so the cache rebuilt from the journal starts at the balances above
+        jdbc.update("INSERT INTO journal_lines (transaction_id, posted_at, book, book_id, amount, currency) " +
+                "SELECT 'opening-balance', CURRENT_TIMESTAMP, 'ACCOUNT', id, balance, currency FROM accounts");
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        audit = new AuditLog(new SimpleMeterRegistry(), Files.createTempDirectory("accrual-audit"),
+                65536, 64L << 20, true, 200);
+        balances = new BalanceCache(jdbc, transactionManager, audit, new SimpleMeterRegistry(), 500, 1000, 10_000);
+        job = new AccrualJob(jdbc, new TransactionTemplate(transactionManager), new Journal(jdbc), balances,
+                new BigDecimal("0.02"), new BigDecimal("2.50"), new BigDecimal("1000"), chunkSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        balances.shutdown();
+        jdbc.execute("SHUTDOWN");
+        audit.shutdown();
+        FileSystemUtils.deleteRecursively(audit.directory());
+    }
+
+    @Benchmark
+    public AccrualJob.AccrualResult fullRun() {
+        return job.run("bench-" + run++, 30);
+    }
+}
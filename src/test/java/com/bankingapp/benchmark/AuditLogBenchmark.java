@@ -0,0 +1,54 @@
+package com.bankingapp.benchmark;
+
+import com.bankingapp.audit.AuditLog;
+import com.bankingapp.audit.AuditType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Audit appends from 8 threads, with and without an fsync per written
+ * batch. Throughput is bounded by the writer thread once the buffer fills,
+ * so this measures what the disk sustains, not just the cost of a buffered
+ * append.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(8)
+@Fork(1)
+public class AuditLogBenchmark {
+    private static final BigDecimal BEFORE = new BigDecimal("1250.00");
+    private static final BigDecimal AFTER = new BigDecimal("1225.50");
+
+    @Param({"true", "false"})
+    private boolean sync;
+
+    private AuditLog log;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        log = new AuditLog(new SimpleMeterRegistry(), Files.createTempDirectory("audit-bench"),
+                65536, 64L << 20, sync, 200);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        log.shutdown();
+        FileSystemUtils.deleteRecursively(log.directory());
+    }
+
+    @Benchmark
+    public long append() {
+        long account = ThreadLocalRandom.current().nextLong(1, 100_000);
+        return log.append(AuditType.ACCOUNT_BALANCE, account, account, BEFORE, AFTER);
+    }
+}
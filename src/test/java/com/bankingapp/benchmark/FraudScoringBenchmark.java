@@ -0,0 +1,69 @@
+package com.bankingapp.benchmark;
+
+import com.bankingapp.fraud.FraudDecision;
+import com.bankingapp.fraud.FraudScoringStage;
+import com.bankingapp.fraud.PaymentAttempt;
+import com.bankingapp.fraud.VelocityLimitRule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of scoring one payment against warm aggregates, with the default
+ * limits, checked against the 50µs p99 budget of {@code bankingapp.fraud.budget-us}.
+ * Sampled, so the percentiles are reported; cards pay a few hundred merchants.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FraudScoringBenchmark {
+    private static final int CARDS = 100_000;
+    private static final int MERCHANTS = 500;
+    private static final Currency USD = Currency.getInstance("USD");
+
+    private FraudScoringStage stage;
+
+    @Setup
+    public void setUp() {
+        VelocityLimitRule rule = new VelocityLimitRule(5, 500_000, 8, 1_000_000, 10_000, 50);
+        stage = new FraudScoringStage(List.of(rule), new SimpleMeterRegistry(), 50, 100, 2_000, 1_000_000, 50);
+        long now = System.currentTimeMillis();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < CARDS * 4; i++) {
+            long card = i % CARDS;
+            stage.record(new PaymentAttempt(card, card, (long) random.nextInt(MERCHANTS), USD,
+                    random.nextInt(100, 10_000), now - random.nextLong(3_600_000)));
+        }
+    }
+
+    private static PaymentAttempt attempt() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long card = random.nextInt(CARDS);
+        return new PaymentAttempt(card, card, (long) random.nextInt(MERCHANTS), USD,
+                random.nextInt(100, 10_000), System.currentTimeMillis());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public FraudDecision score() {
+        return stage.score(attempt());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public FraudDecision scoreAndRecord() {
+        PaymentAttempt attempt = attempt();
+        FraudDecision decision = stage.score(attempt);
+        if (decision == FraudDecision.APPROVE) {
+            stage.record(attempt);
+        }
+        return decision;
+    }
+}
@@ -0,0 +1,68 @@
+package com.bankingapp.benchmark;
+
+import com.bankingapp.service.PasswordHashingService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login burst throughput: a burst of verifications is submitted at once and
+ * the benchmark waits for all of them, per cost factor. The primary score is
+ * bursts per second; {@code loginBurst:verifications} is verifications per
+ * second, whatever the burst size.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PasswordHashingBenchmark {
+    private static final String PASSWORD = "Password123!";
+
+    @Param({"10", "12"})
+    private int strength;
+
+    @Param({"64"})
+    private int burst;
+
+    private PasswordHashingService service;
+    private String hash;
+
+    /**
+     * Counts the verifications of each burst, so throughput is normalized by
+     * the {@code burst} parameter rather than a constant.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Verifications {
+        public long verifications;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            verifications = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        service = new PasswordHashingService(strength, 0, burst);
+        hash = service.hash(PASSWORD.toCharArray()).join();
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public void loginBurst(Verifications counter) {
+        CompletableFuture<?>[] logins = new CompletableFuture<?>[burst];
+        for (int i = 0; i < burst; i++) {
+            logins[i] = service.verify(PASSWORD.toCharArray(), hash);
+        }
+        CompletableFuture.allOf(logins).join();
+        counter.verifications += burst;
+    }
+}
@@ -0,0 +1,55 @@
+package com.bankingapp.benchmark;
+
+import com.bankingapp.ratelimit.RateLimitTier;
+import com.bankingapp.ratelimit.RateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one rate limit decision for an existing client, uncontended (many
+ * clients) and with every thread hitting the same bucket.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimiterBenchmark {
+    private static final int CLIENTS = 100_000;
+
+    private RateLimiter limiter;
+    private RateLimitTier tier;
+    private String[] keys;
+
+    @Setup
+    public void setUp() {
+        tier = new RateLimitTier("bench", 1e9, 1_000_000);
+        limiter = new RateLimiter(Map.of("bench", tier), 16, System::nanoTime);
+        keys = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            keys[i] = "u:" + i;
+            limiter.acquire(keys[i], tier);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        limiter.shutdown();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long manyClients() {
+        return limiter.acquire(keys[ThreadLocalRandom.current().nextInt(CLIENTS)], tier);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long sameClient() {
+        return limiter.acquire(keys[0], tier);
+    }
+}
@@ -0,0 +1,151 @@
+package com.bankingapp.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time from launching a fresh JVM to the first successful response, per
+ * start-up variant:
+ *
+ * <ul>
+ *   <li>{@code jar}: the plain fat jar, as deployed today.</li>
+ *   <li>{@code lazy}: the same jar with {@code spring.main.lazy-initialization=true}.</li>
+ *   <li>{@code aot-cds}: the extracted jar with the AOT initializers and the
+ *   CDS archive from {@code -P fast-startup}.</li>
+ * </ul>
+ *
+ * {@code ping} waits for {@code /main-ping}; {@code transfer} then posts one
+ * transfer, which is the first call to touch Hibernate and the database.
+ *
+ * Needs {@code mvn -P fast-startup package} first and the database the
+ * application normally uses (DB_URL, .env) with two accounts to move money
+ * between ({@code -Dstartup.sender}, {@code -Dstartup.receiver}, 1 and 2 by
+ * default). Run from the project directory.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+    private static final String JAR = "target/BankingApp-1.0-SNAPSHOT.jar";
+    private static final String EXTRACTED_JAR = "target/app/BankingApp-1.0-SNAPSHOT.jar";
+    private static final String CDS_ARCHIVE = "target/app/application.jsa";
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    @Param({"jar", "lazy", "aot-cds"})
+    private String variant;
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private Process app;
+    private int port;
+
+    @Setup(Level.Trial)
+    public void checkBuild() {
+        String required = variant.equals("aot-cds") ? CDS_ARCHIVE : JAR;
+        if (!new File(required).isFile()) {
+            throw new IllegalStateException(required + " is missing, run mvn -P fast-startup package first.");
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (app != null) {
+            app.destroy();
+            if (!app.waitFor(30, TimeUnit.SECONDS)) {
+                app.destroyForcibly().waitFor();
+            }
+            app = null;
+        }
+    }
+
+    @Benchmark
+    public int ping() throws Exception {
+        launch();
+        return awaitPing();
+    }
+
+    @Benchmark
+    public int transfer() throws Exception {
+        launch();
+        awaitPing();
+
+        String body = "{\"senderId\":" + Long.getLong("startup.sender", 1) +
+                ",\"receiverId\":" + Long.getLong("startup.receiver", 2) + ",\"amount\":0.01,\"note\":\"startup\"}";
+        HttpResponse<Void> response = http.send(HttpRequest.newBuilder(uri("/api/transactions/transfer"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Transfer failed with status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    private void launch() throws IOException {
+        port = freePort();
+
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + "/bin/java");
+        if (variant.equals("aot-cds")) {
+            command.add("-XX:SharedArchiveFile=" + CDS_ARCHIVE);
+            command.add("-Dspring.aot.enabled=true");
+        }
+        command.add("-jar");
+        command.add(variant.equals("aot-cds") ? EXTRACTED_JAR : JAR);
+        command.add("--server.port=" + port);
+        command.add("--spring.jpa.show-sql=false");
+        if (variant.equals("lazy")) {
+            command.add("--spring.main.lazy-initialization=true");
+        }
+
+        app = new ProcessBuilder(command)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.DISCARD)
+                .start();
+    }
+
+    private int awaitPing() throws Exception {
+        long deadline = System.nanoTime() + START_TIMEOUT.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(uri("/main-ping")).build();
+        while (System.nanoTime() < deadline) {
+            if (!app.isAlive()) {
+                throw new IllegalStateException("Application exited with " + app.exitValue());
+            }
+            try {
+                HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == 200) {
+                    return response.statusCode();
+                }
+            } catch (ConnectException e) {
+                // not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("Application did not answer within " + START_TIMEOUT);
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.bankingapp.benchmark;
+
+import com.bankingapp.dto.TransactionResponse;
+import com.bankingapp.dto.TransactionRow;
+import com.bankingapp.model.TransactionState;
+import com.bankingapp.model.TransactionType;
+import com.bankingapp.util.TransactionJsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the old list path (build a {@code List<TransactionResponse>} with a
+ * per-row formatter, then serialize it) against {@link TransactionJsonWriter}.
+ * Run with {@code -prof gc} to see the allocation per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionSerializationBenchmark {
+    @Param({"1000", "100000"})
+    private int rows;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final OutputStream sink = OutputStream.nullOutputStream();
+    private List<TransactionRow> data;
+
+    @Setup
+    public void setUp() {
+        Currency usd = Currency.getInstance("USD");
+        LocalDateTime now = LocalDateTime.now();
+        data = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            data.add(new TransactionRow("tx-" + i, now.minusMinutes(i), TransactionState.SUCCESS,
+                    TransactionType.TRANSFER, usd, BigDecimal.valueOf(1000 + i, 2), i % 3 == 0 ? "rent" : null));
+        }
+    }
+
+    @Benchmark
+    public void listThenSerialize() throws IOException {
+        List<TransactionResponse> responses = new ArrayList<>();
+        for (TransactionRow row : data) {
+            responses.add(new TransactionResponse(
+                    row.id(),
+                    row.timestamp().format(DateTimeFormatter.ofPattern("dd/MM/yyyy @ HH:mm:ss")) + " CEST",
+                    row.state().toString(),
+                    row.type().toString(),
+                    row.currency().getCurrencyCode(),
+                    row.amount().stripTrailingZeros(),
+                    row.note()));
+        }
+        mapper.writeValue(sink, responses);
+    }
+
+    @Benchmark
+    public void streamingWriter() throws IOException {
+        try (TransactionJsonWriter writer = new TransactionJsonWriter(mapper.getFactory(), sink)) {
+            for (TransactionRow row : data) {
+                writer.write(row);
+            }
+        }
+    }
+}